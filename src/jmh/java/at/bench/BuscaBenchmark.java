@@ -0,0 +1,130 @@
+package at.bench;
+
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+import at.repository.InMemoryTarefaRepository;
+import at.repository.Tokenizador;
+import at.repository.TarefaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Latência da busca textual (GET /tarefas/search) sobre 1M tarefas, comparada com
+// a varredura que os clientes faziam antes (baixar tudo e procurar o termo).
+//
+// O corpus usa um vocabulário de 20 mil palavras com frequências de Zipf, como em
+// texto real: poucas palavras muito comuns e uma cauda longa de palavras raras.
+// As primeiras do vocabulário são palavras comuns em tarefas, com acentos.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BuscaBenchmark {
+
+    private static final String[] COMUNS = {
+            "relatório", "reunião", "comprar", "enviar", "revisar", "ligar", "pagar", "atualizar",
+            "cliente", "projeto", "código", "documentação", "orçamento", "equipe", "servidor", "agenda"};
+    private static final String[] SILABAS = {
+            "ba", "ce", "di", "fo", "gu", "la", "me", "ni", "po", "ru", "sa", "te", "vi", "xo", "ção", "mar"};
+    private static final int VOCABULARIO = 20_000;
+
+    @Param({"1000000"})
+    public int tamanho;
+
+    private TarefaRepository repositorio;
+    private String termoComum;
+    private String termoMedio;
+    private String termoRaro;
+
+    @Setup
+    public void setup() {
+        String[] palavras = vocabulario();
+        // Consultas na forma indexada (sem acentos)
+        termoComum = Tokenizador.termos(palavras[0]).get(0);
+        termoMedio = Tokenizador.termos(palavras[200]).get(0);
+        termoRaro = Tokenizador.termos(palavras[15_000]).get(0);
+
+        // Distribuição acumulada de Zipf (s = 1)
+        double[] acumulada = new double[palavras.length];
+        double soma = 0;
+        for (int i = 0; i < palavras.length; i++) {
+            soma += 1.0 / (i + 1);
+            acumulada[i] = soma;
+        }
+        Random aleatorio = new Random(42);
+        repositorio = new InMemoryTarefaRepository();
+        List<Tarefa> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < tamanho; i++) {
+            lote.add(new Tarefa(frase(palavras, acumulada, aleatorio, 2 + aleatorio.nextInt(3)),
+                    frase(palavras, acumulada, aleatorio, 5 + aleatorio.nextInt(8))));
+            if (lote.size() == 10_000) {
+                repositorio.saveAll(lote);
+                lote = new ArrayList<>(10_000);
+            }
+        }
+        repositorio.saveAll(lote);
+    }
+
+    // Pior caso: ~65% das tarefas contêm o termo, e todas são pontuadas
+    @Benchmark
+    public PaginaBusca termoComum() {
+        return repositorio.search(termoComum, Double.POSITIVE_INFINITY, 0, 20);
+    }
+
+    @Benchmark
+    public PaginaBusca termoRaro() {
+        return repositorio.search(termoRaro, Double.POSITIVE_INFINITY, 0, 20);
+    }
+
+    // Intersecção guiada pelo termo menos frequente (~0,5% das tarefas)
+    @Benchmark
+    public PaginaBusca doisTermos() {
+        return repositorio.search(termoComum + " " + termoMedio, Double.POSITIVE_INFINITY, 0, 20);
+    }
+
+    // Linha de base: percorrer todas as tarefas procurando o termo raro
+    @Benchmark
+    public List<Tarefa> varreduraTermoRaro() {
+        List<Tarefa> encontradas = new ArrayList<>();
+        for (Tarefa tarefa : repositorio.iterateAfter(0)) {
+            if (Tokenizador.termos(tarefa.getTitulo()).contains(termoRaro)
+                    || Tokenizador.termos(tarefa.getDescricao()).contains(termoRaro)) {
+                encontradas.add(tarefa);
+            }
+        }
+        return encontradas;
+    }
+
+    private static String[] vocabulario() {
+        String[] palavras = Arrays.copyOf(COMUNS, VOCABULARIO);
+        Random aleatorio = new Random(7);
+        for (int i = COMUNS.length; i < VOCABULARIO; i++) {
+            StringBuilder palavra = new StringBuilder();
+            int silabas = 2 + aleatorio.nextInt(3);
+            for (int s = 0; s < silabas; s++) {
+                palavra.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            }
+            palavras[i] = palavra.append(i).toString();
+        }
+        return palavras;
+    }
+
+    private static String frase(String[] palavras, double[] acumulada, Random aleatorio, int tamanho) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble() * acumulada[acumulada.length - 1]);
+            frase.append(i == 0 ? "" : " ").append(palavras[posicao < 0 ? -posicao - 1 : posicao]);
+        }
+        return frase.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package at.bench;
+
+import at.api.Main;
+import at.models.Tarefa;
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// CPU gasta para serializar e comprimir a resposta de GET /tarefas, por tamanho da
+// lista e codificação (como o Javalin faz: o JSON é escrito direto no compressor).
+// O tamanho comprimido de cada combinação é impresso no início da medição: com ele,
+// o tempo de transferência em um link de B bytes/s é tamanho / B, a comparar com a
+// CPU extra medida aqui.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompressaoBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int tarefas;
+
+    @Param({"nenhuma", "gzip1", "gzip6", "brotli1", "brotli4"})
+    public String codificacao;
+
+    private ObjectMapper objectMapper;
+    private List<Tarefa> lista;
+
+    @Setup
+    public void setup() throws IOException {
+        if (codificacao.startsWith("brotli")) {
+            Brotli4jLoader.ensureAvailability();
+        }
+        objectMapper = Main.criarObjectMapper();
+        lista = new ArrayList<>(tarefas);
+        for (int i = 1; i <= tarefas; i++) {
+            Tarefa tarefa = new Tarefa("Tarefa " + i + ": revisar relatório", "Revisar o relatório do projeto " + (i % 97)
+                    + " e enviar ao cliente " + (i % 13) + " até sexta-feira");
+            tarefa.setId(i);
+            tarefa.setVersao(1 + i % 3);
+            tarefa.setConcluida(i % 4 == 0);
+            tarefa.setCriadaEm(1_750_000_000_000L + i * 60_000L);
+            lista.add(tarefa);
+        }
+        Contador original = new Contador();
+        objectMapper.writeValue(original, lista);
+        long comprimido = serializar();
+        System.out.printf("%n%d tarefas, %s: %d bytes (JSON: %d bytes, %.1f%%)%n",
+                tarefas, codificacao, comprimido, original.bytes, 100.0 * comprimido / original.bytes);
+    }
+
+    // Retorna o tamanho da resposta enviada
+    @Benchmark
+    public long serializar() throws IOException {
+        Contador saida = new Contador();
+        try (OutputStream corpo = compressor(saida)) {
+            objectMapper.writeValue(corpo, lista);
+        }
+        return saida.bytes;
+    }
+
+    private OutputStream compressor(OutputStream saida) throws IOException {
+        return switch (codificacao) {
+            case "nenhuma" -> saida;
+            case "gzip1" -> new GzipNivel(saida, Deflater.BEST_SPEED);
+            case "gzip6" -> new GzipNivel(saida, Deflater.DEFAULT_COMPRESSION);
+            case "brotli1" -> new BrotliOutputStream(saida, new Encoder.Parameters().setQuality(1));
+            case "brotli4" -> new BrotliOutputStream(saida, new Encoder.Parameters().setQuality(4));
+            default -> throw new IllegalArgumentException(codificacao);
+        };
+    }
+
+    // GZIPOutputStream com nível configurável, como o GzipCompressor do Javalin
+    private static final class GzipNivel extends GZIPOutputStream {
+        GzipNivel(OutputStream saida, int nivel) throws IOException {
+            super(saida, true);
+            def.setLevel(nivel);
+        }
+    }
+
+    // Descarta os bytes, contando-os
+    private static final class Contador extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int inicio, int tamanho) {
+            bytes += tamanho;
+        }
+    }
+}
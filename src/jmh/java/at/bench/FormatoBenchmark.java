@@ -0,0 +1,75 @@
+package at.bench;
+
+import at.api.Main;
+import at.models.Tarefa;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Codificação e decodificação de listas de tarefas em JSON, Smile e CBOR, com o mapper
+// da API (Blackbird) e as cópias binárias usadas na negociação de formato. O tamanho do
+// corpo de cada combinação é impresso no início da medição.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatoBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int tarefas;
+
+    @Param({"json", "smile", "cbor"})
+    public String formato;
+
+    private ObjectMapper objectMapper;
+    private JavaType tipoLista;
+    private List<Tarefa> lista;
+    private byte[] corpo;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper json = Main.criarObjectMapper();
+        objectMapper = switch (formato) {
+            case "json" -> json;
+            case "smile" -> json.copyWith(new SmileFactory());
+            case "cbor" -> json.copyWith(new CBORFactory());
+            default -> throw new IllegalArgumentException(formato);
+        };
+        tipoLista = objectMapper.getTypeFactory().constructCollectionType(List.class, Tarefa.class);
+        lista = new ArrayList<>(tarefas);
+        for (int i = 1; i <= tarefas; i++) {
+            Tarefa tarefa = new Tarefa("Tarefa " + i + ": revisar relatório", "Revisar o relatório do projeto " + (i % 97)
+                    + " e enviar ao cliente " + (i % 13) + " até sexta-feira");
+            tarefa.setId(i);
+            tarefa.setVersao(1 + i % 3);
+            tarefa.setConcluida(i % 4 == 0);
+            tarefa.setCriadaEm(1_750_000_000_000L + i * 60_000L);
+            lista.add(tarefa);
+        }
+        corpo = objectMapper.writeValueAsBytes(lista);
+        System.out.printf("%n%d tarefas, %s: %d bytes%n", tarefas, formato, corpo.length);
+    }
+
+    @Benchmark
+    public byte[] codificar() throws IOException {
+        return objectMapper.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public List<Tarefa> decodificar() throws IOException {
+        return objectMapper.readValue(corpo, tipoLista);
+    }
+}
@@ -0,0 +1,94 @@
+package at.bench;
+
+import at.api.Main;
+import at.models.Tarefa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Vazão ponta a ponta dos handlers de Main.buildApp(), no mesmo processo,
+// via HTTP no loopback com conexões keep-alive
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class HandlerBenchmark {
+
+    private static final int TAREFAS_INICIAIS = 10_000;
+
+    private Javalin app;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private byte[] novaTarefaJson;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        app = Main.buildApp().start(0);
+        baseUrl = "http://localhost:" + app.port();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Tarefa> lote = new ArrayList<>(TAREFAS_INICIAIS);
+        for (int i = 0; i < TAREFAS_INICIAIS; i++) {
+            lote.add(new Tarefa("Tarefa " + i, "Descrição " + i));
+        }
+        HttpResponse<Void> resposta = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/tarefas/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(lote)))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (resposta.statusCode() != 201) {
+            throw new IllegalStateException("Falha ao popular as tarefas: HTTP " + resposta.statusCode());
+        }
+        novaTarefaJson = objectMapper.writeValueAsBytes(new Tarefa("Benchmark", "Criada pelo HandlerBenchmark"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.stop();
+    }
+
+    @Benchmark
+    public byte[] getTarefaPorId() throws IOException, InterruptedException {
+        int id = ThreadLocalRandom.current().nextInt(1, TAREFAS_INICIAIS + 1);
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/tarefas/" + id)).GET().build(), 200);
+    }
+
+    @Benchmark
+    public byte[] postTarefa() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/tarefas"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(novaTarefaJson))
+                .build(), 201);
+    }
+
+    @Benchmark
+    public byte[] getStatus() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/status")).GET().build(), 200);
+    }
+
+    private byte[] enviar(HttpRequest requisicao, int statusEsperado) throws IOException, InterruptedException {
+        HttpResponse<byte[]> resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+        if (resposta.statusCode() != statusEsperado) {
+            throw new IllegalStateException("HTTP " + resposta.statusCode() + " em " + requisicao.uri());
+        }
+        return resposta.body();
+    }
+}
@@ -0,0 +1,91 @@
+package at.bench;
+
+import at.api.Main;
+import at.models.StatusResponse;
+import at.models.Tarefa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.json.JavalinJackson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Custo do Jackson para os modelos da API: o mapper padrão do Javalin e o da API
+// (Main.criarObjectMapper, com Blackbird). Rode com -prof gc para ver bytes/op.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonBenchmark {
+
+    @Param({"padrao", "blackbird"})
+    public String mapper;
+
+    private ObjectMapper objectMapper;
+    private byte[] novaTarefaJson;
+    private Tarefa tarefa;
+    private byte[] tarefaJson;
+    private StatusResponse status;
+    private byte[] statusJson;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = mapper.equals("blackbird") ? Main.criarObjectMapper() : JavalinJackson.defaultMapper();
+        novaTarefaJson = "{\"titulo\":\"Preparar apresentação\",\"descricao\":\"Criar slides\"}".getBytes(StandardCharsets.UTF_8);
+        tarefa = new Tarefa("Preparar apresentação", "Criar slides e revisar conteúdo para a reunião de amanhã");
+        tarefa.setId(42);
+        tarefaJson = objectMapper.writeValueAsBytes(tarefa);
+        status = new StatusResponse();
+        statusJson = objectMapper.writeValueAsBytes(status);
+    }
+
+    @Benchmark
+    public byte[] serializarTarefa() throws IOException {
+        return objectMapper.writeValueAsBytes(tarefa);
+    }
+
+    @Benchmark
+    public Tarefa desserializarTarefa() throws IOException {
+        return objectMapper.readValue(tarefaJson, Tarefa.class);
+    }
+
+    // Como em POST /tarefas: o corpo não traz dataCriacao
+    @Benchmark
+    public Tarefa desserializarNovaTarefa() throws IOException {
+        return objectMapper.readValue(novaTarefaJson, Tarefa.class);
+    }
+
+    @Benchmark
+    public Tarefa roundTripTarefa() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(tarefa), Tarefa.class);
+    }
+
+    @Benchmark
+    public byte[] serializarStatus() throws IOException {
+        return objectMapper.writeValueAsBytes(status);
+    }
+
+    @Benchmark
+    public StatusResponse roundTripStatus() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(status), StatusResponse.class);
+    }
+
+    // Como em GET /status: cria a resposta e serializa
+    @Benchmark
+    public byte[] criarESerializarStatus() throws IOException {
+        return objectMapper.writeValueAsBytes(new StatusResponse());
+    }
+
+    // Para comparar: desserializa o status já serializado
+    @Benchmark
+    public StatusResponse desserializarStatus() throws IOException {
+        return objectMapper.readValue(statusJson, StatusResponse.class);
+    }
+}
@@ -0,0 +1,114 @@
+package at.bench;
+
+import at.api.Main;
+import at.models.Tarefa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Threads de plataforma x threads virtuais sob alta concorrência em /tarefas.
+// SampleTime gera a distribuição de latência (p50..p99.99) e, pelo número de
+// amostras, a vazão. Com persistencia=por-escrita cada POST espera um fsync,
+// que é o caso em que o handler realmente bloqueia.
+//
+// Cada combinação de parâmetros roda em um fork próprio, então as propriedades
+// de sistema definidas no @Setup valem antes de a classe Main ser inicializada.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(256)
+public class ModoThreadsBenchmark {
+
+    private static final int TAREFAS_INICIAIS = 1_000;
+
+    @Param({"plataforma", "virtual"})
+    public String modo;
+
+    @Param({"memoria", "por-escrita"})
+    public String persistencia;
+
+    private Javalin app;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private byte[] novaTarefaJson;
+    private Path diretorio;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        System.setProperty("reat.servidor.threads", modo);
+        if (!persistencia.equals("memoria")) {
+            diretorio = Files.createTempDirectory("reat-bench-");
+            System.setProperty("reat.persistencia.dir", diretorio.toString());
+            System.setProperty("reat.persistencia.sync", persistencia);
+        }
+        app = Main.buildApp().start(0);
+        baseUrl = "http://localhost:" + app.port();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int i = 0; i < TAREFAS_INICIAIS; i++) {
+            enviarTarefa(objectMapper.writeValueAsBytes(new Tarefa("Tarefa " + i, "Descrição " + i)));
+        }
+        novaTarefaJson = objectMapper.writeValueAsBytes(new Tarefa("Benchmark", "Criada pelo ModoThreadsBenchmark"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        app.stop();
+        if (diretorio != null) {
+            try (var arquivos = Files.walk(diretorio)) {
+                arquivos.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] getTarefaPorId() throws IOException, InterruptedException {
+        int id = ThreadLocalRandom.current().nextInt(1, TAREFAS_INICIAIS + 1);
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/tarefas/" + id)).GET().build(), 200);
+    }
+
+    @Benchmark
+    public byte[] postTarefa() throws IOException, InterruptedException {
+        return enviarTarefa(novaTarefaJson);
+    }
+
+    private byte[] enviarTarefa(byte[] json) throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(baseUrl + "/tarefas"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build(), 201);
+    }
+
+    private byte[] enviar(HttpRequest requisicao, int statusEsperado) throws IOException, InterruptedException {
+        HttpResponse<byte[]> resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+        if (resposta.statusCode() != statusEsperado) {
+            throw new IllegalStateException("HTTP " + resposta.statusCode() + " em " + requisicao.uri());
+        }
+        return resposta.body();
+    }
+}
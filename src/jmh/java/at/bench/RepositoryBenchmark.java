@@ -0,0 +1,110 @@
+package at.bench;
+
+import at.models.Tarefa;
+import at.repository.FiltroTarefas;
+import at.repository.InMemoryTarefaRepository;
+import at.repository.TarefaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Inserção, busca por ID e consultas filtradas no repositório com 1k, 100k e 1M tarefas.
+// Nas consultas, 1% das tarefas está concluída e cada título é único ("Tarefa <i>").
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int tamanho;
+
+    private TarefaRepository repositorio;
+    // Armazenamento anterior ao TarefaRepository: lista sincronizada com busca linear
+    private List<Tarefa> listaSincronizada;
+    private final FiltroTarefas concluidas = FiltroTarefas.todas().comConcluida(true);
+    private final FiltroTarefas porTitulo = FiltroTarefas.todas().comTitulo("tarefa 77");
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        // Recriado a cada iteração para que as inserções não inflem o tamanho medido
+        repositorio = new InMemoryTarefaRepository();
+        listaSincronizada = Collections.synchronizedList(new ArrayList<>(tamanho));
+        for (int i = 0; i < tamanho; i++) {
+            Tarefa tarefa = repositorio.save(new Tarefa("Tarefa " + i, "Descrição " + i));
+            listaSincronizada.add(tarefa);
+            if (i % 100 == 0) {
+                repositorio.update(tarefa.getId(), TarefaRepository.QUALQUER_VERSAO, t -> t.setConcluida(true));
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Tarefa> buscarPorId() {
+        return repositorio.findById(ThreadLocalRandom.current().nextInt(1, tamanho + 1));
+    }
+
+    @Benchmark
+    public Tarefa inserir() {
+        return repositorio.save(new Tarefa("Nova tarefa", "Inserida pelo benchmark"));
+    }
+
+    // Linha de base: a busca original de GET /tarefas/{id}
+    @Benchmark
+    public Optional<Tarefa> buscarPorIdListaLinear() {
+        int id = ThreadLocalRandom.current().nextInt(1, tamanho + 1);
+        return listaSincronizada.stream()
+                .filter(t -> t.getId() == id)
+                .findFirst();
+    }
+
+    // Primeira página (100) das tarefas concluídas, pelo índice de bits
+    @Benchmark
+    public List<Tarefa> filtrarConcluidas() {
+        return primeiras(repositorio.query(concluidas, 0), 100);
+    }
+
+    // Linha de base: a mesma página percorrendo todas as tarefas
+    @Benchmark
+    public List<Tarefa> filtrarConcluidasVarredura() {
+        List<Tarefa> pagina = new ArrayList<>(100);
+        for (Tarefa tarefa : repositorio.iterateAfter(0)) {
+            if (pagina.size() == 100) {
+                break;
+            }
+            if (concluidas.aceita(tarefa)) {
+                pagina.add(tarefa);
+            }
+        }
+        return pagina;
+    }
+
+    // Trecho de título pelo índice de trigramas
+    @Benchmark
+    public List<Tarefa> filtrarPorTitulo() {
+        return primeiras(repositorio.query(porTitulo, 0), 100);
+    }
+
+    private static List<Tarefa> primeiras(Iterable<Tarefa> tarefas, int limite) {
+        List<Tarefa> resultado = new ArrayList<>(limite);
+        for (Tarefa tarefa : tarefas) {
+            if (resultado.size() == limite) {
+                break;
+            }
+            resultado.add(tarefa);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,161 @@
+package at.api;
+
+import io.javalin.config.JavalinConfig;
+import jakarta.servlet.DispatcherType;
+import org.eclipse.jetty.servlet.FilterHolder;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Controle de admissão (ver ControleAdmissao), lido das propriedades de sistema:
+//   reat.admissao.concorrencia    adaptativa | fixa | desligada (padrão: adaptativa)
+//   reat.admissao.limite          limite inicial (ou fixo) de requisições em andamento (padrão: 512)
+//   reat.admissao.limiteMin       piso do limite adaptativo (padrão: 16)
+//   reat.admissao.limiteMax       teto do limite adaptativo (padrão: 4096)
+//   reat.admissao.latenciaAlvoMs  acima dela o limite adaptativo diminui (padrão: 200)
+//   reat.admissao.taxa            requisições por segundo de cada cliente em cada rota; 0 = sem limite (padrão: 0)
+//   reat.admissao.rajada          requisições aceitas de uma vez acima da taxa (padrão: a taxa, no mínimo 1)
+//   reat.admissao.corpoMax        bytes de corpo por requisição (padrão: 1048576)
+//   reat.admissao.cliente         cabeçalho que identifica o cliente, ex: X-Api-Key (padrão: o IP)
+//   reat.admissao.clientesMax     baldes de clientes mantidos em memória (padrão: 100000)
+//
+// taxa, rajada e corpoMax também valem por rota, com o nome dela no meio:
+// -Dreat.admissao.echo.corpoMax=65536, -Dreat.admissao.tarefas.criar.taxa=50. Sem eles a
+// rota usa os globais, exceto echo, que aceita até 64 KiB, e tarefas.lote, até 64 MiB (o
+// lote é lido em streaming). reat.admissao.<rota>.concorrencia=false tira a rota do limite
+// global de concorrência; reat.admissao.<rota>.latencia=false mantém a rota no limite, mas
+// sem alimentar o ajuste adaptativo. É o padrão de echo e tarefas.lote (e das listagens
+// com ?stream=), cuja duração acompanha o tamanho do corpo, não a carga do servidor.
+public class AdmissaoConfig {
+
+    public enum Concorrencia {
+        ADAPTATIVA, FIXA, DESLIGADA
+    }
+
+    // Limites de uma rota
+    record LimitesRota(double taxa, int rajada, long corpoMax, boolean concorrencia, boolean latencia) {
+    }
+
+    private static final String PREFIXO = "reat.admissao.";
+    private static final Map<String, Long> CORPO_MAX_ROTAS = Map.of(
+            "echo", 64L << 10,
+            "tarefas.lote", 64L << 20);
+    private static final Set<String> SEM_LATENCIA_ROTAS = Set.of("echo", "tarefas.lote");
+
+    private final Map<String, String> propriedades;
+    private final Concorrencia concorrencia;
+    private final int limite;
+    private final int limiteMin;
+    private final int limiteMax;
+    private final long latenciaAlvoMs;
+    private final String cabecalhoCliente;
+    private final int clientesMax;
+
+    private AdmissaoConfig(Map<String, String> propriedades) {
+        this.propriedades = propriedades;
+        this.concorrencia = parseConcorrencia(propriedades.getOrDefault(PREFIXO + "concorrencia", "adaptativa"));
+        this.limite = inteiro("limite", 512);
+        this.limiteMin = inteiro("limiteMin", 16);
+        this.limiteMax = inteiro("limiteMax", 4096);
+        this.latenciaAlvoMs = inteiro("latenciaAlvoMs", 200);
+        String cabecalho = propriedades.getOrDefault(PREFIXO + "cliente", "").trim();
+        this.cabecalhoCliente = cabecalho.isEmpty() ? null : cabecalho;
+        this.clientesMax = inteiro("clientesMax", 100_000);
+        if (limite < 1 || latenciaAlvoMs <= 0 || clientesMax <= 0
+                || (concorrencia == Concorrencia.ADAPTATIVA && (limiteMin < 1 || limiteMin > limite || limiteMax < limite))) {
+            throw new IllegalArgumentException("Parâmetros de admissão inválidos.");
+        }
+        limites(null); // valida os globais já na inicialização
+    }
+
+    public static AdmissaoConfig fromSystemProperties() {
+        Map<String, String> propriedades = new HashMap<>();
+        for (String nome : System.getProperties().stringPropertyNames()) {
+            if (nome.startsWith(PREFIXO)) {
+                propriedades.put(nome, System.getProperty(nome));
+            }
+        }
+        return new AdmissaoConfig(propriedades);
+    }
+
+    public Concorrencia getConcorrencia() {
+        return concorrencia;
+    }
+
+    // Instala o filtro que limita os corpos lidos em streaming. O limite do Javalin para
+    // ctx.body() (1 MB por padrão) deixa de valer: cada rota confere o seu.
+    void aplicar(JavalinConfig config) {
+        config.http.maxRequestSize = Long.MAX_VALUE;
+        long padrao = limites(null).corpoMax();
+        config.jetty.contextHandlerConfig(contexto -> contexto.addFilter(
+                new FilterHolder(new CorpoLimitado(padrao)), "/*", EnumSet.of(DispatcherType.REQUEST)));
+    }
+
+    // Limites da rota com esse nome (null: os globais)
+    LimitesRota limites(String rota) {
+        double taxa = decimal(rota, "taxa", 0);
+        int rajada = (int) decimal(rota, "rajada", Math.max(1, Math.ceil(taxa)));
+        long corpoMax = (long) decimal(rota, "corpoMax", rota == null ? 1L << 20
+                : CORPO_MAX_ROTAS.getOrDefault(rota, limites(null).corpoMax()));
+        boolean conta = rota == null || Boolean.parseBoolean(propriedades.getOrDefault(PREFIXO + rota + ".concorrencia", "true").trim());
+        boolean latencia = rota == null || Boolean.parseBoolean(propriedades.getOrDefault(PREFIXO + rota + ".latencia",
+                Boolean.toString(!SEM_LATENCIA_ROTAS.contains(rota))).trim());
+        if (taxa < 0 || rajada < 1 || corpoMax < 0) {
+            throw new IllegalArgumentException("Limites de admissão inválidos" + (rota == null ? "." : " na rota " + rota + "."));
+        }
+        return new LimitesRota(taxa, rajada, corpoMax, conta, latencia);
+    }
+
+    // Limite de concorrência conforme o modo, ou null se desligado
+    LimiteConcorrencia criarLimiteConcorrencia() {
+        return switch (concorrencia) {
+            case ADAPTATIVA -> new LimiteConcorrencia(limite, limiteMin, limiteMax, latenciaAlvoMs * 1_000_000L, true);
+            case FIXA -> new LimiteConcorrencia(limite, limite, limite, latenciaAlvoMs * 1_000_000L, false);
+            case DESLIGADA -> null;
+        };
+    }
+
+    String getCabecalhoCliente() {
+        return cabecalhoCliente;
+    }
+
+    int getClientesMax() {
+        return clientesMax;
+    }
+
+    // Valor da rota, senão o global, senão o padrão
+    private String valor(String rota, String chave, String padrao) {
+        if (rota != null) {
+            String daRota = propriedades.get(PREFIXO + rota + "." + chave);
+            if (daRota != null) {
+                return daRota.trim();
+            }
+        }
+        String global = propriedades.get(PREFIXO + chave);
+        return global == null ? padrao : global.trim();
+    }
+
+    private double decimal(String rota, String chave, double padrao) {
+        String valor = valor(rota, chave, null);
+        try {
+            return valor == null ? padrao : Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + PREFIXO + chave + ": " + valor, e);
+        }
+    }
+
+    private int inteiro(String chave, int padrao) {
+        return (int) decimal(null, chave, padrao);
+    }
+
+    private static Concorrencia parseConcorrencia(String valor) {
+        try {
+            return Concorrencia.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de concorrência desconhecido: " + valor + " (use adaptativa, fixa ou desligada)", e);
+        }
+    }
+}
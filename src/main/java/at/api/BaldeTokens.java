@@ -0,0 +1,44 @@
+package at.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Balde de tokens de um cliente em uma rota, na formulação GCRA: em vez de contar os
+// tokens e repô-los com um timer, guarda só o instante em que o balde estará cheio de
+// novo. Cada requisição aceita empurra esse instante um intervalo (1 / taxa) à frente;
+// ela é recusada se isso o deixar mais de 'rajada' intervalos no futuro. Um único long
+// atualizado por CAS: nenhuma trava, nenhuma thread de reposição.
+final class BaldeTokens {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong cheioEm;
+
+    BaldeTokens(double taxaPorSegundo, int rajada, long agora) {
+        if (taxaPorSegundo <= 0 || rajada < 1) {
+            throw new IllegalArgumentException("Taxa e rajada devem ser positivas.");
+        }
+        this.intervaloNanos = Math.max(1, Math.round(1_000_000_000L / taxaPorSegundo));
+        this.toleranciaNanos = intervaloNanos * rajada;
+        this.cheioEm = new AtomicLong(agora);
+    }
+
+    // Consome um token e retorna 0, ou retorna os nanos até haver um disponível
+    long consumir(long agora) {
+        while (true) {
+            long atual = cheioEm.get();
+            long proximo = Math.max(atual, agora) + intervaloNanos;
+            long espera = proximo - toleranciaNanos - agora;
+            if (espera > 0) {
+                return espera;
+            }
+            if (cheioEm.compareAndSet(atual, proximo)) {
+                return 0;
+            }
+        }
+    }
+
+    // Tempo para um balde vazio encher: depois disso sem uso, ele equivale a um novo
+    long nanosParaEncher() {
+        return toleranciaNanos;
+    }
+}
@@ -0,0 +1,76 @@
+package at.api;
+
+import at.models.Tarefa;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// JSON (UTF-8) já serializado de cada tarefa, para GET /tarefas/{id} escrever os
+// bytes direto na resposta. Limitado pelo total de bytes, com remoção W-TinyLFU
+// (Caffeine): tarefas lidas com frequência permanecem, varreduras não expulsam.
+//
+// Cada entrada guarda a época do armazenamento e a versão da tarefa de quando foi
+// serializada; se qualquer uma mudou, a entrada é tratada como falha e substituída.
+// Assim uma mutação invalida o JSON mesmo sem avisar o cache.
+final class CacheJsonTarefas {
+
+    // Custo aproximado da entrada além do próprio JSON (objetos e referências)
+    private static final int SOBRECARGA_ENTRADA = 64;
+
+    private record Entrada(long epoca, long versao, byte[] json) {
+    }
+
+    private final Cache<Integer, Entrada> cache;
+    private final ObjectMapper objectMapper;
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+
+    CacheJsonTarefas(ObjectMapper objectMapper, long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Integer id, Entrada entrada) -> entrada.json().length + SOBRECARGA_ENTRADA)
+                .recordStats()
+                .build();
+    }
+
+    // JSON da tarefa, do cache quando a versão confere ou serializado agora
+    byte[] json(long epoca, Tarefa tarefa) throws JsonProcessingException {
+        Entrada entrada = cache.getIfPresent(tarefa.getId());
+        if (entrada != null && entrada.versao() == tarefa.getVersao() && entrada.epoca() == epoca) {
+            acertos.increment();
+            return entrada.json();
+        }
+        falhas.increment();
+        // A versão é lida antes de serializar: se a tarefa mudar no meio, a entrada fica
+        // com a versão antiga e a próxima leitura a substitui
+        long versao = tarefa.getVersao();
+        byte[] json = objectMapper.writeValueAsBytes(tarefa);
+        cache.put(tarefa.getId(), new Entrada(epoca, versao, json));
+        return json;
+    }
+
+    // Libera a entrada de uma tarefa removida (alterações já invalidam pela versão)
+    void invalidar(int id) {
+        cache.invalidate(id);
+    }
+
+    long acertos() {
+        return acertos.sum();
+    }
+
+    long falhas() {
+        return falhas.sum();
+    }
+
+    long remocoes() {
+        return cache.stats().evictionCount();
+    }
+
+    long bytes() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+}
@@ -0,0 +1,178 @@
+package at.api;
+
+import at.models.ResultadoLote;
+import at.models.ResumoPerfil;
+import at.models.Tarefa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Carga fixa para o modo de perfil (./gradlew perfil): sobe a API nesta JVM com
+// -Dreat.perfil=true, aquece, zera o resumo e repete a mesma mistura de requisições.
+// Ao final grava em <destino> (padrão: build/perfil):
+//   perfil.jfr    gravação JFR da fase medida (configuração 'profile' do JDK), para o JDK Mission Control
+//   resumo.json   o resumo de GET /debug/profile
+// e imprime uma tabela por rota.
+//
+// A mistura, a cada 10 requisições: 2 POST /tarefas, 3 GET /tarefas/{id}, 1 GET /tarefas/{id}
+// inexistente (404), 1 GET /tarefas?limit=20, 1 GET /status, 1 PATCH /tarefas/{id} e
+// 1 GET /tarefas/{id} com ID inválido (400).
+//
+// Propriedades: reat.carga.requisicoes (padrão: 20000), reat.carga.aquecimento (padrão: 5000),
+// reat.carga.concorrencia (padrão: 8) e reat.carga.tarefas (tarefas criadas antes, padrão: 1000).
+public class CargaPerfil {
+
+    private static final int MISTURA = 10;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = Main.criarObjectMapper();
+    private final String base;
+    private final int[] ids;
+
+    private CargaPerfil(String base, int[] ids) {
+        this.base = base;
+        this.ids = ids;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path destino = Path.of(args.length > 0 ? args[0] : "build/perfil");
+        int requisicoes = Integer.getInteger("reat.carga.requisicoes", 20_000);
+        int aquecimento = Integer.getInteger("reat.carga.aquecimento", 5_000);
+        int concorrencia = Integer.getInteger("reat.carga.concorrencia", 8);
+        int quantidadeTarefas = Integer.getInteger("reat.carga.tarefas", 1_000);
+        // Antes de carregar Main, que lê as propriedades na inicialização
+        System.setProperty("reat.perfil", "true");
+        if (System.getProperty("reat.porta") == null) {
+            System.setProperty("reat.porta", Integer.toString(portaLivre()));
+        }
+        Files.createDirectories(destino);
+
+        Main.startJavalinApp();
+        try {
+            String base = "http://localhost:" + Integer.getInteger("reat.porta");
+            CargaPerfil carga = new CargaPerfil(base, criarTarefas(base, quantidadeTarefas));
+
+            System.out.println("Aquecimento: " + aquecimento + " requisições...");
+            carga.executar(aquecimento, concorrencia);
+            carga.enviar(HttpRequest.newBuilder(URI.create(base + "/debug/profile")).DELETE());
+
+            Path arquivoJfr = destino.resolve("perfil.jfr");
+            try (Recording gravacao = new Recording(Configuration.getConfiguration("profile"))) {
+                gravacao.setName("reat-carga");
+                gravacao.start();
+                System.out.println("Medição: " + requisicoes + " requisições, " + concorrencia + " clientes...");
+                long inicio = System.nanoTime();
+                carga.executar(requisicoes, concorrencia);
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+                System.out.printf("Concluída em %.1f s (%.0f req/s).%n", segundos, requisicoes / segundos);
+                // O stream do perfil recebe os eventos a cada ~1 s
+                Thread.sleep(2_000);
+                gravacao.dump(arquivoJfr);
+            }
+
+            String json = carga.enviar(HttpRequest.newBuilder(URI.create(base + "/debug/profile")));
+            ResumoPerfil resumo = carga.objectMapper.readValue(json, ResumoPerfil.class);
+            Path arquivoResumo = destino.resolve("resumo.json");
+            carga.objectMapper.writerWithDefaultPrettyPrinter().writeValue(arquivoResumo.toFile(), resumo);
+            imprimir(resumo);
+            System.out.println("Gravação JFR: " + arquivoJfr.toAbsolutePath());
+            System.out.println("Resumo: " + arquivoResumo.toAbsolutePath());
+        } finally {
+            Main.stopJavalinApp();
+        }
+        System.exit(0);
+    }
+
+    // Os clientes repartem as requisições; a n-ésima segue a posição n da mistura
+    private void executar(int requisicoes, int concorrencia) throws InterruptedException {
+        AtomicInteger proxima = new AtomicInteger();
+        List<Thread> clientes = new ArrayList<>(concorrencia);
+        for (int i = 0; i < concorrencia; i++) {
+            clientes.add(Thread.ofPlatform().name("reat-carga-" + i).start(() -> {
+                int n;
+                while ((n = proxima.getAndIncrement()) < requisicoes) {
+                    try {
+                        enviar(requisicao(n % MISTURA));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Falha na requisição de carga: " + e.getMessage(), e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Thread cliente : clientes) {
+            cliente.join();
+        }
+    }
+
+    private HttpRequest.Builder requisicao(int posicao) throws IOException {
+        int id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return switch (posicao) {
+            case 0, 1 -> HttpRequest.newBuilder(URI.create(base + "/tarefas"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                            new Tarefa("Carga " + ThreadLocalRandom.current().nextInt(), "Tarefa criada pela carga do perfil"))));
+            case 2, 3, 4 -> HttpRequest.newBuilder(URI.create(base + "/tarefas/" + id));
+            case 5 -> HttpRequest.newBuilder(URI.create(base + "/tarefas/" + Integer.MAX_VALUE));
+            case 6 -> HttpRequest.newBuilder(URI.create(base + "/tarefas?limit=20"));
+            case 7 -> HttpRequest.newBuilder(URI.create(base + "/status"));
+            case 8 -> HttpRequest.newBuilder(URI.create(base + "/tarefas/" + id))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"concluida\":" + (id % 2 == 0) + "}"));
+            default -> HttpRequest.newBuilder(URI.create(base + "/tarefas/abc"));
+        };
+    }
+
+    private String enviar(HttpRequest.Builder requisicao) throws IOException, InterruptedException {
+        HttpResponse<String> resposta = http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() >= 500) {
+            throw new IOException(resposta.request().method() + " " + resposta.request().uri() + " respondeu " + resposta.statusCode());
+        }
+        return resposta.body();
+    }
+
+    // Tarefas lidas e alteradas pela carga, criadas em um único lote
+    private static int[] criarTarefas(String base, int quantidade) throws IOException, InterruptedException {
+        ObjectMapper objectMapper = Main.criarObjectMapper();
+        List<Tarefa> lote = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            lote.add(new Tarefa("Tarefa " + i, "Descrição da tarefa " + i));
+        }
+        HttpResponse<byte[]> resposta = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(base + "/tarefas/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(lote))).build(), HttpResponse.BodyHandlers.ofByteArray());
+        ResultadoLote resultado = objectMapper.readValue(resposta.body(), ResultadoLote.class);
+        return resultado.resultados.stream().filter(item -> item.tarefa != null).mapToInt(item -> item.tarefa.getId()).toArray();
+    }
+
+    private static void imprimir(ResumoPerfil resumo) {
+        System.out.printf("%nJanela de %.1f s: %d coletas, %.1f ms de pausa.%n%n", resumo.segundos, resumo.gcs, resumo.pausaGcMs);
+        System.out.printf("%-7s %-26s %8s %12s %9s %9s  %s%n", "MÉTODO", "ROTA", "REQ", "BYTES/REQ", "GC (ms)", "CPU", "MAIS ALOCA");
+        for (ResumoPerfil.Rota rota : resumo.rotas) {
+            String alocacao = rota.alocacoes.isEmpty() ? "-" : rota.alocacoes.get(0).local + " " + rota.alocacoes.get(0).percentual + "%";
+            System.out.printf("%-7s %-26s %8d %12d %9.1f %9d  %s%n", rota.metodo, rota.rota, rota.requisicoes,
+                    rota.bytesPorRequisicao, rota.pausaGcMs, rota.amostrasCpu, alocacao);
+        }
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package at.api;
+
+import at.models.Tarefa;
+import at.repository.AlocadorIds;
+import at.repository.TarefaRepository;
+import at.repository.TipoArmazenamento;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Compara o heap e as pausas de GC dos armazenamentos (./gradlew armazenamento): para cada
+// TipoArmazenamento, uma JVM nova (com os mesmos argumentos desta) carrega as tarefas e mede:
+//   heap          heap ocupado depois de um GC completo, com as tarefas carregadas
+//   direta        memória direta (ByteBuffer) reservada
+//   GC completo   duração média de 3 System.gc(): um GC completo percorre todo o heap vivo
+//   pausas        pausas das coletas durante uma carga de leituras e alterações de
+//                 reat.comparacao.segundos: 90% findById, 10% update de concluida e, a cada
+//                 1000 operações, uma página de 50 tarefas
+// e imprime uma tabela com uma linha por armazenamento.
+//
+// Propriedades: reat.comparacao.tarefas (padrão: 10000000) e reat.comparacao.segundos (padrão: 20).
+// Com 10 milhões de tarefas, o armazenamento padrão precisa de um heap de vários GB (-Pheap).
+public class ComparacaoArmazenamento {
+
+    private static final String PREFIXO_RESULTADO = "RESULTADO ";
+    private static final int LOTE = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--medir")) {
+            medir(TipoArmazenamento.valueOf(args[1]));
+            return;
+        }
+        int tarefas = Integer.getInteger("reat.comparacao.tarefas", 10_000_000);
+        long heapMaximo = Runtime.getRuntime().maxMemory();
+        System.out.printf(Locale.ROOT, "Comparação de armazenamentos: %,d tarefas, heap máximo %d MB.%n", tarefas, heapMaximo >> 20);
+
+        List<String[]> resultados = new ArrayList<>();
+        for (TipoArmazenamento tipo : TipoArmazenamento.values()) {
+            System.out.println("Medindo '" + tipo.name().toLowerCase(Locale.ROOT) + "' em uma JVM separada...");
+            String[] resultado = medirEmOutraJvm(tipo);
+            if (resultado == null) {
+                System.out.println("  falhou (heap insuficiente? aumente com -Pheap ou reduza reat.comparacao.tarefas)");
+            } else {
+                resultados.add(resultado);
+            }
+        }
+
+        System.out.printf("%n%-8s %10s %10s %10s %12s %8s %12s %12s %12s%n", "ARMAZEN.", "HEAP MB", "DIRETA MB", "CARGA S",
+                "GC COMPL. MS", "PAUSAS", "PAUSAS MS", "MÁX. MS", "OPERAÇÕES/S");
+        for (String[] r : resultados) {
+            System.out.printf("%-8s %10s %10s %10s %12s %8s %12s %12s %12s%n", (Object[]) r);
+        }
+    }
+
+    // Roda o modo --medir em outra JVM e devolve as colunas da linha de resultado (null se falhar)
+    private static String[] medirEmOutraJvm(TipoArmazenamento tipo) throws Exception {
+        List<String> comando = new ArrayList<>();
+        comando.add(ProcessHandle.current().info().command().orElse("java"));
+        comando.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(ComparacaoArmazenamento.class.getName());
+        comando.add("--medir");
+        comando.add(tipo.name());
+        Process processo = new ProcessBuilder(comando).redirectErrorStream(true).start();
+        String[] resultado = null;
+        try (BufferedReader saida = new BufferedReader(new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = saida.readLine()) != null) {
+                if (linha.startsWith(PREFIXO_RESULTADO)) {
+                    resultado = linha.substring(PREFIXO_RESULTADO.length()).split(" ");
+                } else {
+                    System.out.println("  " + linha);
+                }
+            }
+        }
+        return processo.waitFor() == 0 ? resultado : null;
+    }
+
+    private static void medir(TipoArmazenamento tipo) throws InterruptedException {
+        int quantidade = Integer.getInteger("reat.comparacao.tarefas", 10_000_000);
+        int segundos = Integer.getInteger("reat.comparacao.segundos", 20);
+        Pausas pausas = new Pausas();
+        TarefaRepository repositorio = tipo.criar(new AlocadorIds());
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < quantidade; i += LOTE) {
+            List<Tarefa> lote = new ArrayList<>(LOTE);
+            for (int j = i; j < Math.min(quantidade, i + LOTE); j++) {
+                Tarefa tarefa = new Tarefa("Tarefa " + j, "Descrição da tarefa " + j + ", criada para comparar os armazenamentos");
+                tarefa.setConcluida(j % 100 == 0);
+                lote.add(tarefa);
+            }
+            repositorio.saveAll(lote);
+        }
+        double carga = (System.nanoTime() - inicio) / 1e9;
+        System.gc();
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long direta = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                direta = pool.getMemoryUsed();
+            }
+        }
+
+        long gcCompleto = 0;
+        for (int i = 0; i < 3; i++) {
+            long antes = System.nanoTime();
+            System.gc();
+            gcCompleto += System.nanoTime() - antes;
+        }
+
+        // Carga de leituras e alterações: só as pausas desta fase entram na tabela. As
+        // notificações chegam por outra thread: espera as dos System.gc() acima antes de zerar.
+        Thread.sleep(500);
+        pausas.zerar();
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        long operacoes = 0;
+        long fim = System.nanoTime() + segundos * 1_000_000_000L;
+        while ((operacoes & 1023) != 0 || System.nanoTime() < fim) {
+            int id = aleatorio.nextInt(quantidade) + 1;
+            if (operacoes % 1000 == 999) {
+                repositorio.findPage(id, 50);
+            } else if (operacoes % 10 == 9) {
+                repositorio.update(id, TarefaRepository.QUALQUER_VERSAO, t -> t.setConcluida(!t.isConcluida()));
+            } else {
+                repositorio.findById(id);
+            }
+            operacoes++;
+        }
+        double duracao = segundos + Math.max(0, (System.nanoTime() - fim) / 1e9);
+
+        System.out.printf(Locale.ROOT, "%s%s %d %d %.1f %.1f %d %.1f %.1f %.0f%n", PREFIXO_RESULTADO,
+                tipo.name().toLowerCase(Locale.ROOT), heap >> 20, direta >> 20, carga, gcCompleto / 3 / 1e6,
+                pausas.quantidade(), pausas.totalMs(), pausas.maximaMs(), operacoes / duracao);
+    }
+
+    // Pausas informadas pelas notificações dos coletores (os ciclos concorrentes não são pausas)
+    private static final class Pausas {
+        private long quantidade;
+        private long totalMs;
+        private long maximaMs;
+
+        Pausas() {
+            for (GarbageCollectorMXBean coletor : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (coletor.getName().contains("Concurrent")) {
+                    continue;
+                }
+                ((NotificationEmitter) coletor).addNotificationListener((notificacao, contexto) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notificacao.getType())) {
+                        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notificacao.getUserData());
+                        registrar(info.getGcInfo().getDuration());
+                    }
+                }, null, null);
+            }
+        }
+
+        synchronized void registrar(long duracaoMs) {
+            quantidade++;
+            totalMs += duracaoMs;
+            maximaMs = Math.max(maximaMs, duracaoMs);
+        }
+
+        synchronized void zerar() {
+            quantidade = 0;
+            totalMs = 0;
+            maximaMs = 0;
+        }
+
+        synchronized long quantidade() {
+            return quantidade;
+        }
+
+        synchronized double totalMs() {
+            return totalMs;
+        }
+
+        synchronized double maximaMs() {
+            return maximaMs;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package at.api;
+
+import at.logging.AsyncLogger;
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import io.javalin.compression.Brotli;
+import io.javalin.compression.CompressionStrategy;
+import io.javalin.compression.Gzip;
+import io.javalin.config.JavalinConfig;
+
+import java.util.Locale;
+
+// Compressão das respostas, lida das propriedades de sistema:
+//   reat.compressao              brotli,gzip | gzip | brotli | nenhuma (padrão: brotli,gzip)
+//   reat.compressao.minBytes     respostas menores seguem sem compressão (padrão: 1500)
+//   reat.compressao.nivelGzip    1 a 9 (padrão: 6)
+//   reat.compressao.nivelBrotli  0 a 11 (padrão: 4)
+//
+// O Javalin escolhe a codificação pelo Accept-Encoding do cliente e decide no primeiro
+// write: respostas escritas de uma vez (ctx.result, ctx.json) abaixo de minBytes, como as
+// de /hello, /status e quase sempre /tarefas/{id}, não pagam a CPU da compressão. Uma
+// resposta que cabe em um pacote (~1500 bytes) não ficaria mais rápida comprimida. As
+// listas em streaming são escritas em blocos de ~8 KB, então são sempre comprimidas.
+//
+// Brotli depende da biblioteca nativa do brotli4j; se ela não carregar nesta plataforma,
+// a API segue só com gzip.
+public class CompressaoConfig {
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(CompressaoConfig.class);
+
+    private final boolean brotli;
+    private final boolean gzip;
+    private final int minBytes;
+    private final int nivelGzip;
+    private final int nivelBrotli;
+
+    public CompressaoConfig(boolean brotli, boolean gzip, int minBytes, int nivelGzip, int nivelBrotli) {
+        if (minBytes < 0 || nivelGzip < 1 || nivelGzip > 9 || nivelBrotli < 0 || nivelBrotli > 11) {
+            throw new IllegalArgumentException("Parâmetros de compressão inválidos.");
+        }
+        this.brotli = brotli;
+        this.gzip = gzip;
+        this.minBytes = minBytes;
+        this.nivelGzip = nivelGzip;
+        this.nivelBrotli = nivelBrotli;
+    }
+
+    public static CompressaoConfig fromSystemProperties() {
+        String algoritmos = System.getProperty("reat.compressao", "brotli,gzip").toLowerCase(Locale.ROOT);
+        boolean brotli = false;
+        boolean gzip = false;
+        for (String algoritmo : algoritmos.split(",")) {
+            switch (algoritmo.trim()) {
+                case "brotli", "br" -> brotli = true;
+                case "gzip" -> gzip = true;
+                case "nenhuma", "" -> {
+                }
+                default -> throw new IllegalArgumentException("Compressão desconhecida: " + algoritmo
+                        + " (use brotli, gzip ou nenhuma)");
+            }
+        }
+        return new CompressaoConfig(brotli, gzip,
+                Integer.getInteger("reat.compressao.minBytes", 1500),
+                Integer.getInteger("reat.compressao.nivelGzip", 6),
+                Integer.getInteger("reat.compressao.nivelBrotli", 4));
+    }
+
+    // Registra no Javalin a estratégia de compressão correspondente
+    void aplicar(JavalinConfig config) {
+        boolean usarBrotli = brotli && brotliDisponivel();
+        if (!usarBrotli && !gzip) {
+            config.compression.none();
+            return;
+        }
+        CompressionStrategy estrategia = new CompressionStrategy(
+                usarBrotli ? new Brotli(nivelBrotli) : null,
+                gzip ? new Gzip(nivelGzip) : null);
+        estrategia.setMinSizeForCompression(minBytes);
+        config.compression.custom(estrategia);
+    }
+
+    public boolean isAtiva() {
+        return brotli || gzip;
+    }
+
+    private static boolean brotliDisponivel() {
+        if (Brotli4jLoader.isAvailable()) {
+            return true;
+        }
+        log.warn("Brotli indisponível nesta plataforma ({}); as respostas não usarão Brotli.",
+                Brotli4jLoader.getUnavailabilityCause().getMessage());
+        return false;
+    }
+}
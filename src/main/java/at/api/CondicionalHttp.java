@@ -0,0 +1,85 @@
+package at.api;
+
+import at.models.Tarefa;
+import at.repository.TarefaRepository;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+
+// Requisições condicionais: ETag / If-None-Match nas leituras e If-Match nas escritas.
+//
+// Os ETags são fracos e derivados só de contadores: a época do armazenamento mais
+// a versão da tarefa (GET /tarefas/{id}) ou a versão global (GET /tarefas). Assim
+// a decisão de responder 304 é tomada antes de qualquer serialização.
+final class CondicionalHttp {
+
+    private CondicionalHttp() {
+    }
+
+    static String etagTarefa(long epoca, Tarefa tarefa) {
+        return "W/\"" + Long.toHexString(epoca) + "-" + tarefa.getId() + "-" + tarefa.getVersao() + "\"";
+    }
+
+    static String etagColecao(long epoca, long versao) {
+        return "W/\"" + Long.toHexString(epoca) + "-v" + versao + "\"";
+    }
+
+    // Define ETag e Cache-Control na resposta. Se o cliente já tem essa representação,
+    // responde 304 sem corpo e retorna true; o handler não deve escrever mais nada.
+    static boolean naoModificado(Context ctx, String etag) {
+        ctx.header("ETag", etag);
+        ctx.header("Cache-Control", "no-cache"); // o cliente pode guardar, mas deve revalidar
+        String ifNoneMatch = ctx.header("If-None-Match");
+        if (ifNoneMatch != null && corresponde(ifNoneMatch, etag)) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    // Comparação fraca (RFC 9110, 13.1.2): ignora o prefixo W/ e aceita lista ou "*"
+    static boolean corresponde(String ifNoneMatch, String etag) {
+        String alvo = semPrefixoFraco(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || semPrefixoFraco(valor).equals(alvo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Nenhuma tarefa tem versão 0: um If-Match que não corresponde resulta em conflito
+    static final long VERSAO_INEXISTENTE = 0;
+
+    // Versão exigida pelo If-Match de uma escrita na tarefa 'id'. Sem o cabeçalho, ou com "*",
+    // qualquer versão serve. Os ETags são fracos, então a comparação também é fraca: a
+    // versão é extraída do ETag, e um ETag de outra tarefa ou época não corresponde a nada.
+    static long versaoExigida(Context ctx, long epoca, int id) {
+        String ifMatch = ctx.header("If-Match");
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return TarefaRepository.QUALQUER_VERSAO;
+        }
+        String prefixo = Long.toHexString(epoca) + "-" + id + "-";
+        for (String candidato : ifMatch.split(",")) {
+            String valor = semPrefixoFraco(candidato.trim());
+            if (valor.equals("*")) {
+                return TarefaRepository.QUALQUER_VERSAO;
+            }
+            if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+                String conteudo = valor.substring(1, valor.length() - 1);
+                if (conteudo.startsWith(prefixo)) {
+                    try {
+                        return Long.parseLong(conteudo.substring(prefixo.length()));
+                    } catch (NumberFormatException e) {
+                        // ETag malformado: segue para o próximo
+                    }
+                }
+            }
+        }
+        return VERSAO_INEXISTENTE;
+    }
+
+    private static String semPrefixoFraco(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
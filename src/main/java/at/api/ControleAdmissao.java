@@ -0,0 +1,177 @@
+package at.api;
+
+import at.logging.AsyncLogger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HttpStatus;
+import org.eclipse.jetty.server.Request;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Controle de admissão das rotas: cada handler registrado por rota(nome, handler) passa
+// antes por três verificações, das mais baratas às mais caras, e é recusado na hora, sem
+// ler o corpo nem ocupar o repositório:
+//   1. Content-Length acima do corpoMax da rota: 413 (sem tamanho declarado, o filtro
+//      CorpoLimitado interrompe a leitura ao passar do limite e a resposta vira 413);
+//   2. balde de tokens do cliente nessa rota vazio: 429 com Retry-After (os segundos até
+//      haver um token);
+//   3. limite global de requisições em andamento atingido: 503 com Retry-After: 1.
+// A latência de cada requisição aceita alimenta o limite adaptativo (ver LimiteConcorrencia),
+// exceto nas rotas com latencia=false e nas requisições marcadas com semLatencia(ctx): uma
+// resposta em streaming lenta por causa do tamanho do corpo reduziria o limite de todas.
+//
+// /metrics, /status e /tarefas/changes ficam de fora: a observação do servidor não pode
+// ser recusada justamente quando ele está sobrecarregado, e uma conexão SSE ocuparia uma
+// vaga do limite enquanto estivesse aberta.
+final class ControleAdmissao {
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(ControleAdmissao.class);
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String ATRIBUTO_SEM_LATENCIA = "reat.admissao.semLatencia";
+
+    private final AdmissaoConfig config;
+    private final LimiteConcorrencia limite;
+    // "<rota> <cliente>" -> balde; sem uso pelo tempo de encher, o balde expira (um novo é igual)
+    private final Cache<String, BaldeTokens> baldes;
+    private final LongAdder recusadasCorpo = new LongAdder();
+    private final LongAdder recusadasTaxa = new LongAdder();
+    private final LongAdder recusadasConcorrencia = new LongAdder();
+
+    ControleAdmissao(AdmissaoConfig config) {
+        this.config = config;
+        this.limite = config.criarLimiteConcorrencia();
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(config.getClientesMax())
+                .expireAfter(new ExpiraAoEncher())
+                .build();
+    }
+
+    // O handler com os limites da rota com esse nome
+    Handler rota(String nome, Handler handler) {
+        AdmissaoConfig.LimitesRota limites = config.limites(nome);
+        LimiteConcorrencia concorrencia = limites.concorrencia() ? limite : null;
+        return ctx -> {
+            if (ctx.req().getContentLengthLong() > limites.corpoMax()) {
+                recusarCorpo(ctx, limites.corpoMax());
+                return;
+            }
+            if (limites.taxa() > 0) {
+                long espera = baldes.get(nome + ' ' + cliente(ctx), chave -> new BaldeTokens(limites.taxa(), limites.rajada(), System.nanoTime()))
+                        .consumir(System.nanoTime());
+                if (espera > 0) {
+                    recusadasTaxa.increment();
+                    ctx.header(RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + 999_999_999L))));
+                    ctx.status(HttpStatus.TOO_MANY_REQUESTS).json(Collections.singletonMap("erro",
+                            "Limite de requisições excedido. Tente novamente mais tarde."));
+                    return;
+                }
+            }
+            if (concorrencia != null && !concorrencia.tentarAdquirir()) {
+                recusadasConcorrencia.increment();
+                ctx.header(RETRY_AFTER, "1");
+                ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(Collections.singletonMap("erro",
+                        "Servidor sobrecarregado. Tente novamente em instantes."));
+                log.debug("{} {} - Recusada: {} requisições em andamento.", ctx.method(), ctx.path(), concorrencia.emVoo());
+                return;
+            }
+
+            ctx.attribute(CorpoLimitado.ATRIBUTO_MAXIMO, limites.corpoMax());
+            long inicio = System.nanoTime();
+            try {
+                handler.handle(ctx);
+            } catch (Exception e) {
+                // O handler falhou por causa do limite do corpo: a resposta é 413, não 500
+                if (!corpoExcedido(ctx)) {
+                    throw e;
+                }
+            } finally {
+                if (concorrencia != null && limites.latencia() && ctx.attribute(ATRIBUTO_SEM_LATENCIA) == null) {
+                    concorrencia.liberar(System.nanoTime() - inicio);
+                } else if (concorrencia != null) {
+                    concorrencia.liberar();
+                }
+            }
+            // O handler pode ter tratado a falha da leitura como corpo inválido (400)
+            if (corpoExcedido(ctx)) {
+                recusarCorpo(ctx, limites.corpoMax());
+            }
+        };
+    }
+
+    // Marca a requisição para sua latência não ajustar o limite adaptativo (ex: streaming)
+    static void semLatencia(Context ctx) {
+        ctx.attribute(ATRIBUTO_SEM_LATENCIA, Boolean.TRUE);
+    }
+
+    // Limite atual de requisições em andamento (0 se o limite global estiver desligado)
+    long limite() {
+        return limite == null ? 0 : limite.limite();
+    }
+
+    long emAndamento() {
+        return limite == null ? 0 : limite.emVoo();
+    }
+
+    long recusadasCorpo() {
+        return recusadasCorpo.sum();
+    }
+
+    long recusadasTaxa() {
+        return recusadasTaxa.sum();
+    }
+
+    long recusadasConcorrencia() {
+        return recusadasConcorrencia.sum();
+    }
+
+    private String cliente(Context ctx) {
+        String cabecalho = config.getCabecalhoCliente();
+        String valor = cabecalho == null ? null : ctx.header(cabecalho);
+        return valor == null || valor.isEmpty() ? ctx.ip() : valor;
+    }
+
+    private static boolean corpoExcedido(Context ctx) {
+        return Boolean.TRUE.equals(ctx.attribute(CorpoLimitado.ATRIBUTO_EXCEDIDO));
+    }
+
+    private void recusarCorpo(Context ctx, long maximo) {
+        recusadasCorpo.increment();
+        if (ctx.res().isCommitted()) {
+            // O handler já respondia em streaming (POST /echo): não há como trocar o status,
+            // então a conexão é abortada e o cliente vê a resposta incompleta
+            Request.getBaseRequest(ctx.req()).getHttpChannel().abort(
+                    new IOException("O corpo da requisição excede o máximo de " + maximo + " bytes."));
+            log.warn("{} {} - Resposta abortada: corpo acima de {} bytes.", ctx.method(), ctx.path(), maximo);
+            return;
+        }
+        // O restante do corpo não será lido: a conexão não pode ser reaproveitada
+        ctx.header("Connection", "close");
+        ctx.status(HttpStatus.CONTENT_TOO_LARGE).json(Collections.singletonMap("erro",
+                "O corpo da requisição excede o máximo de " + maximo + " bytes."));
+        log.warn("{} {} - Corpo recusado: acima de {} bytes.", ctx.method(), ctx.path(), maximo);
+    }
+
+    // Cada balde expira depois do tempo de encher sem uso, contado do último acesso
+    private static final class ExpiraAoEncher implements Expiry<String, BaldeTokens> {
+        @Override
+        public long expireAfterCreate(String chave, BaldeTokens balde, long agora) {
+            return balde.nanosParaEncher();
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, BaldeTokens balde, long agora, long restante) {
+            return balde.nanosParaEncher();
+        }
+
+        @Override
+        public long expireAfterRead(String chave, BaldeTokens balde, long agora, long restante) {
+            return balde.nanosParaEncher();
+        }
+    }
+}
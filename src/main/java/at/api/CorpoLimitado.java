@@ -0,0 +1,114 @@
+package at.api;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.IOException;
+
+// Filtro do servlet que conta os bytes lidos do corpo de cada requisição e interrompe a
+// leitura ao passar do limite. O Content-Length já é conferido antes do handler (ver
+// ControleAdmissao); isto cobre os corpos sem tamanho declarado (chunked), que de outra
+// forma seriam lidos até o fim, inteiros, antes de qualquer verificação.
+//
+// O limite é o do atributo ATRIBUTO_MAXIMO da requisição, definido pela rota antes de o
+// handler ler o corpo; sem ele, vale o padrão. Ao exceder, a leitura lança IOException e
+// ATRIBUTO_EXCEDIDO é marcado, para a rota responder 413 seja qual for o erro do handler.
+final class CorpoLimitado implements Filter {
+
+    static final String ATRIBUTO_MAXIMO = "reat.admissao.corpoMax";
+    static final String ATRIBUTO_EXCEDIDO = "reat.admissao.corpoExcedido";
+
+    private final long padrao;
+
+    CorpoLimitado(long padrao) {
+        this.padrao = padrao;
+    }
+
+    @Override
+    public void doFilter(ServletRequest requisicao, ServletResponse resposta, FilterChain cadeia) throws IOException, ServletException {
+        cadeia.doFilter(requisicao instanceof HttpServletRequest http ? new Requisicao(http) : requisicao, resposta);
+    }
+
+    private final class Requisicao extends HttpServletRequestWrapper {
+
+        private ServletInputStream corpo;
+
+        Requisicao(HttpServletRequest requisicao) {
+            super(requisicao);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (corpo == null) {
+                corpo = new Contador(this, super.getInputStream());
+            }
+            return corpo;
+        }
+    }
+
+    private final class Contador extends ServletInputStream {
+
+        private final ServletRequest requisicao;
+        private final ServletInputStream original;
+        private long lidos;
+
+        Contador(ServletRequest requisicao, ServletInputStream original) {
+            this.requisicao = requisicao;
+            this.original = original;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = original.read();
+            if (b >= 0) {
+                contar(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+            int n = original.read(destino, inicio, tamanho);
+            if (n > 0) {
+                contar(n);
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return original.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return original.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener ouvinte) {
+            original.setReadListener(ouvinte);
+        }
+
+        @Override
+        public void close() throws IOException {
+            original.close();
+        }
+
+        private void contar(int bytes) throws IOException {
+            lidos += bytes;
+            long maximo = requisicao.getAttribute(ATRIBUTO_MAXIMO) instanceof Long valor ? valor : padrao;
+            if (lidos > maximo) {
+                requisicao.setAttribute(ATRIBUTO_EXCEDIDO, Boolean.TRUE);
+                throw new IOException("O corpo da requisição excede o máximo de " + maximo + " bytes.");
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package at.api;
+
+import io.javalin.http.Context;
+import jakarta.servlet.ServletOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// POST /echo: copia o corpo da requisição para a resposta à medida que chega, em blocos,
+// sem montar String nem decodificar charset. A memória por requisição é um buffer de
+// tamanho fixo, seja qual for o tamanho do corpo, e os buffers são reaproveitados entre
+// requisições.
+//
+// A resposta vai direto ao stream do servlet, sem a compressão do Javalin: o eco serve
+// para medir a vazão da rede, e a compressão mediria a CPU. Com Content-Length na
+// requisição, a resposta tem o mesmo tamanho; sem ele (chunked), também é chunked.
+//
+// O cliente precisa ler a resposta enquanto envia (como o curl faz): depois de alguns
+// blocos, o servidor só lê mais do corpo quando consegue escrever o que já leu.
+final class EcoHttp {
+
+    private static final int TAMANHO_BUFFER = 16 * 1024;
+    // Buffers guardados para reuso; acima disso, os devolvidos ficam para o GC
+    private static final ArrayBlockingQueue<byte[]> livres = new ArrayBlockingQueue<>(64);
+
+    private EcoHttp() {
+    }
+
+    // Retorna a quantidade de bytes ecoados
+    static long ecoar(Context ctx) throws IOException {
+        String tipo = ctx.contentType();
+        ctx.contentType(tipo == null ? "application/json" : tipo);
+        if (tipo == null || !tipo.toLowerCase(Locale.ROOT).contains("charset")) {
+            // Sem o charset que o Jetty acrescentaria: os bytes são devolvidos como vieram
+            ctx.res().setCharacterEncoding(null);
+        }
+        long tamanho = ctx.req().getContentLengthLong();
+        if (tamanho >= 0) {
+            ctx.res().setContentLengthLong(tamanho);
+        }
+
+        byte[] buffer = livres.poll();
+        if (buffer == null) {
+            buffer = new byte[TAMANHO_BUFFER];
+        }
+        long total = 0;
+        try {
+            InputStream entrada = ctx.req().getInputStream();
+            ServletOutputStream saida = ctx.res().getOutputStream();
+            int lidos;
+            while ((lidos = entrada.read(buffer)) != -1) {
+                saida.write(buffer, 0, lidos);
+                total += lidos;
+            }
+        } finally {
+            livres.offer(buffer);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,56 @@
+package at.api;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executa cada tarefa em uma thread virtual nova, com no máximo 'maxConcorrentes'
+// tarefas rodando ao mesmo tempo. As excedentes esperam (uma thread virtual parada
+// custa apenas alguns KB) até o limite 'filaMax'; além dele a tarefa é rejeitada
+// e o Jetty encerra a conexão em vez de acumular trabalho sem limite.
+final class ExecutorVirtualLimitado implements Executor {
+
+    private final Semaphore permissoes;
+    private final int filaMax;
+    private final AtomicInteger aguardando = new AtomicInteger();
+    private final Thread.Builder.OfVirtual construtor;
+
+    ExecutorVirtualLimitado(String nome, int maxConcorrentes, int filaMax) {
+        this.permissoes = new Semaphore(maxConcorrentes);
+        this.filaMax = filaMax;
+        this.construtor = Thread.ofVirtual().name(nome + "-", 0);
+    }
+
+    @Override
+    public void execute(Runnable tarefa) {
+        if (permissoes.tryAcquire()) {
+            construtor.start(() -> executarComPermissao(tarefa));
+            return;
+        }
+        if (aguardando.incrementAndGet() > filaMax) {
+            aguardando.decrementAndGet();
+            throw new RejectedExecutionException("Limite de requisições em espera atingido (" + filaMax + ").");
+        }
+        construtor.start(() -> {
+            try {
+                permissoes.acquireUninterruptibly();
+            } finally {
+                aguardando.decrementAndGet();
+            }
+            executarComPermissao(tarefa);
+        });
+    }
+
+    private void executarComPermissao(Runnable tarefa) {
+        try {
+            tarefa.run();
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    int emEspera() {
+        return aguardando.get();
+    }
+}
@@ -0,0 +1,62 @@
+package at.api;
+
+import at.models.DataHora;
+import at.repository.FiltroTarefas;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+// Leitura dos filtros de GET /tarefas a partir dos parâmetros de consulta:
+// concluida=true|false, titulo= (trecho), tituloPrefixo=, criadaApos= e criadaAntes=.
+// As datas aceitam o formato de dataCriacao (2025-06-25T15:00:00.123), só a data
+// (2025-06-25, meia-noite no fuso do servidor) ou um instante UTC (2025-06-25T18:00:00Z).
+final class FiltroHttp {
+
+    private FiltroHttp() {
+    }
+
+    // Lança IllegalArgumentException para valores inválidos
+    static FiltroTarefas ler(Function<String, String> parametros) {
+        FiltroTarefas filtro = FiltroTarefas.todas();
+        String concluida = parametros.apply("concluida");
+        if (concluida != null) {
+            if (!concluida.equals("true") && !concluida.equals("false")) {
+                throw new IllegalArgumentException("concluida deve ser 'true' ou 'false'.");
+            }
+            filtro = filtro.comConcluida(Boolean.parseBoolean(concluida));
+        }
+        String titulo = parametros.apply("titulo");
+        if (titulo != null && !titulo.isEmpty()) {
+            filtro = filtro.comTitulo(titulo);
+        }
+        String prefixo = parametros.apply("tituloPrefixo");
+        if (prefixo != null && !prefixo.isEmpty()) {
+            filtro = filtro.comTituloPrefixo(prefixo);
+        }
+        String apos = parametros.apply("criadaApos");
+        if (apos != null) {
+            filtro = filtro.comCriadaApos(lerData("criadaApos", apos));
+        }
+        String antes = parametros.apply("criadaAntes");
+        if (antes != null) {
+            filtro = filtro.comCriadaAntes(lerData("criadaAntes", antes));
+        }
+        return filtro;
+    }
+
+    private static long lerData(String nome, String valor) {
+        try {
+            if (valor.length() == 10) {
+                return LocalDate.parse(valor).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+            if (valor.endsWith("Z")) {
+                return DataHora.lerInstante(valor);
+            }
+            return DataHora.lerDataLocal(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(nome + " deve ser uma data ISO-8601: " + valor);
+        }
+    }
+}
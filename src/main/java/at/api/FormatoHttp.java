@@ -0,0 +1,129 @@
+package at.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.javalin.http.Context;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Negociação do formato dos corpos das rotas de tarefas: JSON (padrão), Smile ou CBOR.
+//
+// Smile e CBOR são codificações binárias do mesmo modelo de dados do JSON: os campos e
+// valores são os mesmos, só a representação muda (números e tamanhos em binário, nomes
+// de campos repetidos referenciados no Smile). Os mappers binários são cópias do mapper
+// JSON da API, com os mesmos módulos e configurações.
+//
+// O corpo da requisição é lido conforme o Content-Type, e a resposta segue o Accept (o
+// tipo suportado de maior q; sem nenhum, JSON). Mensagens de erro são sempre JSON.
+final class FormatoHttp {
+
+    static final String JSON = "application/json";
+    static final String SMILE = "application/x-jackson-smile";
+    static final String CBOR = "application/cbor";
+
+    // Formato escolhido: o tipo de conteúdo e o mapper correspondente
+    record Formato(String contentType, ObjectMapper mapper) {
+        boolean isJson() {
+            return contentType.equals(JSON);
+        }
+    }
+
+    private final Formato json;
+    private final Formato smile;
+    private final Formato cbor;
+
+    FormatoHttp(ObjectMapper objectMapper) {
+        this.json = new Formato(JSON, objectMapper);
+        this.smile = new Formato(SMILE, objectMapper.copyWith(new SmileFactory()));
+        this.cbor = new Formato(CBOR, objectMapper.copyWith(new CBORFactory()));
+    }
+
+    // Formato do corpo recebido, pelo Content-Type (JSON se ausente ou desconhecido)
+    Formato daRequisicao(Context ctx) {
+        Formato formato = porTipo(ctx.contentType());
+        return formato != null ? formato : json;
+    }
+
+    // Formato da resposta, pelo Accept. A resposta passa a variar com o Accept.
+    Formato daResposta(Context ctx) {
+        String vary = ctx.res().getHeader("Vary");
+        ctx.header("Vary", vary == null ? "Accept" : vary + ", Accept");
+        String accept = ctx.header("Accept");
+        if (accept == null || accept.isBlank()) {
+            return json;
+        }
+        Formato escolhido = json;
+        double melhorQ = -1;
+        for (String faixa : accept.split(",")) {
+            String[] partes = faixa.split(";");
+            Formato formato = porTipo(partes[0]);
+            if (formato == null) {
+                String tipo = partes[0].trim();
+                formato = tipo.equals("*/*") || tipo.equals("application/*") ? json : null;
+            }
+            double q = qualidade(partes);
+            // No empate vence o primeiro listado
+            if (formato != null && q > 0 && q > melhorQ) {
+                escolhido = formato;
+                melhorQ = q;
+            }
+        }
+        return escolhido;
+    }
+
+    // Lê o corpo da requisição no formato do Content-Type
+    <T> T ler(Context ctx, Class<T> tipo) throws IOException {
+        Formato formato = daRequisicao(ctx);
+        // JSON continua pelo mapper do Javalin, como antes
+        return formato.isJson() ? ctx.bodyAsClass(tipo) : formato.mapper().readValue(ctx.bodyInputStream(), tipo);
+    }
+
+    // Escreve 'valor' no formato negociado pelo Accept
+    void responder(Context ctx, Object valor) throws IOException {
+        Formato formato = daResposta(ctx);
+        if (formato.isJson()) {
+            ctx.json(valor);
+            return;
+        }
+        definirContentType(ctx, formato);
+        ctx.result(formato.mapper().writeValueAsBytes(valor));
+    }
+
+    // Content-Type da resposta. Nos formatos binários, sem o charset que o Jetty acrescentaria
+    // (o Javalin define UTF-8 como codificação de toda resposta)
+    static void definirContentType(Context ctx, Formato formato) {
+        ctx.contentType(formato.contentType());
+        if (!formato.isJson()) {
+            ctx.res().setCharacterEncoding(null);
+        }
+    }
+
+    private Formato porTipo(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String tipo = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        return switch (tipo) {
+            case JSON -> json;
+            case SMILE -> smile;
+            case CBOR -> cbor;
+            default -> null;
+        };
+    }
+
+    private static double qualidade(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parametro.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,94 @@
+package at.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+// Limite global de requisições em andamento. Acima dele a requisição é recusada na hora
+// (503), sem fila: esperar só aumentaria a latência de todas.
+//
+// No modo adaptativo o limite segue AIMD, como o controle de congestionamento do TCP,
+// usando a latência observada como sinal de sobrecarga:
+//   - requisição mais lenta que o alvo: o limite cai 10%, no máximo uma vez por janela
+//     (a própria latência alvo), para uma rajada de lentas não derrubá-lo de uma vez;
+//   - requisição dentro do alvo com o limite em uso (ao menos metade ocupada): o limite
+//     sobe 1/limite, ou seja, ~1 a cada 'limite' respostas rápidas.
+// Ocioso, o limite não cresce: uma sobrecarga súbita encontra um valor já testado.
+final class LimiteConcorrencia {
+
+    private static final double FATOR_REDUCAO = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final long alvoNanos;
+    private final boolean adaptativo;
+    private final AtomicInteger emVoo = new AtomicInteger();
+    // O limite é fracionário (o aumento aditivo soma 1/limite); guardado como bits de double
+    private final AtomicLong limite;
+    private final AtomicLong proximaReducao = new AtomicLong(System.nanoTime());
+
+    LimiteConcorrencia(int inicial, int minimo, int maximo, long alvoNanos, boolean adaptativo) {
+        if (minimo < 1 || inicial < minimo || maximo < inicial || alvoNanos <= 0) {
+            throw new IllegalArgumentException("Parâmetros do limite de concorrência inválidos.");
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.alvoNanos = alvoNanos;
+        this.adaptativo = adaptativo;
+        this.limite = new AtomicLong(Double.doubleToRawLongBits(inicial));
+    }
+
+    // Reserva uma vaga; false se o limite já foi atingido
+    boolean tentarAdquirir() {
+        while (true) {
+            int atual = emVoo.get();
+            if (atual >= limite()) {
+                return false;
+            }
+            if (emVoo.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Devolve a vaga e alimenta o ajuste com a latência da requisição
+    void liberar(long latenciaNanos) {
+        int ocupadas = emVoo.getAndDecrement();
+        if (!adaptativo) {
+            return;
+        }
+        if (latenciaNanos > alvoNanos) {
+            long agora = System.nanoTime();
+            long janela = proximaReducao.get();
+            if (agora - janela >= 0 && proximaReducao.compareAndSet(janela, agora + alvoNanos)) {
+                ajustar(atual -> atual * FATOR_REDUCAO);
+            }
+        } else if (ocupadas * 2 >= limite()) {
+            ajustar(atual -> atual + 1 / atual);
+        }
+    }
+
+    // Devolve a vaga sem ajustar o limite: a duração da requisição não indica sobrecarga
+    // (ex: streaming, que acompanha o tamanho do corpo e a velocidade do cliente)
+    void liberar() {
+        emVoo.decrementAndGet();
+    }
+
+    int limite() {
+        return (int) Double.longBitsToDouble(limite.get());
+    }
+
+    int emVoo() {
+        return emVoo.get();
+    }
+
+    private void ajustar(DoubleUnaryOperator funcao) {
+        while (true) {
+            long bits = limite.get();
+            double novo = Math.max(minimo, Math.min(maximo, funcao.applyAsDouble(Double.longBitsToDouble(bits))));
+            if (limite.compareAndSet(bits, Double.doubleToRawLongBits(novo))) {
+                return;
+            }
+        }
+    }
+}
@@ -1,40 +1,154 @@
 package at.api;
 
 import io.javalin.Javalin;
+import at.cluster.ClusterConfig;
+import at.eventos.FeedAlteracoes;
+import at.logging.AsyncLogger;
+import at.metrics.MetricasHttp;
+import at.metrics.PerfilConfig;
+import at.metrics.PerfilJfr;
+import at.models.ItemBusca;
+import at.models.ItemLote;
+import at.models.PaginaBusca;
+import at.models.PaginaTarefas;
+import at.models.ResultadoLote;
 import at.models.StatusResponse;
 import at.models.Tarefa;
+import at.persistence.PersistenciaConfig;
+import at.persistence.PersistentTarefaRepository;
+import at.repository.AlocadorIds;
+import at.repository.FiltroTarefas;
+import at.repository.InMemoryTarefaRepository;
+import at.repository.ResultadoEscrita;
+import at.repository.TarefaRepository;
+import at.repository.TipoArmazenamento;
+import at.replicacao.LogReplicacao;
+import at.replicacao.Replica;
+import at.replicacao.ReplicacaoConfig;
 
+import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import io.javalin.json.JavalinJackson;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 
-import java.time.LocalDateTime; // Para gerar a dataCriacao
-import java.time.format.DateTimeFormatter; // Para formatar a data ISO-8601
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class Main {
 
     public static Javalin app;
 
-    // LISTA EM MEMÓRIA PARA ARMAZENAR AS TAREFAS
-    private static final List<Tarefa> tarefas = Collections.synchronizedList(new ArrayList<>());
-    // CONTADOR PARA GERAR IDS DE TAREFAS
-    private static final AtomicInteger taskIdCounter = new AtomicInteger(1);
+    private static final AsyncLogger log = AsyncLogger.getLogger(Main.class);
 
+    // MAPPER JSON COMPARTILHADO ENTRE O JAVALIN E O STREAMING DE LISTAS
+    private static final ObjectMapper objectMapper = criarObjectMapper();
+    // FEED DE ALTERAÇÕES (GET /tarefas/changes), inscrito em cada repositório aberto
+    private static final FeedAlteracoes feed = FeedAlteracoes.fromSystemProperties(objectMapper);
+    // REPLICAÇÃO: o líder publica o log ordenado das mutações (GET /replicacao/log); com
+    // -Dreat.replicacao.lider, esta instância é uma réplica que aplica o log do líder
+    private static final ReplicacaoConfig replicacao = ReplicacaoConfig.fromSystemProperties();
+    private static final LogReplicacao logReplicacao = new LogReplicacao(objectMapper, replicacao.getHistorico());
+    private static final Replica replica = replicacao.isReplica()
+            ? new Replica(replicacao, objectMapper, () -> (InMemoryTarefaRepository) Main.tarefas) : null;
+    // REPOSITÓRIO PARA ARMAZENAR AS TAREFAS (também gera os IDs).
+    // Em memória por padrão; durável quando -Dreat.persistencia.dir é informado.
+    private static volatile TarefaRepository tarefas = abrirRepositorio();
+    // PERFIL POR ROTA (-Dreat.perfil=true): alocação, pausas de GC e CPU a partir de eventos JFR
+    private static final Optional<PerfilJfr> perfil = PerfilConfig.fromSystemProperties().map(PerfilJfr::new);
+
+
+    // Mapper padrão do Javalin com acessores gerados em tempo de execução (Blackbird, via
+    // LambdaMetafactory) no lugar de reflexão para ler e escrever os campos dos modelos
+    public static ObjectMapper criarObjectMapper() {
+        return JavalinJackson.defaultMapper().registerModule(new BlackbirdModule());
+    }
 
     public static Javalin buildApp() {
+        CompressaoConfig compressao = CompressaoConfig.fromSystemProperties();
+        AdmissaoConfig admissaoConfig = AdmissaoConfig.fromSystemProperties();
         Javalin appInstance = Javalin.create(config -> {
             config.http.defaultContentType = "application/json";
+            config.jsonMapper(new JavalinJackson(objectMapper));
+            // Pool de threads do Jetty: -Dreat.servidor.threads=auto|plataforma|virtual
+            ServidorConfig.fromSystemProperties().aplicar(config);
+            // gzip/Brotli acima de um tamanho mínimo: -Dreat.compressao=brotli,gzip|gzip|brotli|nenhuma
+            compressao.aplicar(config);
+            // Corpo máximo por rota, também nos corpos sem Content-Length: -Dreat.admissao.corpoMax
+            admissaoConfig.aplicar(config);
+        });
+        if (compressao.isAtiva()) {
+            // O corpo depende do Accept-Encoding: caches intermediários devem separar as variantes
+            appInstance.before(ctx -> ctx.header("Vary", "Accept-Encoding"));
+        }
+
+        // --- INSTRUMENTAÇÃO: contagem e latência por rota, exportadas em GET /metrics ---
+        MetricasHttp metricas = new MetricasHttp(() -> tarefas.count());
+        appInstance.before(metricas::antes);
+        appInstance.after(metricas::depois);
+        perfil.ifPresent(perfilJfr -> {
+            perfilJfr.iniciar();
+            appInstance.before(perfilJfr::antes);
+            appInstance.after(perfilJfr::depois);
         });
 
+        // --- CACHE DO JSON DAS TAREFAS (GET /tarefas/{id}) ---
+        CacheJsonTarefas cacheJson = new CacheJsonTarefas(objectMapper, Long.getLong("reat.cache.tarefas.maxBytes", 64L << 20));
+        metricas.registrarContador("reat_cache_tarefas_acertos_total", "Leituras por ID atendidas com o JSON em cache.", cacheJson::acertos);
+        metricas.registrarContador("reat_cache_tarefas_falhas_total", "Leituras por ID que precisaram serializar a tarefa.", cacheJson::falhas);
+        metricas.registrarContador("reat_cache_tarefas_remocoes_total", "Entradas removidas do cache por limite de tamanho.", cacheJson::remocoes);
+        metricas.registrarMedidor("reat_cache_tarefas_bytes", "Tamanho estimado do cache de JSON das tarefas.", cacheJson::bytes);
+
+        // --- FORMATOS DOS CORPOS: JSON, Smile ou CBOR, por Content-Type e Accept ---
+        FormatoHttp formatos = new FormatoHttp(objectMapper);
+
+        // --- FEED DE ALTERAÇÕES (GET /tarefas/changes) ---
+        metricas.registrarContador("reat_eventos_publicados_total", "Eventos de alteração publicados no histórico.", feed::publicados);
+        metricas.registrarMedidor("reat_eventos_assinantes", "Clientes conectados a /tarefas/changes.", feed::assinantes);
+        metricas.registrarContador("reat_eventos_desconectados_total", "Clientes de /tarefas/changes descartados por não acompanharem os eventos.", feed::desconectados);
+
+        // --- REPLICAÇÃO: X-Reat-Versao, X-Reat-Versao-Minima e escritas na réplica (ver ReplicacaoHttp) ---
+        ReplicacaoHttp consistencia = new ReplicacaoHttp(logReplicacao, replica, replicacao);
+        appInstance.before(consistencia::antes);
+        appInstance.after(consistencia::depois);
+        metricas.registrarMedidor("reat_replicacao_versao", "Posição do log do líder refletida nas leituras desta instância.", consistencia::versao);
+        if (replica == null) {
+            metricas.registrarMedidor("reat_replicacao_replicas", "Réplicas recebendo o log.", logReplicacao::replicasConectadas);
+        } else {
+            metricas.registrarMedidor("reat_replicacao_atraso_versoes", "Entradas do log do líder ainda não aplicadas.", replica::atrasoVersoes);
+            metricas.registrarMedidor("reat_replicacao_atraso_ms", "Idade da última alteração aplicada enquanto há outras por aplicar.", replica::atrasoMs);
+            metricas.registrarContador("reat_replicacao_copias_total", "Cópias completas recebidas do líder.", replica::copias);
+        }
+
+        // --- CONTROLE DE ADMISSÃO: taxa por cliente, limite global adaptativo e corpo máximo, por rota ---
+        ControleAdmissao admissao = new ControleAdmissao(admissaoConfig);
+        metricas.registrarMedidor("reat_admissao_limite", "Limite atual de requisições em andamento (0: desligado).", admissao::limite);
+        metricas.registrarMedidor("reat_admissao_em_andamento", "Requisições em andamento que contam no limite.", admissao::emAndamento);
+        metricas.registrarContador("reat_admissao_recusadas_taxa_total", "Requisições recusadas com 429 pelo limite de taxa do cliente.", admissao::recusadasTaxa);
+        metricas.registrarContador("reat_admissao_recusadas_concorrencia_total", "Requisições recusadas com 503 pelo limite de concorrência.", admissao::recusadasConcorrencia);
+        metricas.registrarContador("reat_admissao_recusadas_corpo_total", "Requisições recusadas com 413 pelo tamanho do corpo.", admissao::recusadasCorpo);
+
         // --- DEFINIÇÃO DE TODOS OS ENDPOINTS ---
+        // Cada rota tem um nome para os limites por rota (ex: -Dreat.admissao.echo.corpoMax)
 
         // Endpoint: GET /hello (Exercício 1.1)
-        appInstance.get("/hello", ctx -> {
+        appInstance.get("/hello", admissao.rota("hello", ctx -> {
             ctx.result("Hello, Javalin!");
-        });
+        }));
 
         // Endpoint: GET /status (Exercício 1.2)
         appInstance.get("/status", ctx -> {
@@ -42,98 +156,589 @@ public class Main {
             ctx.json(response);
         });
 
-        // Endpoint: POST /echo (Exercício 1.3)
-        appInstance.post("/echo", ctx -> {
-            String requestBody = ctx.body();
-            ctx.contentType("application/json");
-            ctx.result(requestBody);
-            System.out.println("POST /echo recebido: " + requestBody);
+        // Endpoint: GET /metrics - Métricas no formato texto do Prometheus
+        appInstance.get("/metrics", ctx -> {
+            ctx.contentType(MetricasHttp.CONTENT_TYPE_PROMETHEUS);
+            ctx.result(metricas.exportarPrometheus());
+        });
+
+        // Endpoint: GET /debug/profile - Alocação, pausas de GC e CPU por rota (ver PerfilJfr); DELETE zera o resumo.
+        // Só com -Dreat.perfil=true; sem o perfil, 404.
+        appInstance.get("/debug/profile", ctx -> {
+            if (perfil.isEmpty()) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Collections.singletonMap("erro", "Perfil desligado: inicie a API com -Dreat.perfil=true."));
+                return;
+            }
+            ctx.json(perfil.get().resumo());
         });
+        appInstance.delete("/debug/profile", ctx -> {
+            if (perfil.isEmpty()) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Collections.singletonMap("erro", "Perfil desligado: inicie a API com -Dreat.perfil=true."));
+                return;
+            }
+            perfil.get().limpar();
+            ctx.status(HttpStatus.NO_CONTENT);
+        });
+
+        // Endpoint: GET /replicacao - Papel da instância, versão aplicada e atraso (réplica) ou réplicas conectadas (líder)
+        appInstance.get("/replicacao", ctx -> ctx.json(consistencia.estado()));
+
+        // Endpoint: GET /replicacao/log?desde=&epoca= - Log das mutações em NDJSON, para as réplicas (ver LogReplicacao).
+        // Fora do controle de admissão: a conexão fica aberta enquanto a réplica estiver ativa.
+        appInstance.get("/replicacao/log", ctx -> {
+            if (replica != null) {
+                ctx.status(HttpStatus.CONFLICT).json(Collections.singletonMap("erro",
+                        "Esta instância é uma réplica de " + replica.getLider() + ": conecte as réplicas ao líder."));
+                return;
+            }
+            logReplicacao.transmitir(ctx, tarefas);
+        });
+
+        // Endpoint: POST /echo (Exercício 1.3) - Devolve o corpo recebido, em streaming (ver EcoHttp)
+        appInstance.post("/echo", admissao.rota("echo", ctx -> {
+            long bytes = EcoHttp.ecoar(ctx);
+            log.info("POST /echo ecoado: {} bytes", bytes);
+        }));
 
         // Endpoint: GET /saudacao/{nome} (Exercício 1.4)
-        appInstance.get("/saudacao/{nome}", ctx -> {
+        appInstance.get("/saudacao/{nome}", admissao.rota("saudacao", ctx -> {
             String nome = ctx.pathParam("nome");
             ctx.json(Collections.singletonMap("mensagem", "Olá, " + nome + "!"));
-            System.out.println("GET /saudacao/" + nome + " solicitado.");
-        });
+            log.info("GET /saudacao/{} solicitado.", nome);
+        }));
 
         // Endpoint: POST /tarefas - Criação de Tarefa
-        appInstance.post("/tarefas", ctx -> {
-            Tarefa novaTarefa = ctx.bodyAsClass(Tarefa.class);
+        appInstance.post("/tarefas", admissao.rota("tarefas.criar", ctx -> {
+            Tarefa novaTarefa = tarefaDoCorpo(ctx, formatos);
+            if (novaTarefa == null) {
+                return;
+            }
 
             // Validações básicas
-            if (novaTarefa.getTitulo() == null || novaTarefa.getTitulo().trim().isEmpty()) {
-                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "O título da tarefa é obrigatório."));
+            if (!tituloValido(novaTarefa)) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", ERRO_TITULO_OBRIGATORIO));
                 return;
             }
 
-            novaTarefa.setId(taskIdCounter.getAndIncrement()); // Atribui ID
-            // Se a dataCriacao não veio do JSON, gera uma nova.
-            if (novaTarefa.getDataCriacao() == null || novaTarefa.getDataCriacao().isEmpty()) {
-                novaTarefa.setDataCriacao(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            // Se a dataCriacao não veio do JSON, usa a hora atual (formatada só na resposta).
+            if (novaTarefa.getCriadaEm() == Tarefa.SEM_DATA) {
+                novaTarefa.setCriadaEm(System.currentTimeMillis());
             }
 
             // Garante que 'concluida' seja false por padrão se não for fornecido no JSON de entrada.
 
-            tarefas.add(novaTarefa);
-            ctx.status(HttpStatus.CREATED).json(novaTarefa);
-            System.out.println("POST /tarefas - Tarefa criada: " + novaTarefa.getTitulo() + " (ID: " + novaTarefa.getId() + ")");
-        });
+            tarefas.save(novaTarefa); // Atribui ID e armazena
+            formatos.responder(ctx.status(HttpStatus.CREATED), novaTarefa);
+            log.info("POST /tarefas - Tarefa criada: {} (ID: {})", novaTarefa.getTitulo(), novaTarefa.getId());
+        }));
+
+        // Endpoint: POST /tarefas/batch - Criação de Tarefas em Lote
+        // Aceita um array (JSON, Smile ou CBOR) ou um stream NDJSON (Content-Type: application/x-ndjson)
+        appInstance.post("/tarefas/batch", admissao.rota("tarefas.lote", ctx -> {
+            List<Tarefa> recebidas;
+            try {
+                String contentType = ctx.contentType();
+                boolean ndjson = contentType != null && contentType.startsWith(TarefaJsonStreamer.CONTENT_TYPE_NDJSON);
+                recebidas = lerLote(ctx.bodyInputStream(), ndjson, formatos.daRequisicao(ctx).mapper());
+            } catch (IllegalArgumentException | IOException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Lote inválido: " + e.getMessage()));
+                log.warn("POST /tarefas/batch - Erro: lote inválido. {}", e.getMessage());
+                return;
+            }
+
+            // Valida tudo antes de tocar no repositório; a data é obtida uma única vez para o lote
+            long agora = System.currentTimeMillis();
+            List<Tarefa> validas = new ArrayList<>(recebidas.size());
+            ItemLote[] resultados = new ItemLote[recebidas.size()];
+            for (int i = 0; i < recebidas.size(); i++) {
+                Tarefa tarefa = recebidas.get(i);
+                if (tarefa == null || !tituloValido(tarefa)) {
+                    resultados[i] = ItemLote.rejeitada(i, ERRO_TITULO_OBRIGATORIO);
+                    continue;
+                }
+                if (tarefa.getCriadaEm() == Tarefa.SEM_DATA) {
+                    tarefa.setCriadaEm(agora);
+                }
+                validas.add(tarefa);
+            }
+
+            tarefas.saveAll(validas); // Reserva um bloco de IDs e armazena
+            int proxima = 0;
+            for (int i = 0; i < resultados.length; i++) {
+                if (resultados[i] == null) {
+                    resultados[i] = ItemLote.criada(i, validas.get(proxima++));
+                }
+            }
+
+            int rejeitadas = resultados.length - validas.size();
+            HttpStatus status = validas.isEmpty() ? HttpStatus.BAD_REQUEST
+                    : rejeitadas == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            formatos.responder(ctx.status(status), new ResultadoLote(validas.size(), rejeitadas, Arrays.asList(resultados)));
+            log.info("POST /tarefas/batch - Lote processado: {} criadas, {} rejeitadas.", validas.size(), rejeitadas);
+        }));
 
         // Endpoint: GET /tarefas - Listar Todas as Tarefas
-        appInstance.get("/tarefas", ctx -> {
-            ctx.json(tarefas);
-            System.out.println("GET /tarefas - Retornando todas as tarefas. Total: " + tarefas.size());
-        });
+        // Parâmetros opcionais: limit/cursor (paginação) e stream=ndjson|json (escrita incremental)
+        // Filtros opcionais (ver FiltroHttp): concluida, titulo, tituloPrefixo, criadaApos e criadaAntes
+        // Suporta If-None-Match: enquanto nada mudar no armazenamento, responde 304 sem corpo
+        appInstance.get("/tarefas", admissao.rota("tarefas.listar", ctx -> {
+            String stream = ctx.queryParam("stream");
+            String limitParam = ctx.queryParam("limit");
+            String cursorParam = ctx.queryParam("cursor");
+
+            int afterId;
+            int limit;
+            try {
+                afterId = Paginacao.decodeCursor(cursorParam);
+                limit = Paginacao.parseLimit(limitParam);
+            } catch (IllegalArgumentException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Parâmetros de paginação inválidos: " + e.getMessage()));
+                log.warn("GET /tarefas - Erro: paginação inválida (limit={}, cursor={})", limitParam, cursorParam);
+                return;
+            }
+
+            if (stream != null && !stream.equals("ndjson") && !stream.equals("json")) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Modo de streaming inválido. Use 'ndjson' ou 'json'."));
+                return;
+            }
+
+            FiltroTarefas filtro;
+            try {
+                filtro = FiltroHttp.ler(ctx::queryParam);
+            } catch (IllegalArgumentException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Filtro inválido: " + e.getMessage()));
+                log.warn("GET /tarefas - Erro: filtro inválido ({})", ctx.queryString());
+                return;
+            }
+
+            // Versão lida antes dos dados: o ETag nunca é mais novo que o conteúdo enviado
+            String etag = CondicionalHttp.etagColecao(tarefas.epoch(), tarefas.version());
+            if (CondicionalHttp.naoModificado(ctx, etag)) {
+                log.debug("GET /tarefas - Não modificado ({}).", etag);
+                return;
+            }
+
+            if (stream != null) {
+                // A duração acompanha o total de tarefas e o cliente: não ajusta o limite adaptativo
+                ControleAdmissao.semLatencia(ctx);
+                int total;
+                if (stream.equals("ndjson")) {
+                    ctx.contentType(TarefaJsonStreamer.CONTENT_TYPE_NDJSON);
+                    total = TarefaJsonStreamer.writeNdjson(objectMapper, tarefas.query(filtro, afterId), ctx.outputStream());
+                } else {
+                    // Array no formato negociado (JSON, Smile ou CBOR)
+                    FormatoHttp.Formato formato = formatos.daResposta(ctx);
+                    FormatoHttp.definirContentType(ctx, formato);
+                    total = TarefaJsonStreamer.writeJsonArray(formato.mapper(), tarefas.query(filtro, afterId), ctx.outputStream());
+                }
+                log.info("GET /tarefas - Streaming ({}) concluído. Total: {}", stream, total);
+                return;
+            }
+
+            if (limitParam == null && cursorParam == null) {
+                List<Tarefa> todas = filtro.isVazio() ? tarefas.findAll() : primeiras(tarefas.query(filtro, 0), Integer.MAX_VALUE);
+                formatos.responder(ctx, todas);
+                log.info("GET /tarefas - Retornando todas as tarefas. Total: {}", todas.size());
+                return;
+            }
+
+            List<Tarefa> pagina = filtro.isVazio() ? tarefas.findPage(afterId, limit) : primeiras(tarefas.query(filtro, afterId), limit);
+            String proximoCursor = pagina.size() < limit ? null : Paginacao.encodeCursor(pagina.get(pagina.size() - 1).getId());
+            formatos.responder(ctx, new PaginaTarefas(pagina, proximoCursor));
+            log.info("GET /tarefas - Retornando página com {} tarefas.", pagina.size());
+        }));
+
+        // Endpoint: GET /tarefas/search?q= - Busca textual em titulo e descricao, por relevância (BM25)
+        // Registrado antes de /tarefas/{id}, que também casaria com o caminho. Aceita limit/cursor e If-None-Match.
+        appInstance.get("/tarefas/search", admissao.rota("tarefas.buscar", ctx -> {
+            String consulta = ctx.queryParam("q");
+            if (consulta == null || consulta.isBlank()) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "O parâmetro q é obrigatório."));
+                log.warn("GET /tarefas/search - Erro: consulta vazia.");
+                return;
+            }
+            Paginacao.PosicaoBusca depoisDe;
+            int limit;
+            try {
+                depoisDe = Paginacao.decodeCursorBusca(ctx.queryParam("cursor"));
+                limit = Paginacao.parseLimit(ctx.queryParam("limit"));
+            } catch (IllegalArgumentException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Parâmetros de paginação inválidos: " + e.getMessage()));
+                return;
+            }
+
+            String etag = CondicionalHttp.etagColecao(tarefas.epoch(), tarefas.version());
+            if (CondicionalHttp.naoModificado(ctx, etag)) {
+                return;
+            }
+
+            PaginaBusca pagina = tarefas.search(consulta, depoisDe.pontuacao(), depoisDe.id(), limit);
+            if (pagina.resultados.size() == limit) {
+                ItemBusca ultimo = pagina.resultados.get(limit - 1);
+                pagina.proximoCursor = Paginacao.encodeCursorBusca(ultimo.pontuacao, ultimo.tarefa.getId());
+            }
+            formatos.responder(ctx, pagina);
+            log.info("GET /tarefas/search - '{}': {} de {} resultados.", consulta, pagina.resultados.size(), pagina.total);
+        }));
+
+        // Endpoint: GET /tarefas/changes - Alterações das tarefas como Server-Sent Events
+        // (exige Accept: text/event-stream; retoma a partir de Last-Event-ID). Antes de /tarefas/{id}.
+        // Fora do controle de admissão: a conexão ocuparia uma vaga do limite enquanto aberta.
+        appInstance.sse("/tarefas/changes", feed::transmitir);
 
-        // Endpoint: GET /tarefas/{id} - Buscar Tarefa por ID
-        appInstance.get("/tarefas/{id}", ctx -> {
+        // Endpoint: GET /tarefas/{id} - Buscar Tarefa por ID (suporta If-None-Match)
+        appInstance.get("/tarefas/{id}", admissao.rota("tarefas.ler", ctx -> {
             try {
                 int id = Integer.parseInt(ctx.pathParam("id"));
-                Optional<Tarefa> tarefaEncontrada = tarefas.stream()
-                        .filter(t -> t.getId() == id)
-                        .findFirst();
+                Optional<Tarefa> tarefaEncontrada = tarefas.findById(id);
 
                 if (tarefaEncontrada.isPresent()) {
-                    ctx.json(tarefaEncontrada.get());
-                    System.out.println("GET /tarefas/" + id + " - Tarefa encontrada: " + tarefaEncontrada.get().getTitulo());
+                    long epoca = tarefas.epoch();
+                    if (CondicionalHttp.naoModificado(ctx, CondicionalHttp.etagTarefa(epoca, tarefaEncontrada.get()))) {
+                        log.debug("GET /tarefas/{} - Não modificada.", id);
+                        return;
+                    }
+                    responderTarefa(ctx, formatos, cacheJson, epoca, tarefaEncontrada.get());
+                    log.info("GET /tarefas/{} - Tarefa encontrada: {}", id, tarefaEncontrada.get().getTitulo());
                 } else {
                     ctx.status(HttpStatus.NOT_FOUND).json(Collections.singletonMap("erro", "Tarefa com ID " + id + " não encontrada."));
-                    System.out.println("GET /tarefas/" + id + " - Tarefa não encontrada.");
+                    log.info("GET /tarefas/{} - Tarefa não encontrada.", id);
                 }
             } catch (NumberFormatException e) {
                 ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "ID inválido. O ID deve ser um número inteiro."));
-                System.err.println("GET /tarefas/{id} - Erro: ID inválido, não é um número. Valor recebido: " + ctx.pathParam("id"));
+                log.warn("GET /tarefas/{id} - Erro: ID inválido, não é um número. Valor recebido: {}", ctx.pathParam("id"));
+            }
+        }));
+
+        // Endpoint: PUT /tarefas/{id} - Substitui título, descrição e conclusão (suporta If-Match)
+        appInstance.put("/tarefas/{id}", admissao.rota("tarefas.substituir", ctx -> {
+            Integer id = idDoCaminho(ctx);
+            if (id == null) {
+                return;
             }
+            Tarefa dados = tarefaDoCorpo(ctx, formatos);
+            if (dados == null) {
+                return;
+            }
+            if (!tituloValido(dados)) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", ERRO_TITULO_OBRIGATORIO));
+                return;
+            }
+            long epoca = tarefas.epoch();
+            ResultadoEscrita resultado = tarefas.update(id, CondicionalHttp.versaoExigida(ctx, epoca, id), tarefa -> {
+                tarefa.setTitulo(dados.getTitulo());
+                tarefa.setDescricao(dados.getDescricao());
+                tarefa.setConcluida(dados.isConcluida());
+            });
+            if (responderEscrita(ctx, id, epoca, resultado)) {
+                ctx.header("ETag", CondicionalHttp.etagTarefa(epoca, resultado.getTarefa()));
+                responderTarefa(ctx, formatos, cacheJson, epoca, resultado.getTarefa());
+                log.info("PUT /tarefas/{} - Tarefa substituída (versão {}).", id, resultado.getTarefa().getVersao());
+            }
+        }));
+
+        // Endpoint: PATCH /tarefas/{id} - Altera só os campos enviados: titulo, descricao, concluida
+        appInstance.patch("/tarefas/{id}", admissao.rota("tarefas.alterar", ctx -> {
+            Integer id = idDoCaminho(ctx);
+            if (id == null) {
+                return;
+            }
+            Consumer<Tarefa> alteracao;
+            try {
+                alteracao = lerPatch(formatos.daRequisicao(ctx).mapper().readTree(ctx.bodyInputStream()));
+            } catch (IllegalArgumentException | IOException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Alteração inválida: " + e.getMessage()));
+                log.warn("PATCH /tarefas/{} - Erro: alteração inválida. {}", id, e.getMessage());
+                return;
+            }
+            long epoca = tarefas.epoch();
+            ResultadoEscrita resultado = tarefas.update(id, CondicionalHttp.versaoExigida(ctx, epoca, id), alteracao);
+            if (responderEscrita(ctx, id, epoca, resultado)) {
+                ctx.header("ETag", CondicionalHttp.etagTarefa(epoca, resultado.getTarefa()));
+                responderTarefa(ctx, formatos, cacheJson, epoca, resultado.getTarefa());
+                log.info("PATCH /tarefas/{} - Tarefa alterada (versão {}).", id, resultado.getTarefa().getVersao());
+            }
+        }));
+
+        // Endpoint: DELETE /tarefas/{id} - Remove a tarefa (suporta If-Match)
+        appInstance.delete("/tarefas/{id}", admissao.rota("tarefas.remover", ctx -> {
+            Integer id = idDoCaminho(ctx);
+            if (id == null) {
+                return;
+            }
+            long epoca = tarefas.epoch();
+            ResultadoEscrita resultado = tarefas.delete(id, CondicionalHttp.versaoExigida(ctx, epoca, id));
+            if (responderEscrita(ctx, id, epoca, resultado)) {
+                ctx.status(HttpStatus.NO_CONTENT);
+                cacheJson.invalidar(id);
+                log.info("DELETE /tarefas/{} - Tarefa removida.", id);
+            }
+        }));
+
+        // Endpoints: PUT e DELETE /tarefas/{id}/concluida - Marca ou desmarca a conclusão.
+        // Caminho rápido: sem corpo para ler nem resposta para serializar (204 com o novo ETag).
+        appInstance.put("/tarefas/{id}/concluida", admissao.rota("tarefas.concluir", ctx -> marcarConclusao(ctx, true)));
+        appInstance.delete("/tarefas/{id}/concluida", admissao.rota("tarefas.concluir", ctx -> marcarConclusao(ctx, false)));
+
+        // Recusas da replicação antes do handler: 307 para o líder, 400 ou 503 (ver ReplicacaoHttp)
+        appInstance.exception(ReplicacaoHttp.RecusaReplicacao.class, (e, ctx) -> {
+            e.responder(ctx);
+            log.info("{} {} - {}", ctx.method(), ctx.path(), e.getMessage());
         });
 
         // Tratamento de erros genéricos para a aplicação
         appInstance.exception(Exception.class, (e, ctx) -> {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Collections.singletonMap("erro", "Ocorreu um erro interno na API: " + e.getMessage()));
-            System.err.println("Erro interno da API: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erro interno da API: {}", e.getMessage(), e);
         });
 
         return appInstance;
     }
 
+    private static TarefaRepository abrirRepositorio() {
+        TarefaRepository repositorio = criarRepositorio();
+        // Depois da recuperação: as tarefas lidas do disco não viram eventos
+        repositorio.addListener(feed);
+        if (!replicacao.isReplica()) {
+            // As réplicas recebem as tarefas recuperadas na cópia completa
+            repositorio.addListener(logReplicacao);
+        }
+        return repositorio;
+    }
+
+    private static TarefaRepository criarRepositorio() {
+        TipoArmazenamento armazenamento = TipoArmazenamento.fromSystemProperties();
+        if (replicacao.isReplica()) {
+            // A réplica recebe tudo do líder ao conectar: não precisa de disco nem de IDs próprios
+            if (PersistenciaConfig.fromSystemProperties().isPresent()) {
+                log.warn("reat.persistencia.dir ignorado: a réplica mantém as tarefas só em memória.");
+            }
+            if (armazenamento != TipoArmazenamento.MAPA) {
+                log.warn("reat.armazenamento ignorado: a réplica aplica a cópia do líder no armazenamento padrão.");
+            }
+            return new InMemoryTarefaRepository();
+        }
+        // Em cluster (-Dreat.cluster.nos), só os blocos de IDs deste nó (ver ClusterConfig)
+        AlocadorIds alocador = ClusterConfig.fromSystemProperties().map(ClusterConfig::alocador).orElseGet(AlocadorIds::new);
+        Optional<PersistenciaConfig> persistencia = PersistenciaConfig.fromSystemProperties();
+        if (persistencia.isEmpty()) {
+            return armazenamento.criar(alocador);
+        }
+        if (armazenamento != TipoArmazenamento.MAPA) {
+            log.warn("reat.armazenamento ignorado: com persistência, as tarefas ficam no armazenamento padrão.");
+        }
+        try {
+            return PersistentTarefaRepository.open(persistencia.get(), alocador);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir a persistência em " + persistencia.get().getDiretorio(), e);
+        }
+    }
+
+    // Fecha o repositório durável, gravando as escritas pendentes
+    private static void fecharRepositorio() {
+        if (tarefas instanceof PersistentTarefaRepository persistente) {
+            try {
+                persistente.close();
+            } catch (IOException e) {
+                log.error("Erro ao fechar a persistência: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final String ERRO_TITULO_OBRIGATORIO = "O título da tarefa é obrigatório.";
+    // Tamanho máximo de um lote em POST /tarefas/batch
+    private static final int LOTE_MAXIMO = 100_000;
+
+    // Marca (true) ou desmarca (false) a conclusão da tarefa do caminho
+    private static void marcarConclusao(Context ctx, boolean concluida) {
+        Integer id = idDoCaminho(ctx);
+        if (id == null) {
+            return;
+        }
+        long epoca = tarefas.epoch();
+        ResultadoEscrita resultado = tarefas.update(id, CondicionalHttp.versaoExigida(ctx, epoca, id),
+                tarefa -> tarefa.setConcluida(concluida));
+        if (responderEscrita(ctx, id, epoca, resultado)) {
+            ctx.header("ETag", CondicionalHttp.etagTarefa(epoca, resultado.getTarefa()));
+            ctx.status(HttpStatus.NO_CONTENT);
+            log.info("{} /tarefas/{}/concluida - Conclusão: {} (versão {}).",
+                    ctx.method(), id, concluida, resultado.getTarefa().getVersao());
+        }
+    }
+
+    // Até 'limite' tarefas do início da sequência, sem percorrer o restante
+    private static List<Tarefa> primeiras(Iterable<Tarefa> tarefas, int limite) {
+        List<Tarefa> resultado = new ArrayList<>();
+        Iterator<Tarefa> it = tarefas.iterator();
+        while (resultado.size() < limite && it.hasNext()) {
+            resultado.add(it.next());
+        }
+        return resultado;
+    }
+
+    // ID numérico do caminho, ou null depois de responder 400
+    private static Integer idDoCaminho(Context ctx) {
+        try {
+            return Integer.parseInt(ctx.pathParam("id"));
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "ID inválido. O ID deve ser um número inteiro."));
+            log.warn("{} {} - Erro: ID inválido, não é um número. Valor recebido: {}", ctx.method(), ctx.path(), ctx.pathParam("id"));
+            return null;
+        }
+    }
+
+    // Tarefa do corpo da requisição, ou null depois de responder 400 (corpo ilegível ou
+    // campo inválido, como uma dataCriacao fora do formato ISO-8601)
+    private static Tarefa tarefaDoCorpo(Context ctx, FormatoHttp formatos) throws IOException {
+        try {
+            return formatos.ler(ctx, Tarefa.class);
+        } catch (JsonProcessingException e) {
+            String motivo = e.getOriginalMessage();
+            for (Throwable causa = e.getCause(); causa != null; causa = causa.getCause()) {
+                if (causa instanceof IllegalArgumentException) {
+                    motivo = causa.getMessage();
+                    break;
+                }
+            }
+            ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Tarefa inválida: " + motivo));
+            log.warn("{} {} - Erro: corpo da tarefa inválido: {}", ctx.method(), ctx.path(), motivo);
+            return null;
+        }
+    }
+
+    // Escreve a tarefa no formato negociado. Em JSON, usa os bytes já serializados do cache:
+    // leituras repetidas não passam pelo Jackson. Smile e CBOR são serializados na hora.
+    private static void responderTarefa(Context ctx, FormatoHttp formatos, CacheJsonTarefas cacheJson, long epoca, Tarefa tarefa) throws IOException {
+        FormatoHttp.Formato formato = formatos.daResposta(ctx);
+        FormatoHttp.definirContentType(ctx, formato);
+        ctx.result(formato.isJson() ? cacheJson.json(epoca, tarefa) : formato.mapper().writeValueAsBytes(tarefa));
+    }
+
+    // Responde 404 ou 412 (com o ETag atual) quando a escrita não foi aplicada e retorna false.
+    // Quando foi, retorna true para o handler completar a resposta.
+    private static boolean responderEscrita(Context ctx, int id, long epoca, ResultadoEscrita resultado) {
+        switch (resultado.getStatus()) {
+            case NAO_ENCONTRADA -> {
+                ctx.status(HttpStatus.NOT_FOUND).json(Collections.singletonMap("erro", "Tarefa com ID " + id + " não encontrada."));
+                log.info("{} {} - Tarefa não encontrada.", ctx.method(), ctx.path());
+                return false;
+            }
+            case CONFLITO -> {
+                ctx.header("ETag", CondicionalHttp.etagTarefa(epoca, resultado.getTarefa()));
+                ctx.status(HttpStatus.PRECONDITION_FAILED).json(Collections.singletonMap("erro",
+                        "A tarefa foi alterada por outra requisição. Versão atual: " + resultado.getTarefa().getVersao() + "."));
+                log.info("{} {} - Conflito de versão (atual: {}).", ctx.method(), ctx.path(), resultado.getTarefa().getVersao());
+                return false;
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    // Converte o corpo de um PATCH em uma alteração. Só titulo, descricao e concluida podem mudar.
+    private static Consumer<Tarefa> lerPatch(JsonNode corpo) {
+        if (corpo == null || !corpo.isObject() || corpo.isEmpty()) {
+            throw new IllegalArgumentException("envie um objeto JSON com titulo, descricao e/ou concluida.");
+        }
+        Consumer<Tarefa> alteracao = tarefa -> { };
+        for (Iterator<Map.Entry<String, JsonNode>> campos = corpo.fields(); campos.hasNext(); ) {
+            Map.Entry<String, JsonNode> campo = campos.next();
+            JsonNode valor = campo.getValue();
+            switch (campo.getKey()) {
+                case "titulo" -> {
+                    if (!valor.isTextual() || valor.asText().trim().isEmpty()) {
+                        throw new IllegalArgumentException(ERRO_TITULO_OBRIGATORIO);
+                    }
+                    String titulo = valor.asText();
+                    alteracao = alteracao.andThen(tarefa -> tarefa.setTitulo(titulo));
+                }
+                case "descricao" -> {
+                    if (!valor.isTextual() && !valor.isNull()) {
+                        throw new IllegalArgumentException("'descricao' deve ser texto ou null.");
+                    }
+                    String descricao = valor.isNull() ? null : valor.asText();
+                    alteracao = alteracao.andThen(tarefa -> tarefa.setDescricao(descricao));
+                }
+                case "concluida" -> {
+                    if (!valor.isBoolean()) {
+                        throw new IllegalArgumentException("'concluida' deve ser true ou false.");
+                    }
+                    boolean concluida = valor.asBoolean();
+                    alteracao = alteracao.andThen(tarefa -> tarefa.setConcluida(concluida));
+                }
+                default -> throw new IllegalArgumentException("o campo '" + campo.getKey() + "' não pode ser alterado.");
+            }
+        }
+        return alteracao;
+    }
+
+    private static boolean tituloValido(Tarefa tarefa) {
+        return tarefa.getTitulo() != null && !tarefa.getTitulo().trim().isEmpty();
+    }
+
+    // Lê o lote item a item, sem materializar o corpo inteiro como String.
+    // NDJSON é sempre texto; o array é lido com o mapper do formato da requisição.
+    private static List<Tarefa> lerLote(InputStream corpo, boolean ndjson, ObjectMapper mapper) throws IOException {
+        List<Tarefa> lote = new ArrayList<>();
+        if (ndjson) {
+            try (MappingIterator<Tarefa> itens = objectMapper.readerFor(Tarefa.class).readValues(corpo)) {
+                while (itens.hasNextValue()) {
+                    adicionarAoLote(lote, itens.nextValue());
+                }
+            }
+            return lote;
+        }
+        try (JsonParser parser = mapper.getFactory().createParser(corpo)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("o corpo deve ser um array JSON.");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                adicionarAoLote(lote, parser.currentToken() == JsonToken.VALUE_NULL ? null : mapper.readValue(parser, Tarefa.class));
+            }
+        }
+        return lote;
+    }
+
+    private static void adicionarAoLote(List<Tarefa> lote, Tarefa tarefa) {
+        if (lote.size() == LOTE_MAXIMO) {
+            throw new IllegalArgumentException("o lote excede o máximo de " + LOTE_MAXIMO + " tarefas.");
+        }
+        lote.add(tarefa);
+    }
+
     public static void main(String[] args) {
+        Runtime.getRuntime().addShutdownHook(new Thread(Main::fecharRepositorio, "reat-shutdown"));
         startJavalinApp();
     }
 
     public static Javalin startJavalinApp() {
         if (app == null) {
-            app = buildApp().start(7000);
+            int porta = Integer.getInteger("reat.porta", 7000);
+            app = buildApp().start(porta);
 
-            System.out.println("API (ReAT) consolidada iniciada na porta 7000.");
+            System.out.println("API (ReAT) consolidada iniciada na porta " + porta + " (threads: "
+                    + ServidorConfig.fromSystemProperties().getModo().name().toLowerCase() + ").");
+            ClusterConfig.fromSystemProperties().ifPresent(cluster -> System.out.println(
+                    "Nó do cluster " + cluster.getNo() + " (" + cluster.getNos().size() + " nós)."));
+            if (replica != null) {
+                replica.iniciar();
+                System.out.println("Réplica de " + replica.getLider() + ": leituras locais, escritas redirecionadas ao líder.");
+            }
             System.out.println("Endpoints disponíveis:");
-            System.out.println("- http://localhost:7000/hello");
-            System.out.println("- http://localhost:7000/status");
-            System.out.println("- http://localhost:7000/echo (POST)");
-            System.out.println("- http://localhost:7000/saudacao/{nome} (GET)");
-            System.out.println("- http://localhost:7000/tarefas (POST)");
-            System.out.println("- http://localhost:7000/tarefas (GET)");
-            System.out.println("- http://localhost:7000/tarefas/{id} (GET)");
+            System.out.println("- http://localhost:" + porta + "/hello");
+            System.out.println("- http://localhost:" + porta + "/status");
+            System.out.println("- http://localhost:" + porta + "/metrics");
+            System.out.println("- http://localhost:" + porta + "/echo (POST)");
+            System.out.println("- http://localhost:" + porta + "/saudacao/{nome} (GET)");
+            System.out.println("- http://localhost:" + porta + "/tarefas (POST)");
+            System.out.println("- http://localhost:" + porta + "/tarefas/batch (POST, array JSON ou NDJSON)");
+            System.out.println("- http://localhost:" + porta + "/tarefas (GET, aceita ?limit=&cursor=, ?stream=ndjson|json e filtros como ?concluida=&titulo=)");
+            System.out.println("- http://localhost:" + porta + "/tarefas/{id} (GET, PUT, PATCH, DELETE)");
+            System.out.println("- http://localhost:" + porta + "/tarefas/search?q= (GET, busca textual)");
+            System.out.println("- http://localhost:" + porta + "/tarefas/changes (GET, Server-Sent Events)");
+            System.out.println("- http://localhost:" + porta + "/replicacao (GET, papel, versão e atraso da replicação)");
+            perfil.ifPresent(perfilJfr -> System.out.println("- http://localhost:" + porta + "/debug/profile (GET, perfil por rota; DELETE zera)"));
         }
         return app;
     }
@@ -142,8 +747,14 @@ public class Main {
         if (app != null) {
             app.stop();
             app = null;
-            tarefas.clear(); // Limpa as tarefas ao parar a aplicação
-            taskIdCounter.set(1); // Reseta o contador de ID
+            if (tarefas instanceof PersistentTarefaRepository) {
+                // Com persistência os dados sobrevivem à parada: fecha o log e
+                // reabre a partir do disco, como faria um novo processo
+                fecharRepositorio();
+                tarefas = abrirRepositorio();
+            } else {
+                tarefas.clear(); // Limpa as tarefas e reseta o contador de ID
+            }
             System.out.println("API (ReAT) consolidada parada.");
         }
     }
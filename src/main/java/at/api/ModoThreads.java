@@ -0,0 +1,21 @@
+package at.api;
+
+// Em quais threads o Jetty executa os handlers
+public enum ModoThreads {
+    // Padrão do Javalin (no JDK 21 ele já prefere threads virtuais)
+    AUTO,
+    // Pool limitado de threads de plataforma (QueuedThreadPool)
+    PLATAFORMA,
+    // Uma thread virtual por requisição, com limite de concorrência e de fila
+    VIRTUAL;
+
+    static ModoThreads parse(String valor) {
+        return switch (valor.trim().toLowerCase()) {
+            case "auto" -> AUTO;
+            case "plataforma" -> PLATAFORMA;
+            case "virtual" -> VIRTUAL;
+            default -> throw new IllegalArgumentException("Modo de threads desconhecido: " + valor
+                    + ". Use 'auto', 'plataforma' ou 'virtual'.");
+        };
+    }
+}
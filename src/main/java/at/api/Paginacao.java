@@ -0,0 +1,82 @@
+package at.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursores opacos para a paginação de GET /tarefas e GET /tarefas/search.
+// O cursor codifica o último ID entregue; a página seguinte começa no ID seguinte,
+// então inserções concorrentes não deslocam nem duplicam itens entre páginas.
+// Na busca, o cursor codifica a pontuação e o ID do último resultado, que é a
+// posição dele na ordem da busca.
+final class Paginacao {
+
+    static final int LIMITE_PADRAO = 100;
+    static final int LIMITE_MAXIMO = 1000;
+
+    private static final String PREFIXO = "t:";
+    private static final String PREFIXO_BUSCA = "b:";
+
+    // Posição do último resultado entregue pela busca
+    record PosicaoBusca(double pontuacao, int id) {
+        static final PosicaoBusca INICIO = new PosicaoBusca(Double.POSITIVE_INFINITY, 0);
+    }
+
+    private Paginacao() {
+    }
+
+    static String encodeCursor(int ultimoId) {
+        byte[] bytes = (PREFIXO + ultimoId).getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Retorna o último ID entregue; lança IllegalArgumentException para cursores malformados
+    static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        String decodificado = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        if (!decodificado.startsWith(PREFIXO)) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        int id = Integer.parseInt(decodificado.substring(PREFIXO.length()));
+        if (id < 0) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return id;
+    }
+
+    static String encodeCursorBusca(double pontuacao, int ultimoId) {
+        String texto = PREFIXO_BUSCA + Long.toHexString(Double.doubleToLongBits(pontuacao)) + ":" + ultimoId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Lança IllegalArgumentException para cursores malformados
+    static PosicaoBusca decodeCursorBusca(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return PosicaoBusca.INICIO;
+        }
+        String decodificado = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        int separador = decodificado.indexOf(':', PREFIXO_BUSCA.length());
+        if (!decodificado.startsWith(PREFIXO_BUSCA) || separador < 0) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        double pontuacao = Double.longBitsToDouble(Long.parseUnsignedLong(decodificado.substring(PREFIXO_BUSCA.length(), separador), 16));
+        int id = Integer.parseInt(decodificado.substring(separador + 1));
+        if (Double.isNaN(pontuacao) || id < 0) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return new PosicaoBusca(pontuacao, id);
+    }
+
+    // Retorna o limite da página; lança IllegalArgumentException fora de 1..LIMITE_MAXIMO
+    static int parseLimit(String limit) {
+        if (limit == null || limit.isEmpty()) {
+            return LIMITE_PADRAO;
+        }
+        int valor = Integer.parseInt(limit);
+        if (valor < 1 || valor > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+        return valor;
+    }
+}
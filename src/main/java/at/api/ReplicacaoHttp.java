@@ -0,0 +1,136 @@
+package at.api;
+
+import at.models.EstadoReplicacao;
+import at.replicacao.LogReplicacao;
+import at.replicacao.Replica;
+import at.replicacao.ReplicacaoConfig;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// Consistência das leituras entre líder e réplicas, nas rotas /tarefas:
+//
+//   X-Reat-Versao          em toda resposta: a posição do log do líder que ela reflete. Nas
+//                          escritas (no líder), já inclui a própria escrita; nas leituras, é
+//                          obtida antes dos dados.
+//   X-Reat-Versao-Minima   na leitura: só responde depois de refletir essa posição. A réplica
+//                          espera até reat.replicacao.esperaMaxMs e, se não alcançar, responde
+//                          503 com Retry-After. Leia-suas-escritas: envie à réplica o
+//                          X-Reat-Versao recebido do líder na escrita.
+//
+// Na réplica, as escritas são redirecionadas ao líder (307, que preserva método e corpo).
+// O feed /tarefas/changes fica de fora: os eventos já dizem a versão de cada tarefa.
+final class ReplicacaoHttp {
+
+    static final String VERSAO = "X-Reat-Versao";
+    static final String VERSAO_MINIMA = "X-Reat-Versao-Minima";
+
+    // Recusa antes do handler, convertida na resposta pelo handler de exceções de Main
+    static final class RecusaReplicacao extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status; // código HTTP
+        private final String cabecalho;
+        private final String valor;
+
+        RecusaReplicacao(HttpStatus status, String mensagem, String cabecalho, String valor) {
+            super(mensagem);
+            this.status = status.getCode();
+            this.cabecalho = cabecalho;
+            this.valor = valor;
+        }
+
+        void responder(Context ctx) {
+            if (cabecalho != null) {
+                ctx.header(cabecalho, valor);
+            }
+            ctx.status(status).json(Collections.singletonMap("erro", getMessage()));
+        }
+    }
+
+    private final LogReplicacao logLider;
+    private final Replica replica; // null no líder
+    private final long esperaMaxNanos;
+
+    ReplicacaoHttp(LogReplicacao logLider, Replica replica, ReplicacaoConfig config) {
+        this.logLider = logLider;
+        this.replica = replica;
+        this.esperaMaxNanos = TimeUnit.MILLISECONDS.toNanos(config.getEsperaMaxMs());
+    }
+
+    // Posição do log do líder refletida nas leituras desta instância
+    long versao() {
+        return replica == null ? logLider.versao() : replica.aplicada();
+    }
+
+    void antes(Context ctx) throws InterruptedException {
+        if (!rotaDeTarefas(ctx)) {
+            return;
+        }
+        if (!leitura(ctx)) {
+            if (replica != null) {
+                String destino = replica.getLider() + ctx.path() + (ctx.queryString() == null ? "" : "?" + ctx.queryString());
+                throw new RecusaReplicacao(HttpStatus.TEMPORARY_REDIRECT,
+                        "Esta instância é uma réplica: envie as escritas ao líder " + replica.getLider() + ".", "Location", destino);
+            }
+            return;
+        }
+        String minimaParam = ctx.header(VERSAO_MINIMA);
+        if (minimaParam != null) {
+            long minima;
+            try {
+                minima = Long.parseLong(minimaParam.trim());
+            } catch (NumberFormatException e) {
+                throw new RecusaReplicacao(HttpStatus.BAD_REQUEST, VERSAO_MINIMA + " deve ser um número inteiro.", null, null);
+            }
+            if (!alcancar(minima)) {
+                throw new RecusaReplicacao(HttpStatus.SERVICE_UNAVAILABLE,
+                        "A versão " + minima + " ainda não foi aplicada nesta instância (versão atual: " + versao() + ").", "Retry-After", "1");
+            }
+        }
+        ctx.header(VERSAO, Long.toString(versao()));
+    }
+
+    // Nas escritas, a posição lida depois da escrita
+    void depois(Context ctx) {
+        if (rotaDeTarefas(ctx) && !leitura(ctx) && replica == null) {
+            ctx.header(VERSAO, Long.toString(versao()));
+        }
+    }
+
+    EstadoReplicacao estado() {
+        EstadoReplicacao estado = new EstadoReplicacao();
+        estado.versao = versao();
+        if (replica == null) {
+            estado.papel = EstadoReplicacao.LIDER;
+            estado.replicas = logLider.replicas();
+        } else {
+            estado.papel = EstadoReplicacao.REPLICA;
+            estado.lider = replica.getLider();
+            estado.conectada = replica.conectada();
+            estado.versaoLider = replica.versaoLider();
+            estado.atrasoVersoes = replica.atrasoVersoes();
+            estado.atrasoMs = replica.atrasoMs();
+        }
+        return estado;
+    }
+
+    private boolean alcancar(long minima) throws InterruptedException {
+        if (replica == null) {
+            return minima <= logLider.versao();
+        }
+        return replica.aguardar(minima, esperaMaxNanos);
+    }
+
+    private static boolean rotaDeTarefas(Context ctx) {
+        String caminho = ctx.path();
+        return (caminho.equals("/tarefas") || caminho.startsWith("/tarefas/")) && !caminho.equals("/tarefas/changes");
+    }
+
+    private static boolean leitura(Context ctx) {
+        return ctx.method() == HandlerType.GET || ctx.method() == HandlerType.HEAD || ctx.method() == HandlerType.OPTIONS;
+    }
+}
@@ -0,0 +1,345 @@
+package at.api;
+
+import at.cluster.ClusterConfig;
+import at.logging.AsyncLogger;
+import at.models.NoCluster;
+import at.models.PaginaTarefas;
+import at.models.Tarefa;
+import at.repository.AlocadorIds;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import io.javalin.json.JavalinJackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Roteador do modo cluster: expõe a API de tarefas na frente dos nós (processos Main com
+// -Dreat.cluster.no), cada um dono de uma parte dos IDs (ver ClusterConfig).
+//
+//   POST /tarefas e /tarefas/batch   um nó por vez (rodízio); o nó atribui IDs dos próprios
+//                                    blocos. Se ele não aceitar a conexão, tenta o seguinte.
+//   /tarefas/{id} e /{id}/concluida  o dono do ID pelo anel de hash consistente, sem consulta
+//   GET /tarefas                     todos os nós em paralelo; as listas (em ordem de ID)
+//                                    são intercaladas à medida que chegam, sem juntá-las em
+//                                    memória. Filtros, limit e cursor valem como em um nó só.
+//                                    Os nós respondem sempre JSON; o roteador escreve a
+//                                    lista no formato do Accept do cliente (ver FormatoHttp).
+//   GET /cluster                     os nós, quantos blocos cada um tem e se respondem
+//
+// A busca textual e o feed de alterações continuam por nó: as pontuações do BM25 dependem
+// das estatísticas de cada nó, e os eventos não têm ordem entre nós.
+public class RoteadorCluster {
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(RoteadorCluster.class);
+    // Cabeçalhos repassados ao nó e de volta ao cliente
+    private static final List<String> CABECALHOS_REQUISICAO = List.of("Content-Type", "Accept", "If-Match", "If-None-Match");
+    private static final List<String> CABECALHOS_RESPOSTA = List.of("Content-Type", "ETag", "Retry-After");
+
+    private final ClusterConfig cluster;
+    private final ObjectMapper objectMapper = Main.criarObjectMapper();
+    private final FormatoHttp formatos = new FormatoHttp(objectMapper);
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final AtomicInteger rodizio = new AtomicInteger();
+
+    public RoteadorCluster(ClusterConfig cluster) {
+        this.cluster = cluster;
+    }
+
+    public static void main(String[] args) {
+        ClusterConfig cluster = ClusterConfig.fromSystemProperties()
+                .orElseThrow(() -> new IllegalStateException("Informe os nós do cluster em -Dreat.cluster.nos."));
+        int porta = Integer.getInteger("reat.porta", 7000);
+        new RoteadorCluster(cluster).buildApp().start(porta);
+        System.out.println("Roteador do cluster (ReAT) iniciado na porta " + porta + ". Nós: " + cluster.getNos());
+    }
+
+    public Javalin buildApp() {
+        Javalin appInstance = Javalin.create(config -> {
+            config.http.defaultContentType = "application/json";
+            config.jsonMapper(new JavalinJackson(objectMapper));
+        });
+
+        appInstance.post("/tarefas", this::criar);
+        appInstance.post("/tarefas/batch", this::criar);
+        appInstance.get("/tarefas", this::listar);
+        appInstance.get("/tarefas/{id}", this::encaminharAoDono);
+        appInstance.put("/tarefas/{id}", this::encaminharAoDono);
+        appInstance.patch("/tarefas/{id}", this::encaminharAoDono);
+        appInstance.delete("/tarefas/{id}", this::encaminharAoDono);
+        appInstance.put("/tarefas/{id}/concluida", this::encaminharAoDono);
+        appInstance.delete("/tarefas/{id}/concluida", this::encaminharAoDono);
+        appInstance.get("/cluster", this::estado);
+
+        appInstance.exception(NoIndisponivelException.class, (e, ctx) -> {
+            ctx.status(HttpStatus.BAD_GATEWAY).json(Collections.singletonMap("erro", e.getMessage()));
+            log.warn("{} {} - {}", ctx.method(), ctx.path(), e.getMessage());
+        });
+        appInstance.exception(Exception.class, (e, ctx) -> {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Collections.singletonMap("erro", "Ocorreu um erro interno no roteador: " + e.getMessage()));
+            log.error("Erro interno do roteador: {}", e.getMessage(), e);
+        });
+        return appInstance;
+    }
+
+    // Criação: qualquer nó serve, pois cada um só usa os próprios blocos de IDs
+    private void criar(Context ctx) throws Exception {
+        List<String> nos = cluster.getNos();
+        int inicio = Math.floorMod(rodizio.getAndIncrement(), nos.size());
+        byte[] corpo = ctx.bodyAsBytes();
+        for (int i = 0; i < nos.size(); i++) {
+            String no = nos.get((inicio + i) % nos.size());
+            try {
+                responder(ctx, http.send(requisicao(ctx, no, ctx.path(), corpo).build(), HttpResponse.BodyHandlers.ofInputStream()));
+                return;
+            } catch (ConnectException e) {
+                // A requisição não chegou ao nó: é seguro tentar o próximo
+                log.warn("{} {} - Nó {} recusou a conexão; tentando o próximo.", ctx.method(), ctx.path(), no);
+            }
+        }
+        throw new NoIndisponivelException("Nenhum nó do cluster aceitou a conexão.");
+    }
+
+    private void encaminharAoDono(Context ctx) throws Exception {
+        int id;
+        try {
+            id = Integer.parseInt(ctx.pathParam("id"));
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "ID inválido. O ID deve ser um número inteiro."));
+            return;
+        }
+        String dono = cluster.donoDoId(id);
+        String caminho = ctx.path() + (ctx.queryString() == null ? "" : "?" + ctx.queryString());
+        try {
+            responder(ctx, http.send(requisicao(ctx, dono, caminho, ctx.bodyAsBytes()).build(), HttpResponse.BodyHandlers.ofInputStream()));
+        } catch (IOException e) {
+            throw new NoIndisponivelException("O nó " + dono + ", dono da tarefa " + id + ", não respondeu: " + e.getMessage());
+        }
+    }
+
+    // GET /tarefas em todos os nós, intercalando as listas por ID
+    private void listar(Context ctx) throws Exception {
+        String stream = ctx.queryParam("stream");
+        String limitParam = ctx.queryParam("limit");
+        String cursorParam = ctx.queryParam("cursor");
+        int limit;
+        try {
+            Paginacao.decodeCursor(cursorParam);
+            limit = Paginacao.parseLimit(limitParam);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Parâmetros de paginação inválidos: " + e.getMessage()));
+            return;
+        }
+        if (stream != null && !stream.equals("ndjson") && !stream.equals("json")) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Modo de streaming inválido. Use 'ndjson' ou 'json'."));
+            return;
+        }
+        boolean paginada = stream == null && (limitParam != null || cursorParam != null);
+
+        // Paginada: a página de cada nó basta, pois nenhum contribui com mais de 'limit' itens.
+        // Completa: cada nó transmite a sua lista em NDJSON, lida item a item.
+        List<HttpResponse<InputStream>> respostas = consultarTodos(ctx, paginada ? null : "ndjson");
+        try {
+            for (HttpResponse<InputStream> resposta : respostas) {
+                if (resposta.statusCode() != HttpStatus.OK.getCode()) {
+                    // ex: 400 por filtro inválido, igual em todos os nós. O corpo é lido aqui
+                    // porque as respostas são fechadas ao sair
+                    responder(ctx, resposta);
+                    ctx.result(resposta.body().readAllBytes());
+                    return;
+                }
+            }
+            if (paginada) {
+                List<Tarefa> todas = new ArrayList<>();
+                for (HttpResponse<InputStream> resposta : respostas) {
+                    todas.addAll(objectMapper.readValue(resposta.body(), PaginaTarefas.class).tarefas);
+                }
+                todas.sort(Comparator.comparingInt(Tarefa::getId));
+                List<Tarefa> pagina = todas.subList(0, Math.min(limit, todas.size()));
+                String proximoCursor = pagina.size() < limit ? null : Paginacao.encodeCursor(pagina.get(pagina.size() - 1).getId());
+                formatos.responder(ctx, new PaginaTarefas(new ArrayList<>(pagina), proximoCursor));
+                return;
+            }
+            List<Iterator<Tarefa>> fontes = new ArrayList<>(respostas.size());
+            for (HttpResponse<InputStream> resposta : respostas) {
+                fontes.add(objectMapper.readerFor(Tarefa.class).readValues(resposta.body()));
+            }
+            Iterable<Tarefa> intercaladas = () -> new Intercalacao(fontes);
+            int total;
+            if ("ndjson".equals(stream)) {
+                ctx.contentType(TarefaJsonStreamer.CONTENT_TYPE_NDJSON);
+                total = TarefaJsonStreamer.writeNdjson(objectMapper, intercaladas, ctx.outputStream());
+            } else {
+                // Array no formato negociado (JSON, Smile ou CBOR)
+                FormatoHttp.Formato formato = formatos.daResposta(ctx);
+                FormatoHttp.definirContentType(ctx, formato);
+                total = TarefaJsonStreamer.writeJsonArray(formato.mapper(), intercaladas, ctx.outputStream());
+            }
+            log.info("GET /tarefas - {} tarefas de {} nós.", total, respostas.size());
+        } finally {
+            for (HttpResponse<InputStream> resposta : respostas) {
+                resposta.body().close();
+            }
+        }
+    }
+
+    private void estado(Context ctx) {
+        List<CompletableFuture<Boolean>> status = new ArrayList<>();
+        for (String no : cluster.getNos()) {
+            status.add(http.sendAsync(HttpRequest.newBuilder(URI.create(no + "/status")).timeout(Duration.ofSeconds(2)).build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .thenApply(resposta -> resposta.statusCode() == HttpStatus.OK.getCode())
+                    .exceptionally(erro -> false));
+        }
+        int[] blocos = new int[cluster.getNos().size()];
+        for (int bloco = 0; bloco < AlocadorIds.BLOCOS; bloco++) {
+            blocos[cluster.getNos().indexOf(cluster.donoDoBloco(bloco))]++;
+        }
+        List<NoCluster> nos = new ArrayList<>();
+        for (int i = 0; i < blocos.length; i++) {
+            nos.add(new NoCluster(cluster.getNos().get(i), blocos[i], status.get(i).join()));
+        }
+        ctx.json(Collections.singletonMap("nos", nos));
+    }
+
+    // Envia GET /tarefas a todos os nós ao mesmo tempo, com os mesmos parâmetros
+    // (trocando 'stream', se informado) e espera os cabeçalhos de todas as respostas.
+    // As respostas são pedidas em JSON, o formato que listar() lê, seja qual for o Accept.
+    private List<HttpResponse<InputStream>> consultarTodos(Context ctx, String stream) {
+        StringBuilder consulta = new StringBuilder();
+        for (Map.Entry<String, List<String>> parametro : ctx.queryParamMap().entrySet()) {
+            if (parametro.getKey().equals("stream")) {
+                continue;
+            }
+            for (String valor : parametro.getValue()) {
+                adicionarParametro(consulta, parametro.getKey(), valor);
+            }
+        }
+        if (stream != null) {
+            adicionarParametro(consulta, "stream", stream);
+        }
+        String caminho = "/tarefas" + (consulta.isEmpty() ? "" : "?" + consulta);
+
+        List<String> nos = cluster.getNos();
+        List<CompletableFuture<HttpResponse<InputStream>>> pendentes = new ArrayList<>(nos.size());
+        for (String no : nos) {
+            HttpRequest emJson = requisicao(ctx, no, caminho, null).setHeader("Accept", FormatoHttp.JSON).build();
+            pendentes.add(http.sendAsync(emJson, HttpResponse.BodyHandlers.ofInputStream()));
+        }
+        List<HttpResponse<InputStream>> respostas = new ArrayList<>(nos.size());
+        for (int i = 0; i < nos.size(); i++) {
+            try {
+                respostas.add(pendentes.get(i).join());
+            } catch (CompletionException e) {
+                for (HttpResponse<InputStream> recebida : respostas) {
+                    try {
+                        recebida.body().close();
+                    } catch (IOException ignorada) {
+                        // a resposta já não será usada
+                    }
+                }
+                throw new NoIndisponivelException("O nó " + nos.get(i) + " não respondeu: " + e.getCause().getMessage());
+            }
+        }
+        return respostas;
+    }
+
+    private static void adicionarParametro(StringBuilder consulta, String nome, String valor) {
+        if (!consulta.isEmpty()) {
+            consulta.append('&');
+        }
+        consulta.append(URLEncoder.encode(nome, StandardCharsets.UTF_8)).append('=').append(URLEncoder.encode(valor, StandardCharsets.UTF_8));
+    }
+
+    // Requisição ao nó com o método, o corpo e os cabeçalhos repassados do cliente
+    private static HttpRequest.Builder requisicao(Context ctx, String no, String caminho, byte[] corpo) {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(no + caminho)).timeout(Duration.ofSeconds(30));
+        for (String cabecalho : CABECALHOS_REQUISICAO) {
+            String valor = ctx.header(cabecalho);
+            if (valor != null) {
+                requisicao.header(cabecalho, valor);
+            }
+        }
+        HttpRequest.BodyPublisher publicador = corpo == null || corpo.length == 0
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(corpo);
+        return requisicao.method(ctx.method().name(), publicador);
+    }
+
+    // Repassa ao cliente o status, os cabeçalhos relevantes e o corpo (em streaming) do nó
+    private static void responder(Context ctx, HttpResponse<InputStream> resposta) {
+        ctx.status(resposta.statusCode());
+        for (String cabecalho : CABECALHOS_RESPOSTA) {
+            resposta.headers().firstValue(cabecalho).ifPresent(valor -> ctx.header(cabecalho, valor));
+        }
+        ctx.result(resposta.body());
+    }
+
+    // Intercala listas já ordenadas por ID, lendo um item de cada vez de cada uma
+    private static final class Intercalacao implements Iterator<Tarefa> {
+
+        private record Cabeca(Tarefa tarefa, Iterator<Tarefa> fonte) {
+        }
+
+        private final PriorityQueue<Cabeca> cabecas = new PriorityQueue<>(Comparator.comparingInt(cabeca -> cabeca.tarefa().getId()));
+
+        Intercalacao(List<Iterator<Tarefa>> fontes) {
+            for (Iterator<Tarefa> fonte : fontes) {
+                avancar(fonte);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cabecas.isEmpty();
+        }
+
+        @Override
+        public Tarefa next() {
+            Cabeca menor = cabecas.poll();
+            if (menor == null) {
+                throw new NoSuchElementException();
+            }
+            avancar(menor.fonte());
+            return menor.tarefa();
+        }
+
+        private void avancar(Iterator<Tarefa> fonte) {
+            if (fonte.hasNext()) {
+                cabecas.add(new Cabeca(fonte.next(), fonte));
+            }
+        }
+    }
+
+    // Um nó necessário para a requisição não respondeu: 502
+    static final class NoIndisponivelException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NoIndisponivelException(String mensagem) {
+            super(mensagem);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package at.api;
+
+import io.javalin.config.JavalinConfig;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+// Configuração da execução do servidor HTTP, lida das propriedades de sistema:
+//   reat.servidor.threads          auto | plataforma | virtual (padrão: auto)
+//   reat.servidor.maxThreads       threads de plataforma no pool (padrão: 200)
+//   reat.servidor.minThreads       threads de plataforma mantidas ociosas (padrão: 8)
+//   reat.servidor.maxConcorrentes  requisições simultâneas em threads virtuais (padrão: 10000)
+//   reat.servidor.filaMax          requisições aguardando uma thread/permissão (padrão: 10000)
+//
+// No modo virtual, o Jetty mantém um pequeno pool de plataforma para seletores e
+// aceitadores e despacha os handlers (o código que pode bloquear) em threads virtuais.
+public class ServidorConfig {
+
+    // Threads de plataforma do modo virtual: só seletores, aceitadores e tarefas internas
+    private static final int THREADS_INTERNAS_MODO_VIRTUAL = 16;
+
+    private final ModoThreads modo;
+    private final int maxThreads;
+    private final int minThreads;
+    private final int maxConcorrentes;
+    private final int filaMax;
+
+    public ServidorConfig(ModoThreads modo, int maxThreads, int minThreads, int maxConcorrentes, int filaMax) {
+        if (maxThreads <= 0 || minThreads < 0 || minThreads > maxThreads || maxConcorrentes <= 0 || filaMax <= 0) {
+            throw new IllegalArgumentException("Parâmetros de execução do servidor inválidos.");
+        }
+        this.modo = modo;
+        this.maxThreads = maxThreads;
+        this.minThreads = minThreads;
+        this.maxConcorrentes = maxConcorrentes;
+        this.filaMax = filaMax;
+    }
+
+    public static ServidorConfig fromSystemProperties() {
+        return new ServidorConfig(
+                ModoThreads.parse(System.getProperty("reat.servidor.threads", "auto")),
+                Integer.getInteger("reat.servidor.maxThreads", 200),
+                Integer.getInteger("reat.servidor.minThreads", 8),
+                Integer.getInteger("reat.servidor.maxConcorrentes", 10_000),
+                Integer.getInteger("reat.servidor.filaMax", 10_000));
+    }
+
+    public ModoThreads getModo() {
+        return modo;
+    }
+
+    // Registra no Javalin o servidor Jetty com o pool de threads correspondente ao modo
+    void aplicar(JavalinConfig config) {
+        switch (modo) {
+            case AUTO -> {
+                // Mantém o pool escolhido pelo Javalin
+            }
+            case PLATAFORMA -> config.jetty.server(() -> new Server(poolPlataforma()));
+            case VIRTUAL -> config.jetty.server(() -> new Server(poolVirtual()));
+        }
+    }
+
+    private QueuedThreadPool poolPlataforma() {
+        QueuedThreadPool pool = new QueuedThreadPool(maxThreads, minThreads, 60_000, new BlockingArrayQueue<>(filaMax));
+        pool.setName("reat-http");
+        return pool;
+    }
+
+    private QueuedThreadPool poolVirtual() {
+        QueuedThreadPool pool = new QueuedThreadPool(THREADS_INTERNAS_MODO_VIRTUAL, 2);
+        pool.setName("reat-http");
+        pool.setVirtualThreadsExecutor(new ExecutorVirtualLimitado("reat-http-virtual", maxConcorrentes, filaMax));
+        return pool;
+    }
+}
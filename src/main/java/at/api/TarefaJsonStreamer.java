@@ -0,0 +1,61 @@
+package at.api;
+
+import at.models.Tarefa;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Escreve tarefas diretamente no OutputStream da resposta, uma por vez.
+// O Jetty envia a resposta em chunks à medida que o buffer enche, então a memória
+// por requisição não depende do tamanho da lista.
+final class TarefaJsonStreamer {
+
+    static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+    private TarefaJsonStreamer() {
+    }
+
+    // Array JSON: [ {...}, {...} ]
+    static int writeJsonArray(ObjectMapper objectMapper, Iterable<Tarefa> tarefas, OutputStream out) throws IOException {
+        ObjectWriter writer = writerSemFlush(objectMapper);
+        int total = 0;
+        try (JsonGenerator gen = criarGerador(objectMapper, out)) {
+            gen.writeStartArray();
+            for (Tarefa tarefa : tarefas) {
+                writer.writeValue(gen, tarefa);
+                total++;
+            }
+            gen.writeEndArray();
+        }
+        return total;
+    }
+
+    // NDJSON: um objeto JSON por linha
+    static int writeNdjson(ObjectMapper objectMapper, Iterable<Tarefa> tarefas, OutputStream out) throws IOException {
+        ObjectWriter writer = writerSemFlush(objectMapper);
+        int total = 0;
+        try (JsonGenerator gen = criarGerador(objectMapper, out)) {
+            gen.setRootValueSeparator(null);
+            for (Tarefa tarefa : tarefas) {
+                writer.writeValue(gen, tarefa);
+                gen.writeRaw('\n');
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // O stream pertence ao servidor: o gerador faz flush ao fechar, mas não o fecha
+    private static JsonGenerator criarGerador(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // Sem flush a cada item: o buffer do gerador só é descarregado quando enche
+    private static ObjectWriter writerSemFlush(ObjectMapper objectMapper) {
+        return objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
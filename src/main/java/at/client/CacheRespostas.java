@@ -0,0 +1,42 @@
+package at.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Corpos de respostas GET guardados com o ETag recebido, para revalidar com
+// If-None-Match. Limitado por quantidade de entradas, descartando a menos usada.
+final class CacheRespostas {
+
+    // mapper: o do Content-Type com que o corpo chegou, para lê-lo de novo após um 304
+    record Entrada(String etag, byte[] corpo, ObjectMapper mapper) {
+    }
+
+    private final Map<String, Entrada> entradas;
+
+    CacheRespostas(int maxEntradas) {
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    synchronized Entrada get(String caminho) {
+        return entradas.get(caminho);
+    }
+
+    synchronized void put(String caminho, Entrada entrada) {
+        entradas.put(caminho, entrada);
+    }
+
+    synchronized void remove(String caminho) {
+        entradas.remove(caminho);
+    }
+
+    synchronized int size() {
+        return entradas.size();
+    }
+}
@@ -0,0 +1,71 @@
+package at.client;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+// Corpo de resposta descomprimido à medida que é lido, conforme o Content-Encoding.
+//
+// O descompressor só é criado na primeira leitura: o construtor do GZIPInputStream já lê
+// o cabeçalho do stream, e isso não pode acontecer na thread do HttpClient que entrega a
+// resposta (ela ainda não recebeu o corpo).
+final class CorpoDescomprimido extends InputStream {
+
+    // Valor de Accept-Encoding enviado pelo cliente: Brotli só se a biblioteca nativa carregar
+    static final String CODIFICACOES_ACEITAS = Brotli4jLoader.isAvailable() ? "br, gzip" : "gzip";
+
+    private final String codificacao;
+    private final InputStream original;
+    private InputStream descomprimido;
+
+    private CorpoDescomprimido(String codificacao, InputStream original) {
+        this.codificacao = codificacao;
+        this.original = original;
+    }
+
+    // O próprio corpo quando a resposta não veio comprimida
+    static InputStream de(HttpHeaders cabecalhos, InputStream corpo) {
+        String codificacao = cabecalhos.firstValue("Content-Encoding").orElse("identity").trim().toLowerCase(Locale.ROOT);
+        return codificacao.equals("identity") ? corpo : new CorpoDescomprimido(codificacao, corpo);
+    }
+
+    @Override
+    public int read() throws IOException {
+        return aberto().read();
+    }
+
+    @Override
+    public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+        return aberto().read(destino, inicio, tamanho);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return descomprimido == null ? 0 : descomprimido.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (descomprimido != null) {
+            descomprimido.close();
+        } else {
+            original.close();
+        }
+    }
+
+    private InputStream aberto() throws IOException {
+        if (descomprimido == null) {
+            descomprimido = switch (codificacao) {
+                case "gzip", "x-gzip" -> new GZIPInputStream(original, 8192);
+                case "br" -> new BrotliInputStream(original);
+                default -> throw new IOException("Content-Encoding não suportado: " + codificacao);
+            };
+        }
+        return descomprimido;
+    }
+}
@@ -0,0 +1,44 @@
+package at.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.Locale;
+
+// Formato dos corpos trocados com a API. Os binários (Smile e CBOR) têm o mesmo modelo de
+// dados do JSON, com corpos menores e mais baratos de ler e escrever; servem para o
+// tráfego entre serviços. As mensagens de erro da API continuam em JSON.
+public enum FormatoCorpo {
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile"),
+    CBOR("application/cbor");
+
+    private final String contentType;
+
+    FormatoCorpo(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // json, smile ou cbor
+    public static FormatoCorpo parse(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato desconhecido: " + valor + " (use json, smile ou cbor)");
+        }
+    }
+
+    // Cópia do mapper JSON (mesmos módulos e configurações) que lê e escreve este formato
+    ObjectMapper mapper(ObjectMapper json) {
+        return switch (this) {
+            case JSON -> json;
+            case SMILE -> json.copyWith(new SmileFactory());
+            case CBOR -> json.copyWith(new CBORFactory());
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package at.client;
+
+import java.io.IOException;
+import java.net.URI;
+
+// A API respondeu com um status diferente do esperado para a operação
+public class RespostaInesperadaException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final String corpo;
+
+    public RespostaInesperadaException(String metodo, URI uri, int status, String corpo) {
+        super(metodo + " " + uri + " respondeu HTTP " + status + (corpo.isEmpty() ? "" : ": " + corpo));
+        this.status = status;
+        this.corpo = corpo;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getCorpo() {
+        return corpo;
+    }
+}
@@ -0,0 +1,362 @@
+package at.client;
+
+import at.models.PaginaBusca;
+import at.models.PaginaTarefas;
+import at.models.ResultadoLote;
+import at.models.StatusResponse;
+import at.models.Tarefa;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cliente reutilizável da API de tarefas sobre java.net.http.HttpClient.
+//
+// Uma única instância deve ser compartilhada: o HttpClient mantém as conexões
+// HTTP/1.1 abertas (keep-alive) e as reaproveita entre requisições. Os métodos
+// *Async limitam quantas requisições ficam em voo ao mesmo tempo; ao atingir o
+// limite, o chamador espera uma vaga (contrapressão em vez de fila sem limite).
+// As respostas são desserializadas direto do InputStream do corpo, sem montar
+// uma String intermediária. O cliente aceita respostas comprimidas (Accept-Encoding:
+// br, gzip) e as descomprime à medida que o corpo é lido. Os corpos podem ser JSON
+// (padrão), Smile ou CBOR (ver FormatoCorpo), enviados e pedidos com Content-Type e Accept.
+//
+// As leituras de tarefas guardam o corpo recebido junto com o ETag e, na próxima
+// vez, enviam If-None-Match: se nada mudou, a API responde 304 sem corpo e o
+// resultado é desserializado do corpo guardado.
+public class TarefaClient implements AutoCloseable {
+
+    public static final String BASE_URL_PADRAO = "http://localhost:7000";
+    public static final int MAX_EM_VOO_PADRAO = 256;
+    public static final int CACHE_MAX_ENTRADAS_PADRAO = 1024;
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_CREATED = 201;
+    private static final int HTTP_MULTI_STATUS = 207;
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_NOT_FOUND = 404;
+
+    // Corpo como InputStream, já descomprimido conforme o Content-Encoding
+    private static final HttpResponse.BodyHandler<InputStream> CORPO_DESCOMPRIMIDO = informacoes ->
+            HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+                    corpo -> CorpoDescomprimido.de(informacoes.headers(), corpo));
+
+    private final String baseUrl;
+    // Mapper do formato escolhido e o JSON (respostas que não negociam formato, como /status)
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper json;
+    private final FormatoCorpo formato;
+    private final Semaphore emVoo;
+    // Threads virtuais: a leitura do corpo bloqueia, então não pode rodar nas threads do HttpClient
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final JavaType tipoListaTarefas;
+    private final CacheRespostas cache;
+    private final LongAdder naoModificadas = new LongAdder();
+
+    public TarefaClient() {
+        this(BASE_URL_PADRAO, MAX_EM_VOO_PADRAO);
+    }
+
+    public TarefaClient(String baseUrl, int maxEmVoo) {
+        this(baseUrl, maxEmVoo, new ObjectMapper());
+    }
+
+    public TarefaClient(String baseUrl, int maxEmVoo, ObjectMapper objectMapper) {
+        this(baseUrl, maxEmVoo, objectMapper, CACHE_MAX_ENTRADAS_PADRAO);
+    }
+
+    // maxEntradasCache = 0 desativa o cache de respostas e as requisições condicionais
+    public TarefaClient(String baseUrl, int maxEmVoo, ObjectMapper objectMapper, int maxEntradasCache) {
+        this(baseUrl, maxEmVoo, objectMapper, maxEntradasCache, FormatoCorpo.JSON);
+    }
+
+    // 'objectMapper' é o mapper JSON; para Smile e CBOR, o cliente usa uma cópia dele
+    public TarefaClient(String baseUrl, int maxEmVoo, ObjectMapper objectMapper, int maxEntradasCache, FormatoCorpo formato) {
+        if (maxEmVoo <= 0) {
+            throw new IllegalArgumentException("O limite de requisições em voo deve ser positivo.");
+        }
+        if (maxEntradasCache < 0) {
+            throw new IllegalArgumentException("O tamanho do cache não pode ser negativo.");
+        }
+        this.cache = maxEntradasCache == 0 ? null : new CacheRespostas(maxEntradasCache);
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.objectMapper = formato.mapper(objectMapper);
+        this.json = objectMapper;
+        this.formato = formato;
+        this.emVoo = new Semaphore(maxEmVoo);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+        this.tipoListaTarefas = this.objectMapper.getTypeFactory().constructType(new TypeReference<List<Tarefa>>() {});
+    }
+
+    // --- API assíncrona ---
+
+    // POST /tarefas. Completa com a tarefa criada (com ID e data de criação).
+    public CompletableFuture<Tarefa> createTarefaAsync(Tarefa tarefa) {
+        return enviar(postJson("/tarefas", tarefa), resposta -> {
+            exigirStatus(resposta, HTTP_CREATED);
+            return ler(resposta, Tarefa.class);
+        });
+    }
+
+    // POST /tarefas/batch. Completa com o resultado por item (201 ou 207).
+    public CompletableFuture<ResultadoLote> createTarefasAsync(List<Tarefa> tarefas) {
+        return enviar(postJson("/tarefas/batch", tarefas), resposta -> {
+            exigirStatus(resposta, HTTP_CREATED, HTTP_MULTI_STATUS);
+            return ler(resposta, ResultadoLote.class);
+        });
+    }
+
+    // GET /tarefas/{id}. Completa com null quando a tarefa não existe.
+    public CompletableFuture<Tarefa> getTarefaByIdAsync(int id) {
+        return getCondicional("/tarefas/" + id, objectMapper.constructType(Tarefa.class), true);
+    }
+
+    // GET /tarefas (lista completa)
+    public CompletableFuture<List<Tarefa>> listTarefasAsync() {
+        return getCondicional("/tarefas", tipoListaTarefas, false);
+    }
+
+    // GET /tarefas?limit=&cursor= (cursor nulo para a primeira página)
+    public CompletableFuture<PaginaTarefas> listTarefasPageAsync(int limit, String cursor) {
+        String caminho = "/tarefas?limit=" + limit
+                + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+        return getCondicional(caminho, objectMapper.constructType(PaginaTarefas.class), false);
+    }
+
+    // GET /tarefas/search?q=&limit=&cursor= (cursor nulo para a primeira página)
+    public CompletableFuture<PaginaBusca> searchTarefasAsync(String consulta, int limit, String cursor) {
+        String caminho = "/tarefas/search?q=" + URLEncoder.encode(consulta, StandardCharsets.UTF_8) + "&limit=" + limit
+                + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+        return getCondicional(caminho, objectMapper.constructType(PaginaBusca.class), false);
+    }
+
+    // GET /status
+    public CompletableFuture<StatusResponse> getStatusAsync() {
+        return enviar(get("/status"), resposta -> {
+            exigirStatus(resposta, HTTP_OK);
+            return ler(resposta, StatusResponse.class);
+        });
+    }
+
+    // --- API síncrona (conveniência sobre a assíncrona) ---
+
+    public Tarefa createTarefa(Tarefa tarefa) throws IOException, InterruptedException {
+        return aguardar(createTarefaAsync(tarefa));
+    }
+
+    public ResultadoLote createTarefas(List<Tarefa> tarefas) throws IOException, InterruptedException {
+        return aguardar(createTarefasAsync(tarefas));
+    }
+
+    public Tarefa getTarefaById(int id) throws IOException, InterruptedException {
+        return aguardar(getTarefaByIdAsync(id));
+    }
+
+    public List<Tarefa> listTarefas() throws IOException, InterruptedException {
+        return aguardar(listTarefasAsync());
+    }
+
+    public PaginaTarefas listTarefasPage(int limit, String cursor) throws IOException, InterruptedException {
+        return aguardar(listTarefasPageAsync(limit, cursor));
+    }
+
+    public PaginaBusca searchTarefas(String consulta, int limit, String cursor) throws IOException, InterruptedException {
+        return aguardar(searchTarefasAsync(consulta, limit, cursor));
+    }
+
+    public StatusResponse getStatus() throws IOException, InterruptedException {
+        return aguardar(getStatusAsync());
+    }
+
+    public FormatoCorpo getFormato() {
+        return formato;
+    }
+
+    // Quantas leituras foram atendidas pelo cache após um 304 Not Modified
+    public long getNaoModificadas() {
+        return naoModificadas.sum();
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        executor.close();
+    }
+
+    // --- Infraestrutura ---
+
+    @FunctionalInterface
+    private interface LeitorResposta<T> {
+        T ler(HttpResponse<InputStream> resposta) throws IOException;
+    }
+
+    private HttpRequest get(String caminho) {
+        return get(caminho, null);
+    }
+
+    private HttpRequest get(String caminho, CacheRespostas.Entrada emCache) {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .header("Accept", formato.getContentType())
+                .header("Accept-Encoding", CorpoDescomprimido.CODIFICACOES_ACEITAS);
+        if (emCache != null) {
+            requisicao.header("If-None-Match", emCache.etag());
+        }
+        return requisicao.GET().build();
+    }
+
+    // GET revalidado pelo ETag do corpo guardado para o caminho. Com 304, desserializa
+    // o corpo guardado; com 200 e ETag, guarda o novo corpo antes de desserializá-lo.
+    private <T> CompletableFuture<T> getCondicional(String caminho, JavaType tipo, boolean nuloSe404) {
+        CacheRespostas.Entrada emCache = cache == null ? null : cache.get(caminho);
+        return enviar(get(caminho, emCache), resposta -> {
+            int status = resposta.statusCode();
+            if (status == HTTP_NOT_MODIFIED && emCache != null) {
+                descartar(resposta);
+                naoModificadas.increment();
+                return emCache.mapper().readValue(emCache.corpo(), tipo);
+            }
+            if (status == HTTP_NOT_FOUND && nuloSe404) {
+                descartar(resposta);
+                if (cache != null) {
+                    cache.remove(caminho);
+                }
+                return null;
+            }
+            exigirStatus(resposta, HTTP_OK);
+            String etag = resposta.headers().firstValue("ETag").orElse(null);
+            if (cache == null || etag == null) {
+                return ler(resposta, tipo);
+            }
+            byte[] corpo = resposta.body().readAllBytes();
+            ObjectMapper mapper = mapperDa(resposta);
+            cache.put(caminho, new CacheRespostas.Entrada(etag, corpo, mapper));
+            return mapper.readValue(corpo, tipo);
+        });
+    }
+
+    private HttpRequest postJson(String caminho, Object corpo) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(corpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .header("Content-Type", formato.getContentType())
+                .header("Accept", formato.getContentType())
+                .header("Accept-Encoding", CorpoDescomprimido.CODIFICACOES_ACEITAS)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+    }
+
+    // Ocupa uma vaga de requisição em voo, envia e lê a resposta em uma thread virtual.
+    // A vaga é liberada só depois de o corpo ser consumido, quando a conexão volta ao pool.
+    private <T> CompletableFuture<T> enviar(HttpRequest requisicao, LeitorResposta<T> leitor) {
+        try {
+            emVoo.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> resultado;
+        try {
+            resultado = httpClient.sendAsync(requisicao, CORPO_DESCOMPRIMIDO)
+                    .thenApplyAsync(resposta -> {
+                        try {
+                            return leitor.ler(resposta);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        } finally {
+                            fechar(resposta.body());
+                        }
+                    }, executor);
+        } catch (RuntimeException e) {
+            emVoo.release();
+            throw e;
+        }
+        resultado.whenComplete((valor, erro) -> emVoo.release());
+        return resultado;
+    }
+
+    private <T> T ler(HttpResponse<InputStream> resposta, Class<T> tipo) throws IOException {
+        return mapperDa(resposta).readValue(resposta.body(), tipo);
+    }
+
+    private <T> T ler(HttpResponse<InputStream> resposta, JavaType tipo) throws IOException {
+        return mapperDa(resposta).readValue(resposta.body(), tipo);
+    }
+
+    // Mapper pelo Content-Type da resposta: o formato pedido ou JSON
+    private ObjectMapper mapperDa(HttpResponse<InputStream> resposta) {
+        boolean formatoPedido = resposta.headers().firstValue("Content-Type")
+                .map(tipo -> tipo.startsWith(formato.getContentType())).orElse(false);
+        return formatoPedido ? objectMapper : json;
+    }
+
+    // Fecha o corpo depois do leitor, tenha ele consumido tudo ou não
+    private static void fechar(InputStream corpo) {
+        try {
+            corpo.close();
+        } catch (IOException e) {
+            // nada a fazer: a resposta já foi lida ou a falha já é o resultado
+        }
+    }
+
+    // Consome o corpo ignorado, para a conexão voltar ao pool
+    private static void descartar(HttpResponse<InputStream> resposta) throws IOException {
+        resposta.body().transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static void exigirStatus(HttpResponse<InputStream> resposta, int... esperados) throws IOException {
+        int status = resposta.statusCode();
+        for (int esperado : esperados) {
+            if (status == esperado) {
+                return;
+            }
+        }
+        String corpo = new String(resposta.body().readAllBytes(), StandardCharsets.UTF_8);
+        throw new RespostaInesperadaException(resposta.request().method(), resposta.uri(), status, corpo);
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> futuro) throws IOException, InterruptedException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof CompletionException && causa.getCause() != null) {
+                causa = causa.getCause();
+            }
+            if (causa instanceof IOException io) {
+                throw io;
+            }
+            if (causa instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(causa);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package at.client.carga;
+
+import at.client.FormatoCorpo;
+import at.client.TarefaClient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Parâmetros do gerador de carga, lidos da linha de comando (--opcao=valor; ver USO)
+public class ConfigCarga {
+
+    public static final String USO = """
+            Uso: CargaClient [--opcao=valor ...]
+              --url=URL            API alvo (padrão: http://localhost:7000)
+              --taxa=R[,R...]      chegadas por segundo; várias taxas viram estágios em sequência (padrão: 100)
+              --duracao=D          duração de cada estágio, ex: 30s, 5m, 2h (padrão: 30s)
+              --aquecimento=D      carga na primeira taxa antes de medir, descartada; 0 desliga (padrão: 10s)
+              --mistura=M          pesos das operações criar, ler, listar e status (padrão: %s)
+              --tarefas=N          tarefas criadas em lote antes da carga, para as leituras (padrão: 1000)
+              --limite=N           tamanho da página em 'listar' (padrão: 50)
+              --em-voo=N           máximo de requisições em voo no cliente (padrão: 1024)
+              --intervalo=D        progresso durante cada estágio; 0 desliga (padrão: 10s)
+              --json=ARQUIVO       relatório em JSON (padrão: build/carga/relatorio.json)
+              --formato=F          json, smile ou cbor (padrão: json)
+              --semente=N          semente do sorteio das operações e IDs (padrão: 42)
+            """.formatted(MisturaCarga.PADRAO);
+
+    private final String url;
+    private final List<Double> taxas;
+    private final Duration duracao;
+    private final Duration aquecimento;
+    private final MisturaCarga mistura;
+    private final int tarefas;
+    private final int limite;
+    private final int emVoo;
+    private final Duration intervalo;
+    private final Path json;
+    private final FormatoCorpo formato;
+    private final long semente;
+
+    public ConfigCarga(String url, List<Double> taxas, Duration duracao, Duration aquecimento, MisturaCarga mistura,
+                       int tarefas, int limite, int emVoo, Duration intervalo, Path json, FormatoCorpo formato, long semente) {
+        if (taxas.isEmpty() || taxas.stream().anyMatch(taxa -> !(taxa > 0))) {
+            throw new IllegalArgumentException("Informe ao menos uma taxa positiva em --taxa.");
+        }
+        if (duracao.isZero() || duracao.isNegative() || aquecimento.isNegative() || intervalo.isNegative()) {
+            throw new IllegalArgumentException("Durações inválidas: --duracao deve ser positiva; --aquecimento e --intervalo, zero ou mais.");
+        }
+        if (tarefas < 0 || limite <= 0 || emVoo <= 0) {
+            throw new IllegalArgumentException("--tarefas não pode ser negativo; --limite e --em-voo devem ser positivos.");
+        }
+        this.url = url;
+        this.taxas = List.copyOf(taxas);
+        this.duracao = duracao;
+        this.aquecimento = aquecimento;
+        this.mistura = mistura;
+        this.tarefas = tarefas;
+        this.limite = limite;
+        this.emVoo = emVoo;
+        this.intervalo = intervalo;
+        this.json = json;
+        this.formato = formato;
+        this.semente = semente;
+    }
+
+    public static ConfigCarga parse(String... args) {
+        String url = TarefaClient.BASE_URL_PADRAO;
+        List<Double> taxas = Collections.singletonList(100.0);
+        Duration duracao = Duration.ofSeconds(30);
+        Duration aquecimento = Duration.ofSeconds(10);
+        MisturaCarga mistura = MisturaCarga.parse(MisturaCarga.PADRAO);
+        int tarefas = 1000;
+        int limite = 50;
+        int emVoo = 1024;
+        Duration intervalo = Duration.ofSeconds(10);
+        Path json = Path.of("build", "carga", "relatorio.json");
+        FormatoCorpo formato = FormatoCorpo.JSON;
+        long semente = 42;
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (use --opcao=valor).");
+            }
+            String opcao = arg.substring(2, igual);
+            String valor = arg.substring(igual + 1).trim();
+            switch (opcao) {
+                case "url" -> url = valor;
+                case "taxa" -> taxas = taxas(valor);
+                case "duracao" -> duracao = parseDuracao(valor);
+                case "aquecimento" -> aquecimento = parseDuracao(valor);
+                case "mistura" -> mistura = MisturaCarga.parse(valor);
+                case "tarefas" -> tarefas = inteiro(opcao, valor);
+                case "limite" -> limite = inteiro(opcao, valor);
+                case "em-voo" -> emVoo = inteiro(opcao, valor);
+                case "intervalo" -> intervalo = parseDuracao(valor);
+                case "json" -> json = Path.of(valor);
+                case "formato" -> formato = FormatoCorpo.parse(valor);
+                case "semente" -> semente = inteiro(opcao, valor);
+                default -> throw new IllegalArgumentException("Opção desconhecida: --" + opcao + ".");
+            }
+        }
+        return new ConfigCarga(url, taxas, duracao, aquecimento, mistura, tarefas, limite, emVoo, intervalo, json, formato, semente);
+    }
+
+    // 500ms, 30s, 5m, 2h ou segundos sem unidade; 0 é aceito
+    static Duration parseDuracao(String valor) {
+        String texto = valor.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (texto.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(texto.substring(0, texto.length() - 2)));
+            }
+            long quantidade = Long.parseLong(texto.replaceAll("[smh]$", ""));
+            return switch (texto.charAt(texto.length() - 1)) {
+                case 'm' -> Duration.ofMinutes(quantidade);
+                case 'h' -> Duration.ofHours(quantidade);
+                default -> Duration.ofSeconds(quantidade);
+            };
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Duração inválida: " + valor + " (ex: 500ms, 30s, 5m, 2h).");
+        }
+    }
+
+    private static List<Double> taxas(String valor) {
+        List<Double> taxas = new ArrayList<>();
+        for (String taxa : valor.split(",")) {
+            try {
+                taxas.add(Double.parseDouble(taxa.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Taxa inválida: " + taxa.trim() + ".");
+            }
+        }
+        return taxas;
+    }
+
+    private static int inteiro(String opcao, String valor) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + opcao + " deve ser um número inteiro: " + valor + ".");
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public List<Double> getTaxas() {
+        return taxas;
+    }
+
+    public Duration getDuracao() {
+        return duracao;
+    }
+
+    public Duration getAquecimento() {
+        return aquecimento;
+    }
+
+    public MisturaCarga getMistura() {
+        return mistura;
+    }
+
+    public int getTarefas() {
+        return tarefas;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEmVoo() {
+        return emVoo;
+    }
+
+    public Duration getIntervalo() {
+        return intervalo;
+    }
+
+    // Arquivo do relatório JSON
+    public Path getJson() {
+        return json;
+    }
+
+    public FormatoCorpo getFormato() {
+        return formato;
+    }
+
+    public long getSemente() {
+        return semente;
+    }
+}
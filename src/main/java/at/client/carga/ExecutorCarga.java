@@ -0,0 +1,12 @@
+package at.client.carga;
+
+import java.util.concurrent.CompletableFuture;
+
+// Envia uma operação da carga. O futuro completa quando a resposta foi lida (ou falhou).
+// Pode bloquear o chamador (ex: limite de requisições em voo): o atraso entra na latência
+// corrigida, pois ela conta a partir do envio previsto.
+@FunctionalInterface
+public interface ExecutorCarga {
+
+    CompletableFuture<?> executar(OperacaoCarga operacao);
+}
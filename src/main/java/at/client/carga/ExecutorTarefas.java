@@ -0,0 +1,77 @@
+package at.client.carga;
+
+import at.client.TarefaClient;
+import at.models.ItemLote;
+import at.models.ResultadoLote;
+import at.models.Tarefa;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Executa as operações da carga na API pelo TarefaClient (assíncrono, com limite de em voo).
+// 'ler' sorteia um dos IDs criados (em preparar() ou por 'criar' durante a carga); guarda os
+// últimos CAPACIDADE_IDS.
+public class ExecutorTarefas implements ExecutorCarga {
+
+    private static final int CAPACIDADE_IDS = 1 << 16;
+    private static final int LOTE_PREPARACAO = 10_000;
+
+    private final TarefaClient cliente;
+    private final int limitePagina;
+    private final AtomicIntegerArray ids = new AtomicIntegerArray(CAPACIDADE_IDS);
+    private final AtomicLong idsConhecidos = new AtomicLong();
+    private final AtomicLong criadas = new AtomicLong();
+    // Usado só pela thread do gerador
+    private final SplittableRandom aleatorio;
+
+    public ExecutorTarefas(TarefaClient cliente, int limitePagina, long semente) {
+        this.cliente = cliente;
+        this.limitePagina = limitePagina;
+        this.aleatorio = new SplittableRandom(semente);
+    }
+
+    // Cria 'quantidade' tarefas em lotes antes da carga, para as leituras terem o que ler
+    public void preparar(int quantidade) throws IOException, InterruptedException {
+        for (int inicio = 0; inicio < quantidade; inicio += LOTE_PREPARACAO) {
+            List<Tarefa> lote = new ArrayList<>();
+            for (int i = inicio; i < Math.min(quantidade, inicio + LOTE_PREPARACAO); i++) {
+                lote.add(new Tarefa("Carga " + i, "Criada antes da carga"));
+            }
+            ResultadoLote resultado = cliente.createTarefas(lote);
+            for (ItemLote item : resultado.resultados) {
+                if (item.tarefa != null) {
+                    lembrar(item.tarefa.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> executar(OperacaoCarga operacao) {
+        return switch (operacao) {
+            case CRIAR -> cliente.createTarefaAsync(new Tarefa("Carga " + criadas.incrementAndGet(), "Criada pelo gerador de carga"))
+                    .thenApply(tarefa -> {
+                        lembrar(tarefa.getId());
+                        return tarefa;
+                    });
+            case LER -> cliente.getTarefaByIdAsync(sortearId());
+            case LISTAR -> cliente.listTarefasPageAsync(limitePagina, null);
+            case STATUS -> cliente.getStatusAsync();
+        };
+    }
+
+    private void lembrar(int id) {
+        ids.set((int) (idsConhecidos.getAndIncrement() & (CAPACIDADE_IDS - 1)), id);
+    }
+
+    // Sem IDs conhecidos, lê o 1 (pode não existir: a API responde 404)
+    private int sortearId() {
+        long conhecidos = Math.min(idsConhecidos.get(), CAPACIDADE_IDS);
+        return conhecidos == 0 ? 1 : ids.get(aleatorio.nextInt((int) conhecidos));
+    }
+}
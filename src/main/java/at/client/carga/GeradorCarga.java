@@ -0,0 +1,178 @@
+package at.client.carga;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Gerador de carga em modelo aberto: as chegadas seguem uma taxa fixa, independente das
+// respostas. A i-ésima requisição de um estágio está prevista para inicio + i / taxa; a
+// thread que chama executar() espera até esse instante, sorteia a operação pela mistura e a
+// entrega ao ExecutorCarga, sem esperar a resposta.
+//
+// Correção de coordinated omission: a latência de cada requisição é medida a partir do
+// instante previsto, não do envio. Se o cliente atrasar (servidor lento, limite de requisições
+// em voo, pausa do próprio gerador), as requisições que deveriam ter saído nesse intervalo
+// saem atrasadas e carregam o atraso na latência, em vez de simplesmente não serem medidas.
+// A latência de serviço (a partir do envio) também é registrada, para comparação.
+public class GeradorCarga {
+
+    // Espera pelas respostas ainda em voo ao fim de um estágio
+    private static final long ESPERA_FINAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final MisturaCarga mistura;
+    private final ExecutorCarga executor;
+    private final Duration intervalo;
+    private final PrintStream progresso;
+    private final SplittableRandom aleatorio;
+
+    // intervalo zero desliga as linhas de progresso
+    public GeradorCarga(MisturaCarga mistura, ExecutorCarga executor, Duration intervalo, PrintStream progresso, long semente) {
+        this.mistura = mistura;
+        this.executor = executor;
+        this.intervalo = intervalo;
+        this.progresso = progresso;
+        this.aleatorio = new SplittableRandom(semente);
+    }
+
+    // Roda um estágio de 'duracao' a 'taxa' chegadas por segundo e devolve as medições.
+    // 'rotulo' identifica o estágio nas linhas de progresso.
+    public RelatorioCarga.Estagio executar(String rotulo, double taxa, Duration duracao) throws InterruptedException {
+        Map<OperacaoCarga, MedicaoOperacao> medicoes = new EnumMap<>(OperacaoCarga.class);
+        for (OperacaoCarga operacao : mistura.getPesos().keySet()) {
+            medicoes.put(operacao, new MedicaoOperacao(operacao));
+        }
+        AtomicLong emVoo = new AtomicLong();
+        double periodoNanos = 1_000_000_000.0 / taxa;
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        Thread relator = iniciarProgresso(rotulo, medicoes, emVoo, inicio);
+
+        long enviadas = 0;
+        long atrasoMaximo = 0;
+        try {
+            while (true) {
+                long previsto = inicio + (long) (enviadas * periodoNanos);
+                if (previsto >= fim) {
+                    break;
+                }
+                long espera;
+                while ((espera = previsto - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                OperacaoCarga operacao = mistura.sortear(aleatorio);
+                MedicaoOperacao medicao = medicoes.get(operacao);
+                long enviado = System.nanoTime();
+                atrasoMaximo = Math.max(atrasoMaximo, enviado - previsto);
+                CompletableFuture<?> resposta;
+                try {
+                    resposta = executor.executar(operacao);
+                } catch (RuntimeException e) {
+                    resposta = CompletableFuture.failedFuture(e);
+                }
+                medicao.enviada();
+                enviadas++;
+                emVoo.incrementAndGet();
+                resposta.whenComplete((valor, erro) -> {
+                    medicao.concluida(previsto, enviado, erro);
+                    emVoo.decrementAndGet();
+                });
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            long limite = System.nanoTime() + ESPERA_FINAL_NANOS;
+            while (emVoo.get() > 0 && System.nanoTime() < limite) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+        } finally {
+            if (relator != null) {
+                relator.interrupt();
+                relator.join();
+            }
+        }
+        return resultado(taxa, duracao, medicoes, enviadas, emVoo.get(), atrasoMaximo);
+    }
+
+    private RelatorioCarga.Estagio resultado(double taxa, Duration duracao, Map<OperacaoCarga, MedicaoOperacao> medicoes,
+                                             long enviadas, long semResposta, long atrasoMaximoNanos) {
+        double segundos = duracao.toNanos() / 1e9;
+        RelatorioCarga.Estagio estagio = new RelatorioCarga.Estagio();
+        estagio.taxaAlvo = taxa;
+        estagio.segundos = segundos;
+        estagio.enviadas = enviadas;
+        estagio.taxaEnviada = MedicaoOperacao.arredondar(enviadas / segundos);
+        estagio.semResposta = semResposta;
+        estagio.atrasoMaximoEnvioMs = MedicaoOperacao.ms(atrasoMaximoNanos);
+
+        Histogram latenciaTotal = MedicaoOperacao.novoHistograma();
+        Histogram servicoTotal = MedicaoOperacao.novoHistograma();
+        RelatorioCarga.Operacao total = new RelatorioCarga.Operacao();
+        total.operacao = "total";
+        total.rota = "*";
+        for (MedicaoOperacao medicao : medicoes.values()) {
+            RelatorioCarga.Operacao operacao = medicao.resultado(segundos);
+            medicao.somarEm(latenciaTotal, servicoTotal);
+            estagio.operacoes.add(operacao);
+            total.enviadas += operacao.enviadas;
+            total.concluidas += operacao.concluidas;
+            total.erros += operacao.erros;
+            if (operacao.ultimoErro != null) {
+                total.ultimoErro = operacao.ultimoErro;
+            }
+        }
+        total.vazao = MedicaoOperacao.arredondar(total.concluidas / segundos);
+        total.latenciaMs = MedicaoOperacao.latencia(latenciaTotal);
+        total.servicoMs = MedicaoOperacao.latencia(servicoTotal);
+        total.histograma = MedicaoOperacao.codificar(latenciaTotal);
+        estagio.total = total;
+        estagio.concluidas = total.concluidas;
+        estagio.erros = total.erros;
+        estagio.vazao = total.vazao;
+        return estagio;
+    }
+
+    // Uma linha a cada 'intervalo' com a vazão e a latência corrigida do intervalo
+    private Thread iniciarProgresso(String rotulo, Map<OperacaoCarga, MedicaoOperacao> medicoes, AtomicLong emVoo, long inicio) {
+        if (intervalo.isZero() || progresso == null) {
+            return null;
+        }
+        return Thread.ofPlatform().name("reat-carga-progresso").daemon().start(() -> {
+            long concluidasAntes = 0;
+            long errosAntes = 0;
+            long anterior = inicio;
+            while (true) {
+                try {
+                    Thread.sleep(intervalo);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long agora = System.nanoTime();
+                Histogram latencia = MedicaoOperacao.novoHistograma();
+                long concluidas = 0;
+                long erros = 0;
+                for (MedicaoOperacao medicao : medicoes.values()) {
+                    latencia.add(medicao.consolidar());
+                    concluidas += medicao.concluidas();
+                    erros += medicao.erros();
+                }
+                double segundos = (agora - anterior) / 1e9;
+                progresso.printf(Locale.ROOT, "[%s] %6.0fs  %8.1f resp/s  erros %d  p50 %.2f ms  p99 %.2f ms  máx %.2f ms  em voo %d%n",
+                        rotulo, (agora - inicio) / 1e9, (concluidas - concluidasAntes) / segundos, erros - errosAntes,
+                        MedicaoOperacao.ms(latencia.getValueAtPercentile(50)), MedicaoOperacao.ms(latencia.getValueAtPercentile(99)),
+                        MedicaoOperacao.ms(latencia.getMaxValue()), emVoo.get());
+                concluidasAntes = concluidas;
+                errosAntes = erros;
+                anterior = agora;
+            }
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package at.client.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+// Medições de uma operação em um estágio. As conclusões (em threads do cliente HTTP) só tocam
+// nos LongAdder e nos Recorder, sem lock; o progresso e o fim do estágio consolidam os
+// histogramas sob o lock de consolidar().
+final class MedicaoOperacao {
+
+    private static final int DIGITOS_SIGNIFICATIVOS = 3;
+
+    private final OperacaoCarga operacao;
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder concluidas = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+    private volatile String ultimoErro;
+    private final Recorder latencia = new Recorder(DIGITOS_SIGNIFICATIVOS);
+    private final Recorder servico = new Recorder(DIGITOS_SIGNIFICATIVOS);
+
+    // Acessados apenas sob o lock de consolidar()
+    private final Histogram latenciaAcumulada = new Histogram(DIGITOS_SIGNIFICATIVOS);
+    private final Histogram servicoAcumulado = new Histogram(DIGITOS_SIGNIFICATIVOS);
+    private Histogram intervaloLatencia;
+    private Histogram intervaloServico;
+
+    MedicaoOperacao(OperacaoCarga operacao) {
+        this.operacao = operacao;
+    }
+
+    void enviada() {
+        enviadas.increment();
+    }
+
+    // previsto: quando a requisição deveria ter saído; enviado: quando saiu (System.nanoTime)
+    void concluida(long previsto, long enviado, Throwable erro) {
+        if (erro != null) {
+            erros.increment();
+            ultimoErro = (erro.getCause() != null ? erro.getCause() : erro).toString();
+            return;
+        }
+        long agora = System.nanoTime();
+        concluidas.increment();
+        latencia.recordValue(Math.max(agora - previsto, 0));
+        servico.recordValue(Math.max(agora - enviado, 0));
+    }
+
+    long concluidas() {
+        return concluidas.sum();
+    }
+
+    long erros() {
+        return erros.sum();
+    }
+
+    // Incorpora as medições desde a última chamada e retorna uma cópia da latência corrigida delas
+    synchronized Histogram consolidar() {
+        intervaloLatencia = latencia.getIntervalHistogram(intervaloLatencia);
+        intervaloServico = servico.getIntervalHistogram(intervaloServico);
+        latenciaAcumulada.add(intervaloLatencia);
+        servicoAcumulado.add(intervaloServico);
+        return intervaloLatencia.copy();
+    }
+
+    synchronized RelatorioCarga.Operacao resultado(double segundos) {
+        consolidar();
+        RelatorioCarga.Operacao resultado = new RelatorioCarga.Operacao();
+        resultado.operacao = operacao.nome();
+        resultado.rota = operacao.getRota();
+        resultado.enviadas = enviadas.sum();
+        resultado.concluidas = concluidas.sum();
+        resultado.erros = erros.sum();
+        resultado.ultimoErro = ultimoErro;
+        resultado.vazao = arredondar(resultado.concluidas / segundos);
+        resultado.latenciaMs = latencia(latenciaAcumulada);
+        resultado.servicoMs = latencia(servicoAcumulado);
+        resultado.histograma = codificar(latenciaAcumulada);
+        return resultado;
+    }
+
+    synchronized void somarEm(Histogram latenciaTotal, Histogram servicoTotal) {
+        latenciaTotal.add(latenciaAcumulada);
+        servicoTotal.add(servicoAcumulado);
+    }
+
+    static Histogram novoHistograma() {
+        return new Histogram(DIGITOS_SIGNIFICATIVOS);
+    }
+
+    static RelatorioCarga.Latencia latencia(Histogram histograma) {
+        RelatorioCarga.Latencia latencia = new RelatorioCarga.Latencia();
+        if (histograma.getTotalCount() == 0) {
+            return latencia;
+        }
+        latencia.media = ms(histograma.getMean());
+        latencia.p50 = ms(histograma.getValueAtPercentile(50));
+        latencia.p90 = ms(histograma.getValueAtPercentile(90));
+        latencia.p99 = ms(histograma.getValueAtPercentile(99));
+        latencia.p999 = ms(histograma.getValueAtPercentile(99.9));
+        latencia.p9999 = ms(histograma.getValueAtPercentile(99.99));
+        latencia.max = ms(histograma.getMaxValue());
+        return latencia;
+    }
+
+    // Formato do HdrHistogram (encodeIntoCompressedByteBuffer): pode ser lido e somado por outras ferramentas
+    static String codificar(Histogram histograma) {
+        ByteBuffer buffer = ByteBuffer.allocate(histograma.getNeededByteBufferCapacity());
+        int tamanho = histograma.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), tamanho));
+    }
+
+    static double ms(double nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    static double arredondar(double valor) {
+        return Math.round(valor * 10.0) / 10.0;
+    }
+}
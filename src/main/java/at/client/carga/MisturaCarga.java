@@ -0,0 +1,84 @@
+package at.client.carga;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Proporção de cada operação na carga, em pesos inteiros (ex: criar:10,ler:70,listar:10,status:10).
+// Cada chegada sorteia a operação pelos pesos; operações ausentes não são enviadas.
+public final class MisturaCarga {
+
+    public static final String PADRAO = "criar:10,ler:70,listar:10,status:10";
+
+    private final Map<OperacaoCarga, Integer> pesos;
+    private final OperacaoCarga[] operacoes;
+    private final int[] acumulados;
+    private final int total;
+
+    public MisturaCarga(Map<OperacaoCarga, Integer> pesos) {
+        EnumMap<OperacaoCarga, Integer> validos = new EnumMap<>(OperacaoCarga.class);
+        pesos.forEach((operacao, peso) -> {
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo para " + operacao.nome() + ".");
+            }
+            if (peso > 0) {
+                validos.put(operacao, peso);
+            }
+        });
+        if (validos.isEmpty()) {
+            throw new IllegalArgumentException("A mistura precisa de ao menos uma operação com peso positivo.");
+        }
+        this.pesos = Collections.unmodifiableMap(validos);
+        this.operacoes = validos.keySet().toArray(new OperacaoCarga[0]);
+        this.acumulados = new int[operacoes.length];
+        int soma = 0;
+        for (int i = 0; i < operacoes.length; i++) {
+            soma += validos.get(operacoes[i]);
+            acumulados[i] = soma;
+        }
+        this.total = soma;
+    }
+
+    // "operacao:peso,operacao:peso,..."
+    public static MisturaCarga parse(String valor) {
+        Map<OperacaoCarga, Integer> pesos = new EnumMap<>(OperacaoCarga.class);
+        for (String item : valor.split(",")) {
+            if (item.isBlank()) {
+                continue;
+            }
+            String[] partes = item.split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Item da mistura inválido: '" + item.trim() + "' (use operacao:peso).");
+            }
+            OperacaoCarga operacao = OperacaoCarga.parse(partes[0]);
+            try {
+                pesos.merge(operacao, Integer.parseInt(partes[1].trim()), Integer::sum);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Peso inválido para " + operacao.nome() + ": " + partes[1].trim());
+            }
+        }
+        return new MisturaCarga(pesos);
+    }
+
+    OperacaoCarga sortear(SplittableRandom aleatorio) {
+        int sorteado = aleatorio.nextInt(total);
+        for (int i = 0; i < acumulados.length; i++) {
+            if (sorteado < acumulados[i]) {
+                return operacoes[i];
+            }
+        }
+        return operacoes[operacoes.length - 1];
+    }
+
+    public Map<OperacaoCarga, Integer> getPesos() {
+        return pesos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        pesos.forEach((operacao, peso) -> texto.append(texto.isEmpty() ? "" : ",").append(operacao.nome()).append(':').append(peso));
+        return texto.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package at.client.carga;
+
+import java.util.Locale;
+
+// Operações que o gerador de carga sabe enviar, com o nome usado em --mistura
+public enum OperacaoCarga {
+    CRIAR("POST /tarefas"),
+    LER("GET /tarefas/{id}"),
+    LISTAR("GET /tarefas?limit="),
+    STATUS("GET /status");
+
+    private final String rota;
+
+    OperacaoCarga(String rota) {
+        this.rota = rota;
+    }
+
+    public String getRota() {
+        return rota;
+    }
+
+    public String nome() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // criar, ler, listar ou status
+    public static OperacaoCarga parse(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Operação desconhecida: " + valor + " (use criar, ler, listar ou status)");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package at.client.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Relatório do gerador de carga, gravado em JSON (--json) e impresso como tabela.
+// Latências em milissegundos. A latência "corrigida" conta a partir do instante em que a
+// requisição deveria ter sido enviada pela taxa de chegada (correção de coordinated omission);
+// a de "serviço", a partir do envio de fato.
+public class RelatorioCarga {
+
+    public String url;
+    public String inicio;           // instante ISO-8601 do início do primeiro estágio
+    public String mistura;          // pesos das operações (ex: criar:10,ler:70,...)
+    public String formato;          // json, smile ou cbor
+    public double aquecimentoS;
+    public List<Estagio> estagios = new ArrayList<>();
+
+    public static class Estagio {
+        public double taxaAlvo;             // chegadas por segundo planejadas
+        public double segundos;             // duração planejada do estágio
+        public double taxaEnviada;          // enviadas por segundo de fato
+        public double vazao;                // respostas com sucesso por segundo
+        public long enviadas;
+        public long concluidas;
+        public long erros;
+        public long semResposta;            // ainda em voo ao fim da espera do estágio
+        public double atrasoMaximoEnvioMs;  // maior atraso de um envio em relação ao previsto (cliente saturado)
+        public List<Operacao> operacoes = new ArrayList<>();
+        public Operacao total;              // todas as operações juntas
+    }
+
+    public static class Operacao {
+        public String operacao;             // criar, ler, listar, status ou total
+        public String rota;
+        public long enviadas;
+        public long concluidas;
+        public long erros;
+        public String ultimoErro;
+        public double vazao;                // respostas com sucesso por segundo
+        public Latencia latenciaMs;         // corrigida
+        public Latencia servicoMs;          // sem correção
+        public String histograma;           // latência corrigida em nanossegundos: HdrHistogram comprimido, em Base64
+    }
+
+    public static class Latencia {
+        public double media;
+        public double p50;
+        public double p90;
+        public double p99;
+        public double p999;
+        public double p9999;
+        public double max;
+    }
+}
@@ -0,0 +1,112 @@
+package at.client.etapa3;
+
+import at.client.TarefaClient;
+import at.client.carga.ConfigCarga;
+import at.client.carga.ExecutorTarefas;
+import at.client.carga.GeradorCarga;
+import at.client.carga.RelatorioCarga;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+
+// Teste de carga da API: POST /tarefas, GET /tarefas/{id}, GET /tarefas?limit= e GET /status
+// misturados, a taxas de chegada fixas (modelo aberto, ver GeradorCarga). Cada taxa de
+// --taxa é um estágio; ao final imprime uma tabela por estágio e operação e grava o
+// relatório em JSON. Opções em ConfigCarga.USO.
+public class CargaClient {
+
+    public static void main(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--ajuda") || arg.equals("-h")) {
+                System.out.print(ConfigCarga.USO);
+                return;
+            }
+        }
+        ConfigCarga config;
+        try {
+            config = ConfigCarga.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(ConfigCarga.USO);
+            System.exit(2);
+            return;
+        }
+
+        System.out.println("--- Cliente Java: Teste de Carga em " + config.getUrl() + " ---");
+        ObjectMapper objectMapper = new ObjectMapper();
+        // Sem cache de respostas: cada leitura chega ao servidor com o corpo completo
+        try (TarefaClient cliente = new TarefaClient(config.getUrl(), config.getEmVoo(), objectMapper, 0, config.getFormato())) {
+            ExecutorTarefas executor = new ExecutorTarefas(cliente, config.getLimite(), config.getSemente());
+            if (config.getTarefas() > 0) {
+                System.out.println("Criando " + config.getTarefas() + " tarefas para as leituras...");
+                executor.preparar(config.getTarefas());
+            }
+            GeradorCarga gerador = new GeradorCarga(config.getMistura(), executor, config.getIntervalo(), System.out, config.getSemente());
+
+            RelatorioCarga relatorio = new RelatorioCarga();
+            relatorio.url = config.getUrl();
+            relatorio.mistura = config.getMistura().toString();
+            relatorio.formato = config.getFormato().name().toLowerCase(Locale.ROOT);
+            relatorio.aquecimentoS = config.getAquecimento().toMillis() / 1000.0;
+            if (!config.getAquecimento().isZero()) {
+                System.out.println("Aquecimento: " + taxa(config.getTaxas().get(0)) + "/s por " + relatorio.aquecimentoS + " s (descartado)...");
+                gerador.executar("aquecimento", config.getTaxas().get(0), config.getAquecimento());
+            }
+            relatorio.inicio = Instant.now().toString();
+            for (int i = 0; i < config.getTaxas().size(); i++) {
+                double taxa = config.getTaxas().get(i);
+                System.out.println("Estágio " + (i + 1) + ": " + taxa(taxa) + " chegadas/s por " + config.getDuracao().toSeconds() + " s...");
+                relatorio.estagios.add(gerador.executar("estágio " + (i + 1), taxa, config.getDuracao()));
+            }
+
+            imprimir(relatorio, System.out);
+            Path arquivo = config.getJson();
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(arquivo.toFile(), relatorio);
+            System.out.println("Relatório JSON: " + arquivo.toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("Erro ao executar a carga: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.println("\n--- Cliente CargaClient finalizado ---");
+    }
+
+    // Tabela por estágio: uma linha por operação e o total. Latências corrigidas, em ms.
+    public static void imprimir(RelatorioCarga relatorio, PrintStream saida) {
+        for (int i = 0; i < relatorio.estagios.size(); i++) {
+            RelatorioCarga.Estagio estagio = relatorio.estagios.get(i);
+            saida.printf(Locale.ROOT, "%nEstágio %d: alvo %s/s, enviadas %.1f/s, respostas %.1f/s, erros %d, sem resposta %d, atraso máx. de envio %.2f ms%n",
+                    i + 1, taxa(estagio.taxaAlvo), estagio.taxaEnviada, estagio.vazao, estagio.erros, estagio.semResposta, estagio.atrasoMaximoEnvioMs);
+            saida.printf("%-8s %-20s %9s %9s %7s %9s %9s %9s %9s %9s %9s %11s%n", "OPERAÇÃO", "ROTA", "ENVIADAS", "RESP/S", "ERROS",
+                    "MÉDIA", "P50", "P90", "P99", "P99.9", "MÁX", "P99 SERVIÇO");
+            for (RelatorioCarga.Operacao operacao : estagio.operacoes) {
+                linha(saida, operacao);
+            }
+            linha(saida, estagio.total);
+            for (RelatorioCarga.Operacao operacao : estagio.operacoes) {
+                if (operacao.ultimoErro != null) {
+                    saida.println("  último erro em " + operacao.operacao + ": " + operacao.ultimoErro);
+                }
+            }
+        }
+        saida.println("(latências em ms, medidas a partir do envio previsto pela taxa; P99 SERVIÇO: a partir do envio de fato)");
+    }
+
+    private static void linha(PrintStream saida, RelatorioCarga.Operacao operacao) {
+        RelatorioCarga.Latencia latencia = operacao.latenciaMs;
+        saida.printf(Locale.ROOT, "%-8s %-20s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n", operacao.operacao, operacao.rota,
+                operacao.enviadas, operacao.vazao, operacao.erros, latencia.media, latencia.p50, latencia.p90, latencia.p99,
+                latencia.p999, latencia.max, operacao.servicoMs.p99);
+    }
+
+    private static String taxa(double taxa) {
+        return taxa == Math.rint(taxa) ? Long.toString((long) taxa) : Double.toString(taxa);
+    }
+}
@@ -1,19 +1,10 @@
 package at.client.etapa3;
 
+import at.client.RespostaInesperadaException;
 import at.models.Tarefa;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 
 public class GetTarefaByIdClient {
 
-    private static final String BASE_URL = "http://localhost:7000";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
     public static void main(String[] args) {
         System.out.println("--- Cliente Java: GET para /tarefas/{id} (Buscar Tarefa por ID) ---");
 
@@ -72,59 +63,17 @@ public class GetTarefaByIdClient {
         System.out.println("\n--- Cliente GetTarefaByIdClient finalizado ---");
     }
 
+    // Retorna null quando a tarefa não existe (404) ou o servidor responde com erro
     public static Tarefa getTarefaById(int id) throws Exception {
-        URL url = new URL(BASE_URL + "/tarefas/" + id);
-        HttpURLConnection conn = null;
-
         try {
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setDoOutput(false);
-
-            int responseCode = conn.getResponseCode();
-            System.out.println("  Código de Resposta para GET /tarefas/" + id + ": " + responseCode);
-
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder response = new StringBuilder();
-                    String responseLine;
-                    while ((responseLine = br.readLine()) != null) {
-                        response.append(responseLine.trim());
-                    }
-                    return objectMapper.readValue(response.toString(), Tarefa.class);
-                }
-            } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+            Tarefa tarefa = PostTarefaClient.CLIENTE.getTarefaById(id);
+            if (tarefa == null) {
                 System.out.println("  Tarefa com ID " + id + " não encontrada na API.");
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder errorResponse = new StringBuilder();
-                    String errorLine;
-                    while ((errorLine = br.readLine()) != null) {
-                        errorResponse.append(errorLine.trim());
-                    }
-                    if (!errorResponse.isEmpty()) {
-                        System.err.println("  Mensagem de erro da API: " + errorResponse.toString());
-                    }
-                }
-                return null;
-            } else {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder errorResponse = new StringBuilder();
-                    String errorLine;
-                    while ((errorLine = br.readLine()) != null) {
-                        errorResponse.append(errorLine.trim());
-                    }
-                    System.err.println("  Erro inesperado do servidor: " + errorResponse.toString());
-                }
-                return null;
-            }
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
             }
+            return tarefa;
+        } catch (RespostaInesperadaException e) {
+            System.err.println("  Erro inesperado do servidor (HTTP " + e.getStatus() + "): " + e.getCorpo());
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,22 +1,13 @@
 package at.client.etapa3;
 
+import at.client.RespostaInesperadaException;
 import at.models.Tarefa; // Importa a classe Tarefa
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
 public class GetTarefasClient {
 
-    private static final String BASE_URL = "http://localhost:7000";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
     public static void main(String[] args) {
         System.out.println("--- Cliente Java: GET para /tarefas (Listar Todas as Tarefas) ---");
 
@@ -52,48 +43,29 @@ public class GetTarefasClient {
             e.printStackTrace();
         }
 
+        // A segunda listagem envia If-None-Match; sem mudanças, a API responde 304 sem corpo
+        System.out.println("\nListando novamente (requisição condicional)...");
+        try {
+            long antes = PostTarefaClient.CLIENTE.getNaoModificadas();
+            List<Tarefa> novamente = listTarefas();
+            boolean reaproveitada = PostTarefaClient.CLIENTE.getNaoModificadas() > antes;
+            System.out.println("  " + novamente.size() + " tarefas" + (reaproveitada
+                    ? " (304 Not Modified: lista reaproveitada do cache local)."
+                    : " (a lista mudou e foi recebida novamente)."));
+        } catch (Exception e) {
+            System.err.println("Erro ao executar a requisição GET condicional: " + e.getMessage());
+            e.printStackTrace();
+        }
+
         System.out.println("\n--- Cliente GetTarefasClient finalizado ---");
     }
 
     public static List<Tarefa> listTarefas() throws Exception {
-        URL url = new URL(BASE_URL + "/tarefas");
-        HttpURLConnection conn = null;
-
         try {
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setDoOutput(false);
-
-            int responseCode = conn.getResponseCode();
-            System.out.println("  Código de Resposta para GET /tarefas: " + responseCode);
-
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder response = new StringBuilder();
-                    String responseLine;
-                    while ((responseLine = br.readLine()) != null) {
-                        response.append(responseLine.trim());
-                    }
-                    return objectMapper.readValue(response.toString(), new TypeReference<List<Tarefa>>() {});
-                }
-            } else {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder errorResponse = new StringBuilder();
-                    String errorLine;
-                    while ((errorLine = br.readLine()) != null) {
-                        errorResponse.append(errorLine.trim());
-                    }
-                    System.err.println("  Erro do servidor: " + errorResponse.toString());
-                }
-                return Collections.emptyList();
-            }
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+            return PostTarefaClient.CLIENTE.listTarefas();
+        } catch (RespostaInesperadaException e) {
+            System.err.println("  Erro do servidor (HTTP " + e.getStatus() + "): " + e.getCorpo());
+            return Collections.emptyList();
         }
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,21 @@
 package at.client.etapa3;
 
+import at.client.FormatoCorpo;
+import at.client.RespostaInesperadaException;
+import at.client.TarefaClient;
+import at.models.ResultadoLote;
 import at.models.Tarefa;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 public class PostTarefaClient {
 
-    private static final String BASE_URL = "http://localhost:7000";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Cliente compartilhado pelos exemplos da etapa 3 (conexões keep-alive reaproveitadas).
+    // Formato dos corpos: -Dreat.cliente.formato=json|smile|cbor (padrão: json)
+    static final TarefaClient CLIENTE = new TarefaClient(TarefaClient.BASE_URL_PADRAO, TarefaClient.MAX_EM_VOO_PADRAO,
+            new ObjectMapper(), TarefaClient.CACHE_MAX_ENTRADAS_PADRAO,
+            FormatoCorpo.parse(System.getProperty("reat.cliente.formato", "json")));
 
     public static void main(String[] args) {
         System.out.println("--- Cliente Java: POST para /tarefas (Criar Tarefa) ---");
@@ -41,53 +43,24 @@ public class PostTarefaClient {
         System.out.println("\n--- Cliente PostTarefaClient finalizado ---");
     }
 
+    // Cria a tarefa pelo cliente compartilhado. Retorna null se o servidor recusar.
     public static Tarefa createTarefa(Tarefa tarefa) throws Exception {
-        URL url = new URL(BASE_URL + "/tarefas");
-        HttpURLConnection conn = null;
-
         try {
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json; utf-8");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setDoOutput(true);
-
-            String jsonInputString = objectMapper.writeValueAsString(tarefa);
-
-            try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = jsonInputString.getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
-            }
-
-            int responseCode = conn.getResponseCode();
-            System.out.println("  Código de Resposta para POST /tarefas: " + responseCode);
+            return CLIENTE.createTarefa(tarefa);
+        } catch (RespostaInesperadaException e) {
+            System.err.println("  Erro do servidor (HTTP " + e.getStatus() + "): " + e.getCorpo());
+            return null;
+        }
+    }
 
-            if (responseCode == HttpURLConnection.HTTP_CREATED) {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder response = new StringBuilder();
-                    String responseLine;
-                    while ((responseLine = br.readLine()) != null) {
-                        response.append(responseLine.trim());
-                    }
-                    return objectMapper.readValue(response.toString(), Tarefa.class);
-                }
-            } else {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder errorResponse = new StringBuilder();
-                    String errorLine;
-                    while ((errorLine = br.readLine()) != null) {
-                        errorResponse.append(errorLine.trim());
-                    }
-                    System.err.println("  Erro do servidor: " + errorResponse.toString());
-                }
-                return null;
-            }
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+    // Cria várias tarefas em uma única requisição (POST /tarefas/batch).
+    // Retorna o resultado por item, ou null se o servidor recusou o lote inteiro.
+    public static ResultadoLote createTarefas(List<Tarefa> tarefas) throws Exception {
+        try {
+            return CLIENTE.createTarefas(tarefas);
+        } catch (RespostaInesperadaException e) {
+            System.err.println("  Erro do servidor (HTTP " + e.getStatus() + "): " + e.getCorpo());
+            return null;
         }
     }
-}
\ No newline at end of file
+}
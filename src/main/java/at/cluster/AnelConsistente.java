@@ -0,0 +1,81 @@
+package at.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Anel de hash consistente: cada nó ocupa VIRTUAIS pontos do anel (hash de "<nó>#<i>") e
+// cada chave pertence ao primeiro ponto no sentido horário a partir do hash dela. Com os
+// pontos virtuais, as chaves se dividem quase igualmente entre os nós, e incluir ou
+// retirar um nó só muda o dono das chaves que caem nos pontos dele (~1/N delas).
+//
+// O anel depende só da lista de nós, não da ordem: os nós e o roteador calculam o mesmo
+// dono para cada chave sem se comunicar.
+public final class AnelConsistente {
+
+    private static final int VIRTUAIS = 160;
+
+    private final long[] pontos;
+    private final String[] donos;
+
+    public AnelConsistente(List<String> nos) {
+        if (nos.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de ao menos um nó.");
+        }
+        int total = nos.size() * VIRTUAIS;
+        long[] hashes = new long[total];
+        int[] indices = new int[total];
+        int n = 0;
+        for (int no = 0; no < nos.size(); no++) {
+            for (int i = 0; i < VIRTUAIS; i++) {
+                hashes[n] = hash(nos.get(no) + "#" + i);
+                indices[n++] = no;
+            }
+        }
+        // Ordena os pontos pelo hash (empate: pelo nome do nó, para não depender da ordem da lista)
+        Integer[] ordem = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, (a, b) -> hashes[a] != hashes[b] ? Long.compareUnsigned(hashes[a], hashes[b])
+                : nos.get(indices[a]).compareTo(nos.get(indices[b])));
+        this.pontos = new long[total];
+        this.donos = new String[total];
+        for (int i = 0; i < total; i++) {
+            pontos[i] = hashes[ordem[i]];
+            donos[i] = nos.get(indices[ordem[i]]);
+        }
+    }
+
+    // Nó dono da chave
+    public String dono(String chave) {
+        long h = hash(chave);
+        int inicio = 0;
+        int fim = pontos.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (Long.compareUnsigned(pontos[meio], h) < 0) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return donos[inicio == pontos.length ? 0 : inicio];
+    }
+
+    // FNV-1a de 64 bits seguido da finalização do MurmurHash3, que espalha os bits de
+    // chaves parecidas ("bloco-1", "bloco-2"...) por todo o anel
+    static long hash(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,81 @@
+package at.cluster;
+
+import at.repository.AlocadorIds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Configuração do modo cluster, lida das propriedades de sistema:
+//   reat.cluster.nos  URLs base de todos os nós, separadas por vírgula (ausente = sem cluster)
+//   reat.cluster.no   URL deste nó, uma das de reat.cluster.nos (ausente no roteador)
+//
+// O espaço de IDs é dividido nos blocos de AlocadorIds, e o anel de hash consistente dá
+// cada bloco a um nó. Cada nó só cria tarefas com IDs dos próprios blocos, e o dono de
+// qualquer ID é o dono do bloco dele: o roteador encontra a tarefa sem consultar ninguém.
+//
+// Todos os nós e o roteador devem receber a mesma lista. Mudar a lista muda o dono de
+// parte dos blocos (~1/N por nó incluído) e as tarefas já criadas neles não são migradas.
+public class ClusterConfig {
+
+    private final List<String> nos;
+    private final String no;
+    private final AnelConsistente anel;
+
+    public ClusterConfig(List<String> nos, String no) {
+        this.nos = List.copyOf(nos.stream().map(ClusterConfig::normalizar).distinct().toList());
+        this.no = no == null ? null : normalizar(no);
+        if (this.nos.isEmpty()) {
+            throw new IllegalArgumentException("Informe os nós do cluster em reat.cluster.nos.");
+        }
+        if (this.no != null && !this.nos.contains(this.no)) {
+            throw new IllegalArgumentException("O nó " + no + " não está em reat.cluster.nos: " + this.nos);
+        }
+        this.anel = new AnelConsistente(this.nos);
+    }
+
+    public static Optional<ClusterConfig> fromSystemProperties() {
+        String nos = System.getProperty("reat.cluster.nos");
+        if (nos == null || nos.isBlank()) {
+            return Optional.empty();
+        }
+        List<String> lista = new ArrayList<>();
+        for (String url : nos.split(",")) {
+            if (!url.isBlank()) {
+                lista.add(url.trim());
+            }
+        }
+        return Optional.of(new ClusterConfig(lista, System.getProperty("reat.cluster.no")));
+    }
+
+    public List<String> getNos() {
+        return nos;
+    }
+
+    // URL deste nó, ou null no roteador
+    public String getNo() {
+        return no;
+    }
+
+    // Nó que criou (e guarda) a tarefa com esse ID
+    public String donoDoId(int id) {
+        return donoDoBloco(AlocadorIds.blocoDe(id));
+    }
+
+    public String donoDoBloco(int bloco) {
+        return anel.dono("bloco-" + bloco);
+    }
+
+    // Alocador que só atribui IDs dos blocos deste nó
+    public AlocadorIds alocador() {
+        if (no == null) {
+            throw new IllegalStateException("Informe a URL deste nó em reat.cluster.no.");
+        }
+        return new AlocadorIds(bloco -> no.equals(donoDoBloco(bloco)));
+    }
+
+    private static String normalizar(String url) {
+        String limpa = url.trim();
+        return limpa.endsWith("/") ? limpa.substring(0, limpa.length() - 1) : limpa;
+    }
+}
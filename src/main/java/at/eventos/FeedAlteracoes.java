@@ -0,0 +1,194 @@
+package at.eventos;
+
+import at.logging.AsyncLogger;
+import at.models.EventoTarefa;
+import at.models.Tarefa;
+import at.repository.OuvinteAlteracoes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.http.sse.SseClient;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Feed de alterações das tarefas para GET /tarefas/changes (Server-Sent Events).
+//
+// O repositório entrega cada alteração (sob o lock do ID, sem bloquear) a uma fila sem
+// limite; uma única thread escritora numera os eventos, serializa o JSON uma vez e os
+// publica em um HistoricoEventos de tamanho fixo. Cada assinante lê o histórico no seu
+// ritmo, a partir da própria posição, e dorme enquanto não há nada novo.
+//
+// Quem escreve nunca espera por quem lê: o histórico sobrescreve os eventos mais antigos.
+// Um assinante lento (a escrita no socket bloqueia a thread dele, não as demais) que for
+// ultrapassado pelo histórico recebe "ressincronizar" e é desconectado.
+//
+// O ID de cada evento é "<época>-<sequência>". Ao reconectar, o navegador envia o último
+// recebido em Last-Event-ID, e a transmissão continua do evento seguinte se ele ainda
+// estiver no histórico e a época for a mesma (a época muda a cada processo).
+//
+// Capacidade do histórico configurável por -Dreat.eventos.historico (padrão: 4096 eventos).
+public final class FeedAlteracoes implements OuvinteAlteracoes {
+
+    private record Alteracao(int id, Tarefa antiga, Tarefa nova) {
+    }
+
+    private record Evento(String id, String tipo, String json) {
+    }
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(FeedAlteracoes.class);
+    private static final long PING_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final ObjectMapper objectMapper;
+    private final HistoricoEventos<Evento> historico;
+    private final Queue<Alteracao> entrada = new ConcurrentLinkedQueue<>();
+    private final Set<Thread> aguardando = ConcurrentHashMap.newKeySet();
+    private final String epoca = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    private final AtomicInteger assinantes = new AtomicInteger();
+    private final LongAdder desconectados = new LongAdder();
+    private final Thread escritor;
+
+    public FeedAlteracoes(ObjectMapper objectMapper, int capacidadeHistorico) {
+        this.objectMapper = objectMapper;
+        this.historico = new HistoricoEventos<>(capacidadeHistorico);
+        this.escritor = new Thread(this::escrever, "reat-eventos-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    public static FeedAlteracoes fromSystemProperties(ObjectMapper objectMapper) {
+        return new FeedAlteracoes(objectMapper, Integer.getInteger("reat.eventos.historico", 4096));
+    }
+
+    @Override
+    public void alterada(int id, Tarefa antiga, Tarefa nova) {
+        entrada.add(new Alteracao(id, antiga, nova));
+        LockSupport.unpark(escritor);
+    }
+
+    // Transmite os eventos ao cliente até ele desconectar ou ser descartado.
+    // Roda na thread da requisição SSE (virtual, no executor assíncrono do Javalin).
+    public void transmitir(SseClient cliente) {
+        long proxima = historico.proxima();
+        String ultimoId = cliente.ctx().header("Last-Event-ID");
+        if (ultimoId != null && !ultimoId.isEmpty()) {
+            long retomada = sequenciaSeguinte(ultimoId);
+            if (retomada > 0 && retomada >= historico.primeiraDisponivel() && retomada <= proxima) {
+                proxima = retomada;
+            } else {
+                enviar(cliente, null, EventoTarefa.ressincronizar("O histórico não contém mais os eventos seguintes a " + ultimoId + "."));
+            }
+        }
+
+        // Daqui em diante nenhum evento é perdido: o cliente pode usar o comentário como confirmação
+        cliente.sendComment("conectado");
+        assinantes.incrementAndGet();
+        Thread atual = Thread.currentThread();
+        long ultimoEnvio = System.nanoTime();
+        try {
+            while (!cliente.terminated()) {
+                if (proxima < historico.primeiraDisponivel()) {
+                    desconectados.increment();
+                    log.warn("Assinante de /tarefas/changes descartado: {} eventos atrás.", historico.proxima() - proxima);
+                    enviar(cliente, null, EventoTarefa.ressincronizar("O cliente não acompanhou o ritmo dos eventos."));
+                    cliente.close();
+                    return;
+                }
+                Evento evento = historico.ler(proxima);
+                if (evento != null) {
+                    cliente.sendEvent(evento.tipo(), evento.json(), evento.id());
+                    proxima++;
+                    ultimoEnvio = System.nanoTime();
+                    continue;
+                }
+                // Registra-se antes de conferir de novo: um evento publicado depois disso nos acorda
+                aguardando.add(atual);
+                if (historico.ler(proxima) == null && proxima >= historico.primeiraDisponivel()) {
+                    LockSupport.parkNanos(this, PING_NANOS);
+                }
+                aguardando.remove(atual);
+                // Comentário periódico: mantém proxies abertos e detecta clientes que sumiram
+                if (System.nanoTime() - ultimoEnvio >= PING_NANOS) {
+                    cliente.sendComment("ping");
+                    ultimoEnvio = System.nanoTime();
+                }
+            }
+        } finally {
+            assinantes.decrementAndGet();
+        }
+    }
+
+    // Assinantes conectados agora
+    public int assinantes() {
+        return assinantes.get();
+    }
+
+    // Assinantes descartados por lentidão desde o início do processo
+    public long desconectados() {
+        return desconectados.sum();
+    }
+
+    // Eventos publicados desde o início do processo
+    public long publicados() {
+        return historico.proxima() - 1;
+    }
+
+    private void escrever() {
+        while (true) {
+            Alteracao alteracao = entrada.poll();
+            if (alteracao == null) {
+                for (Thread assinante : aguardando) {
+                    LockSupport.unpark(assinante);
+                }
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                EventoTarefa evento = paraEvento(alteracao);
+                long sequencia = historico.proxima();
+                historico.publicar(new Evento(epoca + "-" + sequencia, evento.tipo, objectMapper.writeValueAsString(evento)));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.error("Falha ao publicar o evento da tarefa {}: {}", alteracao.id(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private static EventoTarefa paraEvento(Alteracao alteracao) {
+        Tarefa antiga = alteracao.antiga();
+        Tarefa nova = alteracao.nova();
+        if (antiga == null && nova == null) {
+            return EventoTarefa.ressincronizar("As tarefas foram removidas.");
+        }
+        if (nova == null) {
+            return new EventoTarefa(EventoTarefa.REMOVIDA, alteracao.id(), antiga.getVersao(), null);
+        }
+        return new EventoTarefa(antiga == null ? EventoTarefa.CRIADA : EventoTarefa.ALTERADA, alteracao.id(), nova.getVersao(), nova);
+    }
+
+    // Sequência seguinte ao ID recebido, ou -1 se ele não for desta época
+    private long sequenciaSeguinte(String ultimoId) {
+        int separador = ultimoId.lastIndexOf('-');
+        if (separador < 0 || !ultimoId.substring(0, separador).equals(epoca)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(ultimoId.substring(separador + 1)) + 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void enviar(SseClient cliente, String id, EventoTarefa evento) {
+        try {
+            cliente.sendEvent(evento.tipo, objectMapper.writeValueAsString(evento), id);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
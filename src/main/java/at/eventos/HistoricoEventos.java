@@ -0,0 +1,70 @@
+package at.eventos;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Histórico circular dos últimos eventos, com um único escritor e vários leitores sem lock.
+//
+// Cada evento recebe um número de sequência (a partir de 1) e ocupa a posição
+// sequencia % capacidade, sobrescrevendo o evento de uma volta atrás. A posição guarda
+// também o número de sequência do evento, e o escritor o invalida antes de trocar o
+// evento (como um seqlock): o leitor confere o número antes e depois de ler, então
+// nunca devolve o evento de outra volta.
+//
+// Usado pelo feed de alterações e pelo log de replicação (at.replicacao.LogReplicacao).
+public final class HistoricoEventos<E> {
+
+    private static final long INVALIDA = -1;
+
+    private final int capacidade;
+    private final int mascara;
+    private final AtomicReferenceArray<E> itens;
+    private final AtomicLongArray sequencias;
+    // Próxima sequência a publicar; escrita apenas pelo escritor
+    private volatile long proxima = 1;
+
+    public HistoricoEventos(int capacidadeMinima) {
+        this.capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1) << 1);
+        this.mascara = capacidade - 1;
+        this.itens = new AtomicReferenceArray<>(capacidade);
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, INVALIDA);
+        }
+    }
+
+    // Apenas o escritor chama publicar(). Retorna a sequência atribuída.
+    public long publicar(E item) {
+        long sequencia = proxima;
+        int indice = (int) (sequencia & mascara);
+        sequencias.set(indice, INVALIDA);
+        itens.set(indice, item);
+        sequencias.set(indice, sequencia);
+        proxima = sequencia + 1;
+        return sequencia;
+    }
+
+    // O evento da sequência, ou null se ainda não foi publicado ou já foi sobrescrito
+    public E ler(long sequencia) {
+        int indice = (int) (sequencia & mascara);
+        if (sequencias.get(indice) != sequencia) {
+            return null;
+        }
+        E item = itens.get(indice);
+        return sequencias.get(indice) == sequencia ? item : null;
+    }
+
+    // Sequência que o próximo evento receberá
+    public long proxima() {
+        return proxima;
+    }
+
+    // Menor sequência ainda disponível para leitura
+    public long primeiraDisponivel() {
+        return Math.max(1, proxima - capacidade);
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+}
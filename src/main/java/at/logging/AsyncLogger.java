@@ -0,0 +1,204 @@
+package at.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Logger assíncrono sobre o SLF4J para o caminho das requisições.
+//
+// O nível é verificado na thread chamadora, então mensagens desabilitadas não alocam
+// nem formatam nada. As habilitadas entram em um RingBuffer e são formatadas e escritas
+// por uma única thread de fundo, longe do lock do PrintStream. As threads de requisição
+// nunca bloqueiam: acima de 3/4 da capacidade, DEBUG e INFO são amostradas (em média 1 a cada
+// AMOSTRAGEM); com o buffer cheio a mensagem é descartada e contabilizada.
+//
+// Capacidade configurável por -Dreat.log.capacidade (padrão: 8192 mensagens).
+public final class AsyncLogger {
+
+    private enum Nivel { DEBUG, INFO, WARN, ERROR }
+
+    private record Evento(Logger destino, Nivel nivel, String formato, Object[] argumentos) {
+    }
+
+    private static final Object[] SEM_ARGUMENTOS = new Object[0];
+    private static final int AMOSTRAGEM = 16;
+    private static final long ESPERA_OCIOSA_NANOS = 1_000_000;
+
+    private static final RingBuffer<Evento> BUFFER = new RingBuffer<>(Integer.getInteger("reat.log.capacidade", 8192));
+    private static final int LIMITE_AMOSTRAGEM = BUFFER.capacidade() / 4 * 3;
+    private static final LongAdder DESCARTADAS = new LongAdder();
+    private static final Logger INTERNO = LoggerFactory.getLogger(AsyncLogger.class);
+    private static final Thread ESCRITOR;
+
+    static {
+        ESCRITOR = new Thread(AsyncLogger::escrever, "reat-log-escritor");
+        ESCRITOR.setDaemon(true);
+        ESCRITOR.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(AsyncLogger::esvaziar, "reat-log-flush"));
+    }
+
+    private final Logger destino;
+
+    private AsyncLogger(Logger destino) {
+        this.destino = destino;
+    }
+
+    public static AsyncLogger getLogger(Class<?> classe) {
+        return new AsyncLogger(LoggerFactory.getLogger(classe));
+    }
+
+    // Mensagens descartadas desde o início do processo
+    public static long descartadas() {
+        return DESCARTADAS.sum();
+    }
+
+    public void debug(String formato) {
+        if (destino.isDebugEnabled()) {
+            publicar(Nivel.DEBUG, formato, SEM_ARGUMENTOS);
+        }
+    }
+
+    public void debug(String formato, Object argumento) {
+        if (destino.isDebugEnabled()) {
+            publicar(Nivel.DEBUG, formato, new Object[]{argumento});
+        }
+    }
+
+    public void debug(String formato, Object argumento1, Object argumento2) {
+        if (destino.isDebugEnabled()) {
+            publicar(Nivel.DEBUG, formato, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void debug(String formato, Object... argumentos) {
+        if (destino.isDebugEnabled()) {
+            publicar(Nivel.DEBUG, formato, argumentos);
+        }
+    }
+
+    public void info(String formato) {
+        if (destino.isInfoEnabled()) {
+            publicar(Nivel.INFO, formato, SEM_ARGUMENTOS);
+        }
+    }
+
+    public void info(String formato, Object argumento) {
+        if (destino.isInfoEnabled()) {
+            publicar(Nivel.INFO, formato, new Object[]{argumento});
+        }
+    }
+
+    public void info(String formato, Object argumento1, Object argumento2) {
+        if (destino.isInfoEnabled()) {
+            publicar(Nivel.INFO, formato, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void info(String formato, Object... argumentos) {
+        if (destino.isInfoEnabled()) {
+            publicar(Nivel.INFO, formato, argumentos);
+        }
+    }
+
+    public void warn(String formato) {
+        if (destino.isWarnEnabled()) {
+            publicar(Nivel.WARN, formato, SEM_ARGUMENTOS);
+        }
+    }
+
+    public void warn(String formato, Object argumento) {
+        if (destino.isWarnEnabled()) {
+            publicar(Nivel.WARN, formato, new Object[]{argumento});
+        }
+    }
+
+    public void warn(String formato, Object argumento1, Object argumento2) {
+        if (destino.isWarnEnabled()) {
+            publicar(Nivel.WARN, formato, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void warn(String formato, Object... argumentos) {
+        if (destino.isWarnEnabled()) {
+            publicar(Nivel.WARN, formato, argumentos);
+        }
+    }
+
+    // Como no SLF4J, um Throwable como último argumento é registrado com o stack trace
+    public void error(String formato) {
+        if (destino.isErrorEnabled()) {
+            publicar(Nivel.ERROR, formato, SEM_ARGUMENTOS);
+        }
+    }
+
+    public void error(String formato, Object argumento) {
+        if (destino.isErrorEnabled()) {
+            publicar(Nivel.ERROR, formato, new Object[]{argumento});
+        }
+    }
+
+    public void error(String formato, Object argumento1, Object argumento2) {
+        if (destino.isErrorEnabled()) {
+            publicar(Nivel.ERROR, formato, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void error(String formato, Object... argumentos) {
+        if (destino.isErrorEnabled()) {
+            publicar(Nivel.ERROR, formato, argumentos);
+        }
+    }
+
+    private void publicar(Nivel nivel, String formato, Object[] argumentos) {
+        if (nivel.compareTo(Nivel.INFO) <= 0 && BUFFER.ocupacao() >= LIMITE_AMOSTRAGEM
+                && ThreadLocalRandom.current().nextInt(AMOSTRAGEM) != 0) {
+            DESCARTADAS.increment();
+            return;
+        }
+        if (!BUFFER.offer(new Evento(destino, nivel, formato, argumentos))) {
+            DESCARTADAS.increment();
+        }
+    }
+
+    private static void escrever() {
+        long descartadasReportadas = 0;
+        while (true) {
+            if (!drenar()) {
+                long descartadas = DESCARTADAS.sum();
+                if (descartadas > descartadasReportadas) {
+                    INTERNO.warn("{} mensagens de log descartadas por excesso de carga (total: {}).",
+                            descartadas - descartadasReportadas, descartadas);
+                    descartadasReportadas = descartadas;
+                }
+                LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+            }
+        }
+    }
+
+    // Escreve tudo o que está no buffer; retorna false se ele estava vazio
+    private static boolean drenar() {
+        boolean escreveu = false;
+        Evento evento;
+        while ((evento = BUFFER.poll()) != null) {
+            escreveu = true;
+            switch (evento.nivel()) {
+                case DEBUG -> evento.destino().debug(evento.formato(), evento.argumentos());
+                case INFO -> evento.destino().info(evento.formato(), evento.argumentos());
+                case WARN -> evento.destino().warn(evento.formato(), evento.argumentos());
+                case ERROR -> evento.destino().error(evento.formato(), evento.argumentos());
+            }
+        }
+        return escreveu;
+    }
+
+    // Na saída da JVM, dá à thread escritora um instante para esvaziar o buffer
+    private static void esvaziar() {
+        long limite = System.nanoTime() + 500_000_000L;
+        while (BUFFER.ocupacao() > 0 && System.nanoTime() < limite) {
+            LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package at.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Fila circular limitada, sem lock, para vários produtores e um único consumidor
+// (algoritmo de Dmitry Vyukov). Cada posição tem um número de sequência que indica
+// se ela está livre para o produtor da volta atual ou pronta para o consumidor.
+// offer() nunca bloqueia: com a fila cheia ele simplesmente retorna false.
+final class RingBuffer<E> {
+
+    private final int capacidade;
+    private final int mascara;
+    private final AtomicReferenceArray<E> itens;
+    private final AtomicLongArray sequencias;
+    private final AtomicLong cauda = new AtomicLong();
+    // Escrita apenas pelo consumidor; volatile para a estimativa de ocupação dos produtores
+    private volatile long cabeca;
+
+    RingBuffer(int capacidadeMinima) {
+        this.capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1) << 1);
+        this.mascara = capacidade - 1;
+        this.itens = new AtomicReferenceArray<>(capacidade);
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    boolean offer(E item) {
+        long posicao = cauda.get();
+        while (true) {
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    itens.lazySet(indice, item);
+                    sequencias.set(indice, posicao + 1); // publica para o consumidor
+                    return true;
+                }
+                posicao = cauda.get();
+            } else if (diferenca < 0) {
+                return false; // cheia: o consumidor ainda não liberou esta posição
+            } else {
+                posicao = cauda.get(); // outro produtor ocupou a posição
+            }
+        }
+    }
+
+    // Apenas o consumidor chama poll()
+    E poll() {
+        long posicao = cabeca;
+        int indice = (int) (posicao & mascara);
+        if (sequencias.get(indice) != posicao + 1) {
+            return null;
+        }
+        E item = itens.get(indice);
+        itens.lazySet(indice, null);
+        sequencias.set(indice, posicao + capacidade); // libera para a próxima volta
+        cabeca = posicao + 1;
+        return item;
+    }
+
+    int capacidade() {
+        return capacidade;
+    }
+
+    // Estimativa (pode estar momentaneamente defasada)
+    int ocupacao() {
+        return (int) Math.max(0, cauda.get() - cabeca);
+    }
+}
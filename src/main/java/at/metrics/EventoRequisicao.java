@@ -0,0 +1,38 @@
+package at.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Uma requisição HTTP na gravação JFR: começa no 'before' e é gravada no 'after' (ver PerfilJfr).
+// Também aparece nas gravações abertas no JDK Mission Control, junto dos eventos da JVM.
+@Name(EventoRequisicao.NOME)
+@Label("Requisição HTTP")
+@Category("ReAT")
+@Description("Requisição atendida pela API, com os bytes alocados pela thread durante ela.")
+@StackTrace(false)
+final class EventoRequisicao extends jdk.jfr.Event {
+
+    static final String NOME = "reat.Requisicao";
+
+    @Label("Método")
+    String metodo;
+
+    @Label("Rota")
+    String rota;
+
+    @Label("Status")
+    int status;
+
+    @Label("Bytes alocados")
+    @Description("Alocados pela thread entre o 'before' e o 'after'; -1 quando a JVM não mede (threads virtuais).")
+    @DataAmount
+    long bytesAlocados;
+
+    // Contador da thread no início; transient: fica fora da gravação
+    transient long alocadosNoInicio;
+    transient Thread thread;
+}
@@ -0,0 +1,175 @@
+package at.metrics;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+// Instrumentação das requisições: os handlers before/after medem cada requisição
+// e GET /metrics exporta tudo no formato texto do Prometheus.
+public class MetricasHttp {
+
+    public static final String CONTENT_TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String ATRIBUTO_INICIO = "reat.metricas.inicio";
+    private static final String ROTA_SEM_ENDPOINT = "<sem-rota>";
+    private static final double[] QUANTIS = {0.5, 0.9, 0.99, 0.999};
+
+    // Método -> caminho da rota -> métricas. O caminho é o padrão registrado
+    // (ex: /tarefas/{id}), então a cardinalidade não cresce com os IDs.
+    private final Map<HandlerType, ConcurrentMap<String, MetricasRota>> rotas = new EnumMap<>(HandlerType.class);
+    private final IntSupplier tamanhoRepositorio;
+    // Métricas simples registradas por outros componentes (caches, filas...)
+    private final List<MetricaExterna> externas = new CopyOnWriteArrayList<>();
+
+    private record MetricaExterna(String nome, String ajuda, String tipo, LongSupplier valor) {
+    }
+
+    public MetricasHttp(IntSupplier tamanhoRepositorio) {
+        this.tamanhoRepositorio = tamanhoRepositorio;
+        for (HandlerType tipo : HandlerType.values()) {
+            rotas.put(tipo, new ConcurrentHashMap<>());
+        }
+    }
+
+    // Exporta um contador (valor que só cresce) mantido por outro componente
+    public void registrarContador(String nome, String ajuda, LongSupplier valor) {
+        externas.add(new MetricaExterna(nome, ajuda, "counter", valor));
+    }
+
+    // Exporta um medidor (valor instantâneo) mantido por outro componente
+    public void registrarMedidor(String nome, String ajuda, LongSupplier valor) {
+        externas.add(new MetricaExterna(nome, ajuda, "gauge", valor));
+    }
+
+    // Handler 'before': marca o início da requisição
+    public void antes(Context ctx) {
+        ctx.attribute(ATRIBUTO_INICIO, System.nanoTime());
+    }
+
+    // Handler 'after': registra a duração e o status na rota atendida
+    public void depois(Context ctx) {
+        Long inicio = ctx.attribute(ATRIBUTO_INICIO);
+        if (inicio == null) {
+            return;
+        }
+        long duracao = System.nanoTime() - inicio;
+        rotas.get(ctx.method())
+                .computeIfAbsent(rota(ctx), caminho -> new MetricasRota())
+                .registrar(duracao, ctx.statusCode());
+    }
+
+    static String rota(Context ctx) {
+        String caminho = ctx.endpointHandlerPath();
+        // Sem endpoint (404/405) o Javalin devolve uma mensagem em vez de um caminho
+        return caminho.startsWith("/") ? caminho : ROTA_SEM_ENDPOINT;
+    }
+
+    public String exportarPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+
+        out.append("# HELP reat_http_requisicoes_total Requisições atendidas por rota.\n");
+        out.append("# TYPE reat_http_requisicoes_total counter\n");
+        paraCadaRota((metodo, caminho, metricas) ->
+                linha(out, "reat_http_requisicoes_total", rotulos(metodo, caminho), metricas.requisicoes()));
+
+        out.append("# HELP reat_http_erros_total Requisições por rota que terminaram com status 5xx.\n");
+        out.append("# TYPE reat_http_erros_total counter\n");
+        paraCadaRota((metodo, caminho, metricas) ->
+                linha(out, "reat_http_erros_total", rotulos(metodo, caminho), metricas.erros()));
+
+        out.append("# HELP reat_http_latencia_segundos Latência das requisições por rota desde o início do processo.\n");
+        out.append("# TYPE reat_http_latencia_segundos summary\n");
+        paraCadaRota((metodo, caminho, metricas) -> {
+            Histogram histograma = metricas.consolidar();
+            String rotulos = rotulos(metodo, caminho);
+            for (double quantil : QUANTIS) {
+                linha(out, "reat_http_latencia_segundos",
+                        rotulos + ",quantile=\"" + quantil + "\"",
+                        segundos(histograma.getValueAtPercentile(quantil * 100)));
+            }
+            linha(out, "reat_http_latencia_segundos_max", rotulos, segundos(histograma.getMaxValue()));
+            linha(out, "reat_http_latencia_segundos_sum", rotulos, segundos(metricas.somaNanos()));
+            linha(out, "reat_http_latencia_segundos_count", rotulos, metricas.requisicoes());
+        });
+
+        out.append("# HELP reat_tarefas Quantidade de tarefas no repositório.\n");
+        out.append("# TYPE reat_tarefas gauge\n");
+        linha(out, "reat_tarefas", null, tamanhoRepositorio.getAsInt());
+
+        for (MetricaExterna metrica : externas) {
+            out.append("# HELP ").append(metrica.nome()).append(' ').append(metrica.ajuda()).append('\n');
+            out.append("# TYPE ").append(metrica.nome()).append(' ').append(metrica.tipo()).append('\n');
+            linha(out, metrica.nome(), null, metrica.valor().getAsLong());
+        }
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        out.append("# HELP jvm_heap_bytes Uso do heap da JVM.\n");
+        out.append("# TYPE jvm_heap_bytes gauge\n");
+        linha(out, "jvm_heap_bytes", "area=\"usado\"", heap.getUsed());
+        linha(out, "jvm_heap_bytes", "area=\"comprometido\"", heap.getCommitted());
+        linha(out, "jvm_heap_bytes", "area=\"maximo\"", heap.getMax());
+
+        out.append("# HELP jvm_gc_coletas_total Coletas de lixo por coletor.\n");
+        out.append("# TYPE jvm_gc_coletas_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            linha(out, "jvm_gc_coletas_total", "gc=\"" + escapar(gc.getName()) + "\"", gc.getCollectionCount());
+        }
+        out.append("# HELP jvm_gc_tempo_segundos_total Tempo acumulado em coletas de lixo por coletor.\n");
+        out.append("# TYPE jvm_gc_tempo_segundos_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            linha(out, "jvm_gc_tempo_segundos_total", "gc=\"" + escapar(gc.getName()) + "\"", gc.getCollectionTime() / 1000.0);
+        }
+        return out.toString();
+    }
+
+    private interface VisitanteRota {
+        void visitar(HandlerType metodo, String caminho, MetricasRota metricas);
+    }
+
+    // Percorre as rotas em ordem estável (método, caminho) para uma saída legível
+    private void paraCadaRota(VisitanteRota visitante) {
+        rotas.forEach((metodo, porCaminho) ->
+                new TreeMap<>(porCaminho).forEach((caminho, metricas) -> visitante.visitar(metodo, caminho, metricas)));
+    }
+
+    private static String rotulos(HandlerType metodo, String caminho) {
+        return "metodo=\"" + metodo.name() + "\",rota=\"" + escapar(caminho) + "\"";
+    }
+
+    private static void linha(StringBuilder out, String nome, String rotulos, double valor) {
+        out.append(nome);
+        if (rotulos != null) {
+            out.append('{').append(rotulos).append('}');
+        }
+        out.append(' ').append(valor).append('\n');
+    }
+
+    private static void linha(StringBuilder out, String nome, String rotulos, long valor) {
+        out.append(nome);
+        if (rotulos != null) {
+            out.append('{').append(rotulos).append('}');
+        }
+        out.append(' ').append(valor).append('\n');
+    }
+
+    private static double segundos(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
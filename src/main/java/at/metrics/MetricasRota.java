@@ -0,0 +1,52 @@
+package at.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores e histograma de latência de uma rota (método + caminho).
+// As threads de requisição só tocam no LongAdder e no Recorder, ambos sem lock;
+// a consolidação do histograma acontece apenas quando /metrics é lido.
+final class MetricasRota {
+
+    private static final int DIGITOS_SIGNIFICATIVOS = 3;
+
+    private final LongAdder requisicoes = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+    private final LongAdder somaNanos = new LongAdder();
+    private final Recorder recorder = new Recorder(DIGITOS_SIGNIFICATIVOS);
+
+    // Acessados apenas sob o lock de consolidar()
+    private final Histogram acumulado = new Histogram(DIGITOS_SIGNIFICATIVOS);
+    private Histogram intervalo;
+
+    void registrar(long duracaoNanos, int status) {
+        requisicoes.increment();
+        if (status >= 500) {
+            erros.increment();
+        }
+        long duracao = Math.max(duracaoNanos, 0);
+        somaNanos.add(duracao);
+        recorder.recordValue(duracao);
+    }
+
+    long requisicoes() {
+        return requisicoes.sum();
+    }
+
+    long erros() {
+        return erros.sum();
+    }
+
+    long somaNanos() {
+        return somaNanos.sum();
+    }
+
+    // Incorpora as medições desde a última leitura e retorna uma cópia do histograma acumulado
+    synchronized Histogram consolidar() {
+        intervalo = recorder.getIntervalHistogram(intervalo);
+        acumulado.add(intervalo);
+        return acumulado.copy();
+    }
+}
@@ -0,0 +1,46 @@
+package at.metrics;
+
+import java.util.Optional;
+
+// Configuração do modo de perfil (ver PerfilJfr), lida das propriedades de sistema:
+//   reat.perfil                        true liga o modo (padrão: desligado)
+//   reat.perfil.amostragemMs           período das amostras de CPU, por thread (padrão: 10)
+//   reat.perfil.alocacoesPorSegundo    limite de amostras de alocação do JFR (padrão: 1000)
+//   reat.perfil.top                    itens em cada lista do resumo (padrão: 10)
+public class PerfilConfig {
+
+    private final int amostragemMs;
+    private final int alocacoesPorSegundo;
+    private final int top;
+
+    public PerfilConfig(int amostragemMs, int alocacoesPorSegundo, int top) {
+        if (amostragemMs <= 0 || alocacoesPorSegundo <= 0 || top <= 0) {
+            throw new IllegalArgumentException("Parâmetros do perfil inválidos.");
+        }
+        this.amostragemMs = amostragemMs;
+        this.alocacoesPorSegundo = alocacoesPorSegundo;
+        this.top = top;
+    }
+
+    public static Optional<PerfilConfig> fromSystemProperties() {
+        if (!Boolean.getBoolean("reat.perfil")) {
+            return Optional.empty();
+        }
+        return Optional.of(new PerfilConfig(
+                Integer.getInteger("reat.perfil.amostragemMs", 10),
+                Integer.getInteger("reat.perfil.alocacoesPorSegundo", 1000),
+                Integer.getInteger("reat.perfil.top", 10)));
+    }
+
+    public int getAmostragemMs() {
+        return amostragemMs;
+    }
+
+    public int getAlocacoesPorSegundo() {
+        return alocacoesPorSegundo;
+    }
+
+    public int getTop() {
+        return top;
+    }
+}
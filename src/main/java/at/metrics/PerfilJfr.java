@@ -0,0 +1,311 @@
+package at.metrics;
+
+import at.models.ResumoPerfil;
+import io.javalin.http.Context;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Modo de perfil (-Dreat.perfil=true): atribui a cada rota os bytes alocados, as pausas de GC
+// e as amostras de CPU, consumindo eventos JFR em streaming (RecordingStream) na própria JVM.
+//
+// O 'before' abre um EventoRequisicao e o 'after' o grava com a rota atendida e os bytes que a
+// thread alocou nesse intervalo (contador por thread da JVM: exato, mas indisponível em threads
+// virtuais). A thread do stream recebe os eventos em ordem de término e:
+//   - guarda, por thread, as amostras de alocação (jdk.ObjectAllocationSample) e de CPU
+//     (jdk.ExecutionSample) até chegar a requisição que terminou nela: as amostras entre o início
+//     e o fim da requisição vão para a rota dela, as anteriores são descartadas;
+//   - guarda as coletas (jdk.GarbageCollection) do último minuto: cada requisição soma as pausas
+//     das coletas que a pegaram em andamento.
+// As amostras são estatísticas (cada amostra de alocação pesa os bytes alocados desde a
+// anterior na mesma thread); a contagem de requisições e as pausas, não.
+//
+// Um único stream por processo, iniciado no primeiro buildApp: todas as instâncias do Javalin
+// alimentam o mesmo resumo.
+public final class PerfilJfr {
+
+    // Amostra pendente de uma thread. bytes < 0: amostra de CPU.
+    private record Amostra(long instante, String local, String aplicacao, long bytes) {
+    }
+
+    private record Coleta(long inicio, long fim, long pausaNanos) {
+    }
+
+    private static final String ATRIBUTO_EVENTO = "reat.perfil.evento";
+    private static final String PACOTE_APLICACAO = "at.";
+    private static final String PREFIXO_DEBUG = "/debug/";
+    // Amostras sem requisição (threads de fundo) e coletas ficam guardadas por este tempo
+    private static final long RETENCAO_AMOSTRAS_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long RETENCAO_COLETAS_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final com.sun.management.ThreadMXBean THREADS = contadorDeAlocacao();
+
+    private final PerfilConfig config;
+    // "MÉTODO caminho" -> acumuladores
+    private final ConcurrentMap<String, PerfilRota> rotas = new ConcurrentHashMap<>();
+    private final LongAdder gcs = new LongAdder();
+    private final LongAdder pausaGcNanos = new LongAdder();
+    private volatile long inicioJanela = System.currentTimeMillis();
+
+    // Acessados apenas pela thread do stream
+    private final Map<Long, ArrayDeque<Amostra>> pendentes = new HashMap<>();
+    private final ArrayDeque<Coleta> coletas = new ArrayDeque<>();
+    private long ultimoInstante;
+
+    private RecordingStream stream;
+
+    public PerfilJfr(PerfilConfig config) {
+        this.config = config;
+    }
+
+    public synchronized void iniciar() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream novo = new RecordingStream();
+        novo.enable(EventoRequisicao.class);
+        novo.enable("jdk.ObjectAllocationSample").with("throttle", config.getAlocacoesPorSegundo() + "/s").withStackTrace();
+        novo.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(config.getAmostragemMs())).withStackTrace();
+        novo.enable("jdk.GarbageCollection");
+        novo.onEvent(EventoRequisicao.NOME, this::requisicao);
+        novo.onEvent("jdk.ObjectAllocationSample", this::alocacao);
+        novo.onEvent("jdk.ExecutionSample", this::execucao);
+        novo.onEvent("jdk.GarbageCollection", this::coleta);
+        novo.onFlush(this::podar);
+        novo.startAsync();
+        stream = novo;
+    }
+
+    // Handler 'before': abre o evento da requisição. As rotas /debug/ (o próprio perfil) ficam de fora.
+    public void antes(Context ctx) {
+        if (ctx.path().startsWith(PREFIXO_DEBUG)) {
+            return;
+        }
+        EventoRequisicao evento = new EventoRequisicao();
+        evento.thread = Thread.currentThread();
+        evento.alocadosNoInicio = alocadosPelaThread();
+        evento.begin();
+        ctx.attribute(ATRIBUTO_EVENTO, evento);
+    }
+
+    // Handler 'after': grava o evento com a rota atendida
+    public void depois(Context ctx) {
+        EventoRequisicao evento = ctx.attribute(ATRIBUTO_EVENTO);
+        if (evento == null) {
+            return;
+        }
+        evento.end();
+        long alocados = alocadosPelaThread();
+        if (!evento.shouldCommit()) {
+            return;
+        }
+        evento.metodo = ctx.method().name();
+        evento.rota = MetricasHttp.rota(ctx);
+        evento.status = ctx.statusCode();
+        // Só vale se a requisição começou e terminou na mesma thread
+        evento.bytesAlocados = evento.thread == Thread.currentThread() && evento.alocadosNoInicio >= 0 && alocados >= 0
+                ? alocados - evento.alocadosNoInicio : -1;
+        evento.commit();
+    }
+
+    public ResumoPerfil resumo() {
+        ResumoPerfil resumo = new ResumoPerfil();
+        long inicio = inicioJanela;
+        resumo.inicio = Instant.ofEpochMilli(inicio).toString();
+        resumo.segundos = (System.currentTimeMillis() - inicio) / 1000.0;
+        resumo.amostragemMs = config.getAmostragemMs();
+        resumo.alocacoesPorSegundo = config.getAlocacoesPorSegundo();
+        resumo.gcs = gcs.sum();
+        resumo.pausaGcMs = pausaGcNanos.sum() / 1_000_000.0;
+        for (PerfilRota rota : rotas.values()) {
+            resumo.rotas.add(rota.resumir(config.getTop()));
+        }
+        resumo.rotas.sort(Comparator.comparingLong((ResumoPerfil.Rota rota) -> rota.bytesAlocados).reversed());
+        return resumo;
+    }
+
+    // Zera o resumo e começa uma nova janela (ex: depois do aquecimento)
+    public void limpar() {
+        rotas.clear();
+        gcs.reset();
+        pausaGcNanos.reset();
+        inicioJanela = System.currentTimeMillis();
+    }
+
+    private void requisicao(RecordedEvent evento) {
+        long inicio = nanos(evento.getStartTime());
+        long fim = nanos(evento.getEndTime());
+        avancar(fim);
+        // Eventos chegam com até ~1 s de atraso: os que terminaram antes de limpar() ficam de fora
+        boolean naJanela = fim >= inicioJanela * 1_000_000L;
+        String metodo = evento.getString("metodo");
+        String caminho = evento.getString("rota");
+        PerfilRota rota = naJanela ? rotas.computeIfAbsent(metodo + " " + caminho, chave -> new PerfilRota(metodo, caminho)) : null;
+
+        ArrayDeque<Amostra> fila = evento.getThread() == null ? null : pendentes.get(evento.getThread().getJavaThreadId());
+        while (fila != null && !fila.isEmpty() && fila.peekFirst().instante() <= fim) {
+            Amostra amostra = fila.pollFirst();
+            if (rota == null || amostra.instante() < inicio) {
+                continue;
+            }
+            if (amostra.bytes() < 0) {
+                rota.execucao(amostra.local(), amostra.aplicacao());
+            } else {
+                rota.alocacao(amostra.local(), amostra.bytes());
+            }
+        }
+        if (rota == null) {
+            return;
+        }
+        for (Coleta coleta : coletas) {
+            if (coleta.inicio() < fim && coleta.fim() > inicio) {
+                rota.gc(coleta.pausaNanos());
+            }
+        }
+        rota.requisicao(evento.getLong("bytesAlocados"));
+    }
+
+    private void alocacao(RecordedEvent evento) {
+        RecordedThread thread = evento.getThread();
+        if (thread == null) {
+            return;
+        }
+        long instante = nanos(evento.getStartTime());
+        avancar(instante);
+        String tipo = nomeDoTipo(evento.getClass("objectClass").getName());
+        RecordedStackTrace pilha = evento.getStackTrace();
+        String local = quadroDaAplicacao(pilha, true);
+        if (local == null) {
+            local = topo(pilha, true);
+        }
+        pendente(thread.getJavaThreadId(), new Amostra(instante, local + " (" + tipo + ")", null, evento.getLong("weight")));
+    }
+
+    private void execucao(RecordedEvent evento) {
+        RecordedThread thread = evento.getThread("sampledThread");
+        if (thread == null) {
+            return;
+        }
+        long instante = nanos(evento.getStartTime());
+        avancar(instante);
+        RecordedStackTrace pilha = evento.getStackTrace();
+        pendente(thread.getJavaThreadId(), new Amostra(instante, topo(pilha, false), quadroDaAplicacao(pilha, false), -1));
+    }
+
+    private void coleta(RecordedEvent evento) {
+        long pausa = evento.getDuration("sumOfPauses").toNanos();
+        long fim = nanos(evento.getEndTime());
+        avancar(fim);
+        coletas.addLast(new Coleta(nanos(evento.getStartTime()), fim, pausa));
+        if (fim >= inicioJanela * 1_000_000L) {
+            gcs.increment();
+            pausaGcNanos.add(pausa);
+        }
+    }
+
+    private void pendente(long thread, Amostra amostra) {
+        pendentes.computeIfAbsent(thread, id -> new ArrayDeque<>()).addLast(amostra);
+    }
+
+    // A cada flush do stream: descarta amostras e coletas que nenhuma requisição vai mais reclamar
+    private void podar() {
+        long limiteAmostras = ultimoInstante - RETENCAO_AMOSTRAS_NANOS;
+        for (Iterator<ArrayDeque<Amostra>> filas = pendentes.values().iterator(); filas.hasNext(); ) {
+            ArrayDeque<Amostra> fila = filas.next();
+            while (!fila.isEmpty() && fila.peekFirst().instante() < limiteAmostras) {
+                fila.pollFirst();
+            }
+            if (fila.isEmpty()) {
+                filas.remove();
+            }
+        }
+        long limiteColetas = ultimoInstante - RETENCAO_COLETAS_NANOS;
+        while (!coletas.isEmpty() && coletas.peekFirst().fim() < limiteColetas) {
+            coletas.pollFirst();
+        }
+    }
+
+    private void avancar(long instante) {
+        if (instante > ultimoInstante) {
+            ultimoInstante = instante;
+        }
+    }
+
+    // Primeiro quadro (do topo para a base) do código da aplicação, ou null
+    private static String quadroDaAplicacao(RecordedStackTrace pilha, boolean comLinha) {
+        if (pilha == null) {
+            return null;
+        }
+        for (RecordedFrame quadro : pilha.getFrames()) {
+            if (quadro.isJavaFrame() && quadro.getMethod().getType().getName().startsWith(PACOTE_APLICACAO)) {
+                return nomeDoQuadro(quadro, comLinha);
+            }
+        }
+        return null;
+    }
+
+    private static String topo(RecordedStackTrace pilha, boolean comLinha) {
+        if (pilha == null || pilha.getFrames().isEmpty()) {
+            return "<sem pilha>";
+        }
+        return nomeDoQuadro(pilha.getFrames().get(0), comLinha);
+    }
+
+    private static String nomeDoQuadro(RecordedFrame quadro, boolean comLinha) {
+        String nome = quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName();
+        return comLinha && quadro.getLineNumber() > 0 ? nome + ":" + quadro.getLineNumber() : nome;
+    }
+
+    // Nomes internos de arrays ("[B", "[Ljava.lang.String;") como no código: byte[], java.lang.String[]
+    private static String nomeDoTipo(String nome) {
+        int dimensoes = 0;
+        while (dimensoes < nome.length() && nome.charAt(dimensoes) == '[') {
+            dimensoes++;
+        }
+        if (dimensoes == 0) {
+            return nome;
+        }
+        String elemento = switch (nome.charAt(dimensoes)) {
+            case 'Z' -> "boolean";
+            case 'B' -> "byte";
+            case 'C' -> "char";
+            case 'S' -> "short";
+            case 'I' -> "int";
+            case 'J' -> "long";
+            case 'F' -> "float";
+            case 'D' -> "double";
+            default -> nome.substring(dimensoes + 1, nome.length() - 1);
+        };
+        return elemento + "[]".repeat(dimensoes);
+    }
+
+    private static long nanos(Instant instante) {
+        return instante.getEpochSecond() * 1_000_000_000L + instante.getNano();
+    }
+
+    private static long alocadosPelaThread() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean contadorDeAlocacao() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+package at.metrics;
+
+import at.models.ResumoPerfil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Acumuladores do perfil de uma rota (método + caminho). Escritos pela thread do
+// RecordingStream e lidos por GET /debug/profile, sempre sob o lock do objeto.
+final class PerfilRota {
+
+    private final String metodo;
+    private final String rota;
+
+    private long requisicoes;
+    private long requisicoesMedidas;
+    private long bytesMedidos;
+    private long bytesAmostrados;
+    private long gcs;
+    private long pausaGcNanos;
+    private long amostrasCpu;
+    private final Map<String, long[]> alocacoes = new HashMap<>();
+    private final Map<String, long[]> metodosQuentes = new HashMap<>();
+    private final Map<String, long[]> metodosAplicacao = new HashMap<>();
+
+    PerfilRota(String metodo, String rota) {
+        this.metodo = metodo;
+        this.rota = rota;
+    }
+
+    // bytesAlocados < 0: a JVM não mediu esta requisição
+    synchronized void requisicao(long bytesAlocados) {
+        requisicoes++;
+        if (bytesAlocados >= 0) {
+            requisicoesMedidas++;
+            bytesMedidos += bytesAlocados;
+        }
+    }
+
+    synchronized void alocacao(String local, long bytes) {
+        bytesAmostrados += bytes;
+        somar(alocacoes, local, bytes);
+    }
+
+    synchronized void execucao(String topo, String aplicacao) {
+        amostrasCpu++;
+        somar(metodosQuentes, topo, 1);
+        if (aplicacao != null) {
+            somar(metodosAplicacao, aplicacao, 1);
+        }
+    }
+
+    synchronized void gc(long pausaNanos) {
+        gcs++;
+        pausaGcNanos += pausaNanos;
+    }
+
+    synchronized ResumoPerfil.Rota resumir(int top) {
+        ResumoPerfil.Rota resumo = new ResumoPerfil.Rota();
+        resumo.metodo = metodo;
+        resumo.rota = rota;
+        resumo.requisicoes = requisicoes;
+        // Exatos só se todas as requisições foram medidas; senão, a estimativa das amostras
+        resumo.bytesExatos = requisicoes > 0 && requisicoesMedidas == requisicoes;
+        resumo.bytesAlocados = resumo.bytesExatos ? bytesMedidos : bytesAmostrados;
+        resumo.bytesPorRequisicao = requisicoes == 0 ? 0 : resumo.bytesAlocados / requisicoes;
+        resumo.gcsDuranteRequisicoes = gcs;
+        resumo.pausaGcMs = pausaGcNanos / 1_000_000.0;
+        resumo.amostrasCpu = amostrasCpu;
+        resumo.alocacoes = maiores(alocacoes, top);
+        resumo.metodosQuentes = maiores(metodosQuentes, top);
+        resumo.metodosAplicacao = maiores(metodosAplicacao, top);
+        return resumo;
+    }
+
+    private static void somar(Map<String, long[]> contagens, String local, long valor) {
+        contagens.computeIfAbsent(local, chave -> new long[1])[0] += valor;
+    }
+
+    private static List<ResumoPerfil.Ocorrencia> maiores(Map<String, long[]> contagens, int top) {
+        long total = 0;
+        for (long[] valor : contagens.values()) {
+            total += valor[0];
+        }
+        List<Map.Entry<String, long[]>> ordenadas = new ArrayList<>(contagens.entrySet());
+        ordenadas.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        List<ResumoPerfil.Ocorrencia> resultado = new ArrayList<>(Math.min(top, ordenadas.size()));
+        for (Map.Entry<String, long[]> entrada : ordenadas.subList(0, Math.min(top, ordenadas.size()))) {
+            long valor = entrada.getValue()[0];
+            resultado.add(new ResumoPerfil.Ocorrencia(entrada.getKey(), valor, total == 0 ? 0 : Math.round(valor * 1000.0 / total) / 10.0));
+        }
+        return resultado;
+    }
+}
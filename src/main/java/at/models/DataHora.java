@@ -0,0 +1,71 @@
+package at.models;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Conversão entre instantes em milissegundos (como os modelos guardam datas) e
+// texto ISO-8601 (como a API as expõe).
+//
+// A formatação só acontece na serialização, e o último resultado de cada formato
+// fica em cache: todas as tarefas criadas no mesmo milissegundo (um lote, por
+// exemplo) e todas as respostas de /status no mesmo milissegundo compartilham a
+// mesma String. A leitura aproveita o mesmo cache quando recebe o texto de volta.
+public final class DataHora {
+
+    // Último par (milissegundos, texto) de cada formato. Imutável, então basta um campo volatile.
+    private record Formatado(long millis, String texto) {
+    }
+
+    private static volatile Formatado ultimaDataLocal = new Formatado(Long.MIN_VALUE, "");
+    private static volatile Formatado ultimoInstante = new Formatado(Long.MIN_VALUE, "");
+
+    private DataHora() {
+    }
+
+    // Data e hora locais no formato ISO_LOCAL_DATE_TIME (ex: 2025-06-25T15:00:00.123)
+    public static String formatarDataLocal(long millis) {
+        Formatado ultimo = ultimaDataLocal;
+        if (ultimo.millis() == millis) {
+            return ultimo.texto();
+        }
+        String texto = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        ultimaDataLocal = new Formatado(millis, texto);
+        return texto;
+    }
+
+    // Inverso de formatarDataLocal; aceita qualquer precisão (frações abaixo de 1 ms são
+    // descartadas). Um horário que não existe no fuso do servidor (o intervalo pulado ao
+    // entrar no horário de verão) é adiantado pela duração do intervalo, como faz o java.time.
+    public static long lerDataLocal(String texto) {
+        Formatado ultimo = ultimaDataLocal;
+        if (ultimo.texto().equals(texto)) {
+            return ultimo.millis();
+        }
+        return LocalDateTime.parse(texto, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    // Instante UTC no formato ISO_INSTANT (ex: 2025-06-25T15:00:00.123Z)
+    public static String formatarInstante(long millis) {
+        Formatado ultimo = ultimoInstante;
+        if (ultimo.millis() == millis) {
+            return ultimo.texto();
+        }
+        String texto = Instant.ofEpochMilli(millis).toString();
+        ultimoInstante = new Formatado(millis, texto);
+        return texto;
+    }
+
+    public static long lerInstante(String texto) {
+        Formatado ultimo = ultimoInstante;
+        if (ultimo.texto().equals(texto)) {
+            return ultimo.millis();
+        }
+        return Instant.parse(texto).toEpochMilli();
+    }
+}
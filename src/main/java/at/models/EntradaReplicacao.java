@@ -0,0 +1,34 @@
+package at.models;
+
+// Uma linha do log de replicação (GET /replicacao/log, em NDJSON), do líder para a réplica
+public class EntradaReplicacao {
+
+    // Primeira linha: época do log e se uma cópia completa das tarefas vem em seguida
+    public static final String INICIO = "inicio";
+    // Tarefa criada ou alterada (sequencia == 0: item da cópia completa)
+    public static final String TAREFA = "tarefa";
+    public static final String REMOVIDA = "removida";
+    // Todas as tarefas foram removidas (clear)
+    public static final String LIMPEZA = "limpeza";
+    // Última sequência do líder, enviada depois de cada grupo de entradas e a cada segundo sem alterações
+    public static final String PULSO = "pulso";
+
+    public String tipo;
+    public long sequencia;  // posição no log (em inicio, a última antes das entradas seguintes)
+    public long horario;    // epoch millis no líder: quando a alteração entrou no log (em pulso, o envio)
+    public int id;          // ID da tarefa (em removida)
+    public Tarefa tarefa;   // estado novo (em tarefa)
+    public String epoca;    // só em inicio
+    public boolean copia;   // só em inicio: a réplica deve descartar o que tem e receber a cópia
+    public long versaoLider; // só em inicio: última sequência do líder no envio (pode estar além de 'sequencia')
+
+    // Construtor padrão (Jackson)
+    public EntradaReplicacao() {
+    }
+
+    public EntradaReplicacao(String tipo, long sequencia, long horario) {
+        this.tipo = tipo;
+        this.sequencia = sequencia;
+        this.horario = horario;
+    }
+}
@@ -0,0 +1,35 @@
+package at.models;
+
+import java.util.List;
+
+// Resposta de GET /replicacao
+public class EstadoReplicacao {
+
+    public static final String LIDER = "lider";
+    public static final String REPLICA = "replica";
+
+    public String papel;            // lider ou replica
+    public long versao;             // última posição do log refletida nas leituras desta instância
+    public String lider;            // só na réplica: URL do líder
+    public boolean conectada;       // só na réplica: recebendo o log agora
+    public long versaoLider;        // só na réplica: última posição do líder conhecida
+    public long atrasoVersoes;      // só na réplica: versaoLider - versao
+    public long atrasoMs;           // só na réplica: idade da última alteração aplicada, se houver outras por aplicar
+    public List<ReplicaConectada> replicas; // só no líder
+
+    public static class ReplicaConectada {
+        public String endereco;     // IP e porta da conexão da réplica
+        public long versaoEnviada;  // última posição do log enviada a ela
+        public long atrasoVersoes;  // versão do líder - versaoEnviada
+
+        // Construtor padrão (Jackson)
+        public ReplicaConectada() {
+        }
+
+        public ReplicaConectada(String endereco, long versaoEnviada, long atrasoVersoes) {
+            this.endereco = endereco;
+            this.versaoEnviada = versaoEnviada;
+            this.atrasoVersoes = atrasoVersoes;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package at.models;
+
+public class EventoTarefa {
+
+    public static final String CRIADA = "criada";
+    public static final String ALTERADA = "alterada";
+    public static final String REMOVIDA = "removida";
+    // O estado conhecido pelo cliente deixou de valer: ele deve reler GET /tarefas
+    public static final String RESSINCRONIZAR = "ressincronizar";
+
+    public String tipo;
+    public int id;          // ID da tarefa (0 em ressincronizar)
+    public long versao;     // versão publicada (em removida, a última versão)
+    public Tarefa tarefa;   // estado novo (null em removida e ressincronizar)
+    public String motivo;   // só em ressincronizar
+
+    // Construtor padrão (Jackson)
+    public EventoTarefa() {
+    }
+
+    public EventoTarefa(String tipo, int id, long versao, Tarefa tarefa) {
+        this.tipo = tipo;
+        this.id = id;
+        this.versao = versao;
+        this.tarefa = tarefa;
+    }
+
+    public static EventoTarefa ressincronizar(String motivo) {
+        EventoTarefa evento = new EventoTarefa(RESSINCRONIZAR, 0, 0, null);
+        evento.motivo = motivo;
+        return evento;
+    }
+}
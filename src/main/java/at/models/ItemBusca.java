@@ -0,0 +1,15 @@
+package at.models;
+
+public class ItemBusca {
+    public Tarefa tarefa;
+    public double pontuacao;  // relevância BM25 (maior é mais relevante)
+
+    // Construtor padrão (Jackson)
+    public ItemBusca() {
+    }
+
+    public ItemBusca(Tarefa tarefa, double pontuacao) {
+        this.tarefa = tarefa;
+        this.pontuacao = pontuacao;
+    }
+}
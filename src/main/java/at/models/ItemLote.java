@@ -0,0 +1,28 @@
+package at.models;
+
+public class ItemLote {
+    public int indice;     // posição do item no lote enviado
+    public int status;     // 201 (criada) ou 400 (rejeitada)
+    public Tarefa tarefa;  // tarefa criada (null se rejeitada)
+    public String erro;    // motivo da rejeição (null se criada)
+
+    // Construtor padrão (Jackson)
+    public ItemLote() {
+    }
+
+    public static ItemLote criada(int indice, Tarefa tarefa) {
+        ItemLote item = new ItemLote();
+        item.indice = indice;
+        item.status = 201;
+        item.tarefa = tarefa;
+        return item;
+    }
+
+    public static ItemLote rejeitada(int indice, String erro) {
+        ItemLote item = new ItemLote();
+        item.indice = indice;
+        item.status = 400;
+        item.erro = erro;
+        return item;
+    }
+}
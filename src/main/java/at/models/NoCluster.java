@@ -0,0 +1,17 @@
+package at.models;
+
+public class NoCluster {
+    public String url;           // URL base do nó
+    public int blocos;           // blocos de IDs que o anel atribui ao nó
+    public boolean disponivel;   // se respondeu a GET /status
+
+    // Construtor padrão (Jackson)
+    public NoCluster() {
+    }
+
+    public NoCluster(String url, int blocos, boolean disponivel) {
+        this.url = url;
+        this.blocos = blocos;
+        this.disponivel = disponivel;
+    }
+}
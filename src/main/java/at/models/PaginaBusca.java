@@ -0,0 +1,18 @@
+package at.models;
+
+import java.util.List;
+
+public class PaginaBusca {
+    public List<ItemBusca> resultados;  // itens da página, do mais relevante ao menos relevante
+    public int total;                   // tarefas que contêm todos os termos da consulta
+    public String proximoCursor;        // token para a próxima página (null na última)
+
+    // Construtor padrão (Jackson)
+    public PaginaBusca() {
+    }
+
+    public PaginaBusca(List<ItemBusca> resultados, int total) {
+        this.resultados = resultados;
+        this.total = total;
+    }
+}
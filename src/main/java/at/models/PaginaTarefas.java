@@ -0,0 +1,17 @@
+package at.models;
+
+import java.util.List;
+
+public class PaginaTarefas {
+    public List<Tarefa> tarefas;  // itens da página, em ordem de ID
+    public String proximoCursor;  // token para a próxima página (null na última)
+
+    // Construtor padrão (Jackson)
+    public PaginaTarefas() {
+    }
+
+    public PaginaTarefas(List<Tarefa> tarefas, String proximoCursor) {
+        this.tarefas = tarefas;
+        this.proximoCursor = proximoCursor;
+    }
+}
@@ -0,0 +1,19 @@
+package at.models;
+
+import java.util.List;
+
+public class ResultadoLote {
+    public int criadas;              // quantidade de tarefas criadas
+    public int rejeitadas;           // quantidade de itens rejeitados
+    public List<ItemLote> resultados; // resultado de cada item, na ordem do lote
+
+    // Construtor padrão (Jackson)
+    public ResultadoLote() {
+    }
+
+    public ResultadoLote(int criadas, int rejeitadas, List<ItemLote> resultados) {
+        this.criadas = criadas;
+        this.rejeitadas = rejeitadas;
+        this.resultados = resultados;
+    }
+}
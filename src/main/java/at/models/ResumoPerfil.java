@@ -0,0 +1,48 @@
+package at.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resposta de GET /debug/profile: alocação, pausas de GC e CPU por rota desde o início
+// do perfil (ou desde o último DELETE /debug/profile)
+public class ResumoPerfil {
+
+    public String inicio;               // instante ISO-8601 do início da janela
+    public double segundos;             // duração da janela
+    public int amostragemMs;            // período das amostras de CPU
+    public int alocacoesPorSegundo;     // limite de amostras de alocação
+    public long gcs;                    // coletas de lixo na janela, com ou sem requisições em andamento
+    public double pausaGcMs;            // soma das pausas dessas coletas
+    public List<Rota> rotas = new ArrayList<>(); // da que mais alocou para a que menos alocou
+
+    public static class Rota {
+        public String metodo;
+        public String rota;                 // padrão registrado (ex: /tarefas/{id}) ou <sem-rota>
+        public long requisicoes;
+        public long bytesAlocados;          // medidos pela thread; estimados pelas amostras quando bytesExatos é false
+        public long bytesPorRequisicao;
+        public boolean bytesExatos;         // false no modo de threads virtuais, que a JVM não mede
+        public long gcsDuranteRequisicoes;  // coletas que pegaram requisições desta rota em andamento (uma por requisição)
+        public double pausaGcMs;            // pausas sofridas pelas requisições desta rota, somadas
+        public long amostrasCpu;            // amostras de CPU nas threads desta rota
+        public List<Ocorrencia> alocacoes = new ArrayList<>();         // primeiro quadro da aplicação (at.*) e tipo alocado
+        public List<Ocorrencia> metodosQuentes = new ArrayList<>();    // topo da pilha nas amostras de CPU
+        public List<Ocorrencia> metodosAplicacao = new ArrayList<>();  // primeiro quadro da aplicação nas amostras de CPU
+    }
+
+    public static class Ocorrencia {
+        public String local;
+        public long valor;          // bytes estimados (alocações) ou amostras (CPU)
+        public double percentual;   // do total da lista na rota
+
+        // Construtor padrão (Jackson)
+        public Ocorrencia() {
+        }
+
+        public Ocorrencia(String local, long valor, double percentual) {
+            this.local = local;
+            this.valor = valor;
+            this.percentual = percentual;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package at.models;
 
-import java.time.Instant; // timestamp
-
 public class StatusResponse {
-    public String status;    // status (ex: "ok")
-    public String timestamp; // (hora atual)
+    public String status;   // status (ex: "ok")
+    private long instante;  // hora atual, em epoch millis
 
     // Construtor
     public StatusResponse() {
         this.status = "ok";
-        this.timestamp = Instant.now().toString(); // hora atual para ISO-8601
+        this.instante = System.currentTimeMillis();
+    }
+
+    // Hora em ISO-8601 (UTC), formatada só na serialização, com cache por milissegundo
+    public String getTimestamp() {
+        return DataHora.formatarInstante(instante);
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.instante = DataHora.lerInstante(timestamp);
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,46 @@
 package at.models;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter; // Para formatar a data ISO-8601
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.format.DateTimeParseException;
 
 public class Tarefa {
+    // criadaEm de uma tarefa sem data: fora da faixa que dataCriacao consegue expressar,
+    // então nenhuma data enviada pelo cliente (nem 1970-01-01T00:00:00 em UTC) se confunde com ela
+    public static final long SEM_DATA = Long.MIN_VALUE;
+
     private int id;
     private String titulo;
     private String descricao;
     private boolean concluida;
-    private String dataCriacao; // formato ISO-8601
+    private long criadaEm = SEM_DATA; // epoch em milissegundos; exposta como dataCriacao ISO-8601
+    private long versao; // incrementada a cada alteração da tarefa (1 ao ser criada)
 
-    // Construtor padrão
+    // Construtor padrão (usado pelo Jackson). Não consulta o relógio: a data vem do
+    // JSON ou é definida pela API ao criar a tarefa.
     public Tarefa() {
-        this.dataCriacao = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
 
     // Construtor para criar uma tarefa com título e descrição
     public Tarefa(String titulo, String descricao) {
-        this();
+        this.criadaEm = System.currentTimeMillis();
         this.titulo = titulo;
         this.descricao = descricao;
         this.concluida = false;
     }
 
+    // Cópia com os mesmos campos (o repositório altera cópias, nunca a tarefa publicada)
+    public Tarefa copia() {
+        Tarefa copia = new Tarefa();
+        copia.id = id;
+        copia.titulo = titulo;
+        copia.descricao = descricao;
+        copia.concluida = concluida;
+        copia.criadaEm = criadaEm;
+        copia.versao = versao;
+        return copia;
+    }
+
     // Getters
     public int getId() {
         return id;
@@ -40,8 +58,18 @@ public class Tarefa {
         return concluida;
     }
 
+    // Formatada só quando lida (na serialização), com cache por milissegundo
     public String getDataCriacao() {
-        return dataCriacao;
+        return criadaEm == SEM_DATA ? null : DataHora.formatarDataLocal(criadaEm);
+    }
+
+    @JsonIgnore
+    public long getCriadaEm() {
+        return criadaEm;
+    }
+
+    public long getVersao() {
+        return versao;
     }
 
     // Setters
@@ -61,9 +89,29 @@ public class Tarefa {
         this.concluida = concluida;
     }
 
-    // Setter para dataCriacao
+    // Setter para dataCriacao (texto ISO-8601 recebido no JSON). A data é guardada em
+    // milissegundos, como DataHora.lerDataLocal a interpreta; texto em outro formato é
+    // recusado com IllegalArgumentException, que a API responde com 400.
     public void setDataCriacao(String dataCriacao) {
-        this.dataCriacao = dataCriacao;
+        if (dataCriacao == null || dataCriacao.isEmpty()) {
+            this.criadaEm = SEM_DATA;
+            return;
+        }
+        try {
+            this.criadaEm = DataHora.lerDataLocal(dataCriacao);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("dataCriacao inválida: '" + dataCriacao
+                    + "'. Use data e hora locais no formato ISO-8601 (ex: 2025-06-25T15:00:00).");
+        }
+    }
+
+    @JsonIgnore
+    public void setCriadaEm(long criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+
+    public void setVersao(long versao) {
+        this.versao = versao;
     }
 
     @Override
@@ -73,7 +121,8 @@ public class Tarefa {
                 ", titulo='" + titulo + '\'' +
                 ", descricao='" + descricao + '\'' +
                 ", concluida=" + concluida +
-                ", dataCriacao='" + dataCriacao + '\'' +
+                ", dataCriacao='" + getDataCriacao() + '\'' +
+                ", versao=" + versao +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package at.persistence;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Configuração do motor de persistência, lida das propriedades de sistema:
+//   reat.persistencia.dir            diretório do log e dos snapshots (ausente = sem persistência)
+//   reat.persistencia.sync           por-escrita | intervalo | lote (padrão: por-escrita)
+//   reat.persistencia.intervaloMs    período do fsync na política 'intervalo' (padrão: 100)
+//   reat.persistencia.lote           registros por fsync na política 'lote' (padrão: 256)
+//   reat.persistencia.janelaLoteMs   espera máxima para completar um lote (padrão: 5)
+//   reat.persistencia.snapshotACada  registros no log antes de um novo snapshot (padrão: 100000)
+public class PersistenciaConfig {
+
+    private final Path diretorio;
+    private final PoliticaSync politica;
+    private final long intervaloSyncMs;
+    private final int tamanhoLote;
+    private final long janelaLoteMs;
+    private final long snapshotACada;
+
+    public PersistenciaConfig(Path diretorio, PoliticaSync politica, long intervaloSyncMs,
+                              int tamanhoLote, long janelaLoteMs, long snapshotACada) {
+        if (intervaloSyncMs <= 0 || tamanhoLote <= 0 || janelaLoteMs < 0 || snapshotACada <= 0) {
+            throw new IllegalArgumentException("Parâmetros de persistência inválidos.");
+        }
+        this.diretorio = diretorio;
+        this.politica = politica;
+        this.intervaloSyncMs = intervaloSyncMs;
+        this.tamanhoLote = tamanhoLote;
+        this.janelaLoteMs = janelaLoteMs;
+        this.snapshotACada = snapshotACada;
+    }
+
+    // Configuração padrão para o diretório informado
+    public static PersistenciaConfig padrao(Path diretorio) {
+        return new PersistenciaConfig(diretorio, PoliticaSync.POR_ESCRITA, 100, 256, 5, 100_000);
+    }
+
+    public static Optional<PersistenciaConfig> fromSystemProperties() {
+        String dir = System.getProperty("reat.persistencia.dir");
+        if (dir == null || dir.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(new PersistenciaConfig(
+                Path.of(dir),
+                PoliticaSync.parse(System.getProperty("reat.persistencia.sync", "por-escrita")),
+                Long.getLong("reat.persistencia.intervaloMs", 100),
+                Integer.getInteger("reat.persistencia.lote", 256),
+                Long.getLong("reat.persistencia.janelaLoteMs", 5),
+                Long.getLong("reat.persistencia.snapshotACada", 100_000)));
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    public PoliticaSync getPolitica() {
+        return politica;
+    }
+
+    public long getIntervaloSyncMs() {
+        return intervaloSyncMs;
+    }
+
+    public int getTamanhoLote() {
+        return tamanhoLote;
+    }
+
+    public long getJanelaLoteMs() {
+        return janelaLoteMs;
+    }
+
+    public long getSnapshotACada() {
+        return snapshotACada;
+    }
+}
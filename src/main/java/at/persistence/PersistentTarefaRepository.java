@@ -0,0 +1,380 @@
+package at.persistence;
+
+import at.logging.AsyncLogger;
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+import at.repository.AlocadorIds;
+import at.repository.FiltroTarefas;
+import at.repository.InMemoryTarefaRepository;
+import at.repository.OuvinteAlteracoes;
+import at.repository.ResultadoEscrita;
+import at.repository.TarefaRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Repositório em memória com durabilidade: cada mutação é registrada no write-ahead log
+// antes de ser confirmada ao chamador, e snapshots periódicos permitem descartar o log antigo.
+//
+// A mutação é aplicada em memória antes de ser enfileirada no log. Assim, quando um segmento
+// é fechado, tudo o que ele contém já está visível para o snapshot seguinte; os registros do
+// log são idempotentes (upsert por ID), então reaplicar o que o snapshot já contém é inofensivo.
+// Leitores concorrentes podem ver uma tarefa alguns instantes antes de ela ser durável, mas o
+// chamador de save() só recebe a resposta depois da confirmação do log.
+//
+// Cada tarefa é publicada em memória e enfileirada no log sob a trava da sua faixa de IDs
+// (lock striping): assim os registros de uma mesma tarefa chegam ao log na mesma ordem em
+// que foram aplicados em memória, e escritas em tarefas de faixas diferentes não disputam.
+// A espera pelo fsync acontece fora da trava.
+//
+// Na abertura, o snapshot mais recente é mapeado em memória e os segmentos do log a partir
+// da geração dele são reaplicados. Um registro final incompleto (queda durante a escrita)
+// é descartado e o segmento é truncado nesse ponto.
+public class PersistentTarefaRepository implements TarefaRepository, Closeable {
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(PersistentTarefaRepository.class);
+
+    // Potência de 2: a faixa de um ID é id & (FAIXAS - 1)
+    private static final int FAIXAS = 64;
+
+    private final InMemoryTarefaRepository memoria;
+    private final ReentrantLock[] travas = new ReentrantLock[FAIXAS];
+    private final Path diretorio;
+    private final WriteAheadLog wal;
+    private final ExecutorService snapshots = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "reat-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PersistentTarefaRepository(InMemoryTarefaRepository memoria, Path diretorio,
+                                       long geracao, long registrosNoSegmento, PersistenciaConfig config) throws IOException {
+        this.memoria = memoria;
+        this.diretorio = diretorio;
+        this.wal = new WriteAheadLog(diretorio, geracao, registrosNoSegmento, config, this::agendarSnapshot);
+        for (int i = 0; i < FAIXAS; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    public static PersistentTarefaRepository open(PersistenciaConfig config) throws IOException {
+        return open(config, new AlocadorIds());
+    }
+
+    // Com os IDs novos atribuídos pelo alocador informado (ex: os blocos de um nó do cluster)
+    public static PersistentTarefaRepository open(PersistenciaConfig config, AlocadorIds alocador) throws IOException {
+        Path diretorio = config.getDiretorio();
+        Files.createDirectories(diretorio);
+        InMemoryTarefaRepository memoria = new InMemoryTarefaRepository(alocador);
+
+        // 1. Snapshot mais recente (se existir)
+        long geracaoSnapshot = ultimoSnapshot(diretorio);
+        if (geracaoSnapshot >= 0) {
+            int proximoId = SnapshotStore.carregar(SnapshotStore.caminho(diretorio, geracaoSnapshot), memoria::restore);
+            memoria.advanceNextId(proximoId);
+        }
+
+        // 2. Segmentos do log a partir da geração do snapshot, em ordem
+        List<Long> segmentos = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.mapToLong(WriteAheadLog::geracaoDoSegmento)
+                    .filter(g -> g >= Math.max(geracaoSnapshot, 0))
+                    .sorted()
+                    .forEach(segmentos::add);
+        }
+        long registrosNoUltimo = 0;
+        for (int i = 0; i < segmentos.size(); i++) {
+            boolean ultimo = i == segmentos.size() - 1;
+            registrosNoUltimo = reaplicar(WriteAheadLog.caminhoSegmento(diretorio, segmentos.get(i)), memoria, ultimo);
+        }
+
+        // 3. Continua escrevendo no último segmento (ou inicia um novo)
+        long geracao = segmentos.isEmpty() ? Math.max(geracaoSnapshot, 1) : segmentos.get(segmentos.size() - 1);
+        log.info("Persistência - {} tarefas recuperadas de {} (política de sync: {}).",
+                memoria.count(), diretorio, config.getPolitica());
+        return new PersistentTarefaRepository(memoria, diretorio, geracao, registrosNoUltimo, config);
+    }
+
+    // Reaplica um segmento do log e retorna quantos registros íntegros ele contém
+    private static long reaplicar(Path segmento, InMemoryTarefaRepository memoria, boolean ultimo) throws IOException {
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            long registros = 0;
+            ByteBuffer registro;
+            while ((registro = TarefaCodec.lerRegistro(conteudo)) != null) {
+                aplicar(registro, memoria);
+                registros++;
+            }
+            if (conteudo.hasRemaining()) {
+                if (!ultimo) {
+                    throw new IOException("Segmento do log corrompido antes do fim: " + segmento);
+                }
+                log.warn("Persistência - Descartando {} bytes incompletos no fim de {}", conteudo.remaining(), segmento);
+                canal.truncate(conteudo.position());
+                canal.force(true);
+            }
+            return registros;
+        }
+    }
+
+    private static void aplicar(ByteBuffer registro, InMemoryTarefaRepository memoria) throws IOException {
+        byte tipo = registro.get();
+        switch (tipo) {
+            case TarefaCodec.TIPO_CRIAR -> memoria.restore(TarefaCodec.lerTarefa(registro));
+            case TarefaCodec.TIPO_CRIAR_V1 -> memoria.restore(TarefaCodec.lerTarefa(registro, TarefaCodec.FORMATO_TAREFA_V1));
+            case TarefaCodec.TIPO_ATUALIZAR -> {
+                long versao = registro.getLong();
+                Tarefa tarefa = TarefaCodec.lerTarefa(registro);
+                tarefa.setVersao(versao);
+                memoria.restore(tarefa);
+            }
+            case TarefaCodec.TIPO_REMOVER -> memoria.restoreDeletion(registro.getInt());
+            case TarefaCodec.TIPO_LIMPAR -> memoria.clear();
+            default -> throw new IOException("Tipo de registro desconhecido no log: " + tipo);
+        }
+    }
+
+    // Maior geração de snapshot no diretório, ou -1
+    private static long ultimoSnapshot(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.mapToLong(SnapshotStore::geracaoDoSnapshot)
+                    .max()
+                    .orElse(-1);
+        }
+    }
+
+    // Chamado pela thread do log quando um segmento é fechado
+    private void agendarSnapshot(long geracao) {
+        snapshots.execute(() -> {
+            try {
+                SnapshotStore.escrever(diretorio, geracao, memoria.peekNextId(), memoria.iterateAfter(0));
+                descartarAnteriores(geracao);
+                log.info("Persistência - Snapshot da geração {} gravado.", geracao);
+            } catch (IOException e) {
+                // O log antigo é mantido; a próxima rotação tenta de novo
+                log.error("Persistência - Falha ao gravar snapshot: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    // Remove segmentos e snapshots cobertos pelo snapshot da geração informada
+    private void descartarAnteriores(long geracao) throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                long segmento = WriteAheadLog.geracaoDoSegmento(arquivo);
+                long snapshot = SnapshotStore.geracaoDoSnapshot(arquivo);
+                if ((segmento >= 0 && segmento < geracao) || (snapshot >= 0 && snapshot < geracao)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Tarefa save(Tarefa tarefa) {
+        tarefa.setId(memoria.reserveIds(1));
+        tarefa.setVersao(1);
+        byte[] registro = TarefaCodec.registroCriar(tarefa);
+        CompletableFuture<Void> confirmacao;
+        ReentrantLock trava = trava(tarefa.getId());
+        trava.lock();
+        try {
+            memoria.restore(tarefa);
+            confirmacao = wal.append(registro);
+        } finally {
+            trava.unlock();
+        }
+        aguardar(confirmacao);
+        return tarefa;
+    }
+
+    @Override
+    public List<Tarefa> saveAll(List<Tarefa> tarefas) {
+        if (tarefas.isEmpty()) {
+            return tarefas;
+        }
+        int primeiro = memoria.reserveIds(tarefas.size());
+        byte[][] registros = new byte[tarefas.size()][];
+        for (int i = 0; i < registros.length; i++) {
+            Tarefa tarefa = tarefas.get(i);
+            tarefa.setId(primeiro + i);
+            tarefa.setVersao(1);
+            registros[i] = TarefaCodec.registroCriar(tarefa);
+        }
+        // Trava as faixas do bloco em ordem crescente de índice; os demais caminhos
+        // travam uma faixa só, então não há ciclo de espera
+        int[] faixas = faixasDoBloco(primeiro, tarefas.size());
+        CompletableFuture<Void> confirmacao;
+        for (int faixa : faixas) {
+            travas[faixa].lock();
+        }
+        try {
+            for (Tarefa tarefa : tarefas) {
+                memoria.restore(tarefa);
+            }
+            confirmacao = wal.append(registros);
+        } finally {
+            for (int i = faixas.length - 1; i >= 0; i--) {
+                travas[faixas[i]].unlock();
+            }
+        }
+        aguardar(confirmacao);
+        return tarefas;
+    }
+
+    @Override
+    public ResultadoEscrita update(int id, long versaoEsperada, Consumer<Tarefa> alteracao) {
+        ResultadoEscrita resultado;
+        CompletableFuture<Void> confirmacao = null;
+        ReentrantLock trava = trava(id);
+        trava.lock();
+        try {
+            resultado = memoria.update(id, versaoEsperada, alteracao);
+            if (resultado.getStatus() == ResultadoEscrita.Status.OK) {
+                confirmacao = wal.append(TarefaCodec.registroAtualizar(resultado.getTarefa()));
+            }
+        } finally {
+            trava.unlock();
+        }
+        if (confirmacao != null) {
+            aguardar(confirmacao);
+        }
+        return resultado;
+    }
+
+    @Override
+    public ResultadoEscrita delete(int id, long versaoEsperada) {
+        ResultadoEscrita resultado;
+        CompletableFuture<Void> confirmacao = null;
+        ReentrantLock trava = trava(id);
+        trava.lock();
+        try {
+            resultado = memoria.delete(id, versaoEsperada);
+            if (resultado.getStatus() == ResultadoEscrita.Status.OK) {
+                confirmacao = wal.append(TarefaCodec.registroRemover(id));
+            }
+        } finally {
+            trava.unlock();
+        }
+        if (confirmacao != null) {
+            aguardar(confirmacao);
+        }
+        return resultado;
+    }
+
+    private ReentrantLock trava(int id) {
+        return travas[id & (FAIXAS - 1)];
+    }
+
+    // Índices das faixas dos IDs [primeiro, primeiro + quantidade), sem repetição e em ordem crescente
+    private static int[] faixasDoBloco(int primeiro, int quantidade) {
+        if (quantidade >= FAIXAS) {
+            return IntStream.range(0, FAIXAS).toArray();
+        }
+        return IntStream.range(primeiro, primeiro + quantidade)
+                .map(id -> id & (FAIXAS - 1))
+                .sorted()
+                .toArray();
+    }
+
+    @Override
+    public Optional<Tarefa> findById(int id) {
+        return memoria.findById(id);
+    }
+
+    @Override
+    public List<Tarefa> findAll() {
+        return memoria.findAll();
+    }
+
+    @Override
+    public List<Tarefa> findPage(int afterId, int limit) {
+        return memoria.findPage(afterId, limit);
+    }
+
+    @Override
+    public Iterable<Tarefa> iterateAfter(int afterId) {
+        return memoria.iterateAfter(afterId);
+    }
+
+    @Override
+    public Iterable<Tarefa> query(FiltroTarefas filtro, int afterId) {
+        return memoria.query(filtro, afterId);
+    }
+
+    @Override
+    public PaginaBusca search(String consulta, double depoisDePontuacao, int depoisDeId, int limit) {
+        return memoria.search(consulta, depoisDePontuacao, depoisDeId, limit);
+    }
+
+    @Override
+    public int count() {
+        return memoria.count();
+    }
+
+    @Override
+    public long version() {
+        return memoria.version();
+    }
+
+    @Override
+    public long epoch() {
+        return memoria.epoch();
+    }
+
+    // Os ouvintes veem as alterações ao serem publicadas na memória, o que pode acontecer
+    // antes de o registro chegar ao disco. A recuperação não gera avisos: ela acontece na
+    // abertura, antes de qualquer ouvinte ser registrado.
+    @Override
+    public void addListener(OuvinteAlteracoes ouvinte) {
+        memoria.addListener(ouvinte);
+    }
+
+    // Limpa os dados também no disco. Não é linearizável com escritas concorrentes.
+    @Override
+    public void clear() {
+        memoria.clear();
+        aguardar(wal.append(TarefaCodec.registroLimpar()));
+    }
+
+    // Grava as escritas pendentes e fecha o log; os dados permanecem no disco
+    @Override
+    public void close() throws IOException {
+        wal.close();
+        snapshots.shutdown();
+        try {
+            snapshots.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardar(CompletableFuture<Void> confirmacao) {
+        try {
+            confirmacao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new UncheckedIOException(new IOException("Falha ao gravar no log de persistência.", e.getCause()));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package at.persistence;
+
+// Quando o log é sincronizado com o disco (fsync)
+public enum PoliticaSync {
+    // Cada escrita só é confirmada depois do fsync. Escritas concorrentes
+    // compartilham o mesmo fsync (group commit).
+    POR_ESCRITA,
+    // As escritas são confirmadas assim que chegam ao sistema operacional;
+    // o fsync roda a cada intervalo. Uma queda pode perder o último intervalo.
+    INTERVALO,
+    // Como POR_ESCRITA, mas o escritor espera juntar um lote (ou o fim da
+    // janela do lote) antes do fsync: mais vazão, mais latência por escrita.
+    LOTE;
+
+    static PoliticaSync parse(String valor) {
+        return switch (valor.trim().toLowerCase()) {
+            case "por-escrita" -> POR_ESCRITA;
+            case "intervalo" -> INTERVALO;
+            case "lote" -> LOTE;
+            default -> throw new IllegalArgumentException("Política de sync desconhecida: " + valor
+                    + ". Use 'por-escrita', 'intervalo' ou 'lote'.");
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package at.persistence;
+
+import at.models.Tarefa;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+// Snapshots compactos do repositório em 'snapshot-<geração>.snap'.
+// Um snapshot de geração G contém o efeito de todos os segmentos do log anteriores a G.
+//
+// Formato: [int MAGICO][int FORMATO][int proximoId] ([byte 1][long versao][tarefa])* [byte 0] [int crc32c]
+// O crc cobre todos os bytes anteriores a ele. Snapshots dos formatos 1 e 2 (sem a
+// versão, com o layout de tarefa de mesmo número) continuam legíveis.
+final class SnapshotStore {
+
+    private static final int MAGICO = 0x5254534E; // "RTSN"
+    private static final int FORMATO = 3;
+    private static final int FORMATO_SEM_VERSAO = 2;
+    private static final String PREFIXO = "snapshot-";
+    private static final String SUFIXO = ".snap";
+
+    private SnapshotStore() {
+    }
+
+    static Path caminho(Path diretorio, long geracao) {
+        return diretorio.resolve(String.format("%s%012d%s", PREFIXO, geracao, SUFIXO));
+    }
+
+    // Geração do snapshot a partir do nome do arquivo, ou -1 se não for um snapshot
+    static long geracaoDoSnapshot(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        if (!nome.startsWith(PREFIXO) || !nome.endsWith(SUFIXO)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Grava o snapshot em um arquivo temporário e o publica com um move atômico
+    static void escrever(Path diretorio, long geracao, int proximoId, Iterable<Tarefa> tarefas) throws IOException {
+        Path destino = caminho(diretorio, geracao);
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(canal), 64 * 1024), crc));
+            out.writeInt(MAGICO);
+            out.writeInt(FORMATO);
+            out.writeInt(proximoId);
+            for (Tarefa tarefa : tarefas) {
+                out.writeByte(1);
+                out.writeLong(tarefa.getVersao());
+                TarefaCodec.escreverTarefa(out, tarefa);
+            }
+            out.writeByte(0);
+            out.flush();
+            int valorCrc = (int) crc.getValue();
+            out.writeInt(valorCrc);
+            out.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Lê o snapshot mapeando o arquivo em memória, entrega cada tarefa ao consumidor
+    // e retorna o próximo ID registrado no cabeçalho
+    static int carregar(Path arquivo, Consumer<Tarefa> consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (mapa.limit() < Integer.BYTES * 4) {
+                throw new IOException("Snapshot truncado: " + arquivo);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(mapa.slice(0, mapa.limit() - Integer.BYTES));
+            if ((int) crc.getValue() != mapa.getInt(mapa.limit() - Integer.BYTES)) {
+                throw new IOException("Snapshot corrompido (crc inválido): " + arquivo);
+            }
+            ByteBuffer dados = mapa.slice(0, mapa.limit() - Integer.BYTES);
+            int magico = dados.getInt();
+            int formato = dados.getInt();
+            if (magico != MAGICO || formato < TarefaCodec.FORMATO_TAREFA_V1 || formato > FORMATO) {
+                throw new IOException("Arquivo não é um snapshot reconhecido: " + arquivo);
+            }
+            int proximoId = dados.getInt();
+            while (dados.get() == 1) {
+                if (formato <= FORMATO_SEM_VERSAO) {
+                    consumidor.accept(TarefaCodec.lerTarefa(dados, formato));
+                    continue;
+                }
+                long versao = dados.getLong();
+                Tarefa tarefa = TarefaCodec.lerTarefa(dados, TarefaCodec.FORMATO_TAREFA);
+                tarefa.setVersao(versao);
+                consumidor.accept(tarefa);
+            }
+            return proximoId;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package at.persistence;
+
+import at.models.Tarefa;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+// Formato binário das tarefas no log e nos snapshots.
+//
+// Registro do log:  [int tamanho][int crc32c][byte tipo][dados]
+//   tamanho e crc cobrem tipo + dados; um registro incompleto ou com crc
+//   inválido marca o fim do log (escrita interrompida por uma queda).
+// Tarefa:           [int id][byte concluida][str titulo][str descricao][long criadaEm]
+// str:              [int bytes UTF-8, -1 para null][bytes]
+//
+// Formato 1 (registros TIPO_CRIAR_V1 e snapshots de formato 1) guardava a data de
+// criação como str ISO-8601; continua sendo lido para abrir diretórios antigos.
+//
+// Dados por tipo de registro:
+//   TIPO_CRIAR      [tarefa]              (versão 1)
+//   TIPO_ATUALIZAR  [long versao][tarefa] (estado completo da nova versão)
+//   TIPO_REMOVER    [int id]
+//   TIPO_LIMPAR     (vazio)
+final class TarefaCodec {
+
+    static final byte TIPO_CRIAR_V1 = 1;
+    static final byte TIPO_LIMPAR = 2;
+    static final byte TIPO_CRIAR = 3;
+    static final byte TIPO_ATUALIZAR = 4;
+    static final byte TIPO_REMOVER = 5;
+
+    // Layout da tarefa: 1 = data como texto, 2 = data em epoch millis
+    static final int FORMATO_TAREFA_V1 = 1;
+    static final int FORMATO_TAREFA = 2;
+
+    static final int CABECALHO_REGISTRO = Integer.BYTES * 2;
+
+    private TarefaCodec() {
+    }
+
+    static byte[] registroCriar(Tarefa tarefa) {
+        ByteArrayOutputStream conteudo = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(conteudo);
+        try {
+            out.writeByte(TIPO_CRIAR);
+            escreverTarefa(out, tarefa);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // não ocorre em memória
+        }
+        return envelopar(conteudo.toByteArray());
+    }
+
+    static byte[] registroAtualizar(Tarefa tarefa) {
+        ByteArrayOutputStream conteudo = new ByteArrayOutputStream(72);
+        DataOutputStream out = new DataOutputStream(conteudo);
+        try {
+            out.writeByte(TIPO_ATUALIZAR);
+            out.writeLong(tarefa.getVersao());
+            escreverTarefa(out, tarefa);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // não ocorre em memória
+        }
+        return envelopar(conteudo.toByteArray());
+    }
+
+    static byte[] registroRemover(int id) {
+        return envelopar(ByteBuffer.allocate(1 + Integer.BYTES).put(TIPO_REMOVER).putInt(id).array());
+    }
+
+    static byte[] registroLimpar() {
+        return envelopar(new byte[]{TIPO_LIMPAR});
+    }
+
+    // Acrescenta tamanho e crc ao conteúdo do registro
+    private static byte[] envelopar(byte[] conteudo) {
+        CRC32C crc = new CRC32C();
+        crc.update(conteudo);
+        ByteBuffer registro = ByteBuffer.allocate(CABECALHO_REGISTRO + conteudo.length);
+        registro.putInt(conteudo.length);
+        registro.putInt((int) crc.getValue());
+        registro.put(conteudo);
+        return registro.array();
+    }
+
+    // Lê o conteúdo (tipo + dados) do próximo registro, ou null se o restante do buffer
+    // não contém um registro íntegro. Em caso de sucesso a posição avança até o registro seguinte.
+    static ByteBuffer lerRegistro(ByteBuffer log) {
+        if (log.remaining() < CABECALHO_REGISTRO) {
+            return null;
+        }
+        int inicio = log.position();
+        int tamanho = log.getInt();
+        int crcEsperado = log.getInt();
+        if (tamanho <= 0 || tamanho > log.remaining()) {
+            log.position(inicio);
+            return null;
+        }
+        ByteBuffer conteudo = log.slice(log.position(), tamanho);
+        CRC32C crc = new CRC32C();
+        crc.update(conteudo.duplicate());
+        if ((int) crc.getValue() != crcEsperado) {
+            log.position(inicio);
+            return null;
+        }
+        log.position(log.position() + tamanho);
+        return conteudo;
+    }
+
+    static void escreverTarefa(DataOutput out, Tarefa tarefa) throws IOException {
+        out.writeInt(tarefa.getId());
+        out.writeBoolean(tarefa.isConcluida());
+        escreverString(out, tarefa.getTitulo());
+        escreverString(out, tarefa.getDescricao());
+        out.writeLong(tarefa.getCriadaEm());
+    }
+
+    static Tarefa lerTarefa(ByteBuffer buffer) {
+        return lerTarefa(buffer, FORMATO_TAREFA);
+    }
+
+    static Tarefa lerTarefa(ByteBuffer buffer, int formato) {
+        try {
+            Tarefa tarefa = new Tarefa();
+            tarefa.setId(buffer.getInt());
+            tarefa.setConcluida(buffer.get() != 0);
+            tarefa.setTitulo(lerString(buffer));
+            tarefa.setDescricao(lerString(buffer));
+            if (formato == FORMATO_TAREFA_V1) {
+                tarefa.setDataCriacao(lerString(buffer));
+            } else {
+                tarefa.setCriadaEm(buffer.getLong());
+            }
+            tarefa.setVersao(1); // registros de criação: a tarefa ainda não foi alterada
+            return tarefa;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Tarefa truncada no arquivo de persistência.", e);
+        }
+    }
+
+    private static void escreverString(DataOutput out, String valor) throws IOException {
+        if (valor == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String lerString(ByteBuffer buffer) {
+        int tamanho = buffer.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,253 @@
+package at.persistence;
+
+import at.logging.AsyncLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+// Log de escrita antecipada (write-ahead log) em segmentos 'wal-<geração>.log'.
+//
+// Uma única thread escritora consome a fila de registros pendentes e grava tudo o que
+// estiver disponível em uma escrita com gathering, seguida de um único fsync (group commit).
+// Quando o segmento atual acumula 'snapshotACada' registros ele é fechado, um novo
+// segmento é aberto e o listener de rotação é avisado para gerar um snapshot.
+final class WriteAheadLog implements Closeable {
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(WriteAheadLog.class);
+
+    private static final String PREFIXO = "wal-";
+    private static final String SUFIXO = ".log";
+    private static final Pendente FIM = new Pendente(new byte[0][], null);
+
+    private record Pendente(byte[][] registros, CompletableFuture<Void> confirmacao) {
+    }
+
+    private final Path diretorio;
+    private final PersistenciaConfig config;
+    private final LongConsumer aoRotacionar;
+    private final BlockingQueue<Pendente> fila = new LinkedBlockingQueue<>();
+    private final Thread escritor;
+
+    private volatile boolean fechado;
+    private volatile IOException falha;
+
+    // Estado abaixo é acessado apenas pela thread escritora (e por close() após o join)
+    private FileChannel canal;
+    private long geracao;
+    private long registrosNoSegmento;
+    private long ultimoFsyncNanos = System.nanoTime();
+    private boolean sujo;
+
+    WriteAheadLog(Path diretorio, long geracao, long registrosExistentes,
+                  PersistenciaConfig config, LongConsumer aoRotacionar) throws IOException {
+        this.diretorio = diretorio;
+        this.config = config;
+        this.aoRotacionar = aoRotacionar;
+        this.geracao = geracao;
+        this.registrosNoSegmento = registrosExistentes;
+        this.canal = abrirSegmento(geracao);
+        this.escritor = new Thread(this::executar, "reat-wal-escritor");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    static Path caminhoSegmento(Path diretorio, long geracao) {
+        return diretorio.resolve(String.format("%s%012d%s", PREFIXO, geracao, SUFIXO));
+    }
+
+    // Geração do segmento a partir do nome do arquivo, ou -1 se não for um segmento
+    static long geracaoDoSegmento(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        if (!nome.startsWith(PREFIXO) || !nome.endsWith(SUFIXO)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Enfileira os registros para gravação. O future completa conforme a política de sync:
+    // após o fsync (POR_ESCRITA, LOTE) ou após a escrita no sistema operacional (INTERVALO).
+    CompletableFuture<Void> append(byte[]... registros) {
+        if (fechado) {
+            return CompletableFuture.failedFuture(new IllegalStateException("O log de persistência está fechado."));
+        }
+        if (falha != null) {
+            return CompletableFuture.failedFuture(new UncheckedIOException("O log de persistência falhou.", falha));
+        }
+        CompletableFuture<Void> confirmacao = new CompletableFuture<>();
+        fila.add(new Pendente(registros, confirmacao));
+        return confirmacao;
+    }
+
+    private void executar() {
+        List<Pendente> grupo = new ArrayList<>();
+        boolean continuar = true;
+        while (continuar) {
+            try {
+                continuar = coletarGrupo(grupo);
+                if (!grupo.isEmpty()) {
+                    gravarGrupo(grupo);
+                }
+                if (sujo && fsyncVencido()) {
+                    sincronizar();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                continuar = false;
+            } catch (IOException e) {
+                falha = e;
+                grupo.forEach(p -> p.confirmacao().completeExceptionally(new UncheckedIOException(e)));
+                log.error("WAL - Erro de E/S, novas escritas serão recusadas: {}", e.getMessage(), e);
+            }
+            grupo.clear();
+        }
+        // Falha todas as escritas que não chegaram a ser gravadas
+        Pendente restante;
+        while ((restante = fila.poll()) != null) {
+            if (restante != FIM) {
+                restante.confirmacao().completeExceptionally(new IllegalStateException("O log de persistência foi fechado."));
+            }
+        }
+    }
+
+    // Junta em 'grupo' os registros pendentes. Retorna false quando o log deve parar.
+    private boolean coletarGrupo(List<Pendente> grupo) throws InterruptedException {
+        Pendente primeiro = switch (config.getPolitica()) {
+            // Acorda a tempo do próximo fsync periódico mesmo sem escritas
+            case INTERVALO -> fila.poll(config.getIntervaloSyncMs(), TimeUnit.MILLISECONDS);
+            default -> fila.take();
+        };
+        if (primeiro == null) {
+            return true;
+        }
+        if (primeiro == FIM) {
+            return false;
+        }
+        grupo.add(primeiro);
+        if (config.getPolitica() == PoliticaSync.LOTE) {
+            long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getJanelaLoteMs());
+            int registros = primeiro.registros().length;
+            while (registros < config.getTamanhoLote()) {
+                long restante = limite - System.nanoTime();
+                Pendente proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+                if (proximo == null) {
+                    break;
+                }
+                if (proximo == FIM) {
+                    fila.add(FIM); // encerra depois de gravar o lote atual
+                    break;
+                }
+                grupo.add(proximo);
+                registros += proximo.registros().length;
+            }
+            return true;
+        }
+        Pendente proximo;
+        while ((proximo = fila.poll()) != null) {
+            if (proximo == FIM) {
+                fila.add(FIM);
+                break;
+            }
+            grupo.add(proximo);
+        }
+        return true;
+    }
+
+    private void gravarGrupo(List<Pendente> grupo) throws IOException {
+        int total = 0;
+        for (Pendente pendente : grupo) {
+            total += pendente.registros().length;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[total];
+        int i = 0;
+        for (Pendente pendente : grupo) {
+            for (byte[] registro : pendente.registros()) {
+                buffers[i++] = ByteBuffer.wrap(registro);
+            }
+        }
+        while (buffers.length > 0 && buffers[buffers.length - 1].hasRemaining()) {
+            canal.write(buffers);
+        }
+        sujo = true;
+        registrosNoSegmento += total;
+
+        if (config.getPolitica() != PoliticaSync.INTERVALO) {
+            sincronizar(); // um fsync para o grupo inteiro
+        }
+        grupo.forEach(p -> p.confirmacao().complete(null));
+
+        if (registrosNoSegmento >= config.getSnapshotACada()) {
+            rotacionar();
+        }
+    }
+
+    private boolean fsyncVencido() {
+        return System.nanoTime() - ultimoFsyncNanos >= TimeUnit.MILLISECONDS.toNanos(config.getIntervaloSyncMs());
+    }
+
+    private void sincronizar() throws IOException {
+        canal.force(false);
+        ultimoFsyncNanos = System.nanoTime();
+        sujo = false;
+    }
+
+    private void rotacionar() throws IOException {
+        sincronizar();
+        canal.close();
+        geracao++;
+        canal = abrirSegmento(geracao);
+        registrosNoSegmento = 0;
+        // Tudo o que está em segmentos anteriores já foi aplicado em memória
+        aoRotacionar.accept(geracao);
+    }
+
+    private FileChannel abrirSegmento(long geracaoSegmento) throws IOException {
+        FileChannel novo = FileChannel.open(caminhoSegmento(diretorio, geracaoSegmento),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        novo.position(novo.size());
+        return novo;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        fila.add(FIM);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Escritas enfileiradas durante o fechamento
+        Pendente restante;
+        while ((restante = fila.poll()) != null) {
+            if (restante != FIM) {
+                restante.confirmacao().completeExceptionally(new IllegalStateException("O log de persistência foi fechado."));
+            }
+        }
+        try {
+            if (falha == null && canal.isOpen()) {
+                canal.force(false);
+            }
+        } finally {
+            canal.close();
+        }
+    }
+}
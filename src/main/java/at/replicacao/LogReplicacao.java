@@ -0,0 +1,199 @@
+package at.replicacao;
+
+import at.eventos.HistoricoEventos;
+import at.logging.AsyncLogger;
+import at.models.EntradaReplicacao;
+import at.models.EstadoReplicacao;
+import at.models.Tarefa;
+import at.repository.OuvinteAlteracoes;
+import at.repository.TarefaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Log ordenado das mutações do líder, transmitido às réplicas em GET /replicacao/log.
+//
+// Cada alteração publicada pelo repositório recebe a próxima posição do log ali mesmo, sob
+// o lock do ID: ao terminar uma escrita, versao() já cobre a posição dela, e é esse o valor
+// devolvido ao cliente em X-Reat-Versao. As alterações de cada tarefa entram no log na
+// ordem em que foram publicadas; entre tarefas diferentes a ordem não importa.
+//
+// O log guarda as últimas entradas em um HistoricoEventos. Cada réplica o lê no seu ritmo:
+//   - conectando pela primeira vez (ou com uma época diferente, ou atrasada demais), recebe
+//     uma cópia de todas as tarefas e, em seguida, todo o histórico ainda disponível. A cópia
+//     é fracamente consistente; as entradas do histórico cobrem as escritas em andamento
+//     durante ela, e a versão de cada tarefa impede a réplica de voltar atrás;
+//   - reconectando com ?desde=&epoca=, continua da posição seguinte à última aplicada.
+// Uma réplica ultrapassada pelo histórico é desconectada e, ao reconectar, recebe a cópia.
+//
+// A época muda a cada processo: um líder reiniciado não retoma posições de outro.
+public final class LogReplicacao implements OuvinteAlteracoes {
+
+    private record Registro(long horario, int id, Tarefa tarefa, boolean limpeza) {
+    }
+
+    // Réplica conectada: endereço e última posição enviada
+    private record Conexao(String endereco, AtomicLong enviada) {
+    }
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(LogReplicacao.class);
+    private static final long PULSO_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Entradas escritas entre dois flushes (e dois pulsos)
+    private static final int LOTE = 1024;
+    private static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final HistoricoEventos<Registro> historico;
+    // Um escritor por vez no histórico; as escritas ficam na ordem das posições
+    private final Object trava = new Object();
+    private final Set<Thread> aguardando = ConcurrentHashMap.newKeySet();
+    private final Map<Thread, Conexao> conexoes = new ConcurrentHashMap<>();
+    private final String epoca = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+
+    public LogReplicacao(ObjectMapper objectMapper, int capacidadeHistorico) {
+        this.objectMapper = objectMapper;
+        this.historico = new HistoricoEventos<>(capacidadeHistorico);
+    }
+
+    @Override
+    public void alterada(int id, Tarefa antiga, Tarefa nova) {
+        Registro registro = new Registro(System.currentTimeMillis(), id, nova, antiga == null && nova == null);
+        synchronized (trava) {
+            historico.publicar(registro);
+        }
+        for (Thread replica : aguardando) {
+            LockSupport.unpark(replica);
+        }
+    }
+
+    // Última posição do log
+    public long versao() {
+        return historico.proxima() - 1;
+    }
+
+    public int replicasConectadas() {
+        return conexoes.size();
+    }
+
+    public List<EstadoReplicacao.ReplicaConectada> replicas() {
+        long versao = versao();
+        List<EstadoReplicacao.ReplicaConectada> replicas = new ArrayList<>();
+        for (Conexao conexao : conexoes.values()) {
+            long enviada = conexao.enviada().get();
+            replicas.add(new EstadoReplicacao.ReplicaConectada(conexao.endereco(), enviada, Math.max(0, versao - enviada)));
+        }
+        return replicas;
+    }
+
+    // Transmite o log à réplica até ela desconectar ou ficar para trás do histórico.
+    // Roda na thread da requisição; escreve direto na resposta, sem compressão, com um
+    // flush a cada grupo de entradas.
+    public void transmitir(Context ctx, TarefaRepository tarefas) throws IOException {
+        String desdeParam = ctx.queryParam("desde");
+        long desde;
+        try {
+            desde = desdeParam == null ? 0 : Long.parseLong(desdeParam);
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Collections.singletonMap("erro", "Parâmetro desde inválido."));
+            return;
+        }
+        long disponivel = historico.primeiraDisponivel();
+        boolean retomar = epoca.equals(ctx.queryParam("epoca")) && desde >= disponivel && desde <= historico.proxima();
+        long proxima = retomar ? desde : disponivel;
+
+        HttpServletResponse resposta = ctx.res();
+        resposta.setStatus(HttpStatus.OK.getCode());
+        resposta.setContentType(CONTENT_TYPE_NDJSON);
+        OutputStream saida = resposta.getOutputStream();
+        Thread atual = Thread.currentThread();
+        Conexao conexao = new Conexao(ctx.req().getRemoteAddr() + ":" + ctx.req().getRemotePort(), new AtomicLong(proxima - 1));
+        conexoes.put(atual, conexao);
+        try {
+            EntradaReplicacao inicio = new EntradaReplicacao(EntradaReplicacao.INICIO, proxima - 1, System.currentTimeMillis());
+            inicio.epoca = epoca;
+            inicio.copia = !retomar;
+            // A réplica conhece o atraso desde a primeira linha, não só quando alcança 'proxima - 1'
+            inicio.versaoLider = versao();
+            escrever(saida, inicio);
+            if (!retomar) {
+                int copiadas = 0;
+                for (Tarefa tarefa : tarefas.iterateAfter(0)) {
+                    EntradaReplicacao item = new EntradaReplicacao(EntradaReplicacao.TAREFA, 0, inicio.horario);
+                    item.id = tarefa.getId();
+                    item.tarefa = tarefa;
+                    escrever(saida, item);
+                    copiadas++;
+                }
+                log.info("Réplica {} conectada: cópia de {} tarefas, log a partir de {}.", conexao.endereco(), copiadas, proxima);
+            } else {
+                log.info("Réplica {} retomou o log a partir de {}.", conexao.endereco(), proxima);
+            }
+
+            long ultimoPulso = System.nanoTime() - PULSO_NANOS; // pulso logo após o início
+            while (true) {
+                if (proxima < historico.primeiraDisponivel()) {
+                    log.warn("Réplica {} desconectada: {} entradas atrás do log.", conexao.endereco(), historico.proxima() - proxima);
+                    return;
+                }
+                int enviadas = 0;
+                Registro registro;
+                while (enviadas < LOTE && (registro = historico.ler(proxima)) != null) {
+                    escrever(saida, entrada(proxima, registro));
+                    proxima++;
+                    enviadas++;
+                }
+                if (enviadas > 0 || System.nanoTime() - ultimoPulso >= PULSO_NANOS) {
+                    // O pulso informa a última posição do líder: a réplica calcula o próprio atraso
+                    escrever(saida, new EntradaReplicacao(EntradaReplicacao.PULSO, versao(), System.currentTimeMillis()));
+                    saida.flush();
+                    conexao.enviada().set(proxima - 1);
+                    ultimoPulso = System.nanoTime();
+                    if (enviadas > 0) {
+                        continue;
+                    }
+                }
+                // Registra-se antes de conferir de novo: uma entrada publicada depois disso nos acorda
+                aguardando.add(atual);
+                if (historico.ler(proxima) == null && proxima >= historico.primeiraDisponivel()) {
+                    LockSupport.parkNanos(this, PULSO_NANOS);
+                }
+                aguardando.remove(atual);
+            }
+        } catch (IOException e) {
+            log.info("Réplica {} desconectou: {}", conexao.endereco(), e.getMessage());
+        } finally {
+            aguardando.remove(atual);
+            conexoes.remove(atual);
+        }
+    }
+
+    private static EntradaReplicacao entrada(long sequencia, Registro registro) {
+        if (registro.limpeza()) {
+            return new EntradaReplicacao(EntradaReplicacao.LIMPEZA, sequencia, registro.horario());
+        }
+        EntradaReplicacao entrada = new EntradaReplicacao(registro.tarefa() == null ? EntradaReplicacao.REMOVIDA : EntradaReplicacao.TAREFA,
+                sequencia, registro.horario());
+        entrada.id = registro.id();
+        entrada.tarefa = registro.tarefa();
+        return entrada;
+    }
+
+    private void escrever(OutputStream saida, EntradaReplicacao entrada) throws IOException {
+        saida.write(objectMapper.writeValueAsBytes(entrada));
+        saida.write('\n');
+    }
+}
@@ -0,0 +1,253 @@
+package at.replicacao;
+
+import at.logging.AsyncLogger;
+import at.models.EntradaReplicacao;
+import at.models.Tarefa;
+import at.repository.InMemoryTarefaRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Papel de réplica (-Dreat.replicacao.lider): uma thread lê o log do líder
+// (GET /replicacao/log, ver LogReplicacao) e aplica cada entrada ao repositório local, que
+// atende as leituras. Se a conexão cair, reconecta com espera crescente (até 5 s) e
+// continua da posição seguinte à última aplicada.
+//
+// aplicada() é a posição do log do líder refletida no repositório: é o que a réplica
+// devolve em X-Reat-Versao e compara com X-Reat-Versao-Minima (ver aguardar). Durante uma
+// cópia completa ela volta a 0 e só avança quando a cópia termina.
+public final class Replica {
+
+    private static final AsyncLogger log = AsyncLogger.getLogger(Replica.class);
+    private static final long ESPERA_INICIAL_MS = 100;
+    private static final long ESPERA_MAXIMA_MS = 5000;
+
+    private final String lider;
+    private final ObjectMapper objectMapper;
+    private final Supplier<InMemoryTarefaRepository> repositorio;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    // Escritos só pela thread leitora
+    private volatile String epoca;
+    private volatile long aplicada;
+    private volatile long horarioAplicada;
+    private volatile long versaoLider;
+    private volatile boolean conectada;
+    private final LongAdder copias = new LongAdder();
+
+    // Leituras esperando aplicada() alcançar uma versão
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition avancou = trava.newCondition();
+    private final AtomicInteger esperando = new AtomicInteger();
+
+    private Thread leitor;
+
+    public Replica(ReplicacaoConfig config, ObjectMapper objectMapper, Supplier<InMemoryTarefaRepository> repositorio) {
+        if (!config.isReplica()) {
+            throw new IllegalArgumentException("Informe a URL do líder em reat.replicacao.lider.");
+        }
+        this.lider = config.getLider();
+        this.objectMapper = objectMapper;
+        this.repositorio = repositorio;
+    }
+
+    public synchronized void iniciar() {
+        if (leitor == null) {
+            leitor = Thread.ofPlatform().name("reat-replica").daemon().start(this::executar);
+        }
+    }
+
+    public String getLider() {
+        return lider;
+    }
+
+    // Posição do log do líder refletida no repositório local
+    public long aplicada() {
+        return aplicada;
+    }
+
+    // Última posição do log do líder conhecida
+    public long versaoLider() {
+        return versaoLider;
+    }
+
+    public long atrasoVersoes() {
+        return Math.max(0, versaoLider - aplicada);
+    }
+
+    // Idade da última alteração aplicada enquanto há outras por aplicar; 0 quando em dia.
+    // Os relógios do líder e da réplica são os da mesma máquina nos testes locais.
+    public long atrasoMs() {
+        long horario = horarioAplicada;
+        if (aplicada >= versaoLider || horario == 0) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - horario);
+    }
+
+    public boolean conectada() {
+        return conectada;
+    }
+
+    // Cópias completas recebidas desde o início do processo
+    public long copias() {
+        return copias.sum();
+    }
+
+    // Espera aplicada() alcançar 'versao' por até 'esperaNanos'. Retorna false se não alcançou.
+    public boolean aguardar(long versao, long esperaNanos) throws InterruptedException {
+        if (aplicada >= versao) {
+            return true;
+        }
+        // Conta a espera antes de conferir de novo: a thread leitora só sinaliza se houver alguém
+        esperando.incrementAndGet();
+        trava.lock();
+        try {
+            long restante = esperaNanos;
+            while (aplicada < versao) {
+                if (restante <= 0) {
+                    return false;
+                }
+                restante = avancou.awaitNanos(restante);
+            }
+            return true;
+        } finally {
+            trava.unlock();
+            esperando.decrementAndGet();
+        }
+    }
+
+    private void executar() {
+        long espera = ESPERA_INICIAL_MS;
+        while (true) {
+            try {
+                if (receber()) {
+                    espera = ESPERA_INICIAL_MS;
+                }
+            } catch (IOException e) {
+                log.warn("Replicação a partir de {} interrompida: {}", lider, e.getMessage());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erro ao aplicar o log de {}: {}", lider, e.getMessage(), e);
+            }
+            conectada = false;
+            try {
+                TimeUnit.MILLISECONDS.sleep(espera);
+            } catch (InterruptedException e) {
+                return;
+            }
+            espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+        }
+    }
+
+    // Lê o log até a conexão terminar. Retorna true se chegou a receber o início do log.
+    private boolean receber() throws IOException, InterruptedException {
+        String uri = lider + "/replicacao/log?desde=" + (aplicada + 1)
+                + (epoca == null ? "" : "&epoca=" + URLEncoder.encode(epoca, StandardCharsets.UTF_8));
+        HttpResponse<InputStream> resposta = http.send(HttpRequest.newBuilder(URI.create(uri)).build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream corpo = resposta.body()) {
+            if (resposta.statusCode() != 200) {
+                throw new IOException("o líder respondeu " + resposta.statusCode() + " em /replicacao/log.");
+            }
+            MappingIterator<EntradaReplicacao> entradas = objectMapper.readerFor(EntradaReplicacao.class).readValues(corpo);
+            if (!entradas.hasNextValue()) {
+                return false;
+            }
+            EntradaReplicacao inicio = entradas.nextValue();
+            if (!EntradaReplicacao.INICIO.equals(inicio.tipo)) {
+                throw new IOException("o log do líder não começou com '" + EntradaReplicacao.INICIO + "'.");
+            }
+            receberInicio(inicio);
+            boolean emCopia = inicio.copia;
+            while (entradas.hasNextValue()) {
+                EntradaReplicacao entrada = entradas.nextValue();
+                if (emCopia && entrada.sequencia == 0 && EntradaReplicacao.TAREFA.equals(entrada.tipo)) {
+                    aplicar(entrada.tarefa);
+                    continue;
+                }
+                if (emCopia) {
+                    // Fim da cópia: o repositório reflete pelo menos a posição do início
+                    emCopia = false;
+                    avancar(inicio.sequencia, inicio.horario);
+                    log.info("Cópia do líder {} recebida: {} tarefas.", lider, repositorio.get().count());
+                }
+                switch (entrada.tipo) {
+                    case EntradaReplicacao.TAREFA -> aplicar(entrada.tarefa);
+                    case EntradaReplicacao.REMOVIDA -> repositorio.get().restoreDeletion(entrada.id);
+                    case EntradaReplicacao.LIMPEZA -> repositorio.get().clear();
+                    case EntradaReplicacao.PULSO -> {
+                        versaoLider = Math.max(versaoLider, entrada.sequencia);
+                        continue;
+                    }
+                    default -> {
+                        log.warn("Entrada desconhecida no log de {}: {}", lider, entrada.tipo);
+                        continue;
+                    }
+                }
+                avancar(entrada.sequencia, entrada.horario);
+            }
+            return true;
+        }
+    }
+
+    private void receberInicio(EntradaReplicacao inicio) {
+        epoca = inicio.epoca;
+        versaoLider = Math.max(inicio.sequencia, inicio.versaoLider);
+        conectada = true;
+        if (inicio.copia) {
+            // O estado local deixa de valer até o fim da cópia
+            aplicada = 0;
+            horarioAplicada = inicio.horario;
+            repositorio.get().clear();
+            copias.increment();
+            log.info("Recebendo cópia completa do líder {} (época {}).", lider, inicio.epoca);
+        } else {
+            log.info("Replicação retomada a partir de {} no líder {}.", inicio.sequencia + 1, lider);
+        }
+    }
+
+    // Cria ou substitui a tarefa, a menos que a réplica já tenha uma versão igual ou mais nova
+    // (entradas do histórico reaplicadas depois da cópia)
+    private void aplicar(Tarefa tarefa) {
+        InMemoryTarefaRepository tarefas = repositorio.get();
+        Tarefa atual = tarefas.findById(tarefa.getId()).orElse(null);
+        if (atual == null || atual.getVersao() < tarefa.getVersao()) {
+            tarefas.restore(tarefa);
+        }
+    }
+
+    private void avancar(long sequencia, long horario) {
+        horarioAplicada = horario;
+        aplicada = sequencia;
+        if (sequencia > versaoLider) {
+            versaoLider = sequencia;
+        }
+        if (esperando.get() > 0) {
+            trava.lock();
+            try {
+                avancou.signalAll();
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+}
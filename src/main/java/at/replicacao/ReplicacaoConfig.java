@@ -0,0 +1,51 @@
+package at.replicacao;
+
+// Configuração da replicação líder/réplica, lida das propriedades de sistema:
+//   reat.replicacao.lider        URL do líder (ausente = esta instância é o líder)
+//   reat.replicacao.historico    entradas do log mantidas no líder para as réplicas retomarem (padrão: 65536)
+//   reat.replicacao.esperaMaxMs  quanto uma leitura com X-Reat-Versao-Minima espera a réplica alcançar
+//                                a versão pedida antes de responder 503 (padrão: 1000)
+public class ReplicacaoConfig {
+
+    private final String lider;
+    private final int historico;
+    private final long esperaMaxMs;
+
+    public ReplicacaoConfig(String lider, int historico, long esperaMaxMs) {
+        if (historico <= 0 || esperaMaxMs < 0) {
+            throw new IllegalArgumentException("Parâmetros de replicação inválidos.");
+        }
+        this.lider = lider == null || lider.isBlank() ? null : normalizar(lider);
+        this.historico = historico;
+        this.esperaMaxMs = esperaMaxMs;
+    }
+
+    public static ReplicacaoConfig fromSystemProperties() {
+        return new ReplicacaoConfig(
+                System.getProperty("reat.replicacao.lider"),
+                Integer.getInteger("reat.replicacao.historico", 65536),
+                Long.getLong("reat.replicacao.esperaMaxMs", 1000));
+    }
+
+    public boolean isReplica() {
+        return lider != null;
+    }
+
+    // URL do líder, ou null no próprio líder
+    public String getLider() {
+        return lider;
+    }
+
+    public int getHistorico() {
+        return historico;
+    }
+
+    public long getEsperaMaxMs() {
+        return esperaMaxMs;
+    }
+
+    private static String normalizar(String url) {
+        String limpa = url.trim();
+        return limpa.endsWith("/") ? limpa.substring(0, limpa.length() - 1) : limpa;
+    }
+}
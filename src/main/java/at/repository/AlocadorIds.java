@@ -0,0 +1,100 @@
+package at.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+// Atribui os IDs das tarefas novas. O espaço de IDs é dividido em blocos de 2^BITS_BLOCO
+// IDs consecutivos; o alocador só usa os blocos aceitos pelo predicado, em ordem
+// crescente. Sozinho, um processo aceita todos e os IDs são 1, 2, 3... como sempre. Em
+// cluster (ver at.cluster.ClusterConfig), cada nó aceita só os blocos que o anel de hash
+// consistente lhe atribui: nós diferentes nunca geram o mesmo ID e não precisam combinar
+// nada a cada criação.
+//
+// Uma reserva de vários IDs (lote) é sempre contígua. Se não couber no que resta do bloco
+// e o bloco seguinte não for deste alocador, ela começa no próximo bloco aceito e o fim
+// do bloco atual fica sem uso.
+public class AlocadorIds {
+
+    // 256 blocos de ~8,4 milhões de IDs (o bloco 0 começa no ID 1)
+    public static final int BITS_BLOCO = 23;
+    public static final int BLOCOS = 1 << (31 - BITS_BLOCO);
+
+    private final boolean[] proprios = new boolean[BLOCOS];
+    // long: depois do último ID (Integer.MAX_VALUE) o valor passa de int
+    private final AtomicLong proximo = new AtomicLong(1);
+
+    // Todos os blocos
+    public AlocadorIds() {
+        this(bloco -> true);
+    }
+
+    public AlocadorIds(IntPredicate blocoProprio) {
+        boolean algum = false;
+        for (int bloco = 0; bloco < BLOCOS; bloco++) {
+            proprios[bloco] = blocoProprio.test(bloco);
+            algum |= proprios[bloco];
+        }
+        if (!algum) {
+            throw new IllegalArgumentException("O alocador precisa de ao menos um bloco de IDs.");
+        }
+    }
+
+    public static int blocoDe(int id) {
+        return id >>> BITS_BLOCO;
+    }
+
+    // Reserva 'quantidade' IDs consecutivos e retorna o primeiro
+    public int reservar(int quantidade) {
+        while (true) {
+            long atual = proximo.get();
+            long inicio = inicioLivre(atual, quantidade);
+            if (inicio < 0) {
+                throw new IllegalStateException("Os blocos de IDs deste alocador se esgotaram.");
+            }
+            if (proximo.compareAndSet(atual, inicio + quantidade)) {
+                return (int) inicio;
+            }
+        }
+    }
+
+    // Limite inferior do próximo ID atribuído
+    public int proximo() {
+        return (int) Math.min(proximo.get(), Integer.MAX_VALUE);
+    }
+
+    // Garante que o próximo ID atribuído seja pelo menos 'minimo'
+    public void avancar(int minimo) {
+        proximo.accumulateAndGet(minimo, Math::max);
+    }
+
+    public void reiniciar() {
+        proximo.set(1);
+    }
+
+    // Primeiro ID >= 'a partir' em que cabem 'quantidade' IDs de blocos aceitos, ou -1
+    private long inicioLivre(long aPartir, int quantidade) {
+        long inicio = Math.max(aPartir, 1);
+        while (inicio + quantidade - 1 <= Integer.MAX_VALUE) {
+            long ultimo = inicio + quantidade - 1;
+            int recusado = -1;
+            for (long bloco = inicio >>> BITS_BLOCO; bloco <= ultimo >>> BITS_BLOCO; bloco++) {
+                if (!proprios[(int) bloco]) {
+                    recusado = (int) bloco;
+                    break;
+                }
+            }
+            if (recusado < 0) {
+                return inicio;
+            }
+            int seguinte = recusado + 1;
+            while (seguinte < BLOCOS && !proprios[seguinte]) {
+                seguinte++;
+            }
+            if (seguinte == BLOCOS) {
+                return -1;
+            }
+            inicio = (long) seguinte << BITS_BLOCO;
+        }
+        return -1;
+    }
+}
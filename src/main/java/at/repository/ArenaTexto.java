@@ -0,0 +1,98 @@
+package at.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Arena de texto fora do heap, só de acréscimo, usada pelo ColumnarTarefaRepository.
+// Cada entrada guarda titulo e descricao em UTF-8, precedidos do comprimento em bytes
+// (-1 = null): [int][bytes do título][int][bytes da descrição]. As entradas ficam em
+// blocos de ByteBuffer direto de TAMANHO_BLOCO bytes (uma entrada maior ganha um bloco
+// só dela); a referência de uma entrada é (bloco << 32) | posição.
+//
+// Entradas nunca são reescritas: uma alteração de texto grava uma entrada nova e a antiga
+// só é contada em bytesDescartados(). A memória volta ao sistema em limpar(), quando os
+// blocos deixam de ser referenciados e o GC libera os buffers.
+//
+// Sem sincronização própria: quem usa garante que escritas não concorram com nada.
+final class ArenaTexto {
+
+    static final int TAMANHO_BLOCO = 8 << 20;
+
+    private final List<ByteBuffer> blocos = new ArrayList<>();
+    private ByteBuffer atual;
+    private long bytesReservados;
+    private long bytesDescartados;
+
+    long gravar(String titulo, String descricao) {
+        byte[] bytesTitulo = titulo == null ? null : titulo.getBytes(StandardCharsets.UTF_8);
+        byte[] bytesDescricao = descricao == null ? null : descricao.getBytes(StandardCharsets.UTF_8);
+        int tamanho = Integer.BYTES * 2 + comprimento(bytesTitulo) + comprimento(bytesDescricao);
+        if (atual == null || atual.remaining() < tamanho) {
+            atual = ByteBuffer.allocateDirect(Math.max(TAMANHO_BLOCO, tamanho));
+            blocos.add(atual);
+            bytesReservados += atual.capacity();
+        }
+        long referencia = ((long) (blocos.size() - 1) << 32) | atual.position();
+        escrever(atual, bytesTitulo);
+        escrever(atual, bytesDescricao);
+        return referencia;
+    }
+
+    String titulo(long referencia) {
+        ByteBuffer bloco = blocos.get((int) (referencia >>> 32));
+        return ler(bloco, (int) referencia);
+    }
+
+    String descricao(long referencia) {
+        ByteBuffer bloco = blocos.get((int) (referencia >>> 32));
+        int posicao = (int) referencia;
+        return ler(bloco, posicao + Integer.BYTES + Math.max(bloco.getInt(posicao), 0));
+    }
+
+    // Conta a entrada como espaço perdido (ela continua legível até limpar())
+    void descartar(long referencia) {
+        ByteBuffer bloco = blocos.get((int) (referencia >>> 32));
+        int posicao = (int) referencia;
+        int depoisDoTitulo = posicao + Integer.BYTES + Math.max(bloco.getInt(posicao), 0);
+        bytesDescartados += depoisDoTitulo + Integer.BYTES + Math.max(bloco.getInt(depoisDoTitulo), 0) - posicao;
+    }
+
+    void limpar() {
+        blocos.clear();
+        atual = null;
+        bytesReservados = 0;
+        bytesDescartados = 0;
+    }
+
+    long bytesReservados() {
+        return bytesReservados;
+    }
+
+    long bytesDescartados() {
+        return bytesDescartados;
+    }
+
+    private static int comprimento(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void escrever(ByteBuffer bloco, byte[] bytes) {
+        bloco.putInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            bloco.put(bytes);
+        }
+    }
+
+    // Só leituras absolutas: a posição do bloco é usada apenas por quem grava
+    private static String ler(ByteBuffer bloco, int posicao) {
+        int comprimento = bloco.getInt(posicao);
+        if (comprimento < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[comprimento];
+        bloco.get(posicao + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,157 @@
+package at.repository;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Conjunto de inteiros não negativos em bits, seguro para escritas concorrentes sem lock.
+// Os bits ficam em blocos de 256 (4 palavras de 64 bits) guardados em um mapa ordenado
+// e criados sob demanda: conjuntos densos custam ~1 bit por elemento, e os esparsos não
+// reservam memória para as faixas vazias. Cada bit é alterado com compare-and-swap na
+// palavra que o contém. Blocos que ficam vazios só são descartados em clearAll().
+final class BitSetConcorrente {
+
+    private static final int BITS_POR_BLOCO_LOG = 8;
+    private static final int PALAVRAS_POR_BLOCO = (1 << BITS_POR_BLOCO_LOG) / Long.SIZE;
+
+    private final ConcurrentSkipListMap<Integer, AtomicLongArray> blocos = new ConcurrentSkipListMap<>();
+    private final AtomicInteger quantidade = new AtomicInteger();
+
+    // Retorna true se o bit estava desligado
+    boolean set(int indice) {
+        AtomicLongArray bloco = blocos.computeIfAbsent(indice >>> BITS_POR_BLOCO_LOG, b -> new AtomicLongArray(PALAVRAS_POR_BLOCO));
+        int palavra = palavraNoBloco(indice);
+        long mascara = 1L << indice;
+        while (true) {
+            long atual = bloco.get(palavra);
+            if ((atual & mascara) != 0) {
+                return false;
+            }
+            if (bloco.compareAndSet(palavra, atual, atual | mascara)) {
+                quantidade.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // Retorna true se o bit estava ligado
+    boolean clear(int indice) {
+        AtomicLongArray bloco = blocos.get(indice >>> BITS_POR_BLOCO_LOG);
+        if (bloco == null) {
+            return false;
+        }
+        int palavra = palavraNoBloco(indice);
+        long mascara = 1L << indice;
+        while (true) {
+            long atual = bloco.get(palavra);
+            if ((atual & mascara) == 0) {
+                return false;
+            }
+            if (bloco.compareAndSet(palavra, atual, atual & ~mascara)) {
+                quantidade.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    boolean get(int indice) {
+        AtomicLongArray bloco = blocos.get(indice >>> BITS_POR_BLOCO_LOG);
+        return bloco != null && (bloco.get(palavraNoBloco(indice)) & (1L << indice)) != 0;
+    }
+
+    // Quantidade de bits ligados (exata quando não há escritas em andamento)
+    int cardinality() {
+        return quantidade.get();
+    }
+
+    void clearAll() {
+        blocos.clear();
+        quantidade.set(0);
+    }
+
+    // Índices maiores que 'depoisDe' ligados em todos os conjuntos, em ordem crescente.
+    // Percorre os blocos do primeiro conjunto (passe o menor primeiro) e combina as
+    // palavras dos demais com E, 64 índices por vez. Fracamente consistente, como os
+    // iteradores das coleções concorrentes.
+    static PrimitiveIterator.OfInt intersecao(BitSetConcorrente[] conjuntos, int depoisDe) {
+        return new Intersecao(conjuntos, depoisDe);
+    }
+
+    private static int palavraNoBloco(int indice) {
+        return (indice >>> 6) & (PALAVRAS_POR_BLOCO - 1);
+    }
+
+    private static final class Intersecao implements PrimitiveIterator.OfInt {
+        private final BitSetConcorrente[] conjuntos;
+        private final long depoisDe;
+        private final Iterator<Map.Entry<Integer, AtomicLongArray>> blocosDoMenor;
+        private final AtomicLongArray[] blocoAtual;
+        private int inicioBloco;
+        private int palavra = PALAVRAS_POR_BLOCO;
+        private long bits;
+
+        Intersecao(BitSetConcorrente[] conjuntos, int depoisDe) {
+            this.conjuntos = conjuntos;
+            this.depoisDe = depoisDe;
+            ConcurrentNavigableMap<Integer, AtomicLongArray> aPartir = conjuntos[0].blocos.tailMap(Math.max(depoisDe, 0) >>> BITS_POR_BLOCO_LOG, true);
+            this.blocosDoMenor = aPartir.entrySet().iterator();
+            this.blocoAtual = new AtomicLongArray[conjuntos.length];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (bits == 0) {
+                if (palavra == PALAVRAS_POR_BLOCO && !proximoBloco()) {
+                    return false;
+                }
+                long combinada = blocoAtual[0].get(palavra);
+                for (int i = 1; i < blocoAtual.length && combinada != 0; i++) {
+                    combinada &= blocoAtual[i].get(palavra);
+                }
+                long base = (long) inicioBloco + (long) palavra * Long.SIZE;
+                if (base + Long.SIZE <= depoisDe + 1) {
+                    combinada = 0;
+                } else if (base <= depoisDe) {
+                    combinada &= -1L << (depoisDe + 1 - base);
+                }
+                bits = combinada;
+                palavra++;
+            }
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int indice = inicioBloco + (palavra - 1) * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            return indice;
+        }
+
+        // Avança até um bloco presente em todos os conjuntos
+        private boolean proximoBloco() {
+            while (blocosDoMenor.hasNext()) {
+                Map.Entry<Integer, AtomicLongArray> entrada = blocosDoMenor.next();
+                blocoAtual[0] = entrada.getValue();
+                boolean emTodos = true;
+                for (int i = 1; i < conjuntos.length && emTodos; i++) {
+                    blocoAtual[i] = conjuntos[i].blocos.get(entrada.getKey());
+                    emTodos = blocoAtual[i] != null;
+                }
+                if (emTodos) {
+                    inicioBloco = entrada.getKey() << BITS_POR_BLOCO_LOG;
+                    palavra = 0;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package at.repository;
+
+import at.models.ItemBusca;
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Repositório em memória fora do heap, em colunas, para milhões de tarefas
+// (-Dreat.armazenamento=colunar, ver TipoArmazenamento).
+//
+// No InMemoryTarefaRepository cada tarefa são vários objetos de vida longa (a Tarefa, as
+// duas Strings, a entrada do mapa, o nó da lista ordenada e as entradas dos índices), que
+// o GC percorre a cada ciclo. Aqui os IDs são divididos em páginas de 2^BITS_PAGINA IDs
+// consecutivos, cada uma um ByteBuffer direto com uma coluna por campo, indexada pela
+// posição do ID na página:
+// - versao (long, 0 = sem tarefa), criadaEm (long), referência do texto (long) e concluida (byte);
+// - titulo e descricao ficam na ArenaTexto, em UTF-8, também fora do heap.
+// São 25 bytes por ID mais o texto, e o heap guarda só o array de páginas. As tarefas são
+// montadas (materializadas) a cada leitura, como cópias novas: a convenção de instantâneos
+// imutáveis do TarefaRepository vale sem esforço.
+//
+// Escritas são serializadas por uma trava de leitura e escrita; leituras rodam em paralelo.
+// As iterações pegam a trava a cada passo, nunca durante a iteração inteira.
+//
+// Não há índices secundários: query() confere concluida e criadaEm direto nas colunas e só
+// materializa o título quando o filtro tem critério de título; search() percorre todas as
+// tarefas e pontua com o mesmo BM25 do IndiceTextual. Os dois custam O(tarefas): para
+// buscas frequentes em milhões de tarefas, o armazenamento padrão responde mais rápido.
+public class ColumnarTarefaRepository implements TarefaRepository {
+
+    private static final int BITS_PAGINA = 16;
+    private static final int POR_PAGINA = 1 << BITS_PAGINA;
+    // Início de cada coluna na página
+    private static final int COLUNA_VERSAO = 0;
+    private static final int COLUNA_CRIADA = COLUNA_VERSAO + Long.BYTES * POR_PAGINA;
+    private static final int COLUNA_TEXTO = COLUNA_CRIADA + Long.BYTES * POR_PAGINA;
+    private static final int COLUNA_CONCLUIDA = COLUNA_TEXTO + Long.BYTES * POR_PAGINA;
+    private static final int TAMANHO_PAGINA = COLUNA_CONCLUIDA + POR_PAGINA;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    // Indexado por id >>> BITS_PAGINA; a página é criada com a primeira tarefa da faixa.
+    // Os campos abaixo (até maiorId) só são acessados sob a trava.
+    private ByteBuffer[] paginas = novasPaginas();
+    private int paginasAlocadas;
+    private final ArenaTexto textos = new ArenaTexto();
+    private int maiorId;
+    private volatile int quantidade;
+
+    private final AlocadorIds alocador;
+    // Incrementada depois de cada mutação publicada (ver TarefaRepository.version)
+    private final AtomicLong versao = new AtomicLong();
+    private volatile long epoca = novaEpoca();
+    private final List<OuvinteAlteracoes> ouvintes = new CopyOnWriteArrayList<>();
+
+    public ColumnarTarefaRepository() {
+        this(new AlocadorIds());
+    }
+
+    public ColumnarTarefaRepository(AlocadorIds alocador) {
+        this.alocador = alocador;
+    }
+
+    @Override
+    public Tarefa save(Tarefa tarefa) {
+        int id = alocador.reservar(1);
+        tarefa.setId(id);
+        tarefa.setVersao(1);
+        trava.writeLock().lock();
+        try {
+            inserir(tarefa);
+        } finally {
+            trava.writeLock().unlock();
+        }
+        versao.incrementAndGet();
+        return tarefa;
+    }
+
+    @Override
+    public List<Tarefa> saveAll(List<Tarefa> novas) {
+        int primeiro = alocador.reservar(novas.size());
+        trava.writeLock().lock();
+        try {
+            for (int i = 0; i < novas.size(); i++) {
+                Tarefa tarefa = novas.get(i);
+                tarefa.setId(primeiro + i);
+                tarefa.setVersao(1);
+                inserir(tarefa);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+        versao.incrementAndGet();
+        return novas;
+    }
+
+    @Override
+    public Optional<Tarefa> findById(int id) {
+        trava.readLock().lock();
+        try {
+            return Optional.ofNullable(lerSeExiste(id));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Tarefa> findAll() {
+        List<Tarefa> resultado = new ArrayList<>(quantidade);
+        for (Tarefa tarefa : iterateAfter(0)) {
+            resultado.add(tarefa);
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Tarefa> findPage(int afterId, int limit) {
+        List<Tarefa> pagina = new ArrayList<>(Math.min(limit, quantidade));
+        Iterator<Tarefa> it = iterateAfter(afterId).iterator();
+        while (pagina.size() < limit && it.hasNext()) {
+            pagina.add(it.next());
+        }
+        return pagina;
+    }
+
+    @Override
+    public Iterable<Tarefa> iterateAfter(int afterId) {
+        return () -> new Varredura(FiltroTarefas.todas(), afterId);
+    }
+
+    @Override
+    public Iterable<Tarefa> query(FiltroTarefas filtro, int afterId) {
+        return () -> new Varredura(filtro, afterId);
+    }
+
+    // Percorre as tarefas em ordem de ID; cada hasNext() examina no máximo o resto de uma
+    // página sob a trava de leitura
+    private final class Varredura implements Iterator<Tarefa> {
+        private final FiltroTarefas filtro;
+        private final boolean porTitulo;
+        // long: o ID seguinte ao último (Integer.MAX_VALUE) passa de int
+        private long proximoId;
+        private Tarefa proxima;
+
+        Varredura(FiltroTarefas filtro, int afterId) {
+            this.filtro = filtro;
+            this.porTitulo = filtro.getTitulo() != null || filtro.getTituloPrefixo() != null;
+            this.proximoId = Math.max(afterId, 0) + 1L;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (proxima == null) {
+                trava.readLock().lock();
+                try {
+                    if (proximoId > maiorId) {
+                        return false;
+                    }
+                    proxima = buscarNaPagina();
+                } finally {
+                    trava.readLock().unlock();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Tarefa next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Tarefa atual = proxima;
+            proxima = null;
+            return atual;
+        }
+
+        // Sob a trava: a primeira tarefa aceita de proximoId até o fim da página dele
+        private Tarefa buscarNaPagina() {
+            ByteBuffer pagina = paginas[(int) (proximoId >>> BITS_PAGINA)];
+            long fimDaPagina = ((proximoId >>> BITS_PAGINA) + 1) << BITS_PAGINA;
+            if (pagina != null) {
+                for (long id = proximoId; id < fimDaPagina; id++) {
+                    int posicao = (int) id & (POR_PAGINA - 1);
+                    if (versaoEm(pagina, posicao) != 0 && colunasAceitam(pagina, posicao)) {
+                        Tarefa tarefa = ler(pagina, (int) id, filtro, porTitulo);
+                        if (tarefa != null) {
+                            proximoId = id + 1;
+                            return tarefa;
+                        }
+                    }
+                }
+            }
+            proximoId = fimDaPagina;
+            return null;
+        }
+
+        private boolean colunasAceitam(ByteBuffer pagina, int posicao) {
+            if (filtro.getConcluida() != null && (pagina.get(COLUNA_CONCLUIDA + posicao) != 0) != filtro.getConcluida()) {
+                return false;
+            }
+            long criadaEm = pagina.getLong(COLUNA_CRIADA + posicao * Long.BYTES);
+            return criadaEm > filtro.getCriadaApos() && criadaEm < filtro.getCriadaAntes();
+        }
+    }
+
+    // Percorre todas as tarefas: estatísticas do BM25 (número de tarefas, comprimento médio e,
+    // para cada termo, em quantas tarefas aparece) e as tarefas com todos os termos. Os
+    // comprimentos e frequências são contados como no IndiceTextual.
+    @Override
+    public PaginaBusca search(String consulta, double depoisDePontuacao, int depoisDeId, int limit) {
+        List<String> termos = Tokenizador.termos(consulta).stream().distinct().toList();
+        if (termos.isEmpty()) {
+            return new PaginaBusca(List.of(), 0);
+        }
+        int[] tarefasComTermo = new int[termos.size()];
+        long comprimentoTotal = 0;
+        int totalDocumentos = 0;
+        // Por tarefa com todos os termos: ID, comprimento e a frequência de cada termo
+        int passo = 2 + termos.size();
+        int[] encontradas = new int[passo * 16];
+        int total = 0;
+        int[] frequencias = new int[termos.size()];
+
+        long inicioPagina = 0;
+        while (true) {
+            trava.readLock().lock();
+            try {
+                if (inicioPagina > maiorId) {
+                    break;
+                }
+                ByteBuffer pagina = paginas[(int) (inicioPagina >>> BITS_PAGINA)];
+                for (int posicao = 0; pagina != null && posicao < POR_PAGINA; posicao++) {
+                    if (versaoEm(pagina, posicao) == 0) {
+                        continue;
+                    }
+                    long referencia = pagina.getLong(COLUNA_TEXTO + posicao * Long.BYTES);
+                    Arrays.fill(frequencias, 0);
+                    int comprimento = contar(Tokenizador.termos(textos.titulo(referencia)), termos, frequencias, IndiceTextual.PESO_TITULO)
+                            + contar(Tokenizador.termos(textos.descricao(referencia)), termos, frequencias, 1);
+                    totalDocumentos++;
+                    comprimentoTotal += comprimento;
+                    boolean emTodos = true;
+                    for (int t = 0; t < frequencias.length; t++) {
+                        if (frequencias[t] > 0) {
+                            tarefasComTermo[t]++;
+                        } else {
+                            emTodos = false;
+                        }
+                    }
+                    if (emTodos) {
+                        if ((total + 1) * passo > encontradas.length) {
+                            encontradas = Arrays.copyOf(encontradas, encontradas.length * 2);
+                        }
+                        int base = total++ * passo;
+                        encontradas[base] = (int) inicioPagina + posicao;
+                        encontradas[base + 1] = comprimento;
+                        System.arraycopy(frequencias, 0, encontradas, base + 2, frequencias.length);
+                    }
+                }
+            } finally {
+                trava.readLock().unlock();
+            }
+            inicioPagina += POR_PAGINA;
+        }
+
+        totalDocumentos = Math.max(totalDocumentos, 1);
+        double comprimentoMedio = Math.max(1.0, (double) comprimentoTotal / totalDocumentos);
+        double[] idf = new double[termos.size()];
+        for (int t = 0; t < idf.length; t++) {
+            double df = tarefasComTermo[t];
+            idf[t] = Math.log(1 + (totalDocumentos - df + 0.5) / (df + 0.5));
+        }
+        IndiceTextual.Ocorrencia limiteInferior = new IndiceTextual.Ocorrencia(depoisDeId, depoisDePontuacao);
+        PriorityQueue<IndiceTextual.Ocorrencia> melhores = new PriorityQueue<>(limit + 1, IndiceTextual.ORDEM.reversed());
+        for (int i = 0; i < total; i++) {
+            int base = i * passo;
+            double normalizacao = IndiceTextual.K1 * (1 - IndiceTextual.B + IndiceTextual.B * encontradas[base + 1] / comprimentoMedio);
+            double pontuacao = 0;
+            for (int t = 0; t < idf.length; t++) {
+                int tf = encontradas[base + 2 + t];
+                pontuacao += idf[t] * tf * (IndiceTextual.K1 + 1) / (tf + normalizacao);
+            }
+            IndiceTextual.Ocorrencia ocorrencia = new IndiceTextual.Ocorrencia(encontradas[base], pontuacao);
+            if (IndiceTextual.ORDEM.compare(ocorrencia, limiteInferior) <= 0) {
+                continue;
+            }
+            if (melhores.size() < limit) {
+                melhores.add(ocorrencia);
+            } else if (IndiceTextual.ORDEM.compare(ocorrencia, melhores.peek()) < 0) {
+                melhores.poll();
+                melhores.add(ocorrencia);
+            }
+        }
+        IndiceTextual.Ocorrencia[] ordenadas = melhores.toArray(new IndiceTextual.Ocorrencia[0]);
+        Arrays.sort(ordenadas, IndiceTextual.ORDEM);
+        List<ItemBusca> itens = new ArrayList<>(ordenadas.length);
+        for (IndiceTextual.Ocorrencia ocorrencia : ordenadas) {
+            // Removida depois de pontuada
+            findById(ocorrencia.id()).ifPresent(tarefa -> itens.add(new ItemBusca(tarefa, ocorrencia.pontuacao())));
+        }
+        return new PaginaBusca(itens, total);
+    }
+
+    // Soma 'peso' à frequência dos termos da consulta presentes em 'termosDoTexto' e
+    // devolve o comprimento ponderado do texto
+    private static int contar(List<String> termosDoTexto, List<String> consulta, int[] frequencias, int peso) {
+        for (String termo : termosDoTexto) {
+            int t = consulta.indexOf(termo);
+            if (t >= 0) {
+                frequencias[t] += peso;
+            }
+        }
+        return termosDoTexto.size() * peso;
+    }
+
+    @Override
+    public ResultadoEscrita update(int id, long versaoEsperada, Consumer<Tarefa> alteracao) {
+        trava.writeLock().lock();
+        try {
+            Tarefa atual = lerSeExiste(id);
+            if (atual == null) {
+                return ResultadoEscrita.naoEncontrada();
+            }
+            if (versaoEsperada != QUALQUER_VERSAO && atual.getVersao() != versaoEsperada) {
+                return ResultadoEscrita.conflito(atual);
+            }
+            Tarefa nova = atual.copia();
+            alteracao.accept(nova);
+            nova.setId(id);
+            nova.setVersao(atual.getVersao() + 1);
+
+            ByteBuffer pagina = paginas[id >>> BITS_PAGINA];
+            int posicao = id & (POR_PAGINA - 1);
+            if (!Objects.equals(atual.getTitulo(), nova.getTitulo()) || !Objects.equals(atual.getDescricao(), nova.getDescricao())) {
+                textos.descartar(pagina.getLong(COLUNA_TEXTO + posicao * Long.BYTES));
+                pagina.putLong(COLUNA_TEXTO + posicao * Long.BYTES, textos.gravar(nova.getTitulo(), nova.getDescricao()));
+            }
+            pagina.put(COLUNA_CONCLUIDA + posicao, (byte) (nova.isConcluida() ? 1 : 0));
+            pagina.putLong(COLUNA_CRIADA + posicao * Long.BYTES, nova.getCriadaEm());
+            pagina.putLong(COLUNA_VERSAO + posicao * Long.BYTES, nova.getVersao());
+            avisar(id, atual, nova);
+            versao.incrementAndGet();
+            return ResultadoEscrita.ok(nova);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ResultadoEscrita delete(int id, long versaoEsperada) {
+        trava.writeLock().lock();
+        try {
+            Tarefa atual = lerSeExiste(id);
+            if (atual == null) {
+                return ResultadoEscrita.naoEncontrada();
+            }
+            if (versaoEsperada != QUALQUER_VERSAO && atual.getVersao() != versaoEsperada) {
+                return ResultadoEscrita.conflito(atual);
+            }
+            ByteBuffer pagina = paginas[id >>> BITS_PAGINA];
+            int posicao = id & (POR_PAGINA - 1);
+            textos.descartar(pagina.getLong(COLUNA_TEXTO + posicao * Long.BYTES));
+            pagina.putLong(COLUNA_VERSAO + posicao * Long.BYTES, 0);
+            quantidade--;
+            avisar(id, atual, null);
+            versao.incrementAndGet();
+            return ResultadoEscrita.ok(atual);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int count() {
+        return quantidade;
+    }
+
+    @Override
+    public long version() {
+        return versao.get();
+    }
+
+    @Override
+    public long epoch() {
+        return epoca;
+    }
+
+    // Memória direta reservada: páginas de colunas e blocos da arena de texto
+    public long bytesForaDoHeap() {
+        trava.readLock().lock();
+        try {
+            return (long) paginasAlocadas * TAMANHO_PAGINA + textos.bytesReservados();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Texto de versões alteradas ou removidas que continua na arena até clear()
+    public long bytesDescartados() {
+        trava.readLock().lock();
+        try {
+            return textos.bytesDescartados();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Sob a trava de escrita: grava as colunas de uma tarefa nova (o ID já atribuído)
+    private void inserir(Tarefa tarefa) {
+        int id = tarefa.getId();
+        ByteBuffer pagina = paginas[id >>> BITS_PAGINA];
+        if (pagina == null) {
+            // allocateDirect zera a memória: todas as posições começam sem tarefa (versão 0)
+            pagina = ByteBuffer.allocateDirect(TAMANHO_PAGINA);
+            paginas[id >>> BITS_PAGINA] = pagina;
+            paginasAlocadas++;
+        }
+        int posicao = id & (POR_PAGINA - 1);
+        pagina.putLong(COLUNA_TEXTO + posicao * Long.BYTES, textos.gravar(tarefa.getTitulo(), tarefa.getDescricao()));
+        pagina.putLong(COLUNA_CRIADA + posicao * Long.BYTES, tarefa.getCriadaEm());
+        pagina.put(COLUNA_CONCLUIDA + posicao, (byte) (tarefa.isConcluida() ? 1 : 0));
+        pagina.putLong(COLUNA_VERSAO + posicao * Long.BYTES, tarefa.getVersao());
+        maiorId = Math.max(maiorId, id);
+        quantidade++;
+        avisar(id, null, tarefa);
+    }
+
+    // Sob a trava: a tarefa materializada, ou null se o ID não existe
+    private Tarefa lerSeExiste(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        ByteBuffer pagina = paginas[id >>> BITS_PAGINA];
+        if (pagina == null || versaoEm(pagina, id & (POR_PAGINA - 1)) == 0) {
+            return null;
+        }
+        return ler(pagina, id, FiltroTarefas.todas(), false);
+    }
+
+    // Sob a trava: materializa a tarefa, ou devolve null se ela não atende ao filtro.
+    // Com 'porTitulo', confere o filtro antes de decodificar a descrição.
+    private Tarefa ler(ByteBuffer pagina, int id, FiltroTarefas filtro, boolean porTitulo) {
+        int posicao = id & (POR_PAGINA - 1);
+        long referencia = pagina.getLong(COLUNA_TEXTO + posicao * Long.BYTES);
+        Tarefa tarefa = new Tarefa();
+        tarefa.setId(id);
+        tarefa.setTitulo(textos.titulo(referencia));
+        tarefa.setConcluida(pagina.get(COLUNA_CONCLUIDA + posicao) != 0);
+        tarefa.setCriadaEm(pagina.getLong(COLUNA_CRIADA + posicao * Long.BYTES));
+        tarefa.setVersao(versaoEm(pagina, posicao));
+        if (porTitulo && !filtro.aceita(tarefa)) {
+            return null;
+        }
+        tarefa.setDescricao(textos.descricao(referencia));
+        return tarefa;
+    }
+
+    private static long versaoEm(ByteBuffer pagina, int posicao) {
+        return pagina.getLong(COLUNA_VERSAO + posicao * Long.BYTES);
+    }
+
+    private void avisar(int id, Tarefa antiga, Tarefa nova) {
+        for (OuvinteAlteracoes ouvinte : ouvintes) {
+            ouvinte.alterada(id, antiga, nova);
+        }
+    }
+
+    private static ByteBuffer[] novasPaginas() {
+        return new ByteBuffer[1 << (31 - BITS_PAGINA)];
+    }
+
+    private static long novaEpoca() {
+        return ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    }
+
+    @Override
+    public void addListener(OuvinteAlteracoes ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    @Override
+    public void clear() {
+        trava.writeLock().lock();
+        try {
+            // As páginas e os blocos da arena deixam de ser referenciados e o GC libera a memória direta
+            paginas = novasPaginas();
+            paginasAlocadas = 0;
+            textos.limpar();
+            maiorId = 0;
+            quantidade = 0;
+            alocador.reiniciar();
+            epoca = novaEpoca();
+            versao.incrementAndGet();
+            for (OuvinteAlteracoes ouvinte : ouvintes) {
+                ouvinte.alterada(0, null, null);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package at.repository;
+
+import at.models.Tarefa;
+
+import java.util.Locale;
+
+// Critérios de consulta de tarefas. Imutável: cada com*() devolve um filtro novo.
+// Critérios ausentes aceitam qualquer valor; os informados são combinados com E.
+public final class FiltroTarefas {
+
+    private static final FiltroTarefas TODAS = new FiltroTarefas(null, null, null, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private final Boolean concluida;
+    // Já normalizados (ver normalizar)
+    private final String titulo;
+    private final String tituloPrefixo;
+    // Limites exclusivos, em milissegundos desde a época
+    private final long criadaApos;
+    private final long criadaAntes;
+
+    private FiltroTarefas(Boolean concluida, String titulo, String tituloPrefixo, long criadaApos, long criadaAntes) {
+        this.concluida = concluida;
+        this.titulo = titulo;
+        this.tituloPrefixo = tituloPrefixo;
+        this.criadaApos = criadaApos;
+        this.criadaAntes = criadaAntes;
+    }
+
+    public static FiltroTarefas todas() {
+        return TODAS;
+    }
+
+    public FiltroTarefas comConcluida(boolean valor) {
+        return new FiltroTarefas(valor, titulo, tituloPrefixo, criadaApos, criadaAntes);
+    }
+
+    // Título contém o trecho, sem diferenciar maiúsculas de minúsculas
+    public FiltroTarefas comTitulo(String trecho) {
+        return new FiltroTarefas(concluida, normalizar(trecho), tituloPrefixo, criadaApos, criadaAntes);
+    }
+
+    // Título começa com o prefixo, sem diferenciar maiúsculas de minúsculas
+    public FiltroTarefas comTituloPrefixo(String prefixo) {
+        return new FiltroTarefas(concluida, titulo, normalizar(prefixo), criadaApos, criadaAntes);
+    }
+
+    // Criada depois do instante (exclusivo)
+    public FiltroTarefas comCriadaApos(long millis) {
+        return new FiltroTarefas(concluida, titulo, tituloPrefixo, millis, criadaAntes);
+    }
+
+    // Criada antes do instante (exclusivo)
+    public FiltroTarefas comCriadaAntes(long millis) {
+        return new FiltroTarefas(concluida, titulo, tituloPrefixo, criadaApos, millis);
+    }
+
+    public Boolean getConcluida() {
+        return concluida;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getTituloPrefixo() {
+        return tituloPrefixo;
+    }
+
+    public long getCriadaApos() {
+        return criadaApos;
+    }
+
+    public long getCriadaAntes() {
+        return criadaAntes;
+    }
+
+    public boolean temIntervaloDeCriacao() {
+        return criadaApos != Long.MIN_VALUE || criadaAntes != Long.MAX_VALUE;
+    }
+
+    // Sem nenhum critério: equivale à listagem completa
+    public boolean isVazio() {
+        return concluida == null && titulo == null && tituloPrefixo == null && !temIntervaloDeCriacao();
+    }
+
+    public boolean aceita(Tarefa tarefa) {
+        if (concluida != null && tarefa.isConcluida() != concluida) {
+            return false;
+        }
+        long criadaEm = tarefa.getCriadaEm();
+        if (criadaEm <= criadaApos || criadaEm >= criadaAntes) {
+            return false;
+        }
+        if (titulo == null && tituloPrefixo == null) {
+            return true;
+        }
+        String normalizado = normalizar(tarefa.getTitulo());
+        return (titulo == null || normalizado.contains(titulo))
+                && (tituloPrefixo == null || normalizado.startsWith(tituloPrefixo));
+    }
+
+    // Forma usada nas comparações e no índice de títulos
+    static String normalizar(String texto) {
+        return texto == null ? "" : texto.toLowerCase(Locale.ROOT);
+    }
+}
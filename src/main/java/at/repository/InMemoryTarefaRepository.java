@@ -0,0 +1,343 @@
+package at.repository;
+
+import at.models.ItemBusca;
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Repositório em memória indexado por ID.
+// A busca por ID é O(1) e não usa lock global; o conjunto ordenado de IDs
+// só é percorrido na listagem. Alterações trocam a tarefa publicada por uma
+// cópia nova com compare-and-swap no mapa: escritas em tarefas diferentes
+// nunca disputam o mesmo lock.
+//
+// Cada publicação também atualiza os índices secundários (ver IndicesTarefas) e o
+// índice da busca textual (ver IndiceTextual) dentro de compute() no mapa, isto é,
+// sob o lock do próprio ID. Os ouvintes (ver addListener) são avisados no mesmo ponto,
+// então recebem as alterações de cada tarefa na ordem em que foram publicadas.
+public class InMemoryTarefaRepository implements TarefaRepository {
+
+    private final ConcurrentMap<Integer, Tarefa> porId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Integer> idsOrdenados = new ConcurrentSkipListSet<>();
+    // GERA OS IDS DE TAREFAS (todos os IDs, ou só os blocos deste nó em cluster)
+    private final AlocadorIds alocador;
+    // Incrementada depois de cada mutação publicada (ver TarefaRepository.version)
+    private final AtomicLong versao = new AtomicLong();
+    private volatile long epoca = novaEpoca();
+    private final IndicesTarefas indices = new IndicesTarefas();
+    private final IndiceTextual textual = new IndiceTextual();
+    private final List<OuvinteAlteracoes> ouvintes = new CopyOnWriteArrayList<>();
+
+    public InMemoryTarefaRepository() {
+        this(new AlocadorIds());
+    }
+
+    public InMemoryTarefaRepository(AlocadorIds alocador) {
+        this.alocador = alocador;
+    }
+
+    @Override
+    public Tarefa save(Tarefa tarefa) {
+        int id = alocador.reservar(1);
+        tarefa.setId(id);
+        tarefa.setVersao(1);
+        publicar(id, tarefa);
+        idsOrdenados.add(id);
+        versao.incrementAndGet();
+        return tarefa;
+    }
+
+    @Override
+    public List<Tarefa> saveAll(List<Tarefa> novas) {
+        // Uma única operação atômica reserva os IDs [primeiro, primeiro + n)
+        int primeiro = alocador.reservar(novas.size());
+        for (int i = 0; i < novas.size(); i++) {
+            Tarefa tarefa = novas.get(i);
+            tarefa.setId(primeiro + i);
+            tarefa.setVersao(1);
+            publicar(tarefa.getId(), tarefa);
+            idsOrdenados.add(tarefa.getId());
+        }
+        versao.incrementAndGet();
+        return novas;
+    }
+
+    @Override
+    public Optional<Tarefa> findById(int id) {
+        return Optional.ofNullable(porId.get(id));
+    }
+
+    @Override
+    public List<Tarefa> findAll() {
+        List<Tarefa> resultado = new ArrayList<>(porId.size());
+        for (Tarefa tarefa : iterateAfter(0)) {
+            resultado.add(tarefa);
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Tarefa> findPage(int afterId, int limit) {
+        List<Tarefa> pagina = new ArrayList<>(Math.min(limit, porId.size()));
+        Iterator<Tarefa> it = iterateAfter(afterId).iterator();
+        while (pagina.size() < limit && it.hasNext()) {
+            pagina.add(it.next());
+        }
+        return pagina;
+    }
+
+    @Override
+    public Iterable<Tarefa> iterateAfter(int afterId) {
+        return () -> new Iterator<>() {
+            private final Iterator<Integer> ids = idsOrdenados.tailSet(afterId, false).iterator();
+            private Tarefa proxima;
+
+            @Override
+            public boolean hasNext() {
+                // Pula IDs cuja tarefa ainda não foi publicada no mapa
+                while (proxima == null && ids.hasNext()) {
+                    proxima = porId.get(ids.next());
+                }
+                return proxima != null;
+            }
+
+            @Override
+            public Tarefa next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Tarefa atual = proxima;
+                proxima = null;
+                return atual;
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Tarefa> query(FiltroTarefas filtro, int afterId) {
+        if (filtro.isVazio()) {
+            return iterateAfter(afterId);
+        }
+        return () -> new Iterator<>() {
+            private final PrimitiveIterator.OfInt candidatos = candidatos(filtro, afterId);
+            private Tarefa proxima;
+
+            @Override
+            public boolean hasNext() {
+                // Os índices podem trazer candidatos a mais: confirma cada um na versão publicada
+                while (proxima == null && candidatos.hasNext()) {
+                    Tarefa tarefa = porId.get(candidatos.nextInt());
+                    if (tarefa != null && filtro.aceita(tarefa)) {
+                        proxima = tarefa;
+                    }
+                }
+                return proxima != null;
+            }
+
+            @Override
+            public Tarefa next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Tarefa atual = proxima;
+                proxima = null;
+                return atual;
+            }
+        };
+    }
+
+    // Sem critério indexável (ou só com um intervalo de datas amplo), percorre todos os IDs
+    private PrimitiveIterator.OfInt candidatos(FiltroTarefas filtro, int afterId) {
+        PrimitiveIterator.OfInt indexados = indices.candidatos(filtro, afterId);
+        if (indexados != null) {
+            return indexados;
+        }
+        Iterator<Integer> todos = idsOrdenados.tailSet(afterId, false).iterator();
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return todos.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return todos.next();
+            }
+        };
+    }
+
+    @Override
+    public PaginaBusca search(String consulta, double depoisDePontuacao, int depoisDeId, int limit) {
+        IndiceTextual.Resultado resultado = textual.buscar(consulta, depoisDePontuacao, depoisDeId, limit);
+        List<ItemBusca> itens = new ArrayList<>(resultado.ocorrencias().size());
+        for (IndiceTextual.Ocorrencia ocorrencia : resultado.ocorrencias()) {
+            Tarefa tarefa = porId.get(ocorrencia.id());
+            // Removida depois de pontuada
+            if (tarefa != null) {
+                itens.add(new ItemBusca(tarefa, ocorrencia.pontuacao()));
+            }
+        }
+        return new PaginaBusca(itens, resultado.total());
+    }
+
+    @Override
+    public ResultadoEscrita update(int id, long versaoEsperada, Consumer<Tarefa> alteracao) {
+        while (true) {
+            Tarefa atual = porId.get(id);
+            if (atual == null) {
+                return ResultadoEscrita.naoEncontrada();
+            }
+            if (versaoEsperada != QUALQUER_VERSAO && atual.getVersao() != versaoEsperada) {
+                return ResultadoEscrita.conflito(atual);
+            }
+            Tarefa nova = atual.copia();
+            alteracao.accept(nova);
+            nova.setId(id);
+            nova.setVersao(atual.getVersao() + 1);
+            // Compara por identidade: falha se outra escrita publicou uma versão no meio tempo
+            if (trocar(id, atual, nova)) {
+                versao.incrementAndGet();
+                return ResultadoEscrita.ok(nova);
+            }
+        }
+    }
+
+    @Override
+    public ResultadoEscrita delete(int id, long versaoEsperada) {
+        while (true) {
+            Tarefa atual = porId.get(id);
+            if (atual == null) {
+                return ResultadoEscrita.naoEncontrada();
+            }
+            if (versaoEsperada != QUALQUER_VERSAO && atual.getVersao() != versaoEsperada) {
+                return ResultadoEscrita.conflito(atual);
+            }
+            if (trocar(id, atual, null)) {
+                idsOrdenados.remove(id);
+                versao.incrementAndGet();
+                return ResultadoEscrita.ok(atual);
+            }
+        }
+    }
+
+    @Override
+    public int count() {
+        return porId.size();
+    }
+
+    @Override
+    public long version() {
+        return versao.get();
+    }
+
+    @Override
+    public long epoch() {
+        return epoca;
+    }
+
+    // Publica 'nova' (null remove) no lugar da tarefa atual, qualquer que seja
+    private void publicar(int id, Tarefa nova) {
+        porId.compute(id, (chave, atual) -> {
+            indices.atualizar(id, atual, nova);
+            textual.atualizar(id, atual, nova);
+            avisar(id, atual, nova);
+            return nova;
+        });
+    }
+
+    // Publica 'nova' (null remove) só se 'esperada' ainda for a tarefa publicada.
+    // Compara por identidade, como um compare-and-swap.
+    private boolean trocar(int id, Tarefa esperada, Tarefa nova) {
+        boolean[] trocou = new boolean[1];
+        porId.compute(id, (chave, atual) -> {
+            if (atual != esperada) {
+                return atual;
+            }
+            indices.atualizar(id, atual, nova);
+            textual.atualizar(id, atual, nova);
+            avisar(id, atual, nova);
+            trocou[0] = true;
+            return nova;
+        });
+        return trocou[0];
+    }
+
+    private void avisar(int id, Tarefa antiga, Tarefa nova) {
+        if (antiga == null && nova == null) {
+            return;
+        }
+        for (OuvinteAlteracoes ouvinte : ouvintes) {
+            ouvinte.alterada(id, antiga, nova);
+        }
+    }
+
+    private static long novaEpoca() {
+        return ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    }
+
+    // Reinsere uma tarefa que já tem ID (recuperação a partir do disco).
+    // Substitui a versão anterior, se houver, e mantém o contador à frente do ID.
+    public void restore(Tarefa tarefa) {
+        publicar(tarefa.getId(), tarefa);
+        idsOrdenados.add(tarefa.getId());
+        advanceNextId(tarefa.getId() + 1);
+        versao.incrementAndGet();
+    }
+
+    // Remove uma tarefa durante a recuperação a partir do disco
+    public void restoreDeletion(int id) {
+        if (porId.containsKey(id)) {
+            publicar(id, null);
+            idsOrdenados.remove(id);
+            versao.incrementAndGet();
+        }
+    }
+
+    // Reserva 'quantidade' IDs consecutivos e retorna o primeiro. Quem reserva publica
+    // as tarefas depois com restore(), como faz o repositório persistente.
+    public int reserveIds(int quantidade) {
+        return alocador.reservar(quantidade);
+    }
+
+    // Próximo ID que será atribuído
+    public int peekNextId() {
+        return alocador.proximo();
+    }
+
+    // Garante que o próximo ID atribuído seja pelo menos 'minimo'
+    public void advanceNextId(int minimo) {
+        alocador.avancar(minimo);
+    }
+
+    @Override
+    public void addListener(OuvinteAlteracoes ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    @Override
+    public void clear() {
+        porId.clear();
+        idsOrdenados.clear();
+        indices.limpar();
+        textual.limpar();
+        alocador.reiniciar();
+        epoca = novaEpoca();
+        versao.incrementAndGet();
+        for (OuvinteAlteracoes ouvinte : ouvintes) {
+            ouvinte.alterada(0, null, null);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package at.repository;
+
+import at.models.Tarefa;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Índice invertido de titulo e descricao para a busca textual, com ranking BM25.
+//
+// Para cada termo (ver Tokenizador), guarda os IDs das tarefas que o contêm: até
+// POUCOS_MAXIMO IDs em um array ordenado, trocado inteiro a cada escrita, e a partir
+// daí em um BitSetConcorrente. Termos raros, a maioria do vocabulário, custam poucos
+// bytes; termos comuns custam ~1 bit por tarefa. As escritas de um termo acontecem
+// dentro de compute() no dicionário, o que também permite descartar termos que ficam
+// sem tarefas; a leitura não usa lock.
+//
+// Para cada tarefa, guarda seus termos com as frequências e o comprimento, usados na
+// pontuação e para retirar a tarefa do índice. Os termos do título contam em dobro.
+final class IndiceTextual {
+
+    // Parâmetros usuais do BM25 (também usados pela busca por varredura do ColumnarTarefaRepository)
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int PESO_TITULO = 2;
+    private static final int POUCOS_MAXIMO = 32;
+
+    private static final class Postagens {
+        final String termo;
+        // Ordenado; null depois de migrar para 'muitos'. Lido antes de 'muitos' (ver contem).
+        volatile int[] poucos = new int[0];
+        volatile BitSetConcorrente muitos;
+        volatile int tamanho;
+
+        Postagens(String termo) {
+            this.termo = termo;
+        }
+
+        // Chamado sob o lock do termo no dicionário
+        void adicionar(int id) {
+            int[] atual = poucos;
+            if (atual == null) {
+                if (muitos.set(id)) {
+                    tamanho++;
+                }
+                return;
+            }
+            int posicao = Arrays.binarySearch(atual, id);
+            if (posicao >= 0) {
+                return;
+            }
+            if (atual.length < POUCOS_MAXIMO) {
+                int insercao = -posicao - 1;
+                int[] novo = new int[atual.length + 1];
+                System.arraycopy(atual, 0, novo, 0, insercao);
+                novo[insercao] = id;
+                System.arraycopy(atual, insercao, novo, insercao + 1, atual.length - insercao);
+                poucos = novo;
+            } else {
+                BitSetConcorrente bits = new BitSetConcorrente();
+                for (int existente : atual) {
+                    bits.set(existente);
+                }
+                bits.set(id);
+                muitos = bits;
+                poucos = null;
+            }
+            tamanho++;
+        }
+
+        // Chamado sob o lock do termo no dicionário
+        void remover(int id) {
+            int[] atual = poucos;
+            if (atual == null) {
+                if (muitos.clear(id)) {
+                    tamanho--;
+                }
+                return;
+            }
+            int posicao = Arrays.binarySearch(atual, id);
+            if (posicao < 0) {
+                return;
+            }
+            int[] novo = new int[atual.length - 1];
+            System.arraycopy(atual, 0, novo, 0, posicao);
+            System.arraycopy(atual, posicao + 1, novo, posicao, novo.length - posicao);
+            poucos = novo;
+            tamanho--;
+        }
+
+        boolean contem(int id) {
+            int[] atual = poucos;
+            return atual != null ? Arrays.binarySearch(atual, id) >= 0 : muitos.get(id);
+        }
+
+        PrimitiveIterator.OfInt ids() {
+            int[] atual = poucos;
+            return atual != null ? Arrays.stream(atual).iterator() : BitSetConcorrente.intersecao(new BitSetConcorrente[] {muitos}, -1);
+        }
+    }
+
+    // Termos distintos da tarefa (as Postagens do dicionário, compartilhadas) e suas frequências
+    private record Documento(Postagens[] termos, int[] frequencias, int comprimento) {
+        int frequencia(Postagens termo) {
+            for (int i = 0; i < termos.length; i++) {
+                if (termos[i] == termo) {
+                    return frequencias[i];
+                }
+            }
+            return 0;
+        }
+    }
+
+    // Resultado bruto da busca: ID e pontuação, na ordem da busca
+    record Ocorrencia(int id, double pontuacao) {
+    }
+
+    record Resultado(List<Ocorrencia> ocorrencias, int total) {
+    }
+
+    // Ordem dos resultados: mais relevante primeiro e, no empate, menor ID
+    static final Comparator<Ocorrencia> ORDEM = Comparator.comparingDouble(Ocorrencia::pontuacao).reversed()
+            .thenComparingInt(Ocorrencia::id);
+
+    private final ConcurrentMap<String, Postagens> dicionario = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Documento> documentos = new ConcurrentHashMap<>();
+    private final AtomicLong comprimentoTotal = new AtomicLong();
+
+    // Troca a tarefa 'antiga' pela 'nova' no índice (qualquer uma pode ser null).
+    // Deve ser chamado sob o lock do ID, como IndicesTarefas.atualizar.
+    void atualizar(int id, Tarefa antiga, Tarefa nova) {
+        if (antiga != null && nova != null && Objects.equals(antiga.getTitulo(), nova.getTitulo())
+                && Objects.equals(antiga.getDescricao(), nova.getDescricao())) {
+            return;
+        }
+        Documento anterior = documentos.remove(id);
+        if (anterior != null) {
+            comprimentoTotal.addAndGet(-anterior.comprimento());
+            for (Postagens termo : anterior.termos()) {
+                dicionario.computeIfPresent(termo.termo, (chave, postagens) -> {
+                    postagens.remover(id);
+                    return postagens.tamanho == 0 ? null : postagens;
+                });
+            }
+        }
+        if (nova != null) {
+            Documento documento = indexar(id, nova);
+            documentos.put(id, documento);
+            comprimentoTotal.addAndGet(documento.comprimento());
+        }
+    }
+
+    void limpar() {
+        dicionario.clear();
+        documentos.clear();
+        comprimentoTotal.set(0);
+    }
+
+    // Tarefas que contêm todos os termos da consulta, ordenadas por relevância e ID,
+    // a partir da posição seguinte a (depoisDePontuacao, depoisDeId). Percorre apenas
+    // as tarefas do termo mais raro e mantém só 'limite' resultados em memória.
+    Resultado buscar(String consulta, double depoisDePontuacao, int depoisDeId, int limite) {
+        List<String> termos = Tokenizador.termos(consulta).stream().distinct().toList();
+        Postagens[] postagens = new Postagens[termos.size()];
+        int i = 0;
+        for (String termo : termos) {
+            Postagens p = dicionario.get(termo);
+            if (p == null) {
+                return new Resultado(List.of(), 0);
+            }
+            postagens[i++] = p;
+        }
+        if (postagens.length == 0) {
+            return new Resultado(List.of(), 0);
+        }
+        // Ordena pelo tamanho lido uma vez (ele pode mudar durante a busca); o mais raro guia a busca
+        int[] tamanhos = new int[postagens.length];
+        for (int t = 0; t < postagens.length; t++) {
+            tamanhos[t] = postagens[t].tamanho;
+            for (int j = t; j > 0 && tamanhos[j] < tamanhos[j - 1]; j--) {
+                int tamanho = tamanhos[j];
+                tamanhos[j] = tamanhos[j - 1];
+                tamanhos[j - 1] = tamanho;
+                Postagens p = postagens[j];
+                postagens[j] = postagens[j - 1];
+                postagens[j - 1] = p;
+            }
+        }
+
+        int totalDocumentos = Math.max(documentos.size(), 1);
+        double comprimentoMedio = Math.max(1.0, (double) comprimentoTotal.get() / totalDocumentos);
+        double[] idf = new double[postagens.length];
+        for (int t = 0; t < postagens.length; t++) {
+            double df = tamanhos[t];
+            idf[t] = Math.log(1 + (totalDocumentos - df + 0.5) / (df + 0.5));
+        }
+
+        Ocorrencia limiteInferior = new Ocorrencia(depoisDeId, depoisDePontuacao);
+        // Heap com os 'limite' melhores vistos até agora; o pior fica no topo
+        PriorityQueue<Ocorrencia> melhores = new PriorityQueue<>(limite + 1, ORDEM.reversed());
+        int total = 0;
+        PrimitiveIterator.OfInt candidatos = postagens[0].ids();
+        while (candidatos.hasNext()) {
+            int id = candidatos.nextInt();
+            boolean emTodos = true;
+            for (int t = 1; t < postagens.length && emTodos; t++) {
+                emTodos = postagens[t].contem(id);
+            }
+            Documento documento = emTodos ? documentos.get(id) : null;
+            if (documento == null) {
+                continue;
+            }
+            total++;
+            double pontuacao = 0;
+            double normalizacao = K1 * (1 - B + B * documento.comprimento() / comprimentoMedio);
+            for (int t = 0; t < postagens.length; t++) {
+                int tf = documento.frequencia(postagens[t]);
+                pontuacao += idf[t] * tf * (K1 + 1) / (tf + normalizacao);
+            }
+            Ocorrencia ocorrencia = new Ocorrencia(id, pontuacao);
+            if (ORDEM.compare(ocorrencia, limiteInferior) <= 0) {
+                continue;
+            }
+            if (melhores.size() < limite) {
+                melhores.add(ocorrencia);
+            } else if (ORDEM.compare(ocorrencia, melhores.peek()) < 0) {
+                melhores.poll();
+                melhores.add(ocorrencia);
+            }
+        }
+        Ocorrencia[] ordenadas = melhores.toArray(new Ocorrencia[0]);
+        Arrays.sort(ordenadas, ORDEM);
+        return new Resultado(List.of(ordenadas), total);
+    }
+
+    private Documento indexar(int id, Tarefa tarefa) {
+        Map<String, Integer> frequencias = new LinkedHashMap<>();
+        int comprimento = 0;
+        for (String termo : Tokenizador.termos(tarefa.getTitulo())) {
+            frequencias.merge(termo, PESO_TITULO, Integer::sum);
+            comprimento += PESO_TITULO;
+        }
+        for (String termo : Tokenizador.termos(tarefa.getDescricao())) {
+            frequencias.merge(termo, 1, Integer::sum);
+            comprimento++;
+        }
+        Postagens[] termos = new Postagens[frequencias.size()];
+        int[] contagens = new int[frequencias.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entrada : frequencias.entrySet()) {
+            termos[i] = dicionario.compute(entrada.getKey(), (termo, postagens) -> {
+                Postagens p = postagens == null ? new Postagens(termo) : postagens;
+                p.adicionar(id);
+                return p;
+            });
+            contagens[i++] = entrada.getValue();
+        }
+        return new Documento(termos, contagens, comprimento);
+    }
+}
@@ -0,0 +1,281 @@
+package at.repository;
+
+import at.models.Tarefa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Índices secundários das tarefas em memória, usados por FiltroTarefas:
+// - concluida: dois conjuntos de bits (concluídas e pendentes), indexados pelo ID;
+// - dataCriacao: conjunto ordenado de (criadaEm, id);
+// - titulo: trigramas do título normalizado, precedido de um marcador de início, e para
+//   cada trigrama o conjunto de bits dos IDs que o contêm. O marcador faz com que os
+//   trigramas de um prefixo também sirvam para a busca por prefixo; o bigrama inicial
+//   cobre prefixos de um caractere.
+//
+// Uma consulta parte do critério mais seletivo e percorre apenas os IDs dele (os
+// conjuntos de bits são intersectados 64 IDs por vez), então o custo acompanha o
+// tamanho do resultado e não o total de tarefas. O intervalo de datas é ordenado por
+// tempo, não por ID: se ele cobre mais de 1/FRACAO_INTERVALO das tarefas, a consulta
+// percorre os IDs em ordem e confere a data de cada tarefa (ao menos 1 resultado a cada
+// FRACAO_INTERVALO tarefas lidas); senão, os IDs do intervalo saem em lotes dos menores
+// acima do último devolvido, sem ordenar o intervalo inteiro.
+// Os índices podem indicar IDs a mais (quem consulta confirma cada tarefa com o filtro),
+// mas atualizar() roda sob o lock do ID no mapa de tarefas, então nunca ficam sem a
+// versão publicada.
+final class IndicesTarefas {
+
+    private static final char INICIO = '\u0002';
+    private static final int N = 3;
+    private static final int FRACAO_INTERVALO = 16;
+    private static final int LOTE_INICIAL = 64;
+
+    private record ChaveTempo(long criadaEm, int id) implements Comparable<ChaveTempo> {
+        @Override
+        public int compareTo(ChaveTempo outra) {
+            int porTempo = Long.compare(criadaEm, outra.criadaEm);
+            return porTempo != 0 ? porTempo : Integer.compare(id, outra.id);
+        }
+    }
+
+    private final BitSetConcorrente concluidas = new BitSetConcorrente();
+    private final BitSetConcorrente pendentes = new BitSetConcorrente();
+    private final ConcurrentSkipListSet<ChaveTempo> porCriacao = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<String, BitSetConcorrente> porGrama = new ConcurrentHashMap<>();
+
+    // Troca as entradas de 'antiga' pelas de 'nova' (qualquer uma pode ser null).
+    // Deve ser chamado sob o lock do ID, para que as trocas do mesmo ID não se intercalem.
+    void atualizar(int id, Tarefa antiga, Tarefa nova) {
+        if (nova == null) {
+            concluidas.clear(id);
+            pendentes.clear(id);
+        } else if (antiga == null || antiga.isConcluida() != nova.isConcluida()) {
+            (nova.isConcluida() ? concluidas : pendentes).set(id);
+            (nova.isConcluida() ? pendentes : concluidas).clear(id);
+        }
+
+        if (antiga == null || nova == null || antiga.getCriadaEm() != nova.getCriadaEm()) {
+            if (antiga != null) {
+                porCriacao.remove(new ChaveTempo(antiga.getCriadaEm(), id));
+            }
+            if (nova != null) {
+                porCriacao.add(new ChaveTempo(nova.getCriadaEm(), id));
+            }
+        }
+
+        String tituloAntigo = antiga == null ? null : antiga.getTitulo();
+        String tituloNovo = nova == null ? null : nova.getTitulo();
+        if (antiga != null && nova != null && Objects.equals(tituloAntigo, tituloNovo)) {
+            return;
+        }
+        Set<String> removidos = antiga == null ? Set.of() : gramasDoTitulo(FiltroTarefas.normalizar(tituloAntigo));
+        Set<String> adicionados = nova == null ? Set.of() : gramasDoTitulo(FiltroTarefas.normalizar(tituloNovo));
+        for (String grama : removidos) {
+            if (!adicionados.contains(grama)) {
+                BitSetConcorrente ids = porGrama.get(grama);
+                if (ids != null) {
+                    ids.clear(id);
+                }
+            }
+        }
+        for (String grama : adicionados) {
+            if (!removidos.contains(grama)) {
+                porGrama.computeIfAbsent(grama, g -> new BitSetConcorrente()).set(id);
+            }
+        }
+    }
+
+    void limpar() {
+        concluidas.clearAll();
+        pendentes.clearAll();
+        porCriacao.clear();
+        porGrama.clear();
+    }
+
+    // IDs maiores que 'afterId' que podem atender ao filtro, em ordem crescente.
+    // Retorna null quando nenhum critério do filtro é indexável ou o único é um intervalo de
+    // datas amplo (é preciso percorrer tudo, conferindo a data de cada tarefa).
+    PrimitiveIterator.OfInt candidatos(FiltroTarefas filtro, int afterId) {
+        List<BitSetConcorrente> conjuntos = new ArrayList<>();
+        if (filtro.getConcluida() != null) {
+            conjuntos.add(filtro.getConcluida() ? concluidas : pendentes);
+        }
+        Set<String> gramas = new HashSet<>();
+        if (filtro.getTitulo() != null && filtro.getTitulo().length() >= N) {
+            gramas.addAll(gramas(filtro.getTitulo()));
+        }
+        if (filtro.getTituloPrefixo() != null && !filtro.getTituloPrefixo().isEmpty()) {
+            String comInicio = INICIO + filtro.getTituloPrefixo();
+            gramas.addAll(comInicio.length() < N ? Set.of(comInicio) : gramas(comInicio));
+        }
+        for (String grama : gramas) {
+            BitSetConcorrente ids = porGrama.get(grama);
+            if (ids == null) {
+                // Nenhum título tem esse trigrama
+                return new PorArray(new int[0]);
+            }
+            conjuntos.add(ids);
+        }
+        conjuntos.sort(Comparator.comparingInt(BitSetConcorrente::cardinality));
+        int menor = conjuntos.isEmpty() ? Integer.MAX_VALUE : conjuntos.get(0).cardinality();
+
+        // O intervalo de datas é contado só até o tamanho do menor conjunto de bits e até a
+        // fração das tarefas acima da qual percorrer os IDs em ordem sai mais barato
+        if (filtro.temIntervaloDeCriacao()) {
+            NavigableSet<ChaveTempo> intervalo = intervalo(filtro);
+            int total = concluidas.cardinality() + pendentes.cardinality();
+            int maximo = Math.min(menor, total / FRACAO_INTERVALO + 1);
+            int tamanho = 0;
+            for (Iterator<ChaveTempo> it = intervalo.iterator(); tamanho < maximo && it.hasNext(); it.next()) {
+                tamanho++;
+            }
+            if (tamanho < maximo) {
+                return new MenoresDoIntervalo(intervalo, afterId);
+            }
+        }
+
+        if (conjuntos.isEmpty()) {
+            return null;
+        }
+        return BitSetConcorrente.intersecao(conjuntos.toArray(new BitSetConcorrente[0]), afterId);
+    }
+
+    private NavigableSet<ChaveTempo> intervalo(FiltroTarefas filtro) {
+        // Limites exclusivos no tempo; os IDs extremos incluem todas as tarefas do mesmo milissegundo
+        long apos = filtro.getCriadaApos();
+        long antes = filtro.getCriadaAntes();
+        if (apos >= antes) {
+            return new ConcurrentSkipListSet<>();
+        }
+        return porCriacao.subSet(new ChaveTempo(apos, Integer.MAX_VALUE), false, new ChaveTempo(antes, Integer.MIN_VALUE), false);
+    }
+
+    private static Set<String> gramasDoTitulo(String normalizado) {
+        if (normalizado.isEmpty()) {
+            return Set.of();
+        }
+        String comInicio = INICIO + normalizado;
+        Set<String> gramas = gramas(comInicio);
+        gramas.add(comInicio.substring(0, 2));
+        return gramas;
+    }
+
+    private static Set<String> gramas(String texto) {
+        Set<String> gramas = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            gramas.add(texto.substring(i, i + N));
+        }
+        return gramas;
+    }
+
+    // IDs do intervalo acima de 'afterId' em ordem crescente, em lotes: cada lote percorre o
+    // intervalo guardando só os 'tamanhoLote' menores IDs acima do último devolvido, e o
+    // tamanho dobra a cada lote. Uma página de poucos itens custa uma passada pelo intervalo
+    // com memória do tamanho do lote, em vez de copiar e ordenar todos os IDs dele.
+    private static final class MenoresDoIntervalo implements PrimitiveIterator.OfInt {
+        private final NavigableSet<ChaveTempo> intervalo;
+        private int depoisDe;
+        private int tamanhoLote = LOTE_INICIAL;
+        private int[] lote = new int[0];
+        private int quantidade;
+        private int posicao;
+        private boolean esgotado;
+
+        MenoresDoIntervalo(NavigableSet<ChaveTempo> intervalo, int afterId) {
+            this.intervalo = intervalo;
+            this.depoisDe = afterId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (posicao == quantidade && !esgotado) {
+                carregarLote();
+            }
+            return posicao < quantidade;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return lote[posicao++];
+        }
+
+        private void carregarLote() {
+            // Acumula até o dobro do lote; ao encher, ordena e fica com a metade menor
+            int[] ids = new int[tamanhoLote * 2];
+            int n = 0;
+            int teto = Integer.MAX_VALUE;
+            boolean descartou = false;
+            for (ChaveTempo chave : intervalo) {
+                int id = chave.id();
+                if (id <= depoisDe || id >= teto) {
+                    descartou |= id >= teto;
+                    continue;
+                }
+                if (n == ids.length) {
+                    Arrays.sort(ids);
+                    n = tamanhoLote;
+                    teto = ids[n - 1];
+                    descartou = true;
+                    if (id >= teto) {
+                        continue;
+                    }
+                }
+                ids[n++] = id;
+            }
+            Arrays.sort(ids, 0, n);
+            // Um ID que mudou de data durante a passada pode aparecer duas vezes
+            int unicos = 0;
+            for (int i = 0; i < n && unicos < tamanhoLote; i++) {
+                if (unicos == 0 || ids[i] != ids[unicos - 1]) {
+                    ids[unicos++] = ids[i];
+                }
+            }
+            esgotado = !descartou && unicos == n;
+            lote = ids;
+            quantidade = unicos;
+            posicao = 0;
+            if (unicos > 0) {
+                depoisDe = ids[unicos - 1];
+            }
+            esgotado |= unicos == 0;
+            tamanhoLote = Math.min(tamanhoLote * 2, 1 << 20);
+        }
+    }
+
+    private static final class PorArray implements PrimitiveIterator.OfInt {
+        private final int[] ids;
+        private int posicao;
+
+        PorArray(int[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return posicao < ids.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return ids[posicao++];
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package at.repository;
+
+import at.models.Tarefa;
+
+// Recebe as alterações publicadas pelo repositório (ver TarefaRepository.addListener).
+@FunctionalInterface
+public interface OuvinteAlteracoes {
+
+    // antiga == null: criação; nova == null: remoção; id == 0 e ambas null: clear().
+    // Chamado sob o lock do ID, na ordem em que as alterações de cada tarefa são
+    // publicadas: deve ser rápido e não pode bloquear nem chamar o repositório.
+    void alterada(int id, Tarefa antiga, Tarefa nova);
+}
@@ -0,0 +1,45 @@
+package at.repository;
+
+import at.models.Tarefa;
+
+// Resultado de uma alteração ou remoção condicional no repositório
+public final class ResultadoEscrita {
+
+    public enum Status {
+        // A escrita foi aplicada
+        OK,
+        // Não existe tarefa com o ID
+        NAO_ENCONTRADA,
+        // A versão atual é diferente da esperada
+        CONFLITO
+    }
+
+    private final Status status;
+    private final Tarefa tarefa;
+
+    private ResultadoEscrita(Status status, Tarefa tarefa) {
+        this.status = status;
+        this.tarefa = tarefa;
+    }
+
+    static ResultadoEscrita ok(Tarefa tarefa) {
+        return new ResultadoEscrita(Status.OK, tarefa);
+    }
+
+    static ResultadoEscrita naoEncontrada() {
+        return new ResultadoEscrita(Status.NAO_ENCONTRADA, null);
+    }
+
+    static ResultadoEscrita conflito(Tarefa atual) {
+        return new ResultadoEscrita(Status.CONFLITO, atual);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    // OK: a nova versão (ou a removida, em delete). CONFLITO: a versão atual. NAO_ENCONTRADA: null.
+    public Tarefa getTarefa() {
+        return tarefa;
+    }
+}
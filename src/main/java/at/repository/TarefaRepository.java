@@ -0,0 +1,70 @@
+package at.repository;
+
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Abstração do armazenamento de tarefas usado pela API.
+//
+// As tarefas devolvidas são instantâneos imutáveis por convenção: não devem ser alteradas
+// por quem as lê. Uma alteração publica uma cópia nova, com a versão incrementada.
+public interface TarefaRepository {
+
+    // versaoEsperada que aceita qualquer versão atual
+    long QUALQUER_VERSAO = -1;
+
+    // Atribui um novo ID à tarefa e a armazena
+    Tarefa save(Tarefa tarefa);
+
+    // Reserva um bloco contíguo de IDs e armazena todas as tarefas de uma vez
+    List<Tarefa> saveAll(List<Tarefa> tarefas);
+
+    Optional<Tarefa> findById(int id);
+
+    // Todas as tarefas, em ordem crescente de ID
+    List<Tarefa> findAll();
+
+    // Até 'limit' tarefas com ID maior que 'afterId', em ordem crescente de ID
+    List<Tarefa> findPage(int afterId, int limit);
+
+    // Percorre as tarefas com ID maior que 'afterId' sem copiar o armazenamento.
+    // A iteração é fracamente consistente: escritas concorrentes podem ou não aparecer.
+    Iterable<Tarefa> iterateAfter(int afterId);
+
+    // Como iterateAfter, mas só as tarefas que atendem ao filtro. Usa os índices secundários:
+    // o custo acompanha o número de tarefas do critério mais seletivo, não o total.
+    Iterable<Tarefa> query(FiltroTarefas filtro, int afterId);
+
+    // Busca textual em titulo e descricao: até 'limit' tarefas com todos os termos da consulta,
+    // da mais relevante (BM25) para a menos relevante e, no empate, por ID. Continua depois do
+    // item (depoisDePontuacao, depoisDeId); na primeira página, use Double.POSITIVE_INFINITY e 0.
+    PaginaBusca search(String consulta, double depoisDePontuacao, int depoisDeId, int limit);
+
+    // Aplica 'alteracao' a uma cópia da versão atual e a publica com versão + 1 (compare-and-swap).
+    // Com versaoEsperada diferente de QUALQUER_VERSAO, só altera se a versão atual for essa.
+    // A alteração pode ser reaplicada se houver disputa, então deve apenas modificar a cópia.
+    ResultadoEscrita update(int id, long versaoEsperada, Consumer<Tarefa> alteracao);
+
+    // Remove a tarefa, com a mesma verificação de versão de update
+    ResultadoEscrita delete(int id, long versaoEsperada);
+
+    int count();
+
+    // Versão global do armazenamento, incrementada a cada mutação.
+    // Ao ler, obtenha a versão antes dos dados: assim ela nunca é mais nova que o que foi lido.
+    long version();
+
+    // Identifica a instância atual do armazenamento. Muda na abertura e a cada clear(),
+    // quando IDs e versões recomeçam, para que ETags antigos não coincidam com os novos.
+    long epoch();
+
+    // Registra um ouvinte para todas as alterações publicadas daqui em diante
+    // (criação, alteração, remoção e clear). Ver OuvinteAlteracoes.
+    void addListener(OuvinteAlteracoes ouvinte);
+
+    // Remove todas as tarefas e reinicia a geração de IDs
+    void clear();
+}
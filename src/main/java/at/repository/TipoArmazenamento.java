@@ -0,0 +1,27 @@
+package at.repository;
+
+// Onde a API guarda as tarefas em memória (-Dreat.armazenamento, padrão: mapa)
+public enum TipoArmazenamento {
+    // InMemoryTarefaRepository: objetos no heap, com índices secundários e da busca textual
+    MAPA,
+    // ColumnarTarefaRepository: colunas e texto fora do heap, sem índices
+    COLUNAR;
+
+    public static TipoArmazenamento fromSystemProperties() {
+        return parse(System.getProperty("reat.armazenamento", "mapa"));
+    }
+
+    static TipoArmazenamento parse(String valor) {
+        return switch (valor.trim().toLowerCase()) {
+            case "mapa" -> MAPA;
+            case "colunar" -> COLUNAR;
+            default -> throw new IllegalArgumentException("Armazenamento desconhecido: " + valor
+                    + ". Use 'mapa' ou 'colunar'.");
+        };
+    }
+
+    // Repositório vazio deste tipo, com os IDs novos atribuídos pelo alocador
+    public TarefaRepository criar(AlocadorIds alocador) {
+        return this == COLUNAR ? new ColumnarTarefaRepository(alocador) : new InMemoryTarefaRepository(alocador);
+    }
+}
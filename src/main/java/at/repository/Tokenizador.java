@@ -0,0 +1,65 @@
+package at.repository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Divide texto em português nos termos usados pela busca textual.
+// Termos são sequências de letras e dígitos, em minúsculas e sem acentos
+// ("Saudação" e "saudacao" geram o mesmo termo). Palavras muito frequentes
+// (artigos, preposições, conjunções) são descartadas.
+public final class Tokenizador {
+
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "e", "ou", "de", "do", "da", "dos", "das",
+            "em", "no", "na", "nos", "nas", "ao", "aos", "para", "pra", "por", "pelo", "pela", "pelos",
+            "pelas", "com", "sem", "que", "se", "me", "te", "lhe", "num", "numa", "the", "of", "and", "to");
+
+    private Tokenizador() {
+    }
+
+    public static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return termos;
+        }
+        String dobrado = semAcentos(texto);
+        int inicio = -1;
+        for (int i = 0; i <= dobrado.length(); i++) {
+            boolean parteDoTermo = i < dobrado.length() && Character.isLetterOrDigit(dobrado.charAt(i));
+            if (parteDoTermo && inicio < 0) {
+                inicio = i;
+            } else if (!parteDoTermo && inicio >= 0) {
+                String termo = dobrado.substring(inicio, i).toLowerCase(Locale.ROOT);
+                if (!PALAVRAS_VAZIAS.contains(termo)) {
+                    termos.add(termo);
+                }
+                inicio = -1;
+            }
+        }
+        return termos;
+    }
+
+    // Remove os acentos decompondo os caracteres (NFD) e descartando as marcas combinantes.
+    // Texto só com ASCII, o caso comum, é devolvido sem cópia.
+    static String semAcentos(String texto) {
+        boolean ascii = true;
+        for (int i = 0; i < texto.length() && ascii; i++) {
+            ascii = texto.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return texto;
+        }
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder resultado = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                resultado.append(c);
+            }
+        }
+        return resultado.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package at.api;
+
+import at.models.Tarefa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CacheJsonTarefasTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void json_ReaproveitaBytesAteAVersaoOuEpocaMudar() throws Exception {
+        CacheJsonTarefas cache = new CacheJsonTarefas(objectMapper, 1 << 20);
+        Tarefa tarefa = new Tarefa("Ler", "Livro novo");
+        tarefa.setId(7);
+        tarefa.setVersao(1);
+
+        byte[] primeiro = cache.json(1, tarefa);
+        Assertions.assertSame(primeiro, cache.json(1, tarefa), "A segunda leitura deveria reaproveitar os mesmos bytes.");
+        Assertions.assertEquals(1, cache.acertos());
+        Assertions.assertEquals(1, cache.falhas());
+
+        tarefa.setTitulo("Ler de novo");
+        tarefa.setVersao(2);
+        byte[] atualizado = cache.json(1, tarefa);
+        Assertions.assertEquals("Ler de novo", objectMapper.readValue(atualizado, Tarefa.class).getTitulo(),
+                "Uma nova versão da tarefa deveria ser serializada novamente.");
+
+        Assertions.assertNotSame(atualizado, cache.json(2, tarefa), "Uma nova época do armazenamento deveria invalidar a entrada.");
+        Assertions.assertEquals(3, cache.falhas());
+        Assertions.assertTrue(cache.bytes() > 0, "O tamanho do cache deveria ser contabilizado.");
+    }
+}
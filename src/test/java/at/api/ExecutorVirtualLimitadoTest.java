@@ -0,0 +1,42 @@
+package at.api;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ExecutorVirtualLimitadoTest {
+
+    @Test
+    void execute_LimitaConcorrenciaEFilaERejeitaExcedente() throws InterruptedException {
+        ExecutorVirtualLimitado executor = new ExecutorVirtualLimitado("teste", 1, 1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch concluidas = new CountDownLatch(2);
+        AtomicBoolean virtual = new AtomicBoolean();
+
+        executor.execute(() -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            emExecucao.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concluidas.countDown();
+        });
+        Assertions.assertTrue(emExecucao.await(5, TimeUnit.SECONDS), "A primeira tarefa deveria começar imediatamente.");
+
+        executor.execute(concluidas::countDown); // ocupa a única vaga da fila
+        Assertions.assertEquals(1, executor.emEspera(), "A segunda tarefa deveria aguardar permissão.");
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }),
+                "Com a fila cheia, a tarefa excedente deveria ser rejeitada.");
+
+        liberar.countDown();
+        Assertions.assertTrue(concluidas.await(5, TimeUnit.SECONDS), "As tarefas aceitas deveriam concluir.");
+        Assertions.assertTrue(virtual.get(), "As tarefas deveriam rodar em threads virtuais.");
+    }
+}
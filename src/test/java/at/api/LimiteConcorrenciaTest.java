@@ -0,0 +1,48 @@
+package at.api;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class LimiteConcorrenciaTest {
+
+    private static final long ALVO = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void tentarAdquirir_RecusaAcimaDoLimiteELiberaAVaga() {
+        LimiteConcorrencia limite = new LimiteConcorrencia(2, 2, 2, ALVO, false);
+        Assertions.assertTrue(limite.tentarAdquirir());
+        Assertions.assertTrue(limite.tentarAdquirir());
+        Assertions.assertFalse(limite.tentarAdquirir(), "A terceira requisição simultânea deveria ser recusada.");
+
+        limite.liberar(ALVO * 10);
+        Assertions.assertEquals(2, limite.limite(), "O limite fixo não deveria mudar com a latência.");
+        Assertions.assertTrue(limite.tentarAdquirir(), "A vaga liberada deveria poder ser usada.");
+        Assertions.assertEquals(2, limite.emVoo());
+    }
+
+    @Test
+    void liberar_DiminuiComRespostasLentasEAumentaComRapidas() {
+        LimiteConcorrencia limite = new LimiteConcorrencia(100, 4, 200, ALVO, true);
+
+        // Uma rajada de respostas lentas reduz o limite uma única vez na janela
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(limite.tentarAdquirir());
+        }
+        for (int i = 0; i < 5; i++) {
+            limite.liberar(ALVO * 2);
+        }
+        Assertions.assertEquals(90, limite.limite(), "Deveria reduzir 10% uma vez por janela.");
+
+        // Com o limite em uso e respostas dentro do alvo, sobe ~1 a cada 'limite' respostas
+        while (limite.tentarAdquirir()) {
+            // ocupa todas as vagas
+        }
+        for (int i = 0; i < 200; i++) {
+            limite.liberar(ALVO / 10);
+            Assertions.assertTrue(limite.tentarAdquirir());
+        }
+        Assertions.assertEquals(92, limite.limite(), "O limite deveria crescer ~1 a cada 'limite' respostas rápidas.");
+    }
+}
@@ -0,0 +1,113 @@
+package at.client;
+
+import at.api.Main;
+import at.models.Tarefa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class TarefaClientTest {
+
+    @Test
+    void createTarefaAsync_MuitasRequisicoesConcorrentesComLimiteEmVoo() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            try (TarefaClient tarefaClient = new TarefaClient("http://localhost:" + servidor.port(), 8)) {
+                List<CompletableFuture<Tarefa>> futuros = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    futuros.add(tarefaClient.createTarefaAsync(new Tarefa("Tarefa " + i, "Criada em paralelo")));
+                }
+                Set<Integer> ids = new HashSet<>();
+                for (CompletableFuture<Tarefa> futuro : futuros) {
+                    ids.add(futuro.join().getId());
+                }
+                Assertions.assertEquals(200, ids.size(), "Cada criação deveria receber um ID distinto.");
+
+                int id = ids.iterator().next();
+                Assertions.assertEquals(id, tarefaClient.getTarefaById(id).getId(), "A tarefa criada deveria ser encontrada.");
+                Assertions.assertNull(tarefaClient.getTarefaById(Integer.MAX_VALUE), "Uma tarefa inexistente deveria resultar em null.");
+                Assertions.assertTrue(tarefaClient.listTarefas().size() >= 200, "A listagem deveria conter as tarefas criadas.");
+                Assertions.assertEquals("ok", tarefaClient.getStatus().status);
+            }
+        });
+    }
+
+    @Test
+    void createTarefa_StatusInesperadoViraExcecaoComCorpo() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            try (TarefaClient tarefaClient = new TarefaClient("http://localhost:" + servidor.port(), 4)) {
+                RespostaInesperadaException erro = Assertions.assertThrows(RespostaInesperadaException.class,
+                        () -> tarefaClient.createTarefa(new Tarefa("", "Sem título")));
+                Assertions.assertEquals(400, erro.getStatus());
+                Assertions.assertTrue(erro.getCorpo().contains("erro"), "O corpo do erro da API deveria ser preservado.");
+            }
+        });
+    }
+
+    @Test
+    void listTarefas_RevalidaComIfNoneMatchEReaproveitaCorpo() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            try (TarefaClient tarefaClient = new TarefaClient("http://localhost:" + servidor.port(), 4)) {
+                Tarefa criada = tarefaClient.createTarefa(new Tarefa("Cacheada", "Lida duas vezes"));
+
+                int total = tarefaClient.listTarefas().size();
+                Assertions.assertEquals(total, tarefaClient.listTarefas().size(), "A lista do cache deveria ser igual à original.");
+                Assertions.assertEquals(criada.getTitulo(), tarefaClient.getTarefaById(criada.getId()).getTitulo());
+                Assertions.assertEquals(criada.getTitulo(), tarefaClient.getTarefaById(criada.getId()).getTitulo());
+                Assertions.assertEquals(2, tarefaClient.getNaoModificadas(), "A segunda leitura de cada recurso deveria ser um 304.");
+
+                tarefaClient.createTarefa(new Tarefa("Outra", "Invalida a lista"));
+                Assertions.assertEquals(total + 1, tarefaClient.listTarefas().size(), "Após uma criação, a lista deveria ser recebida novamente.");
+                Assertions.assertEquals(2, tarefaClient.getNaoModificadas());
+            }
+        });
+    }
+
+    @Test
+    void formatosBinarios_MesmasOperacoesEmSmileECbor() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            for (FormatoCorpo formato : new FormatoCorpo[] {FormatoCorpo.SMILE, FormatoCorpo.CBOR}) {
+                try (TarefaClient tarefaClient = new TarefaClient("http://localhost:" + servidor.port(), 4,
+                        new ObjectMapper(), TarefaClient.CACHE_MAX_ENTRADAS_PADRAO, formato)) {
+                    Tarefa criada = tarefaClient.createTarefa(new Tarefa("Em " + formato, "Corpo binário"));
+                    Assertions.assertEquals("Em " + formato, tarefaClient.getTarefaById(criada.getId()).getTitulo());
+                    Assertions.assertEquals(2, tarefaClient.createTarefas(List.of(new Tarefa("A", null), new Tarefa("B", null))).criadas);
+                    Assertions.assertTrue(tarefaClient.listTarefas().stream().anyMatch(t -> t.getId() == criada.getId()));
+                    Assertions.assertTrue(tarefaClient.listTarefas().size() >= 3, "A lista revalidada deveria ser lida do cache no mesmo formato.");
+                    // /status não negocia formato: a resposta JSON é lida com o mapper JSON
+                    Assertions.assertEquals("ok", tarefaClient.getStatus().status);
+                }
+            }
+        });
+    }
+
+    @Test
+    void listTarefas_304LeOCorpoGuardadoNoFormatoEmQueChegou() {
+        // Servidor que ignora o Accept e sempre responde JSON, com ETag
+        Javalin soJson = Javalin.create();
+        soJson.get("/tarefas", ctx -> {
+            ctx.header("ETag", "\"v1\"");
+            if ("\"v1\"".equals(ctx.header("If-None-Match"))) {
+                ctx.status(304);
+                return;
+            }
+            ctx.contentType("application/json").result("[{\"id\": 1, \"titulo\": \"Em JSON\"}]");
+        });
+        JavalinTest.test(soJson, (servidor, cliente) -> {
+            try (TarefaClient tarefaClient = new TarefaClient("http://localhost:" + servidor.port(), 4,
+                    new ObjectMapper(), TarefaClient.CACHE_MAX_ENTRADAS_PADRAO, FormatoCorpo.SMILE)) {
+                Assertions.assertEquals("Em JSON", tarefaClient.listTarefas().get(0).getTitulo());
+                Assertions.assertEquals("Em JSON", tarefaClient.listTarefas().get(0).getTitulo(),
+                        "Após o 304, o corpo JSON guardado deveria ser lido com o mapper JSON, não o Smile pedido.");
+                Assertions.assertEquals(1, tarefaClient.getNaoModificadas());
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package at.client.carga;
+
+import at.api.Main;
+import at.client.TarefaClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GeradorCargaTest {
+
+    @Test
+    void config_LeOpcoesDaLinhaDeComando() {
+        ConfigCarga config = ConfigCarga.parse("--taxa=50,100.5", "--duracao=2m", "--aquecimento=0", "--mistura=ler:3,status:1", "--formato=cbor");
+        Assertions.assertEquals(List.of(50.0, 100.5), config.getTaxas());
+        Assertions.assertEquals(Duration.ofMinutes(2), config.getDuracao());
+        Assertions.assertTrue(config.getAquecimento().isZero());
+        Assertions.assertEquals("ler:3,status:1", config.getMistura().toString());
+        Assertions.assertEquals(Duration.ofMillis(500), ConfigCarga.parseDuracao("500ms"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigCarga.parse("--taxa=0"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigCarga.parse("--mistura=apagar:1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigCarga.parse("--duracao=logo"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigCarga.parse("--desconhecida=1"));
+    }
+
+    @Test
+    void gerador_LatenciaCorrigidaIncluiAsRequisicoesAtrasadasPorUmaPausa() throws InterruptedException {
+        // Executor que atende na hora, mas trava o gerador por 300 ms na 20ª requisição
+        AtomicInteger chamadas = new AtomicInteger();
+        ExecutorCarga comPausa = operacao -> {
+            if (chamadas.incrementAndGet() == 20) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        };
+        GeradorCarga gerador = new GeradorCarga(MisturaCarga.parse("status:1"), comPausa, Duration.ZERO, null, 1);
+
+        RelatorioCarga.Estagio estagio = gerador.executar("teste", 200, Duration.ofSeconds(1));
+
+        Assertions.assertEquals(200, estagio.enviadas, "O modelo aberto envia taxa x duração, mesmo depois da pausa.");
+        Assertions.assertEquals(200, estagio.concluidas);
+        // ~60 requisições deveriam ter saído durante a pausa: sem a correção, só uma mediria o atraso
+        Assertions.assertTrue(estagio.total.latenciaMs.p90 >= 100,
+                "A latência corrigida deveria carregar o atraso da pausa: p90 = " + estagio.total.latenciaMs.p90);
+        Assertions.assertTrue(estagio.total.servicoMs.p90 < 50,
+                "A latência de serviço não vê o atraso: p90 = " + estagio.total.servicoMs.p90);
+        Assertions.assertTrue(estagio.atrasoMaximoEnvioMs >= 250);
+    }
+
+    @Test
+    void gerador_MisturaContraAApi() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            try (TarefaClient tarefaClient = new TarefaClient("http://localhost:" + servidor.port(), 64, new ObjectMapper(), 0)) {
+                ExecutorTarefas executor = new ExecutorTarefas(tarefaClient, 10, 7);
+                executor.preparar(50);
+                GeradorCarga gerador = new GeradorCarga(MisturaCarga.parse(MisturaCarga.PADRAO), executor, Duration.ZERO, null, 7);
+
+                RelatorioCarga.Estagio estagio = gerador.executar("teste", 100, Duration.ofSeconds(2));
+
+                Assertions.assertEquals(200, estagio.enviadas);
+                Assertions.assertEquals(0, estagio.erros, "Nenhuma operação deveria falhar: " + estagio.total.ultimoErro);
+                Assertions.assertEquals(0, estagio.semResposta);
+                Assertions.assertEquals(4, estagio.operacoes.size(), "As quatro operações da mistura padrão deveriam aparecer.");
+                for (RelatorioCarga.Operacao operacao : estagio.operacoes) {
+                    Assertions.assertTrue(operacao.concluidas > 0, "Sem respostas para " + operacao.operacao);
+                    Assertions.assertTrue(operacao.latenciaMs.max >= operacao.latenciaMs.p50);
+                    Assertions.assertFalse(operacao.histograma.isEmpty());
+                }
+                Assertions.assertEquals(200, estagio.total.concluidas);
+            }
+        });
+    }
+}
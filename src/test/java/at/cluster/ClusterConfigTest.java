@@ -0,0 +1,65 @@
+package at.cluster;
+
+import at.repository.AlocadorIds;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ClusterConfigTest {
+
+    private static final List<String> NOS = List.of("http://localhost:7001", "http://localhost:7002", "http://localhost:7003");
+
+    @Test
+    void donoDoBloco_DivideOsBlocosEntreOsNosSemDependerDaOrdem() {
+        ClusterConfig cluster = new ClusterConfig(NOS, null);
+        ClusterConfig invertido = new ClusterConfig(List.of(NOS.get(2), NOS.get(0), NOS.get(1) + "/"), null);
+
+        Map<String, Integer> blocos = new HashMap<>();
+        for (int bloco = 0; bloco < AlocadorIds.BLOCOS; bloco++) {
+            Assertions.assertEquals(cluster.donoDoBloco(bloco), invertido.donoDoBloco(bloco), "O dono não deveria depender da ordem da lista.");
+            blocos.merge(cluster.donoDoBloco(bloco), 1, Integer::sum);
+        }
+        Assertions.assertEquals(3, blocos.size());
+        for (int quantidade : blocos.values()) {
+            Assertions.assertTrue(quantidade > AlocadorIds.BLOCOS / 6, "Distribuição desequilibrada: " + blocos);
+        }
+    }
+
+    @Test
+    void donoDoBloco_IncluirUmNoSoMudaOsBlocosQueElePassaATer() {
+        ClusterConfig antes = new ClusterConfig(NOS, null);
+        ClusterConfig depois = new ClusterConfig(List.of(NOS.get(0), NOS.get(1), NOS.get(2), "http://localhost:7004"), null);
+
+        for (int bloco = 0; bloco < AlocadorIds.BLOCOS; bloco++) {
+            String dono = depois.donoDoBloco(bloco);
+            if (!dono.equals("http://localhost:7004")) {
+                Assertions.assertEquals(antes.donoDoBloco(bloco), dono, "O bloco " + bloco + " não deveria mudar de dono.");
+            }
+        }
+    }
+
+    @Test
+    void alocador_SoAtribuiIdsDosBlocosDoNo() {
+        for (String no : NOS) {
+            ClusterConfig cluster = new ClusterConfig(NOS, no);
+            AlocadorIds alocador = cluster.alocador();
+
+            int primeiro = alocador.reservar(1);
+            Assertions.assertEquals(no, cluster.donoDoId(primeiro));
+            // Um lote que não cabe no bloco começa no próximo bloco do nó, contíguo
+            alocador.avancar(((AlocadorIds.blocoDe(primeiro) + 1) << AlocadorIds.BITS_BLOCO) - 5);
+            int inicioLote = alocador.reservar(100);
+            Assertions.assertEquals(no, cluster.donoDoId(inicioLote));
+            Assertions.assertEquals(no, cluster.donoDoId(inicioLote + 99));
+        }
+    }
+
+    @Test
+    void construtor_RecusaNoForaDaLista() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ClusterConfig(NOS, "http://localhost:7999"));
+        Assertions.assertThrows(IllegalStateException.class, () -> new ClusterConfig(NOS, null).alocador());
+    }
+}
@@ -0,0 +1,138 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import at.api.Main;
+
+import java.util.StringJoiner;
+
+public class TarefaAdmissaoTest {
+
+    @AfterEach
+    void limparPropriedades() {
+        System.clearProperty("reat.admissao.echo.corpoMax");
+        System.clearProperty("reat.admissao.saudacao.taxa");
+        System.clearProperty("reat.admissao.saudacao.rajada");
+        System.clearProperty("reat.admissao.latenciaAlvoMs");
+        System.clearProperty("reat.admissao.echo.latencia");
+    }
+
+    @Test
+    void echoTest_RecusaCorpoAcimaDoMaximoDaRota() {
+        System.setProperty("reat.admissao.echo.corpoMax", "1024");
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            try (Response resposta = cliente.post("/echo", "x".repeat(1024))) {
+                Assertions.assertEquals(200, resposta.code(), "Um corpo no limite deveria ser aceito.");
+                Assertions.assertEquals(1024, resposta.body().string().length());
+            }
+            try (Response resposta = cliente.post("/echo", "x".repeat(1025))) {
+                Assertions.assertEquals(413, resposta.code(), "O Content-Length acima do limite deveria ser recusado.");
+                Assertions.assertTrue(resposta.body().string().contains("1024 bytes"));
+            }
+
+            // Sem Content-Length (chunked): a leitura é interrompida ao passar do limite
+            RequestBody semTamanho = new RequestBody() {
+                @Override
+                public MediaType contentType() {
+                    return MediaType.get("application/json");
+                }
+
+                @Override
+                public void writeTo(BufferedSink destino) throws java.io.IOException {
+                    for (int i = 0; i < 64; i++) {
+                        destino.writeUtf8("x".repeat(1024));
+                        destino.flush();
+                    }
+                }
+            };
+            try (Response resposta = cliente.request("/echo", req -> req.post(semTamanho))) {
+                Assertions.assertEquals(413, resposta.code(), "Um corpo chunked acima do limite deveria ser recusado.");
+            }
+        });
+    }
+
+    @Test
+    void saudacaoTest_RecusaComRetryAfterQuandoOClienteExcedeATaxa() {
+        System.setProperty("reat.admissao.saudacao.taxa", "0.5");
+        System.setProperty("reat.admissao.saudacao.rajada", "2");
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Assertions.assertEquals(200, cliente.get("/saudacao/Ana").code());
+            Assertions.assertEquals(200, cliente.get("/saudacao/Ana").code(), "A rajada deveria aceitar duas requisições.");
+            try (Response resposta = cliente.get("/saudacao/Ana")) {
+                Assertions.assertEquals(429, resposta.code(), "A terceira requisição deveria exceder a taxa.");
+                int retryAfter = Integer.parseInt(resposta.header("Retry-After"));
+                Assertions.assertTrue(retryAfter >= 1 && retryAfter <= 2, "Retry-After deveria indicar quando haverá um token: " + retryAfter);
+            }
+
+            // O limite é por rota: as demais seguem sem taxa
+            Assertions.assertEquals(200, cliente.get("/hello").code());
+            String metricas = cliente.get("/metrics").body().string();
+            Assertions.assertTrue(metricas.contains("reat_admissao_recusadas_taxa_total 1"), "A recusa deveria aparecer nas métricas.");
+        });
+    }
+
+    @Test
+    void echoEListagemTest_StreamingLentoNaoReduzOLimiteAdaptativo() {
+        System.setProperty("reat.admissao.latenciaAlvoMs", "1");
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            try (Response resposta = cliente.request("/echo", req -> req.post(corpoLento()))) {
+                Assertions.assertEquals(200, resposta.code());
+            }
+            StringJoiner lote = new StringJoiner(",", "[", "]");
+            for (int i = 0; i < 2_000; i++) {
+                lote.add("{\"titulo\": \"Tarefa " + i + "\"}");
+            }
+            Assertions.assertEquals(201, cliente.post("/tarefas/batch", lote.toString(),
+                    req -> req.header("Content-Type", "application/json")).code());
+            try (Response resposta = cliente.get("/tarefas?stream=ndjson")) {
+                Assertions.assertEquals(200, resposta.code());
+                // O repositório é compartilhado com os outros testes: ao menos as do lote
+                Assertions.assertTrue(resposta.body().string().lines().count() >= 2_000);
+            }
+
+            String metricas = cliente.get("/metrics").body().string();
+            Assertions.assertTrue(metricas.contains("reat_admissao_limite 512\n"), "Respostas em streaming não deveriam reduzir o limite:\n" + metricas);
+        });
+
+        // Com a latência do eco medida, o mesmo corpo lento reduz o limite
+        System.setProperty("reat.admissao.echo.latencia", "true");
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            try (Response resposta = cliente.request("/echo", req -> req.post(corpoLento()))) {
+                Assertions.assertEquals(200, resposta.code());
+            }
+            String metricas = cliente.get("/metrics").body().string();
+            Assertions.assertTrue(metricas.contains("reat_admissao_limite 460\n"), "A requisição lenta medida deveria reduzir o limite em 10%:\n" + metricas);
+        });
+    }
+
+    // Corpo chunked enviado aos poucos: a requisição dura bem mais que a latência alvo
+    private static RequestBody corpoLento() {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return MediaType.get("text/plain");
+            }
+
+            @Override
+            public void writeTo(BufferedSink destino) throws java.io.IOException {
+                for (int i = 0; i < 5; i++) {
+                    destino.writeUtf8("x".repeat(1024));
+                    destino.flush();
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        };
+    }
+}
@@ -9,9 +9,17 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import at.api.Main;
 import at.models.Tarefa;
 
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 public class TarefaApiTest {
 
@@ -28,6 +36,56 @@ public class TarefaApiTest {
         });
     }
 
+    // --- Testes para POST /echo ---
+    @Test
+    void echoTest_DevolveOCorpoComOMesmoContentType() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            String json = "{\"conteudo\": \"Teste de eco — ação\"}";
+            try (Response resposta = cliente.post("/echo", json, req -> req.header("Content-Type", "application/json"))) {
+                Assertions.assertEquals(200, resposta.code(), "O status code deveria ser 200 OK.");
+                Assertions.assertTrue(resposta.header("Content-Type").startsWith("application/json"));
+                Assertions.assertEquals(json, resposta.body().string(), "O corpo deveria voltar inalterado.");
+            }
+        });
+    }
+
+    @Test
+    void echoTest_DevolveCorpoChunkedGrandeEmStreaming() {
+        System.setProperty("reat.admissao.echo.corpoMax", Integer.toString(1 << 20));
+        try {
+            byte[] bloco = new byte[16 * 1024];
+            new Random(42).nextBytes(bloco);
+            int blocos = 16; // 256 KiB, em blocos, sem Content-Length
+            RequestBody semTamanho = new RequestBody() {
+                @Override
+                public MediaType contentType() {
+                    return MediaType.get("application/octet-stream");
+                }
+
+                @Override
+                public void writeTo(BufferedSink destino) throws IOException {
+                    for (int i = 0; i < blocos; i++) {
+                        destino.write(bloco);
+                        destino.flush();
+                    }
+                }
+            };
+            JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+                try (Response resposta = cliente.request("/echo", req -> req.post(semTamanho))) {
+                    Assertions.assertEquals(200, resposta.code());
+                    Assertions.assertEquals("application/octet-stream", resposta.header("Content-Type"), "Binário não deveria ganhar charset.");
+                    byte[] corpo = resposta.body().bytes();
+                    Assertions.assertEquals(blocos * bloco.length, corpo.length);
+                    for (int i = 0; i < blocos; i++) {
+                        Assertions.assertArrayEquals(bloco, Arrays.copyOfRange(corpo, i * bloco.length, (i + 1) * bloco.length));
+                    }
+                }
+            });
+        } finally {
+            System.clearProperty("reat.admissao.echo.corpoMax");
+        }
+    }
+
     // --- Teste para POST /tarefas (createTaskTest) ---
     @Test
     void createTaskTest_Retorna201ECorpoCorreto() {
@@ -0,0 +1,59 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import at.api.Main;
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TarefaBuscaTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void searchTasksTest_RetornaResultadosPaginadosPorRelevancia() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Main.stopJavalinApp(); // Garante que a lista está limpa
+            Main.startJavalinApp();
+
+            String[][] tarefas = {
+                    {"Relatório mensal", "Enviar o relatório ao financeiro"},
+                    {"Ligar para o banco", "Perguntar sobre o relatório de tarifas"},
+                    {"Comprar café", "Marca de sempre"},
+            };
+            for (String[] tarefa : tarefas) {
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa(tarefa[0], tarefa[1]));
+                cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+            }
+
+            var resposta = cliente.get("/tarefas/search?q=" + URLEncoder.encode("relatorio", StandardCharsets.UTF_8));
+            Assertions.assertEquals(200, resposta.code(), "A busca deveria retornar 200 OK.");
+            PaginaBusca busca = objectMapper.readValue(resposta.body().string(), PaginaBusca.class);
+            Assertions.assertEquals(2, busca.total);
+            Assertions.assertEquals(1, busca.resultados.get(0).tarefa.getId(), "A tarefa com o termo no título deveria vir primeiro.");
+            Assertions.assertNull(busca.proximoCursor, "Uma página incompleta não deveria ter cursor.");
+
+            List<Integer> ids = new ArrayList<>();
+            String cursor = null;
+            do {
+                String url = "/tarefas/search?q=relat%C3%B3rio&limit=1" + (cursor != null ? "&cursor=" + cursor : "");
+                PaginaBusca pagina = objectMapper.readValue(cliente.get(url).body().string(), PaginaBusca.class);
+                pagina.resultados.forEach(item -> ids.add(item.tarefa.getId()));
+                cursor = pagina.proximoCursor;
+            } while (cursor != null);
+            Assertions.assertEquals(List.of(1, 2), ids, "As páginas deveriam seguir a ordem de relevância.");
+
+            Assertions.assertEquals(400, cliente.get("/tarefas/search").code(), "A busca sem q deveria retornar 400.");
+            Assertions.assertEquals(400, cliente.get("/tarefas/search?q=x&cursor=invalido").code(), "Um cursor inválido deveria retornar 400.");
+            Assertions.assertEquals(200, cliente.get("/tarefas/1").code(), "A busca por ID não deveria ser afetada.");
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import at.api.RoteadorCluster;
+import at.cluster.ClusterConfig;
+import at.models.PaginaTarefas;
+import at.models.Tarefa;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Sobe dois nós em processos separados (o repositório de Main é único por JVM) e testa o
+// roteador, em processo, na frente deles
+public class TarefaClusterTest {
+
+    private static final List<Process> processos = new ArrayList<>();
+    private static ClusterConfig cluster;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void subirNos() throws Exception {
+        List<Integer> portas = List.of(portaLivre(), portaLivre());
+        List<String> nos = portas.stream().map(porta -> "http://localhost:" + porta).toList();
+        String java = ProcessHandle.current().info().command().orElse("java");
+        for (int i = 0; i < nos.size(); i++) {
+            processos.add(new ProcessBuilder(java,
+                    "-Dreat.porta=" + portas.get(i),
+                    "-Dreat.cluster.nos=" + String.join(",", nos),
+                    "-Dreat.cluster.no=" + nos.get(i),
+                    "-cp", System.getProperty("java.class.path"),
+                    "at.api.Main")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start());
+        }
+        HttpClient http = HttpClient.newHttpClient();
+        for (String no : nos) {
+            aguardar(http, no);
+        }
+        cluster = new ClusterConfig(nos, null);
+    }
+
+    @AfterAll
+    static void derrubarNos() {
+        processos.forEach(Process::destroy);
+    }
+
+    @Test
+    void cluster_CriaEmTodosOsNosELeDoDonoDoId() {
+        JavalinTest.test(new RoteadorCluster(cluster).buildApp(), (servidor, cliente) -> {
+            Set<String> nosUsados = new HashSet<>();
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 1; i <= 6; i++) {
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Cluster " + i, "Descrição " + i));
+                var resposta = cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+                Assertions.assertEquals(201, resposta.code(), "POST pelo roteador deveria retornar 201.");
+                Tarefa criada = objectMapper.readValue(resposta.body().string(), Tarefa.class);
+                ids.add(criada.getId());
+                nosUsados.add(cluster.donoDoId(criada.getId()));
+            }
+            Assertions.assertEquals(2, nosUsados.size(), "As criações deveriam se dividir entre os dois nós.");
+
+            for (int id : ids) {
+                var resposta = cliente.get("/tarefas/" + id);
+                Assertions.assertEquals(200, resposta.code(), "A tarefa " + id + " deveria ser encontrada no nó dono.");
+                Assertions.assertEquals(id, objectMapper.readValue(resposta.body().string(), Tarefa.class).getId());
+            }
+            Assertions.assertEquals(204, cliente.delete("/tarefas/" + ids.get(0)).code());
+            Assertions.assertEquals(404, cliente.get("/tarefas/" + ids.get(0)).code());
+            Assertions.assertEquals(400, cliente.get("/tarefas/abc").code());
+        });
+    }
+
+    @Test
+    void cluster_ListaIntercaladaEPaginadaEmOrdemDeId() {
+        JavalinTest.test(new RoteadorCluster(cluster).buildApp(), (servidor, cliente) -> {
+            for (int i = 1; i <= 5; i++) {
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Lista " + i, null));
+                cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+            }
+
+            var resposta = cliente.get("/tarefas");
+            Assertions.assertEquals(200, resposta.code());
+            List<Tarefa> todas = objectMapper.readValue(resposta.body().string(), new TypeReference<List<Tarefa>>() {});
+            Assertions.assertTrue(todas.size() >= 5);
+            List<Integer> ids = todas.stream().map(Tarefa::getId).toList();
+            Assertions.assertEquals(ids.stream().sorted().toList(), ids, "A lista do cluster deveria vir em ordem de ID.");
+
+            List<Integer> paginados = new ArrayList<>();
+            String cursor = null;
+            do {
+                var pagina = cliente.get("/tarefas?limit=2" + (cursor != null ? "&cursor=" + cursor : ""));
+                Assertions.assertEquals(200, pagina.code());
+                PaginaTarefas conteudo = objectMapper.readValue(pagina.body().string(), PaginaTarefas.class);
+                conteudo.tarefas.forEach(t -> paginados.add(t.getId()));
+                cursor = conteudo.proximoCursor;
+            } while (cursor != null);
+            Assertions.assertEquals(ids, paginados, "As páginas deveriam cobrir a mesma lista, sem repetição.");
+
+            var filtrada = cliente.get("/tarefas?stream=ndjson&titulo=Lista");
+            Assertions.assertEquals(200, filtrada.code());
+            Assertions.assertEquals(5, filtrada.body().string().lines().filter(l -> !l.isBlank()).count(),
+                    "O filtro deveria ser repassado a todos os nós.");
+            Assertions.assertEquals(400, cliente.get("/tarefas?concluida=talvez").code(), "Filtro inválido deveria retornar 400.");
+        });
+    }
+
+    @Test
+    void cluster_ListaNoFormatoDoAcceptDoCliente() {
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        JavalinTest.test(new RoteadorCluster(cluster).buildApp(), (servidor, cliente) -> {
+            for (int i = 1; i <= 4; i++) {
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Smile " + i, null));
+                cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+            }
+
+            // Os nós respondem JSON ao roteador; a página intercalada sai em Smile
+            var pagina = cliente.get("/tarefas?limit=3&titulo=Smile", req -> req.header("Accept", "application/x-jackson-smile"));
+            Assertions.assertEquals(200, pagina.code(), "Uma página pedida em Smile não deveria falhar no roteador.");
+            Assertions.assertTrue(pagina.header("Content-Type").startsWith("application/x-jackson-smile"));
+            PaginaTarefas conteudo = smile.readValue(pagina.body().bytes(), PaginaTarefas.class);
+            Assertions.assertEquals(3, conteudo.tarefas.size());
+            Assertions.assertNotNull(conteudo.proximoCursor);
+
+            var todas = cliente.get("/tarefas?titulo=Smile", req -> req.header("Accept", "application/x-jackson-smile"));
+            Assertions.assertEquals(200, todas.code());
+            Assertions.assertTrue(todas.header("Content-Type").startsWith("application/x-jackson-smile"));
+            List<Tarefa> lista = smile.readValue(todas.body().bytes(), new TypeReference<List<Tarefa>>() {});
+            Assertions.assertEquals(4, lista.size(), "A lista completa também deveria seguir o Accept.");
+        });
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void aguardar(HttpClient http, String no) throws InterruptedException {
+        HttpRequest status = HttpRequest.newBuilder(URI.create(no + "/status")).build();
+        for (int tentativa = 0; tentativa < 300; tentativa++) {
+            try {
+                if (http.send(status, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // o nó ainda está subindo
+            }
+            Thread.sleep(100);
+        }
+        Assertions.fail("O nó " + no + " não subiu a tempo.");
+    }
+}
@@ -0,0 +1,66 @@
+package at.etapa2;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import io.javalin.testtools.JavalinTest;
+import okhttp3.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import at.api.Main;
+import at.models.Tarefa;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class TarefaCompressaoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void listTasksTest_ComprimeRespostasGrandesConformeAcceptEncoding() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Main.stopJavalinApp(); // Garante que a lista está limpa
+            Main.startJavalinApp();
+
+            List<Tarefa> lote = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                lote.add(new Tarefa("Tarefa " + i, "Descrição repetida da tarefa " + i));
+            }
+            cliente.post("/tarefas/batch", objectMapper.writeValueAsString(lote), req -> req.header("Content-Type", "application/json"));
+
+            try (Response resposta = cliente.get("/tarefas", req -> req.header("Accept-Encoding", "gzip"))) {
+                Assertions.assertEquals("gzip", resposta.header("Content-Encoding"), "Uma lista grande deveria vir comprimida.");
+                Assertions.assertTrue(resposta.header("Vary").contains("Accept-Encoding"));
+                try (InputStream corpo = new GZIPInputStream(resposta.body().byteStream())) {
+                    Assertions.assertTrue(objectMapper.readValue(corpo, Tarefa[].class).length >= 200);
+                }
+            }
+
+            try (Response resposta = cliente.get("/tarefas?stream=ndjson", req -> req.header("Accept-Encoding", "gzip"))) {
+                Assertions.assertEquals("gzip", resposta.header("Content-Encoding"), "O streaming também deveria ser comprimido.");
+            }
+
+            try (Response resposta = cliente.get("/status", req -> req.header("Accept-Encoding", "gzip"))) {
+                Assertions.assertNull(resposta.header("Content-Encoding"), "Respostas abaixo do mínimo não deveriam ser comprimidas.");
+                Assertions.assertTrue(resposta.body().string().contains("\"status\""));
+            }
+
+            try (Response resposta = cliente.get("/tarefas", req -> req.header("Accept-Encoding", "identity"))) {
+                Assertions.assertNull(resposta.header("Content-Encoding"), "Sem gzip/br no Accept-Encoding, a resposta não deveria ser comprimida.");
+            }
+
+            Assumptions.assumeTrue(Brotli4jLoader.isAvailable(), "Brotli indisponível nesta plataforma.");
+            try (Response resposta = cliente.get("/tarefas", req -> req.header("Accept-Encoding", "br, gzip"))) {
+                Assertions.assertEquals("br", resposta.header("Content-Encoding"), "Brotli deveria ter preferência quando aceito.");
+                try (InputStream corpo = new BrotliInputStream(resposta.body().byteStream())) {
+                    Assertions.assertTrue(objectMapper.readValue(corpo, Tarefa[].class).length >= 200);
+                }
+            }
+        });
+    }
+}
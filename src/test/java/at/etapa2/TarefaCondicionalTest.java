@@ -0,0 +1,53 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import at.api.Main;
+import at.models.Tarefa;
+
+public class TarefaCondicionalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void getTaskByIdTest_IfNoneMatchRetorna304SemCorpo() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Condicional", "ETag por tarefa"));
+            var criada = objectMapper.readValue(
+                    cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json")).body().string(), Tarefa.class);
+            Assertions.assertEquals(1, criada.getVersao(), "Uma tarefa nova deveria estar na versão 1.");
+
+            var primeira = cliente.get("/tarefas/" + criada.getId());
+            String etag = primeira.header("ETag");
+            Assertions.assertNotNull(etag, "A resposta deveria trazer um ETag.");
+            Assertions.assertTrue(etag.startsWith("W/\""), "O ETag deveria ser fraco.");
+
+            var revalidada = cliente.request("/tarefas/" + criada.getId(), req -> req.header("If-None-Match", etag));
+            Assertions.assertEquals(304, revalidada.code(), "Sem mudanças, a API deveria responder 304 Not Modified.");
+            Assertions.assertEquals("", revalidada.body().string(), "Uma resposta 304 não deveria ter corpo.");
+            Assertions.assertEquals(etag, revalidada.header("ETag"), "O 304 deveria repetir o ETag atual.");
+
+            var outroEtag = cliente.request("/tarefas/" + criada.getId(), req -> req.header("If-None-Match", "W/\"outro\""));
+            Assertions.assertEquals(200, outroEtag.code(), "Com um ETag diferente, a tarefa deveria ser enviada.");
+        });
+    }
+
+    @Test
+    void listTasksTest_EtagDaListaMudaAposCriacao() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            String etag = cliente.get("/tarefas").header("ETag");
+            Assertions.assertEquals(304, cliente.request("/tarefas", req -> req.header("If-None-Match", etag)).code(),
+                    "Sem mutações, a listagem deveria responder 304.");
+
+            String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Nova", "Muda a versão global"));
+            cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+
+            var depois = cliente.request("/tarefas", req -> req.header("If-None-Match", etag));
+            Assertions.assertEquals(200, depois.code(), "Após uma criação, a listagem deveria ser enviada novamente.");
+            Assertions.assertNotEquals(etag, depois.header("ETag"), "O ETag da listagem deveria mudar após uma mutação.");
+        });
+    }
+}
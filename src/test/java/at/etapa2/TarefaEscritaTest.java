@@ -0,0 +1,121 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import at.api.Main;
+import at.models.Tarefa;
+
+public class TarefaEscritaTest {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void updateTaskTest_IfMatchAplicaUmaVezERecusaVersaoAntiga() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Tarefa criada = criar(cliente, "Original");
+            var leitura = cliente.get("/tarefas/" + criada.getId());
+            String etag = leitura.header("ETag");
+
+            String novaJson = objectMapper.writeValueAsString(new Tarefa("Substituída", "Nova descrição"));
+            var atualizada = cliente.request("/tarefas/" + criada.getId(),
+                    req -> req.put(RequestBody.create(novaJson, JSON)).header("If-Match", etag));
+            Assertions.assertEquals(200, atualizada.code(), "PUT com o ETag atual deveria ser aplicado.");
+            Tarefa tarefa = objectMapper.readValue(atualizada.body().string(), Tarefa.class);
+            Assertions.assertEquals("Substituída", tarefa.getTitulo());
+            Assertions.assertEquals(2, tarefa.getVersao(), "A versão deveria ser incrementada.");
+            Assertions.assertEquals(criada.getDataCriacao(), tarefa.getDataCriacao(), "A data de criação não deveria mudar.");
+            Assertions.assertNotEquals(etag, atualizada.header("ETag"), "O ETag deveria mudar com a versão.");
+
+            var repetida = cliente.request("/tarefas/" + criada.getId(),
+                    req -> req.put(RequestBody.create(novaJson, JSON)).header("If-Match", etag));
+            Assertions.assertEquals(412, repetida.code(), "Um ETag antigo deveria resultar em 412 Precondition Failed.");
+            Assertions.assertEquals(atualizada.header("ETag"), repetida.header("ETag"), "O 412 deveria informar o ETag atual.");
+        });
+    }
+
+    @Test
+    void patchTaskTest_AlteraSoOsCamposEnviadosEValida() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Tarefa criada = criar(cliente, "Parcial");
+
+            var alterada = cliente.request("/tarefas/" + criada.getId(),
+                    req -> req.patch(RequestBody.create("{\"concluida\": true}", JSON)));
+            Assertions.assertEquals(200, alterada.code());
+            Tarefa tarefa = objectMapper.readValue(alterada.body().string(), Tarefa.class);
+            Assertions.assertTrue(tarefa.isConcluida(), "O campo enviado deveria ser alterado.");
+            Assertions.assertEquals("Parcial", tarefa.getTitulo(), "Os demais campos deveriam ser mantidos.");
+
+            var invalida = cliente.request("/tarefas/" + criada.getId(),
+                    req -> req.patch(RequestBody.create("{\"id\": 99}", JSON)));
+            Assertions.assertEquals(400, invalida.code(), "Campos que não podem ser alterados deveriam ser recusados.");
+
+            var tituloVazio = cliente.request("/tarefas/" + criada.getId(),
+                    req -> req.patch(RequestBody.create("{\"titulo\": \" \"}", JSON)));
+            Assertions.assertEquals(400, tituloVazio.code(), "Um título vazio deveria ser recusado.");
+        });
+    }
+
+    @Test
+    void createEUpdateTaskTest_Retornam400ParaDataCriacaoInvalida() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            for (String data : new String[]{"2025-06-25", "garbage"}) {
+                String json = "{\"titulo\": \"Com data\", \"dataCriacao\": \"" + data + "\"}";
+                var resposta = cliente.post("/tarefas", json, req -> req.header("Content-Type", "application/json"));
+                Assertions.assertEquals(400, resposta.code(), "Uma dataCriacao fora do ISO-8601 deveria ser recusada: " + data);
+                Assertions.assertTrue(resposta.body().string().contains("dataCriacao inválida"), "A mensagem de erro deveria citar a dataCriacao.");
+            }
+
+            Tarefa criada = criar(cliente, "Existente");
+            var atualizada = cliente.request("/tarefas/" + criada.getId(),
+                    req -> req.put(RequestBody.create("{\"titulo\": \"Nova\", \"dataCriacao\": \"25/06/2025\"}", JSON)));
+            Assertions.assertEquals(400, atualizada.code(), "O PUT também deveria recusar a data inválida.");
+
+            var valida = cliente.post("/tarefas", "{\"titulo\": \"Com data\", \"dataCriacao\": \"2025-06-25T15:00:00\"}",
+                    req -> req.header("Content-Type", "application/json"));
+            Assertions.assertEquals(201, valida.code());
+            Assertions.assertEquals("2025-06-25T15:00:00", objectMapper.readValue(valida.body().string(), Tarefa.class).getDataCriacao());
+
+            // A data é guardada em milissegundos: frações menores são descartadas
+            var fracao = cliente.post("/tarefas", "{\"titulo\": \"Com fração\", \"dataCriacao\": \"2025-06-25T15:00:00.123456\"}",
+                    req -> req.header("Content-Type", "application/json"));
+            Assertions.assertEquals("2025-06-25T15:00:00.123", objectMapper.readValue(fracao.body().string(), Tarefa.class).getDataCriacao());
+
+            // O início da época é uma data como outra qualquer, não "sem data"
+            var epoca = cliente.post("/tarefas", "{\"titulo\": \"Na época\", \"dataCriacao\": \"1970-01-01T00:00:00\"}",
+                    req -> req.header("Content-Type", "application/json"));
+            Assertions.assertEquals("1970-01-01T00:00:00", objectMapper.readValue(epoca.body().string(), Tarefa.class).getDataCriacao(),
+                    "A data enviada não deveria ser trocada pela hora atual.");
+        });
+    }
+
+    @Test
+    void deleteTaskTest_RemoveEConclusaoRapida() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Tarefa criada = criar(cliente, "Temporária");
+            String caminho = "/tarefas/" + criada.getId();
+
+            var concluida = cliente.request(caminho + "/concluida", req -> req.put(RequestBody.create(new byte[0])));
+            Assertions.assertEquals(204, concluida.code(), "Marcar como concluída deveria responder 204.");
+            Assertions.assertNotNull(concluida.header("ETag"), "A resposta deveria trazer o novo ETag.");
+            Assertions.assertTrue(objectMapper.readValue(cliente.get(caminho).body().string(), Tarefa.class).isConcluida());
+
+            Assertions.assertEquals(204, cliente.delete(caminho).code(), "DELETE deveria responder 204 No Content.");
+            Assertions.assertEquals(404, cliente.get(caminho).code(), "A tarefa removida não deveria ser encontrada.");
+            Assertions.assertEquals(404, cliente.delete(caminho).code(), "Remover de novo deveria responder 404.");
+            Assertions.assertEquals(404, cliente.request(caminho + "/concluida", req -> req.delete()).code());
+        });
+    }
+
+    private Tarefa criar(io.javalin.testtools.HttpClient cliente, String titulo) throws Exception {
+        String tarefaJson = objectMapper.writeValueAsString(new Tarefa(titulo, "Descrição"));
+        var resposta = cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+        return objectMapper.readValue(resposta.body().string(), Tarefa.class);
+    }
+}
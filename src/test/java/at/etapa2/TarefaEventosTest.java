@@ -0,0 +1,103 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import at.api.Main;
+import at.models.Tarefa;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TarefaEventosTest {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void changesTest_TransmiteAlteracoesERetomaDoUltimoEvento() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Main.stopJavalinApp(); // Garante que a lista está limpa
+            Main.startJavalinApp();
+
+            String idCriada;
+            try (Response feed = cliente.get("/tarefas/changes", req -> req.header("Accept", "text/event-stream"))) {
+                Assertions.assertEquals(200, feed.code());
+                BufferedSource linhas = feed.body().source();
+                aguardarConexao(linhas);
+
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Comprar pão", "Na padaria"));
+                Tarefa criada = objectMapper.readValue(cliente.post("/tarefas", tarefaJson,
+                        req -> req.header("Content-Type", "application/json")).body().string(), Tarefa.class);
+                cliente.request("/tarefas/" + criada.getId(), req -> req.patch(RequestBody.create("{\"concluida\": true}", JSON)));
+                cliente.delete("/tarefas/" + criada.getId());
+
+                Map<String, String> evento = proximoEvento(linhas);
+                Assertions.assertEquals("criada", evento.get("event"));
+                JsonNode dados = objectMapper.readTree(evento.get("data"));
+                Assertions.assertEquals(criada.getId(), dados.get("id").asInt());
+                Assertions.assertEquals("Comprar pão", dados.get("tarefa").get("titulo").asText());
+                idCriada = evento.get("id");
+
+                evento = proximoEvento(linhas);
+                Assertions.assertEquals("alterada", evento.get("event"));
+                Assertions.assertEquals(2, objectMapper.readTree(evento.get("data")).get("versao").asInt());
+                Assertions.assertTrue(objectMapper.readTree(evento.get("data")).get("tarefa").get("concluida").asBoolean());
+                Assertions.assertEquals("removida", proximoEvento(linhas).get("event"));
+            }
+
+            // Reconexão: recebe apenas o que veio depois do último evento visto
+            try (Response feed = cliente.get("/tarefas/changes", req -> req
+                    .header("Accept", "text/event-stream").header("Last-Event-ID", idCriada))) {
+                BufferedSource linhas = feed.body().source();
+                Assertions.assertEquals("alterada", proximoEvento(linhas).get("event"));
+                Assertions.assertEquals("removida", proximoEvento(linhas).get("event"));
+            }
+
+            // Um ID que o histórico não conhece (de outro processo, por exemplo) pede ressincronização
+            try (Response feed = cliente.get("/tarefas/changes", req -> req
+                    .header("Accept", "text/event-stream").header("Last-Event-ID", "0-1"))) {
+                Map<String, String> evento = proximoEvento(feed.body().source());
+                Assertions.assertEquals("ressincronizar", evento.get("event"));
+                Assertions.assertNull(evento.get("id"), "A ressincronização não deveria ter ID.");
+            }
+        });
+    }
+
+    private static void aguardarConexao(BufferedSource linhas) throws IOException {
+        String linha;
+        while ((linha = linhas.readUtf8Line()) != null) {
+            if (linha.equals(": conectado")) {
+                return;
+            }
+        }
+        Assertions.fail("O feed terminou antes de confirmar a conexão.");
+    }
+
+    // Campos do próximo evento, ignorando comentários
+    private static Map<String, String> proximoEvento(BufferedSource linhas) throws IOException {
+        Map<String, String> campos = new HashMap<>();
+        String linha;
+        while ((linha = linhas.readUtf8Line()) != null) {
+            if (linha.isEmpty()) {
+                if (!campos.isEmpty()) {
+                    return campos;
+                }
+            } else if (!linha.startsWith(":")) {
+                int separador = linha.indexOf(':');
+                campos.put(linha.substring(0, separador), linha.substring(separador + 1).trim());
+            }
+        }
+        Assertions.fail("O feed terminou antes do próximo evento.");
+        return campos;
+    }
+}
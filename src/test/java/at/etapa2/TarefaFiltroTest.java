@@ -0,0 +1,56 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import at.api.Main;
+import at.models.PaginaTarefas;
+import at.models.Tarefa;
+
+import java.util.List;
+
+public class TarefaFiltroTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void listTasksTest_FiltraPorConclusaoTituloEData() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Main.stopJavalinApp(); // Garante que a lista está limpa
+            Main.startJavalinApp();
+
+            String[] titulos = {"Comprar pão", "Pagar conta de luz", "Comprar leite", "Lavar o carro"};
+            for (String titulo : titulos) {
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa(titulo, null));
+                cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+            }
+            cliente.request("/tarefas/3/concluida", req -> req.put(okhttp3.RequestBody.create(new byte[0])));
+
+            Assertions.assertEquals(List.of(3), ids(cliente.get("/tarefas?concluida=true").body().string()));
+            Assertions.assertEquals(List.of(1, 2, 4), ids(cliente.get("/tarefas?concluida=false").body().string()));
+            Assertions.assertEquals(List.of(1, 3), ids(cliente.get("/tarefas?tituloPrefixo=comprar").body().string()));
+            Assertions.assertEquals(List.of(2), ids(cliente.get("/tarefas?titulo=CONTA").body().string()));
+            Assertions.assertEquals(List.of(1), ids(cliente.get("/tarefas?titulo=pão&concluida=false").body().string()));
+            Assertions.assertEquals(List.of(1, 2, 3, 4), ids(cliente.get("/tarefas?criadaApos=2000-01-01").body().string()));
+            Assertions.assertEquals(List.of(), ids(cliente.get("/tarefas?criadaAntes=2000-01-01T00:00:00Z").body().string()));
+
+            var pagina = cliente.get("/tarefas?concluida=false&limit=2");
+            PaginaTarefas primeira = objectMapper.readValue(pagina.body().string(), PaginaTarefas.class);
+            Assertions.assertEquals(2, primeira.tarefas.size());
+            PaginaTarefas segunda = objectMapper.readValue(
+                    cliente.get("/tarefas?concluida=false&limit=2&cursor=" + primeira.proximoCursor).body().string(), PaginaTarefas.class);
+            Assertions.assertEquals(4, segunda.tarefas.get(0).getId(), "A página seguinte deveria continuar o filtro.");
+
+            Assertions.assertEquals(400, cliente.get("/tarefas?concluida=talvez").code(), "Valor booleano inválido deveria retornar 400.");
+            Assertions.assertEquals(400, cliente.get("/tarefas?criadaApos=ontem").code(), "Data inválida deveria retornar 400.");
+        });
+    }
+
+    private List<Integer> ids(String json) throws Exception {
+        List<Tarefa> tarefas = objectMapper.readValue(json, new TypeReference<List<Tarefa>>() {});
+        return tarefas.stream().map(Tarefa::getId).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import at.api.Main;
+import at.models.ResultadoLote;
+import at.models.Tarefa;
+
+import java.util.List;
+
+public class TarefaFormatoTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final String CBOR = "application/cbor";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+    @Test
+    void createTaskTest_AceitaEProduzSmileECbor() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Main.stopJavalinApp(); // Garante que a lista está limpa
+            Main.startJavalinApp();
+
+            byte[] corpo = smile.writeValueAsBytes(new Tarefa("Binária", "Enviada em Smile"));
+            Tarefa criada;
+            try (Response resposta = cliente.request("/tarefas", req -> req
+                    .post(RequestBody.create(corpo, MediaType.get(SMILE))).header("Accept", SMILE))) {
+                Assertions.assertEquals(201, resposta.code());
+                Assertions.assertEquals(SMILE, resposta.header("Content-Type"));
+                criada = smile.readValue(resposta.body().bytes(), Tarefa.class);
+            }
+            Assertions.assertEquals("Binária", criada.getTitulo());
+            Assertions.assertEquals(1, criada.getVersao());
+
+            // A mesma tarefa em CBOR e, sem Accept, em JSON
+            try (Response resposta = cliente.get("/tarefas/" + criada.getId(), req -> req.header("Accept", CBOR))) {
+                Assertions.assertEquals(CBOR, resposta.header("Content-Type"));
+                Assertions.assertEquals("Enviada em Smile", cbor.readValue(resposta.body().bytes(), Tarefa.class).getDescricao());
+            }
+            Tarefa emJson = objectMapper.readValue(cliente.get("/tarefas/" + criada.getId()).body().string(), Tarefa.class);
+            Assertions.assertEquals(criada.getDataCriacao(), emJson.getDataCriacao(), "Os formatos deveriam trazer os mesmos valores.");
+
+            // Lote em CBOR; a lista volta no tipo de maior q do Accept
+            byte[] lote = cbor.writeValueAsBytes(List.of(new Tarefa("A", null), new Tarefa("", "Sem título")));
+            try (Response resposta = cliente.request("/tarefas/batch", req -> req
+                    .post(RequestBody.create(lote, MediaType.get(CBOR))).header("Accept", CBOR))) {
+                Assertions.assertEquals(207, resposta.code());
+                ResultadoLote resultado = cbor.readValue(resposta.body().bytes(), ResultadoLote.class);
+                Assertions.assertEquals(1, resultado.criadas);
+                Assertions.assertEquals(1, resultado.rejeitadas);
+            }
+            try (Response resposta = cliente.get("/tarefas", req -> req.header("Accept", "application/json;q=0.5, " + SMILE))) {
+                Assertions.assertEquals(SMILE, resposta.header("Content-Type"));
+                Assertions.assertTrue(resposta.header("Vary").contains("Accept"));
+                Assertions.assertTrue(smile.readValue(resposta.body().bytes(), Tarefa[].class).length >= 2);
+            }
+            try (Response resposta = cliente.get("/tarefas?stream=json", req -> req.header("Accept", CBOR))) {
+                Assertions.assertEquals(CBOR, resposta.header("Content-Type"), "O streaming em array deveria seguir o Accept.");
+                Assertions.assertTrue(cbor.readValue(resposta.body().bytes(), Tarefa[].class).length >= 2);
+            }
+
+            // Erros continuam em JSON
+            byte[] semTitulo = smile.writeValueAsBytes(new Tarefa(" ", null));
+            try (Response resposta = cliente.request("/tarefas", req -> req
+                    .post(RequestBody.create(semTitulo, MediaType.get(SMILE))).header("Accept", SMILE))) {
+                Assertions.assertEquals(400, resposta.code());
+                Assertions.assertTrue(objectMapper.readTree(resposta.body().string()).has("erro"));
+            }
+        });
+    }
+}
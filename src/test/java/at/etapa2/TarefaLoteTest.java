@@ -0,0 +1,65 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+
+import at.api.Main;
+import at.models.ResultadoLote;
+import at.models.Tarefa;
+
+import java.util.Arrays;
+
+public class TarefaLoteTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void batchTest_CriaLoteComIdsContiguosERejeitaTituloVazio() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            String loteJson = objectMapper.writeValueAsString(Arrays.asList(
+                    new Tarefa("Primeira", "a"),
+                    new Tarefa("", "sem título"),
+                    new Tarefa("Terceira", "c")));
+
+            var resposta = cliente.post("/tarefas/batch", loteJson, req -> req.header("Content-Type", "application/json"));
+            Assertions.assertEquals(207, resposta.code(), "Um lote parcialmente válido deveria retornar 207 Multi-Status.");
+
+            ResultadoLote resultado = objectMapper.readValue(resposta.body().string(), ResultadoLote.class);
+            Assertions.assertEquals(2, resultado.criadas, "Duas tarefas deveriam ter sido criadas.");
+            Assertions.assertEquals(1, resultado.rejeitadas, "Uma tarefa deveria ter sido rejeitada.");
+            int primeiroId = resultado.resultados.get(0).tarefa.getId();
+            Assertions.assertEquals(400, resultado.resultados.get(1).status, "O item sem título deveria ser rejeitado.");
+            Assertions.assertTrue(resultado.resultados.get(1).erro.contains("título da tarefa é obrigatório"), "O erro deveria indicar título obrigatório.");
+            Assertions.assertEquals(primeiroId + 1, resultado.resultados.get(2).tarefa.getId(), "A terceira tarefa deveria receber o ID seguinte do bloco.");
+
+            var getResponse = cliente.get("/tarefas/" + (primeiroId + 1));
+            Assertions.assertEquals(200, getResponse.code(), "As tarefas do lote deveriam estar disponíveis por ID.");
+        });
+    }
+
+    @Test
+    void batchTest_AceitaNdjson() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            String ndjson = objectMapper.writeValueAsString(new Tarefa("Linha 1", null)) + "\n"
+                    + objectMapper.writeValueAsString(new Tarefa("Linha 2", null)) + "\n";
+
+            RequestBody corpo = RequestBody.create(ndjson, MediaType.get("application/x-ndjson"));
+            var resposta = cliente.request("/tarefas/batch", req -> req.post(corpo));
+            Assertions.assertEquals(201, resposta.code(), "Um lote NDJSON válido deveria retornar 201 Created.");
+            ResultadoLote resultado = objectMapper.readValue(resposta.body().string(), ResultadoLote.class);
+            Assertions.assertEquals(2, resultado.criadas, "As duas linhas deveriam virar tarefas.");
+        });
+    }
+
+    @Test
+    void batchTest_Retorna400ParaCorpoQueNaoEArray() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            var resposta = cliente.post("/tarefas/batch", "{\"titulo\":\"x\"}", req -> req.header("Content-Type", "application/json"));
+            Assertions.assertEquals(400, resposta.code(), "Um corpo que não é array deveria retornar 400.");
+        });
+    }
+}
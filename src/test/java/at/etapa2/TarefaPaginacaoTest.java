@@ -0,0 +1,82 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import at.api.Main;
+import at.models.PaginaTarefas;
+import at.models.Tarefa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TarefaPaginacaoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void listTasksTest_PaginaComCursorAteOFim() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Main.stopJavalinApp(); // Garante que a lista está limpa
+            Main.startJavalinApp();
+
+            for (int i = 1; i <= 5; i++) {
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Tarefa " + i, "Descrição " + i));
+                cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+            }
+
+            List<Integer> idsRecebidos = new ArrayList<>();
+            String cursor = null;
+            int paginas = 0;
+            do {
+                String url = "/tarefas?limit=2" + (cursor != null ? "&cursor=" + cursor : "");
+                var resposta = cliente.get(url);
+                Assertions.assertEquals(200, resposta.code(), "GET paginado deveria retornar 200 OK.");
+                PaginaTarefas pagina = objectMapper.readValue(resposta.body().string(), PaginaTarefas.class);
+                pagina.tarefas.forEach(t -> idsRecebidos.add(t.getId()));
+                cursor = pagina.proximoCursor;
+                paginas++;
+            } while (cursor != null);
+
+            Assertions.assertEquals(List.of(1, 2, 3, 4, 5), idsRecebidos, "As páginas deveriam cobrir todas as tarefas, em ordem e sem repetição.");
+            Assertions.assertEquals(3, paginas, "Com limit=2 e 5 tarefas deveriam existir 3 páginas.");
+        });
+    }
+
+    @Test
+    void listTasksTest_Retorna400ParaParametrosInvalidos() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Assertions.assertEquals(400, cliente.get("/tarefas?limit=0").code(), "limit=0 deveria retornar 400.");
+            Assertions.assertEquals(400, cliente.get("/tarefas?limit=abc").code(), "limit não numérico deveria retornar 400.");
+            Assertions.assertEquals(400, cliente.get("/tarefas?cursor=bm9wZQ").code(), "Cursor malformado deveria retornar 400.");
+            Assertions.assertEquals(400, cliente.get("/tarefas?stream=xml").code(), "Modo de streaming desconhecido deveria retornar 400.");
+        });
+    }
+
+    @Test
+    void listTasksTest_StreamingNdjsonEJson() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Main.stopJavalinApp(); // Garante que a lista está limpa
+            Main.startJavalinApp();
+
+            for (int i = 1; i <= 3; i++) {
+                String tarefaJson = objectMapper.writeValueAsString(new Tarefa("Tarefa " + i, null));
+                cliente.post("/tarefas", tarefaJson, req -> req.header("Content-Type", "application/json"));
+            }
+
+            var ndjson = cliente.get("/tarefas?stream=ndjson");
+            Assertions.assertEquals(200, ndjson.code(), "Streaming NDJSON deveria retornar 200 OK.");
+            Assertions.assertTrue(ndjson.header("Content-Type").startsWith("application/x-ndjson"), "O Content-Type deveria ser NDJSON.");
+            String[] linhas = ndjson.body().string().split("\n");
+            Assertions.assertEquals(3, linhas.length, "Deveria existir uma linha por tarefa.");
+            Assertions.assertEquals(1, objectMapper.readValue(linhas[0], Tarefa.class).getId(), "A primeira linha deveria ser a tarefa 1.");
+
+            var array = cliente.get("/tarefas?stream=json");
+            List<Tarefa> tarefas = objectMapper.readValue(array.body().string(), new TypeReference<List<Tarefa>>() {});
+            Assertions.assertEquals(3, tarefas.size(), "O array em streaming deveria conter todas as tarefas.");
+        });
+    }
+}
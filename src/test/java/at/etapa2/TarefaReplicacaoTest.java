@@ -0,0 +1,131 @@
+package at.etapa2;
+
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import at.api.Main;
+import at.models.EstadoReplicacao;
+import at.models.Tarefa;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+// Líder em processo (Main.buildApp) e uma réplica em outro processo, apontando para ele
+public class TarefaReplicacaoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newHttpClient(); // não segue redirecionamentos
+
+    @Test
+    void replicacao_ReplicaRecebeCopiaELogEAtendeLeiaSuasEscritas() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            String lider = "http://localhost:" + servidor.port();
+            var antes = cliente.post("/tarefas", objectMapper.writeValueAsString(new Tarefa("Antes da réplica", null)),
+                    req -> req.header("Content-Type", "application/json"));
+            int idAntes = objectMapper.readValue(antes.body().string(), Tarefa.class).getId();
+
+            int porta = portaLivre();
+            String replica = "http://localhost:" + porta;
+            Process processo = new ProcessBuilder(ProcessHandle.current().info().command().orElse("java"),
+                    "-Dreat.porta=" + porta,
+                    "-Dreat.replicacao.lider=" + lider,
+                    "-Dreat.replicacao.esperaMaxMs=1000",
+                    "-cp", System.getProperty("java.class.path"),
+                    "at.api.Main")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                aguardar(replica, lider);
+
+                // Escrita no líder: X-Reat-Versao já inclui a própria escrita
+                var criada = cliente.post("/tarefas", objectMapper.writeValueAsString(new Tarefa("Depois da réplica", null)),
+                        req -> req.header("Content-Type", "application/json"));
+                String versao = criada.header("X-Reat-Versao");
+                Assertions.assertNotNull(versao, "A escrita no líder deveria informar X-Reat-Versao.");
+                int idDepois = objectMapper.readValue(criada.body().string(), Tarefa.class).getId();
+
+                HttpResponse<String> lida = ler(replica + "/tarefas/" + idDepois, versao);
+                Assertions.assertEquals(200, lida.statusCode(), "Com a versão mínima, a réplica deveria esperar a escrita chegar.");
+                Assertions.assertEquals("Depois da réplica", objectMapper.readValue(lida.body(), Tarefa.class).getTitulo());
+                Assertions.assertTrue(Long.parseLong(lida.headers().firstValue("X-Reat-Versao").orElseThrow()) >= Long.parseLong(versao));
+                Assertions.assertEquals(200, ler(replica + "/tarefas/" + idAntes, versao).statusCode(), "A tarefa anterior deveria vir na cópia.");
+
+                // Alteração e remoção também são replicadas
+                var alterada = cliente.patch("/tarefas/" + idDepois, "{\"concluida\":true}", req -> req.header("Content-Type", "application/json"));
+                lida = ler(replica + "/tarefas/" + idDepois, alterada.header("X-Reat-Versao"));
+                Assertions.assertTrue(objectMapper.readValue(lida.body(), Tarefa.class).isConcluida());
+                var removida = cliente.delete("/tarefas/" + idAntes);
+                Assertions.assertEquals(404, ler(replica + "/tarefas/" + idAntes, removida.header("X-Reat-Versao")).statusCode());
+
+                // Versão que não chega: 503 depois de esperaMaxMs
+                long futura = Long.parseLong(removida.header("X-Reat-Versao")) + 1000;
+                HttpResponse<String> atrasada = ler(replica + "/tarefas", Long.toString(futura));
+                Assertions.assertEquals(503, atrasada.statusCode());
+                Assertions.assertEquals("1", atrasada.headers().firstValue("Retry-After").orElse(null));
+
+                // Escrita na réplica: redirecionada ao líder
+                HttpResponse<String> escrita = http.send(HttpRequest.newBuilder(URI.create(replica + "/tarefas"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"titulo\":\"x\"}")).build(), HttpResponse.BodyHandlers.ofString());
+                Assertions.assertEquals(307, escrita.statusCode());
+                Assertions.assertEquals(lider + "/tarefas", escrita.headers().firstValue("Location").orElse(null));
+
+                EstadoReplicacao estado = objectMapper.readValue(ler(replica + "/replicacao", null).body(), EstadoReplicacao.class);
+                Assertions.assertEquals(EstadoReplicacao.REPLICA, estado.papel);
+                Assertions.assertTrue(estado.conectada);
+                Assertions.assertEquals(lider, estado.lider);
+                Assertions.assertTrue(estado.versao >= Long.parseLong(removida.header("X-Reat-Versao")));
+
+                EstadoReplicacao estadoLider = objectMapper.readValue(cliente.get("/replicacao").body().string(), EstadoReplicacao.class);
+                Assertions.assertEquals(EstadoReplicacao.LIDER, estadoLider.papel);
+                Assertions.assertFalse(estadoLider.replicas.isEmpty(), "O líder deveria listar a réplica conectada.");
+            } finally {
+                processo.destroy();
+            }
+        });
+    }
+
+    private HttpResponse<String> ler(String url, String versaoMinima) throws IOException, InterruptedException {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(url));
+        if (versaoMinima != null) {
+            requisicao.header("X-Reat-Versao-Minima", versaoMinima);
+        }
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Espera a réplica subir, receber a cópia e alcançar a versão atual do líder. Os testes
+    // anteriores deixam um histórico longo no líder (o repositório de Main é compartilhado):
+    // atrasoVersoes == 0 sozinho não basta enquanto a réplica não souber até onde ir.
+    private void aguardar(String url, String lider) throws IOException, InterruptedException {
+        HttpRequest estado = HttpRequest.newBuilder(URI.create(url + "/replicacao")).build();
+        long versaoLider = objectMapper.readValue(ler(lider + "/replicacao", null).body(), EstadoReplicacao.class).versao;
+        for (int tentativa = 0; tentativa < 600; tentativa++) {
+            try {
+                HttpResponse<String> resposta = http.send(estado, HttpResponse.BodyHandlers.ofString());
+                if (resposta.statusCode() == 200) {
+                    EstadoReplicacao estadoAtual = objectMapper.readValue(resposta.body(), EstadoReplicacao.class);
+                    if (estadoAtual.conectada && estadoAtual.versao > 0 && estadoAtual.versao >= versaoLider) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // a réplica ainda está subindo
+            }
+            Thread.sleep(100);
+        }
+        Assertions.fail("A réplica não subiu a tempo.");
+    }
+}
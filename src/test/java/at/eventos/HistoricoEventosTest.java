@@ -0,0 +1,57 @@
+package at.eventos;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HistoricoEventosTest {
+
+    @Test
+    void ler_DevolvePublicadosESobrescreveOsMaisAntigos() {
+        HistoricoEventos<String> historico = new HistoricoEventos<>(4);
+        Assertions.assertEquals(4, historico.capacidade());
+        Assertions.assertNull(historico.ler(1), "Uma sequência ainda não publicada deveria ser null.");
+
+        for (int i = 1; i <= 4; i++) {
+            Assertions.assertEquals(i, historico.publicar("e" + i));
+        }
+        Assertions.assertEquals(1, historico.primeiraDisponivel());
+        Assertions.assertEquals("e1", historico.ler(1));
+        Assertions.assertEquals("e4", historico.ler(4));
+
+        historico.publicar("e5");
+        historico.publicar("e6");
+        Assertions.assertEquals(3, historico.primeiraDisponivel(), "Os dois mais antigos deveriam ter sido sobrescritos.");
+        Assertions.assertNull(historico.ler(1), "Um evento sobrescrito não deveria ser devolvido no lugar de outro.");
+        Assertions.assertNull(historico.ler(2));
+        Assertions.assertEquals("e5", historico.ler(5));
+        Assertions.assertEquals("e6", historico.ler(6));
+        Assertions.assertEquals(7, historico.proxima());
+    }
+
+    @Test
+    void ler_LeitorConcorrenteNuncaVeEventoDeOutraSequencia() throws InterruptedException {
+        HistoricoEventos<Long> historico = new HistoricoEventos<>(8);
+        long total = 200_000;
+        AtomicReference<String> erro = new AtomicReference<>();
+        Thread leitor = new Thread(() -> {
+            while (historico.proxima() <= total) {
+                long ultima = historico.proxima() - 1;
+                for (long s = historico.primeiraDisponivel(); s <= ultima; s++) {
+                    Long evento = historico.ler(s);
+                    if (evento != null && evento != s) {
+                        erro.set("Sequência " + s + " devolveu o evento " + evento);
+                        return;
+                    }
+                }
+            }
+        });
+        leitor.start();
+        for (long s = 1; s <= total; s++) {
+            historico.publicar(s);
+        }
+        leitor.join();
+        Assertions.assertNull(erro.get());
+    }
+}
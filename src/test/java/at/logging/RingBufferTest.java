@@ -0,0 +1,60 @@
+package at.logging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+public class RingBufferTest {
+
+    @Test
+    void offer_RecusaQuandoCheioSemBloquear() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(buffer.offer(i), "Deveria aceitar até a capacidade.");
+        }
+        Assertions.assertFalse(buffer.offer(99), "Com o buffer cheio, offer deveria retornar false.");
+        Assertions.assertEquals(0, buffer.poll(), "O consumidor deveria receber na ordem de chegada.");
+        Assertions.assertTrue(buffer.offer(4), "Uma posição liberada deveria ser reaproveitada.");
+    }
+
+    @Test
+    void offer_VariosProdutoresUmConsumidorSemPerdas() throws InterruptedException {
+        RingBuffer<Integer> buffer = new RingBuffer<>(1024);
+        int produtores = 4;
+        int porProdutor = 50_000;
+        CountDownLatch inicio = new CountDownLatch(1);
+        Thread[] threads = new Thread[produtores];
+        for (int p = 0; p < produtores; p++) {
+            int base = p * porProdutor;
+            threads[p] = new Thread(() -> {
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porProdutor; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        inicio.countDown();
+        Set<Integer> recebidos = new HashSet<>();
+        while (recebidos.size() < produtores * porProdutor) {
+            Integer item = buffer.poll();
+            if (item != null) {
+                Assertions.assertTrue(recebidos.add(item), "Nenhum item deveria ser entregue duas vezes: " + item);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertNull(buffer.poll(), "Não deveriam sobrar itens.");
+    }
+}
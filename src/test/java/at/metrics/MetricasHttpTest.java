@@ -0,0 +1,34 @@
+package at.metrics;
+
+import at.api.Main;
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MetricasHttpTest {
+
+    @Test
+    void metrics_ExportaContagensELatenciaPorRota() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            cliente.get("/hello");
+            cliente.get("/hello");
+            cliente.get("/tarefas/1");
+            cliente.get("/tarefas/2");
+            cliente.get("/rota-inexistente");
+
+            var resposta = cliente.get("/metrics");
+            Assertions.assertEquals(200, resposta.code(), "GET /metrics deveria retornar 200 OK.");
+            Assertions.assertTrue(resposta.header("Content-Type").startsWith("text/plain"), "O formato deveria ser texto do Prometheus.");
+
+            String corpo = resposta.body().string();
+            Assertions.assertTrue(corpo.contains("reat_http_requisicoes_total{metodo=\"GET\",rota=\"/hello\"} 2"), corpo);
+            Assertions.assertTrue(corpo.contains("reat_http_requisicoes_total{metodo=\"GET\",rota=\"/tarefas/{id}\"} 2"),
+                    "IDs diferentes deveriam ser agregados na mesma rota.\n" + corpo);
+            Assertions.assertTrue(corpo.contains("reat_http_latencia_segundos{metodo=\"GET\",rota=\"/hello\",quantile=\"0.99\"}"), corpo);
+            Assertions.assertTrue(corpo.contains("rota=\"<sem-rota>\""), "Requisições sem rota deveriam ser agrupadas.\n" + corpo);
+            Assertions.assertTrue(corpo.contains("reat_tarefas "), corpo);
+            Assertions.assertTrue(corpo.contains("jvm_heap_bytes{area=\"usado\"}"), corpo);
+            Assertions.assertTrue(corpo.contains("jvm_gc_coletas_total{gc="), corpo);
+        });
+    }
+}
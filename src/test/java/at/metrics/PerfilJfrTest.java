@@ -0,0 +1,67 @@
+package at.metrics;
+
+import at.api.Main;
+import at.models.ResumoPerfil;
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PerfilJfrTest {
+
+    private static final int BYTES_POR_REQUISICAO = 1 << 20;
+
+    @Test
+    void perfil_AtribuiAlocacaoARotaDaRequisicao() {
+        PerfilJfr perfil = new PerfilJfr(new PerfilConfig(10, 1000, 10));
+        perfil.iniciar();
+        Javalin app = Javalin.create();
+        app.before(perfil::antes);
+        app.after(perfil::depois);
+        app.get("/aloca/{n}", ctx -> {
+            byte[] bloco = new byte[BYTES_POR_REQUISICAO];
+            ctx.result(Integer.toString(bloco.length + ctx.pathParam("n").length()));
+        });
+        app.get("/leve", ctx -> ctx.result("ok"));
+
+        JavalinTest.test(app, (servidor, cliente) -> {
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals(200, cliente.get("/aloca/" + i).code());
+                cliente.get("/leve");
+            }
+
+            ResumoPerfil.Rota pesada = aguardarRota(perfil, "/aloca/{n}", 20);
+            ResumoPerfil.Rota leve = aguardarRota(perfil, "/leve", 20);
+            // Com threads virtuais a alocação vem das amostras do JFR, uma estimativa: aceita uma folga
+            Assertions.assertTrue(pesada.bytesAlocados >= 15L * BYTES_POR_REQUISICAO,
+                    "Cada requisição aloca ao menos 1 MiB; alocado: " + pesada.bytesAlocados);
+            Assertions.assertTrue(leve.bytesPorRequisicao < pesada.bytesPorRequisicao / 4,
+                    "A rota leve não deveria receber a alocação da pesada.");
+            Assertions.assertFalse(pesada.alocacoes.isEmpty(), "As amostras de alocação deveriam ser atribuídas à rota.");
+            Assertions.assertEquals("/aloca/{n}", perfil.resumo().rotas.get(0).rota, "As rotas deveriam vir da que mais alocou.");
+
+            perfil.limpar();
+            Assertions.assertTrue(perfil.resumo().rotas.isEmpty(), "limpar() deveria zerar o resumo.");
+        });
+    }
+
+    @Test
+    void perfil_DesligadoResponde404() {
+        JavalinTest.test(Main.buildApp(), (servidor, cliente) -> {
+            Assertions.assertEquals(404, cliente.get("/debug/profile").code(), "Sem -Dreat.perfil=true o resumo não existe.");
+        });
+    }
+
+    // O stream entrega os eventos a cada ~1 s
+    private static ResumoPerfil.Rota aguardarRota(PerfilJfr perfil, String caminho, int requisicoes) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 100; tentativa++) {
+            for (ResumoPerfil.Rota rota : perfil.resumo().rotas) {
+                if (rota.rota.equals(caminho) && rota.requisicoes >= requisicoes) {
+                    return rota;
+                }
+            }
+            Thread.sleep(100);
+        }
+        return Assertions.fail("As requisições de " + caminho + " não chegaram ao perfil a tempo.");
+    }
+}
@@ -0,0 +1,145 @@
+package at.persistence;
+
+import at.models.Tarefa;
+import at.repository.TarefaRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+public class PersistentTarefaRepositoryTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void reabrir_RecuperaTarefasEContadorEmTodasAsPoliticas() throws Exception {
+        for (PoliticaSync politica : PoliticaSync.values()) {
+            reabrir_RecuperaTarefasEContador(diretorio.resolve(politica.name()), politica);
+        }
+    }
+
+    private void reabrir_RecuperaTarefasEContador(Path dir, PoliticaSync politica) throws Exception {
+        PersistenciaConfig config = new PersistenciaConfig(dir, politica, 10, 8, 1, 100_000);
+        long criadaEm;
+        try (PersistentTarefaRepository repositorio = PersistentTarefaRepository.open(config)) {
+            criadaEm = repositorio.save(new Tarefa("Persistir", "sobrevive ao restart")).getCriadaEm();
+            repositorio.saveAll(Arrays.asList(new Tarefa("Lote 1", null), new Tarefa("Lote 2", "ação")));
+        }
+
+        try (PersistentTarefaRepository reaberto = PersistentTarefaRepository.open(config)) {
+            List<Tarefa> todas = reaberto.findAll();
+            Assertions.assertEquals(3, todas.size(), "As três tarefas deveriam ser recuperadas.");
+            Assertions.assertEquals("ação", reaberto.findById(3).orElseThrow().getDescricao(), "O texto UTF-8 deveria ser preservado.");
+            Assertions.assertEquals(criadaEm, reaberto.findById(1).orElseThrow().getCriadaEm(), "A data de criação deveria ser preservada.");
+            Assertions.assertEquals(4, reaberto.save(new Tarefa("Depois", null)).getId(), "O contador de ID deveria continuar de onde parou.");
+        }
+    }
+
+    @Test
+    void snapshot_CompactaLogERecupera() throws Exception {
+        PersistenciaConfig config = new PersistenciaConfig(diretorio, PoliticaSync.POR_ESCRITA, 10, 8, 1, 5);
+        try (PersistentTarefaRepository repositorio = PersistentTarefaRepository.open(config)) {
+            for (int i = 1; i <= 12; i++) {
+                repositorio.save(new Tarefa("Tarefa " + i, null));
+            }
+        }
+
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            List<String> nomes = arquivos.map(p -> p.getFileName().toString()).sorted().toList();
+            Assertions.assertTrue(nomes.stream().anyMatch(n -> n.endsWith(".snap")), "Deveria existir um snapshot: " + nomes);
+            Assertions.assertFalse(nomes.contains("wal-000000000001.log"), "O primeiro segmento deveria ter sido descartado: " + nomes);
+        }
+
+        try (PersistentTarefaRepository reaberto = PersistentTarefaRepository.open(config)) {
+            Assertions.assertEquals(12, reaberto.count(), "Snapshot + log deveriam recuperar todas as tarefas.");
+        }
+    }
+
+    @Test
+    void reabrir_DescartaRegistroIncompletoNoFim() throws Exception {
+        PersistenciaConfig config = PersistenciaConfig.padrao(diretorio);
+        try (PersistentTarefaRepository repositorio = PersistentTarefaRepository.open(config)) {
+            repositorio.save(new Tarefa("Íntegra", null));
+        }
+        // Simula uma queda no meio da gravação de um registro
+        Path segmento = WriteAheadLog.caminhoSegmento(diretorio, 1);
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2}));
+        }
+
+        try (PersistentTarefaRepository reaberto = PersistentTarefaRepository.open(config)) {
+            Assertions.assertEquals(1, reaberto.count(), "Apenas o registro íntegro deveria ser recuperado.");
+            reaberto.save(new Tarefa("Depois da queda", null));
+        }
+        try (PersistentTarefaRepository reaberto = PersistentTarefaRepository.open(config)) {
+            Assertions.assertEquals(2, reaberto.count(), "Escritas após a recuperação deveriam ser legíveis.");
+        }
+    }
+
+    @Test
+    void reabrir_ReaplicaAlteracoesERemocoesComSnapshot() throws Exception {
+        PersistenciaConfig config = new PersistenciaConfig(diretorio, PoliticaSync.POR_ESCRITA, 10, 8, 1, 4);
+        try (PersistentTarefaRepository repositorio = PersistentTarefaRepository.open(config)) {
+            repositorio.saveAll(Arrays.asList(new Tarefa("A", null), new Tarefa("B", null), new Tarefa("C", null)));
+            repositorio.update(1, 1, tarefa -> tarefa.setConcluida(true));
+            repositorio.update(1, TarefaRepository.QUALQUER_VERSAO, tarefa -> tarefa.setTitulo("A2"));
+            repositorio.delete(2, TarefaRepository.QUALQUER_VERSAO);
+            repositorio.update(3, TarefaRepository.QUALQUER_VERSAO, tarefa -> tarefa.setDescricao("depois do snapshot"));
+        }
+
+        try (PersistentTarefaRepository reaberto = PersistentTarefaRepository.open(config)) {
+            Tarefa primeira = reaberto.findById(1).orElseThrow();
+            Assertions.assertEquals("A2", primeira.getTitulo(), "A última alteração deveria prevalecer.");
+            Assertions.assertTrue(primeira.isConcluida(), "Alterações anteriores deveriam ser preservadas.");
+            Assertions.assertEquals(3, primeira.getVersao(), "A versão deveria ser recuperada.");
+            Assertions.assertTrue(reaberto.findById(2).isEmpty(), "A tarefa removida não deveria voltar.");
+            Assertions.assertEquals("depois do snapshot", reaberto.findById(3).orElseThrow().getDescricao());
+            Assertions.assertEquals(4, reaberto.save(new Tarefa("D", null)).getId(), "O contador de ID não deveria reutilizar IDs removidos.");
+        }
+    }
+
+    @Test
+    void reabrir_LeRegistrosDoFormatoAnteriorComDataEmTexto() throws Exception {
+        // Registro TIPO_CRIAR_V1 escrito à mão: a data de criação ainda era texto
+        ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(conteudo);
+        out.writeByte(TarefaCodec.TIPO_CRIAR_V1);
+        out.writeInt(1);
+        out.writeBoolean(true);
+        escreverString(out, "Antiga");
+        out.writeInt(-1);
+        escreverString(out, "2024-01-02T03:04:05.678");
+        byte[] dados = conteudo.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(dados);
+        ByteBuffer registro = ByteBuffer.allocate(8 + dados.length).putInt(dados.length).putInt((int) crc.getValue()).put(dados);
+        Files.write(WriteAheadLog.caminhoSegmento(diretorio, 1), registro.array());
+
+        PersistenciaConfig config = new PersistenciaConfig(diretorio, PoliticaSync.POR_ESCRITA, 10, 8, 1, 100_000);
+        try (PersistentTarefaRepository repositorio = PersistentTarefaRepository.open(config)) {
+            Tarefa antiga = repositorio.findById(1).orElseThrow();
+            Assertions.assertEquals("Antiga", antiga.getTitulo());
+            Assertions.assertTrue(antiga.isConcluida());
+            Assertions.assertEquals("2024-01-02T03:04:05.678", antiga.getDataCriacao(), "A data em texto deveria ser convertida sem perda.");
+        }
+    }
+
+    private static void escreverString(DataOutputStream out, String valor) throws Exception {
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,154 @@
+package at.repository;
+
+import at.models.ItemBusca;
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class ColumnarTarefaRepositoryTest {
+
+    @Test
+    void save_MaterializaCopiasComTextoUtf8ENulos() {
+        ColumnarTarefaRepository repositorio = new ColumnarTarefaRepository();
+        Tarefa salva = repositorio.save(new Tarefa("Saudação 👋", null));
+        repositorio.save(new Tarefa(null, "Só descrição"));
+
+        Tarefa lida = repositorio.findById(salva.getId()).orElseThrow();
+        Assertions.assertEquals(1, lida.getId());
+        Assertions.assertEquals("Saudação 👋", lida.getTitulo());
+        Assertions.assertNull(lida.getDescricao());
+        Assertions.assertEquals(salva.getCriadaEm(), lida.getCriadaEm());
+        Assertions.assertEquals(1, lida.getVersao());
+        Assertions.assertNotSame(lida, repositorio.findById(1).orElseThrow(), "Cada leitura deveria materializar uma cópia nova.");
+        Assertions.assertNull(repositorio.findById(2).orElseThrow().getTitulo());
+        Assertions.assertTrue(repositorio.findById(3).isEmpty());
+        Assertions.assertTrue(repositorio.findById(0).isEmpty());
+        Assertions.assertTrue(repositorio.findById(-5).isEmpty());
+        Assertions.assertEquals(2, repositorio.count());
+        Assertions.assertTrue(repositorio.bytesForaDoHeap() > 0);
+    }
+
+    @Test
+    void operacoes_ConcordamComOArmazenamentoPadrao() {
+        TarefaRepository mapa = new InMemoryTarefaRepository();
+        ColumnarTarefaRepository colunar = new ColumnarTarefaRepository();
+        Random aleatorio = new Random(7);
+        String[] palavras = {"Comprar", "pão", "Pagar", "conta", "Lavar", "carro", "Estudar", "java"};
+        for (int i = 0; i < 2_000; i++) {
+            String titulo = palavras[aleatorio.nextInt(palavras.length)] + " " + palavras[aleatorio.nextInt(palavras.length)] + " " + i;
+            String descricao = i % 7 == 0 ? null : palavras[aleatorio.nextInt(palavras.length)] + " e " + palavras[aleatorio.nextInt(palavras.length)];
+            long criadaEm = 1_000L * aleatorio.nextInt(500);
+            for (TarefaRepository repositorio : List.of(mapa, colunar)) {
+                Tarefa tarefa = new Tarefa(titulo, descricao);
+                tarefa.setCriadaEm(criadaEm);
+                repositorio.save(tarefa);
+            }
+        }
+        for (int i = 0; i < 1_000; i++) {
+            int id = 1 + aleatorio.nextInt(2_000);
+            int operacao = aleatorio.nextInt(4);
+            String palavra = palavras[aleatorio.nextInt(palavras.length)];
+            for (TarefaRepository repositorio : List.of(mapa, colunar)) {
+                switch (operacao) {
+                    case 0 -> repositorio.update(id, TarefaRepository.QUALQUER_VERSAO, t -> t.setConcluida(!t.isConcluida()));
+                    case 1 -> repositorio.update(id, TarefaRepository.QUALQUER_VERSAO, t -> t.setTitulo(palavra));
+                    case 2 -> repositorio.update(id, TarefaRepository.QUALQUER_VERSAO, t -> t.setDescricao(palavra + " " + palavra));
+                    default -> repositorio.delete(id, TarefaRepository.QUALQUER_VERSAO);
+                }
+            }
+        }
+
+        Assertions.assertEquals(mapa.count(), colunar.count());
+        Assertions.assertEquals(textos(mapa.findAll()), textos(colunar.findAll()));
+        Assertions.assertEquals(textos(mapa.findPage(1_000, 25)), textos(colunar.findPage(1_000, 25)));
+        Assertions.assertTrue(colunar.bytesDescartados() > 0, "O texto das versões antigas deveria ser contado como descartado.");
+
+        List<FiltroTarefas> filtros = List.of(
+                FiltroTarefas.todas().comConcluida(true),
+                FiltroTarefas.todas().comTitulo("CONTA"),
+                FiltroTarefas.todas().comTituloPrefixo("lavar c"),
+                FiltroTarefas.todas().comCriadaApos(100_000).comCriadaAntes(120_000),
+                FiltroTarefas.todas().comConcluida(false).comTitulo("java").comCriadaAntes(400_000));
+        for (FiltroTarefas filtro : filtros) {
+            Assertions.assertEquals(textos(mapa.query(filtro, 500)), textos(colunar.query(filtro, 500)), "A varredura das colunas deveria coincidir com os índices.");
+        }
+
+        for (String consulta : List.of("comprar", "pagar conta", "JAVA java", "inexistente", "de")) {
+            PaginaBusca esperada = mapa.search(consulta, Double.POSITIVE_INFINITY, 0, 10);
+            PaginaBusca obtida = colunar.search(consulta, Double.POSITIVE_INFINITY, 0, 10);
+            Assertions.assertEquals(esperada.total, obtida.total, "Total da busca por '" + consulta + "'");
+            Assertions.assertEquals(esperada.resultados.size(), obtida.resultados.size());
+            for (int i = 0; i < esperada.resultados.size(); i++) {
+                ItemBusca item = esperada.resultados.get(i);
+                Assertions.assertEquals(item.tarefa.getId(), obtida.resultados.get(i).tarefa.getId(), "Mesma ordem de relevância para '" + consulta + "'");
+                Assertions.assertEquals(item.pontuacao, obtida.resultados.get(i).pontuacao, 1e-9);
+            }
+            if (!esperada.resultados.isEmpty()) {
+                ItemBusca ultimo = esperada.resultados.get(esperada.resultados.size() - 1);
+                Assertions.assertEquals(
+                        mapa.search(consulta, ultimo.pontuacao, ultimo.tarefa.getId(), 5).resultados.stream().map(r -> r.tarefa.getId()).toList(),
+                        colunar.search(consulta, ultimo.pontuacao, ultimo.tarefa.getId(), 5).resultados.stream().map(r -> r.tarefa.getId()).toList(),
+                        "A página seguinte deveria continuar do mesmo ponto.");
+            }
+        }
+    }
+
+    @Test
+    void update_VerificaVersaoEAvisaOsOuvintes() {
+        ColumnarTarefaRepository repositorio = new ColumnarTarefaRepository();
+        List<String> eventos = new ArrayList<>();
+        repositorio.addListener((id, antiga, nova) -> eventos.add(id + ":" + (antiga == null ? "-" : antiga.getVersao()) + ">" + (nova == null ? "-" : nova.getVersao())));
+        int id = repositorio.save(new Tarefa("Contador", "0")).getId();
+
+        IntStream.range(0, 500).parallel().forEach(i -> repositorio.update(id, TarefaRepository.QUALQUER_VERSAO,
+                tarefa -> tarefa.setDescricao(String.valueOf(Integer.parseInt(tarefa.getDescricao()) + 1))));
+        Tarefa atual = repositorio.findById(id).orElseThrow();
+        Assertions.assertEquals("500", atual.getDescricao(), "Nenhuma alteração concorrente deveria ser perdida.");
+        Assertions.assertEquals(501, atual.getVersao());
+
+        ResultadoEscrita conflito = repositorio.update(id, 3, t -> t.setTitulo("Tarde demais"));
+        Assertions.assertEquals(ResultadoEscrita.Status.CONFLITO, conflito.getStatus());
+        Assertions.assertEquals(501, conflito.getTarefa().getVersao());
+        Assertions.assertEquals(ResultadoEscrita.Status.OK, repositorio.delete(id, 501).getStatus());
+        Assertions.assertEquals(ResultadoEscrita.Status.NAO_ENCONTRADA, repositorio.delete(id, TarefaRepository.QUALQUER_VERSAO).getStatus());
+        Assertions.assertEquals(0, repositorio.count());
+
+        repositorio.clear();
+        Assertions.assertEquals(List.of("1:->1", "1:500>501", "1:501>-", "0:->-"), List.of(eventos.get(0), eventos.get(500), eventos.get(501), eventos.get(502)));
+        Assertions.assertEquals(1, repositorio.save(new Tarefa("Nova", null)).getId(), "O contador de ID deveria recomeçar em 1.");
+    }
+
+    @Test
+    void iterateAfter_PercorrePaginasEsparsasDoCluster() {
+        // Só o bloco 3 de IDs (como um nó do cluster): os IDs começam em 3 << 23
+        ColumnarTarefaRepository repositorio = new ColumnarTarefaRepository(new AlocadorIds(bloco -> bloco == 3));
+        List<Tarefa> lote = new ArrayList<>();
+        for (int i = 0; i < 70_000; i++) {
+            lote.add(new Tarefa("Tarefa " + i, null));
+        }
+        repositorio.saveAll(lote);
+        int primeiro = 3 << AlocadorIds.BITS_BLOCO;
+        Assertions.assertEquals(primeiro, lote.get(0).getId());
+        Assertions.assertEquals(70_000, repositorio.findAll().size());
+
+        // Atravessa a fronteira entre duas páginas de colunas (2^16 IDs)
+        int fronteira = primeiro + 65_536;
+        List<Integer> ids = repositorio.findPage(fronteira - 2, 3).stream().map(Tarefa::getId).toList();
+        Assertions.assertEquals(List.of(fronteira - 1, fronteira, fronteira + 1), ids);
+        Assertions.assertEquals("Tarefa 65536", repositorio.findById(fronteira).orElseThrow().getTitulo());
+        Assertions.assertTrue(repositorio.findPage(primeiro + 70_000, 10).isEmpty());
+        Assertions.assertEquals(List.of(primeiro), repositorio.findPage(0, 1).stream().map(Tarefa::getId).toList());
+    }
+
+    private static List<String> textos(Iterable<Tarefa> tarefas) {
+        List<String> textos = new ArrayList<>();
+        tarefas.forEach(tarefa -> textos.add(tarefa.toString()));
+        return textos;
+    }
+}
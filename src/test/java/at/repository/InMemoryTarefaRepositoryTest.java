@@ -0,0 +1,200 @@
+package at.repository;
+
+import at.models.ItemBusca;
+import at.models.PaginaBusca;
+import at.models.Tarefa;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class InMemoryTarefaRepositoryTest {
+
+    @Test
+    void save_AtribuiIdsSequenciaisEBuscaPorId() {
+        TarefaRepository repositorio = new InMemoryTarefaRepository();
+        Tarefa primeira = repositorio.save(new Tarefa("Primeira", "a"));
+        Tarefa segunda = repositorio.save(new Tarefa("Segunda", "b"));
+
+        Assertions.assertEquals(1, primeira.getId(), "O primeiro ID deveria ser 1.");
+        Assertions.assertEquals(2, segunda.getId(), "O segundo ID deveria ser 2.");
+        Assertions.assertSame(segunda, repositorio.findById(2).orElseThrow(), "A busca por ID deveria retornar a tarefa salva.");
+        Assertions.assertTrue(repositorio.findById(3).isEmpty(), "Um ID inexistente não deveria ser encontrado.");
+    }
+
+    @Test
+    void findAll_RetornaEmOrdemDeIdMesmoComEscritasConcorrentes() {
+        TarefaRepository repositorio = new InMemoryTarefaRepository();
+        IntStream.range(0, 10_000).parallel().forEach(i -> repositorio.save(new Tarefa("Tarefa " + i, null)));
+
+        List<Tarefa> todas = repositorio.findAll();
+        Assertions.assertEquals(10_000, repositorio.count(), "Todas as tarefas deveriam ter sido salvas.");
+        Assertions.assertEquals(10_000, todas.size(), "A listagem deveria conter todas as tarefas.");
+        for (int i = 0; i < todas.size(); i++) {
+            Assertions.assertEquals(i + 1, todas.get(i).getId(), "A listagem deveria estar ordenada por ID.");
+        }
+    }
+
+    @Test
+    void clear_RemoveTarefasEReiniciaContador() {
+        TarefaRepository repositorio = new InMemoryTarefaRepository();
+        repositorio.save(new Tarefa("Temporária", null));
+        repositorio.clear();
+
+        Assertions.assertEquals(0, repositorio.count(), "O repositório deveria estar vazio.");
+        Assertions.assertEquals(1, repositorio.save(new Tarefa("Nova", null)).getId(), "O contador de ID deveria recomeçar em 1.");
+    }
+
+    @Test
+    void update_CompareAndSwapSemPerderAlteracoesConcorrentes() {
+        TarefaRepository repositorio = new InMemoryTarefaRepository();
+        Tarefa original = repositorio.save(new Tarefa("Contador", "0"));
+        int id = original.getId();
+
+        IntStream.range(0, 1_000).parallel().forEach(i -> repositorio.update(id, TarefaRepository.QUALQUER_VERSAO,
+                tarefa -> tarefa.setDescricao(String.valueOf(Integer.parseInt(tarefa.getDescricao()) + 1))));
+
+        Tarefa atual = repositorio.findById(id).orElseThrow();
+        Assertions.assertEquals("1000", atual.getDescricao(), "Nenhuma alteração concorrente deveria ser perdida.");
+        Assertions.assertEquals(1_001, atual.getVersao(), "Cada alteração deveria incrementar a versão.");
+        Assertions.assertEquals("0", original.getDescricao(), "A tarefa publicada antes não deveria ser modificada.");
+
+        ResultadoEscrita conflito = repositorio.delete(id, 1);
+        Assertions.assertEquals(ResultadoEscrita.Status.CONFLITO, conflito.getStatus(), "Uma versão antiga deveria resultar em conflito.");
+        Assertions.assertEquals(ResultadoEscrita.Status.OK, repositorio.delete(id, 1_001).getStatus());
+        Assertions.assertTrue(repositorio.findById(id).isEmpty(), "A tarefa removida não deveria ser encontrada.");
+        Assertions.assertTrue(repositorio.findAll().isEmpty(), "A listagem não deveria conter a tarefa removida.");
+    }
+
+    @Test
+    void query_IndicesConcordamComVarreduraAposAlteracoes() {
+        TarefaRepository repositorio = new InMemoryTarefaRepository();
+        Random aleatorio = new Random(42);
+        String[] palavras = {"Comprar", "pão", "Pagar", "conta", "Lavar", "carro", "Estudar", "java"};
+        for (int i = 0; i < 2_000; i++) {
+            Tarefa tarefa = new Tarefa(palavras[aleatorio.nextInt(palavras.length)] + " " + palavras[aleatorio.nextInt(palavras.length)] + " " + i, null);
+            tarefa.setCriadaEm(1_000L * aleatorio.nextInt(500));
+            repositorio.save(tarefa);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            int id = 1 + aleatorio.nextInt(2_000);
+            switch (aleatorio.nextInt(3)) {
+                case 0 -> repositorio.update(id, TarefaRepository.QUALQUER_VERSAO, t -> t.setConcluida(!t.isConcluida()));
+                case 1 -> repositorio.update(id, TarefaRepository.QUALQUER_VERSAO, t -> t.setTitulo(palavras[aleatorio.nextInt(palavras.length)]));
+                default -> repositorio.delete(id, TarefaRepository.QUALQUER_VERSAO);
+            }
+        }
+
+        List<FiltroTarefas> filtros = List.of(
+                FiltroTarefas.todas().comConcluida(true),
+                FiltroTarefas.todas().comConcluida(false),
+                FiltroTarefas.todas().comTitulo("CONTA"),
+                FiltroTarefas.todas().comTitulo("ão"),
+                FiltroTarefas.todas().comTitulo("inexistente"),
+                FiltroTarefas.todas().comTituloPrefixo("p"),
+                FiltroTarefas.todas().comTituloPrefixo("lavar c"),
+                FiltroTarefas.todas().comCriadaApos(100_000).comCriadaAntes(120_000),
+                FiltroTarefas.todas().comConcluida(true).comTitulo("java").comCriadaAntes(400_000),
+                FiltroTarefas.todas().comConcluida(false).comCriadaApos(499_000));
+        for (FiltroTarefas filtro : filtros) {
+            List<Tarefa> esperado = repositorio.findAll().stream().filter(filtro::aceita).toList();
+            List<Tarefa> obtido = new ArrayList<>();
+            repositorio.query(filtro, 0).forEach(obtido::add);
+            Assertions.assertEquals(esperado, obtido, "A consulta indexada deveria coincidir com a varredura.");
+
+            int meio = esperado.isEmpty() ? 0 : esperado.get(esperado.size() / 2).getId();
+            List<Tarefa> depois = new ArrayList<>();
+            repositorio.query(filtro, meio).forEach(depois::add);
+            Assertions.assertEquals(esperado.stream().filter(t -> t.getId() > meio).toList(), depois, "A consulta deveria respeitar o afterId.");
+        }
+    }
+
+    @Test
+    void query_PaginaIntervalosDeDatasEstreitosEAmplos() {
+        TarefaRepository repositorio = new InMemoryTarefaRepository();
+        for (int i = 0; i < 20_000; i++) {
+            Tarefa tarefa = new Tarefa("Tarefa " + i, null);
+            // Datas fora da ordem dos IDs, como tarefas importadas com dataCriacao
+            tarefa.setCriadaEm(1_000L * ((i * 7_919L) % 1_000));
+            repositorio.save(tarefa);
+        }
+        // Muda a data de uma tarefa para dentro do intervalo estreito
+        repositorio.update(19_999, TarefaRepository.QUALQUER_VERSAO, t -> t.setCriadaEm(10_500));
+
+        List<FiltroTarefas> filtros = List.of(
+                // ~5% das tarefas: lotes dos menores IDs do intervalo
+                FiltroTarefas.todas().comCriadaApos(0).comCriadaAntes(51_000),
+                // ~50%: varredura em ordem de ID conferindo a data
+                FiltroTarefas.todas().comCriadaAntes(500_000),
+                FiltroTarefas.todas().comConcluida(false).comCriadaApos(400_000).comCriadaAntes(420_000));
+        for (FiltroTarefas filtro : filtros) {
+            List<Integer> esperado = repositorio.findAll().stream().filter(filtro::aceita).map(Tarefa::getId).toList();
+            List<Integer> paginado = new ArrayList<>();
+            int afterId = 0;
+            while (true) {
+                List<Integer> pagina = new ArrayList<>();
+                for (Tarefa tarefa : repositorio.query(filtro, afterId)) {
+                    pagina.add(tarefa.getId());
+                    if (pagina.size() == 50) {
+                        break;
+                    }
+                }
+                if (pagina.isEmpty()) {
+                    break;
+                }
+                paginado.addAll(pagina);
+                afterId = pagina.get(pagina.size() - 1);
+            }
+            Assertions.assertFalse(esperado.isEmpty());
+            Assertions.assertEquals(esperado, paginado, "As páginas deveriam cobrir o intervalo em ordem de ID, sem repetir.");
+        }
+    }
+
+    @Test
+    void search_RankeiaPorRelevanciaEAcompanhaAlteracoes() {
+        TarefaRepository repositorio = new InMemoryTarefaRepository();
+        Tarefa saudacao = repositorio.save(new Tarefa("Saudação", "Preparar a saudação de boas-vindas"));
+        Tarefa reuniao = repositorio.save(new Tarefa("Reunião", "Incluir uma saudacao no início"));
+        for (int i = 0; i < 100; i++) {
+            repositorio.save(new Tarefa("Tarefa " + i, i % 2 == 0 ? "Comprar pão" : "Pagar contas"));
+        }
+
+        PaginaBusca resultado = repositorio.search("SAUDACAO", Double.POSITIVE_INFINITY, 0, 10);
+        Assertions.assertEquals(2, resultado.total, "A busca deveria ignorar acentos e maiúsculas.");
+        Assertions.assertEquals(saudacao.getId(), resultado.resultados.get(0).tarefa.getId(), "O termo no título deveria pesar mais.");
+        Assertions.assertEquals(reuniao.getId(), resultado.resultados.get(1).tarefa.getId());
+        Assertions.assertTrue(resultado.resultados.get(0).pontuacao > resultado.resultados.get(1).pontuacao);
+
+        Assertions.assertEquals(0, repositorio.search("saudação pão", Double.POSITIVE_INFINITY, 0, 10).total, "Todos os termos deveriam ser exigidos.");
+        Assertions.assertEquals(0, repositorio.search("de a o", Double.POSITIVE_INFINITY, 0, 10).total, "Palavras vazias não deveriam ser buscadas.");
+
+        // Mais de 32 tarefas por termo: as páginas seguem a ordem da busca sem repetir itens
+        Set<Integer> vistos = new HashSet<>();
+        double pontuacao = Double.POSITIVE_INFINITY;
+        int ultimoId = 0;
+        while (true) {
+            PaginaBusca pagina = repositorio.search("comprar pao", pontuacao, ultimoId, 7);
+            Assertions.assertEquals(50, pagina.total);
+            if (pagina.resultados.isEmpty()) {
+                break;
+            }
+            for (ItemBusca item : pagina.resultados) {
+                Assertions.assertTrue(vistos.add(item.tarefa.getId()), "Uma tarefa não deveria aparecer em duas páginas.");
+            }
+            ItemBusca ultimo = pagina.resultados.get(pagina.resultados.size() - 1);
+            pontuacao = ultimo.pontuacao;
+            ultimoId = ultimo.tarefa.getId();
+        }
+        Assertions.assertEquals(50, vistos.size());
+
+        repositorio.update(reuniao.getId(), TarefaRepository.QUALQUER_VERSAO, t -> t.setDescricao("Sem pauta"));
+        repositorio.delete(saudacao.getId(), TarefaRepository.QUALQUER_VERSAO);
+        Assertions.assertEquals(0, repositorio.search("saudação", Double.POSITIVE_INFINITY, 0, 10).total, "Alterações e remoções deveriam sair do índice.");
+        Assertions.assertEquals(1, repositorio.search("pauta", Double.POSITIVE_INFINITY, 0, 10).total, "O texto novo deveria ser indexado.");
+    }
+}